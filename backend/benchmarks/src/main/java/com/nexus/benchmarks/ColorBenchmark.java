@@ -0,0 +1,43 @@
+package com.nexus.benchmarks;
+
+import com.nexus.utils.ColorUtil;
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ColorBenchmark - Text effects used by panels and headers (ColorUtil)
+ *
+ * @author Nexus Development Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark {
+
+    @Param({"Nexus", "Guilda dos Guerreiros Solares"})
+    public String text;
+
+    @Benchmark
+    public String gradient() {
+        return ColorUtil.gradient(text, ChatColor.GOLD, ChatColor.YELLOW);
+    }
+
+    @Benchmark
+    public String rainbow() {
+        return ColorUtil.rainbow(text);
+    }
+}
@@ -0,0 +1,124 @@
+package com.nexus.benchmarks;
+
+import com.nexus.NexusPlugin;
+import com.nexus.services.DatabaseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * DatabaseBenchmark - Transaction insert throughput on a temporary SQLite file
+ *
+ * Goes through DatabaseService.getConnection(), so pool checkout and the
+ * statement instrumentation are part of the measurement, as in the plugin.
+ * Results are rows per second.
+ *
+ * @author Nexus Development Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final String INSERT_SQL =
+        "INSERT INTO nexus_transactions (from_uuid, to_uuid, amount, type, reason, timestamp) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private Path folder;
+    private DatabaseService database;
+    private String from;
+    private String to;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("nexus-bench");
+        NexusPlugin plugin = BenchmarkPlugin.create(folder.toFile());
+        database = new DatabaseService(plugin);
+        if (!database.connect()) {
+            throw new IllegalStateException("Could not open the benchmark database in " + folder);
+        }
+        from = UUID.randomUUID().toString();
+        to = UUID.randomUUID().toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        database.close();
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * One row per connection checkout, autocommit (one fsync per row)
+     */
+    @Benchmark
+    public int insertSingle() throws SQLException {
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            bind(stmt, System.nanoTime());
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * BATCH_SIZE rows in one batch and one transaction
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            conn.setAutoCommit(false);
+            try {
+                long now = System.nanoTime();
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    bind(stmt, now + i);
+                    stmt.addBatch();
+                }
+                int[] counts = stmt.executeBatch();
+                conn.commit();
+                return counts;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void bind(PreparedStatement stmt, long timestamp) throws SQLException {
+        stmt.setString(1, from);
+        stmt.setString(2, to);
+        stmt.setDouble(3, 10.0);
+        stmt.setString(4, "PLAYER_TO_PLAYER");
+        stmt.setString(5, "benchmark");
+        stmt.setLong(6, timestamp);
+    }
+}
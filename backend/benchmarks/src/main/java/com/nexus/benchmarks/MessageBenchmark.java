@@ -0,0 +1,63 @@
+package com.nexus.benchmarks;
+
+import com.nexus.utils.MessageKey;
+import com.nexus.utils.MessageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageBenchmark - Message rendering and formatting (MessageUtil)
+ *
+ * @author Nexus Development Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark {
+
+    private MessageUtil messages;
+    private Map<String, String> placeholders;
+    private double amount;
+
+    @Setup
+    public void setup() {
+        messages = new MessageUtil(BenchmarkPlugin.create(new File(System.getProperty("java.io.tmpdir"))));
+        placeholders = Map.of("jogador", "Steve", "valor", "1.250,00", "moeda", "moedas");
+        amount = 1250.5;
+    }
+
+    @Benchmark
+    public String getMessageByKey() {
+        return messages.getMessage(MessageKey.ECONOMIA_SALDO_OUTRO, "Steve", "1.250,00", "moedas");
+    }
+
+    @Benchmark
+    public String getMessageByPath() {
+        return messages.getMessage(MessageKey.ECONOMIA_SALDO_OUTRO.getPath(), placeholders);
+    }
+
+    @Benchmark
+    public String formatMoney() {
+        return messages.formatMoney(amount);
+    }
+
+    @Benchmark
+    public String progressBar() {
+        return messages.progressBar(37, 50);
+    }
+}
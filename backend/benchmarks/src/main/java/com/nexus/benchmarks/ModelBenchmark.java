@@ -0,0 +1,94 @@
+package com.nexus.benchmarks;
+
+import com.nexus.models.Guild;
+import com.nexus.models.Objective;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ModelBenchmark - Per-event model operations (Objective, Guild)
+ *
+ * @author Nexus Development Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+    private static final int MEMBERS = 50;
+    private static final int PARTICIPANTS = 50;
+
+    private Guild guild;
+    private UUID firstMember;
+    private UUID lastMember;
+    private UUID outsider;
+
+    private Objective objective;
+    private UUID[] participants;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setupGuild() {
+        guild = new Guild(1, "Guerreiros", "Solar", UUID.randomUUID());
+        guild.setMemberLimit(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            guild.addMember(UUID.randomUUID());
+        }
+        firstMember = guild.getMembers().get(0);
+        lastMember = guild.getMembers().get(guild.getMembers().size() - 1);
+        outsider = UUID.randomUUID();
+
+        participants = new UUID[PARTICIPANTS];
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            participants[i] = UUID.randomUUID();
+        }
+    }
+
+    /**
+     * Fresh objective per iteration so it never completes mid-measurement
+     */
+    @Setup(Level.Iteration)
+    public void setupObjective() {
+        objective = new Objective("Caçada", "Derrote monstros", Objective.Category.PVE,
+            Objective.Difficulty.MEDIO, Integer.MAX_VALUE, 500.0);
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean guildIsMemberFirst() {
+        return guild.isMember(firstMember);
+    }
+
+    @Benchmark
+    public boolean guildIsMemberLast() {
+        return guild.isMember(lastMember);
+    }
+
+    @Benchmark
+    public boolean guildIsMemberMiss() {
+        return guild.isMember(outsider);
+    }
+
+    @Benchmark
+    public int objectiveAddProgress() {
+        UUID participant = participants[next];
+        next = next + 1 == PARTICIPANTS ? 0 : next + 1;
+        objective.addProgress(participant, 1);
+        return objective.getProgress();
+    }
+}
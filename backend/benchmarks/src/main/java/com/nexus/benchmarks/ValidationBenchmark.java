@@ -0,0 +1,64 @@
+package com.nexus.benchmarks;
+
+import com.nexus.utils.ValidationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationBenchmark - Input checks run on every command (ValidationUtil)
+ *
+ * @author Nexus Development Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    public String guildName = "Guerreiros_01";
+    public String playerName = "Steve_2024";
+    public String chat = "&aVendo espada de diamante &lbarata&r, chama no privado!";
+    public String uuid = "123e4567-e89b-12d3-a456-426614174000";
+    public double amount = 1250.5;
+
+    @Benchmark
+    public boolean isValidGuildName() {
+        return ValidationUtil.isValidGuildName(guildName);
+    }
+
+    @Benchmark
+    public boolean isValidPlayerName() {
+        return ValidationUtil.isValidPlayerName(playerName);
+    }
+
+    @Benchmark
+    public boolean isValidMoney() {
+        return ValidationUtil.isValidMoney(amount);
+    }
+
+    @Benchmark
+    public String sanitize() {
+        return ValidationUtil.sanitize(chat);
+    }
+
+    @Benchmark
+    public boolean containsProfanity() {
+        return ValidationUtil.containsProfanity(chat);
+    }
+
+    @Benchmark
+    public boolean isValidUUID() {
+        return ValidationUtil.isValidUUID(uuid);
+    }
+}
@@ -0,0 +1,349 @@
+package com.nexus.benchmarks.load;
+
+import com.nexus.NexusPlugin;
+import com.nexus.benchmarks.BenchmarkPlugin;
+import com.nexus.services.ChangeFeedService;
+import com.nexus.services.DatabaseService;
+import com.nexus.utils.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * ChangeFeedCheck - Two servers on one database, checked for coherence
+ *
+ * Boots two plugin instances ("a" and "b") with their own simulated server
+ * and connection pool against the same database and change feed. Each one
+ * writes change rows for a shared set of player keys at a fixed rate, in
+ * transactions of one to three keys, while recording what its feed
+ * delivers. Afterwards it checks that:
+ * - every key written by one server was delivered to the other after its
+ *   last write (no missed invalidation)
+ * - no server was handed a key only it had written (own rows are skipped)
+ *
+ * and prints feed counters and the delivery lag. Exits with 1 on a failed
+ * check.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.nexus.benchmarks.load.ChangeFeedCheck \
+ *     --keys 200 --rate 500 --duration 20 \
+ *     [--mysql 127.0.0.1:3306/nexus_load --user root --password secret]
+ * </pre>
+ *
+ * Without --mysql both instances share a temporary SQLite file.
+ *
+ * @author Nexus Development Team
+ */
+public final class ChangeFeedCheck {
+
+    private static final long SETTLE_SECONDS = 10;
+
+    private final Options options;
+    private Path folder;
+    private final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Command line options
+     */
+    record Options(int keys, int rate, int durationSeconds, String mysql, String user, String password) {
+
+        static Options parse(String[] args) {
+            int keys = 200;
+            int rate = 500;
+            int duration = 20;
+            String mysql = null;
+            String user = "root";
+            String password = "";
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--keys" -> keys = Integer.parseInt(require(args[i], value));
+                    case "--rate" -> rate = Integer.parseInt(require(args[i], value));
+                    case "--duration" -> duration = Integer.parseInt(require(args[i], value));
+                    case "--mysql" -> mysql = require(args[i], value);
+                    case "--user" -> user = require(args[i], value);
+                    case "--password" -> password = require(args[i], value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+                i++;
+            }
+            if (keys < 1 || rate < 2 || duration < 1) {
+                throw new IllegalArgumentException("keys >= 1, rate >= 2, duration >= 1");
+            }
+            return new Options(keys, rate, duration, mysql, user, password);
+        }
+
+        private static String require(String option, String value) {
+            if (value == null) {
+                throw new IllegalArgumentException(option + " needs a value");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * One plugin instance and what it wrote and received, times in nanos
+     */
+    private static final class Node {
+        final String id;
+        final SimulatedServer server = new SimulatedServer();
+        NexusPlugin plugin;
+        DatabaseService database;
+        ChangeFeedService feed;
+        final Map<String, Long> written = new ConcurrentHashMap<>();
+        final Map<String, Long> delivered = new ConcurrentHashMap<>();
+        final AtomicLong transactions = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+
+        Node(String id) {
+            this.id = id;
+        }
+    }
+
+    ChangeFeedCheck(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ChangeFeedCheck [--keys N] [--rate transactions/s] [--duration s] "
+                + "[--mysql host:port/database --user U --password P]");
+            System.exit(2);
+            return;
+        }
+
+        ChangeFeedCheck check = new ChangeFeedCheck(options);
+        boolean passed;
+        try {
+            check.setUp();
+            check.run();
+            passed = check.report(System.out);
+        } finally {
+            check.tearDown();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    // ========================================
+    // SETUP
+    // ========================================
+
+    void setUp() throws Exception {
+        folder = Files.createTempDirectory("nexus-changefeed");
+        for (String id : new String[] {"a", "b"}) {
+            Node node = new Node(id);
+            node.plugin = BenchmarkPlugin.create(folder.toFile(), config -> {
+                config.set("rede.servidor-id", id);
+                config.set("rede.feed-mudancas.ativo", true);
+                config.set("rede.feed-mudancas.intervalo-ticks", 1);
+                config.set("storage.uuid-binario.migrar", false);
+                if (options.mysql() != null) {
+                    String[] hostAndDatabase = options.mysql().split("/", 2);
+                    String[] hostAndPort = hostAndDatabase[0].split(":", 2);
+                    config.set("storage.tipo", "mysql");
+                    config.set("storage.mysql.host", hostAndPort[0]);
+                    config.set("storage.mysql.porta", hostAndPort.length > 1 ? Integer.parseInt(hostAndPort[1]) : 3306);
+                    config.set("storage.mysql.database", hostAndDatabase.length > 1 ? hostAndDatabase[1] : "nexus");
+                    config.set("storage.mysql.usuario", options.user());
+                    config.set("storage.mysql.senha", options.password());
+                }
+            });
+            when(node.plugin.getServer()).thenReturn(node.server.getServer());
+            when(node.plugin.isEnabled()).thenReturn(true);
+
+            node.database = new DatabaseService(node.plugin);
+            if (!node.database.connect()) {
+                throw new IllegalStateException("Could not open the database for server " + id);
+            }
+            when(node.plugin.getDatabaseService()).thenReturn(node.database);
+
+            node.feed = new ChangeFeedService(node.plugin);
+            node.feed.subscribe(ChangeFeedService.Entity.PLAYER, key -> node.delivered.put(key, System.nanoTime()));
+            node.feed.start();
+            when(node.plugin.getChangeFeedService()).thenReturn(node.feed);
+            nodes.add(node);
+        }
+    }
+
+    // ========================================
+    // LOAD
+    // ========================================
+
+    void run() throws InterruptedException {
+        List<Thread> writers = new ArrayList<>();
+        for (Node node : nodes) {
+            Thread writer = new Thread(() -> write(node), "Nexus-ChangeFeed-Writer-" + node.id);
+            writer.start();
+            writers.add(writer);
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        long settleUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(SETTLE_SECONDS);
+        while (!missed().isEmpty() && System.nanoTime() < settleUntil) {
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Open-loop writer: one transaction per tick of rate / servers
+     */
+    private void write(Node node) {
+        long interval = TimeUnit.SECONDS.toNanos(1) * nodes.size() / options.rate();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        long next = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (next < end) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            next += interval;
+
+            int count = 1 + random.nextInt(3);
+            String[] keys = new String[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = key(random.nextInt(options.keys()));
+            }
+            try (Connection conn = node.database.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    long writtenAt = System.nanoTime();
+                    for (String key : keys) {
+                        node.feed.publish(conn, ChangeFeedService.Entity.PLAYER, key);
+                    }
+                    conn.commit();
+                    for (String key : keys) {
+                        node.written.merge(key, writtenAt, Math::max);
+                    }
+                    node.transactions.incrementAndGet();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                node.errors.incrementAndGet();
+            }
+        }
+    }
+
+    private static String key(int index) {
+        return String.format("00000000-0000-4000-8000-%012d", index);
+    }
+
+    // ========================================
+    // CHECKS
+    // ========================================
+
+    /**
+     * "server: key" for every key written by another server and not
+     * delivered here since its last write
+     */
+    private List<String> missed() {
+        List<String> missed = new ArrayList<>();
+        for (Node node : nodes) {
+            for (Node other : nodes) {
+                if (other == node) {
+                    continue;
+                }
+                for (Map.Entry<String, Long> entry : other.written.entrySet()) {
+                    Long delivered = node.delivered.get(entry.getKey());
+                    if (delivered == null || delivered < entry.getValue()) {
+                        missed.add(node.id + ": " + entry.getKey());
+                    }
+                }
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Keys delivered to a server that only it wrote
+     */
+    private List<String> echoed() {
+        List<String> echoed = new ArrayList<>();
+        for (Node node : nodes) {
+            for (String key : node.delivered.keySet()) {
+                boolean writtenElsewhere = nodes.stream()
+                    .anyMatch(other -> other != node && other.written.containsKey(key));
+                if (!writtenElsewhere) {
+                    echoed.add(node.id + ": " + key);
+                }
+            }
+        }
+        return echoed;
+    }
+
+    // ========================================
+    // REPORT
+    // ========================================
+
+    boolean report(PrintStream out) {
+        out.printf("%nChange feed check: %d servers, %d keys, %d transactions/s for %ds (%s)%n%n",
+            nodes.size(), options.keys(), options.rate(), options.durationSeconds(),
+            options.mysql() != null ? "MySQL " + options.mysql() : "SQLite");
+
+        out.println("server  transactions  errors  published      read  applied  coalesced  late  resets"
+            + "  lag p50  lag p99  lag max");
+        for (Node node : nodes) {
+            ChangeFeedService feed = node.feed;
+            Histogram.Snapshot lag = feed.getLag().snapshot();
+            out.printf("%-6s  %12d  %6d  %9d  %8d  %7d  %9d  %4d  %6d  %5dms  %5dms  %5dms%n",
+                node.id, node.transactions.get(), node.errors.get(), feed.getPublishedCount(), feed.getReadCount(),
+                feed.getAppliedCount(), feed.getCoalescedCount(), feed.getRecoveredGapCount(), feed.getResetCount(),
+                lag.p50(), lag.p99(), lag.max());
+        }
+
+        List<String> missed = missed();
+        List<String> echoed = echoed();
+        out.println();
+        out.println("Missed invalidations: " + missed.size() + sample(missed));
+        out.println("Own changes delivered: " + echoed.size() + sample(echoed));
+        boolean passed = missed.isEmpty() && echoed.isEmpty();
+        out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+
+    private static String sample(List<String> values) {
+        return values.isEmpty() ? "" : " (" + String.join(", ", values.subList(0, Math.min(5, values.size()))) + ")";
+    }
+
+    // ========================================
+    // TEARDOWN
+    // ========================================
+
+    void tearDown() throws IOException, InterruptedException {
+        for (Node node : nodes) {
+            node.feed.shutdown();
+            node.server.shutdown();
+            node.database.close();
+        }
+        if (folder != null) {
+            try (Stream<Path> files = Files.walk(folder)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package com.nexus.benchmarks.load;
+
+import com.nexus.NexusPlugin;
+import com.nexus.benchmarks.BenchmarkPlugin;
+import com.nexus.services.AsyncDatabase;
+import com.nexus.services.AudienceService;
+import com.nexus.services.AuditService;
+import com.nexus.services.DatabaseMetrics;
+import com.nexus.services.DatabaseService;
+import com.nexus.services.DeferredWorkScheduler;
+import com.nexus.services.PersistenceExecutor;
+import com.nexus.services.PlayerNameIndex;
+import com.nexus.services.SessionService;
+import com.nexus.services.ShutdownCoordinator;
+import com.nexus.services.TransactionHistoryService;
+import com.nexus.services.VersionedRows;
+import com.nexus.utils.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * LoadSimulator - Headless load test of the service layer
+ *
+ * Boots the persistence stack the way NexusPlugin.onEnable does (database,
+ * persistence executor, async bridge, audit pipeline, history cache,
+ * deferred work, audiences) against a simulated server, seeds accounts,
+ * guilds, objectives and listings, then drives a fixed mix of player
+ * actions ({@link Workload}) at a fixed arrival rate.
+ *
+ * The load is open-loop: actions are issued on schedule whether or not
+ * earlier ones finished, and latency is measured from the scheduled start
+ * to completion back on the server thread, so a stalled database shows up
+ * as latency instead of as a quietly lower request rate.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.nexus.benchmarks.load.LoadSimulator \
+ *     --players 500 --rate 200 --duration 60 [--warmup 10] \
+ *     [--mysql 127.0.0.1:3306/nexus_load --user root --password secret]
+ * </pre>
+ *
+ * Without --mysql a temporary SQLite file is used. The MySQL database
+ * should be a scratch one: seed data is added to it and left behind.
+ *
+ * @author Nexus Development Team
+ */
+public final class LoadSimulator {
+
+    // Actions in flight beyond this are skipped (and counted) instead of queued
+    private static final int MAX_OUTSTANDING = 50_000;
+    private static final long DRAIN_SECONDS = 30;
+    private static final int SLOW_STATEMENTS_SHOWN = 5;
+    private static final double ONLINE_SHARE = 0.75;
+
+    private final Options options;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private Path folder;
+    private SimulatedServer server;
+    private NexusPlugin plugin;
+    private final AtomicBoolean enabled = new AtomicBoolean();
+    private Workload workload;
+
+    private final Map<Workload.Operation, OperationStats> stats = new EnumMap<>(Workload.Operation.class);
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile boolean recording;
+
+    private final Gauge executorWaiting = new Gauge();
+    private final Gauge poolWaiting = new Gauge();
+    private final Gauge auditQueue = new Gauge();
+    private final Gauge deferredBacklog = new Gauge();
+    private long heapStart;
+    private final AtomicLong heapPeak = new AtomicLong();
+    private long heapEnd;
+    private long elapsedNanos;
+
+    /**
+     * Command line options
+     */
+    record Options(int players, int rate, int durationSeconds, int warmupSeconds,
+                   String mysql, String user, String password) {
+
+        static Options parse(String[] args) {
+            int players = 500;
+            int rate = 200;
+            int duration = 60;
+            int warmup = 10;
+            String mysql = null;
+            String user = "root";
+            String password = "";
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--players" -> players = Integer.parseInt(require(args[i], value));
+                    case "--rate" -> rate = Integer.parseInt(require(args[i], value));
+                    case "--duration" -> duration = Integer.parseInt(require(args[i], value));
+                    case "--warmup" -> warmup = Integer.parseInt(require(args[i], value));
+                    case "--mysql" -> mysql = require(args[i], value);
+                    case "--user" -> user = require(args[i], value);
+                    case "--password" -> password = require(args[i], value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+                i++;
+            }
+            if (players < 2 || rate < 1 || duration < 1 || warmup < 0) {
+                throw new IllegalArgumentException("players >= 2, rate >= 1, duration >= 1, warmup >= 0");
+            }
+            return new Options(players, rate, duration, warmup, mysql, user, password);
+        }
+
+        private static String require(String option, String value) {
+            if (value == null) {
+                throw new IllegalArgumentException(option + " needs a value");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Outcome of one operation kind, latency in microseconds
+     */
+    private static final class OperationStats {
+        final Histogram latency = new Histogram();
+        final AtomicLong errors = new AtomicLong();
+        volatile String lastError;
+    }
+
+    /**
+     * Once-per-second samples of a depth or size
+     */
+    private static final class Gauge {
+        private long samples;
+        private long sum;
+        private long max;
+
+        synchronized void sample(long value) {
+            samples++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        synchronized String describe() {
+            return String.format("%.1f / %d", samples == 0 ? 0.0 : (double) sum / samples, max);
+        }
+    }
+
+    LoadSimulator(Options options) {
+        this.options = options;
+        for (Workload.Operation operation : Workload.Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadSimulator [--players N] [--rate ops/s] [--duration s] [--warmup s] "
+                + "[--mysql host:port/database --user U --password P]");
+            System.exit(2);
+            return;
+        }
+
+        LoadSimulator simulator = new LoadSimulator(options);
+        try {
+            simulator.setUp();
+            simulator.run();
+            simulator.report(System.out);
+        } finally {
+            simulator.tearDown();
+        }
+    }
+
+    // ========================================
+    // SETUP
+    // ========================================
+
+    /**
+     * Same services, same order as NexusPlugin.onEnable
+     */
+    void setUp() throws Exception {
+        folder = Files.createTempDirectory("nexus-load");
+        server = new SimulatedServer();
+        plugin = BenchmarkPlugin.create(folder.toFile(), config -> {
+            // Measure steady state, not the background UUID migration
+            config.set("storage.uuid-binario.migrar", false);
+            if (options.mysql() != null) {
+                String[] hostAndDatabase = options.mysql().split("/", 2);
+                String[] hostAndPort = hostAndDatabase[0].split(":", 2);
+                config.set("storage.tipo", "mysql");
+                config.set("storage.mysql.host", hostAndPort[0]);
+                config.set("storage.mysql.porta", hostAndPort.length > 1 ? Integer.parseInt(hostAndPort[1]) : 3306);
+                config.set("storage.mysql.database", hostAndDatabase.length > 1 ? hostAndDatabase[1] : "nexus");
+                config.set("storage.mysql.usuario", options.user());
+                config.set("storage.mysql.senha", options.password());
+            }
+        });
+        when(plugin.getServer()).thenReturn(server.getServer());
+        when(plugin.isEnabled()).thenAnswer(invocation -> enabled.get());
+        enabled.set(true);
+
+        DatabaseService database = new DatabaseService(plugin);
+        if (!database.connect()) {
+            throw new IllegalStateException("Could not open the database");
+        }
+        when(plugin.getDatabaseService()).thenReturn(database);
+
+        PersistenceExecutor persistenceExecutor = new PersistenceExecutor(plugin);
+        when(plugin.getPersistenceExecutor()).thenReturn(persistenceExecutor);
+        AsyncDatabase asyncDatabase = new AsyncDatabase(plugin, persistenceExecutor);
+        when(plugin.getAsyncDatabase()).thenReturn(asyncDatabase);
+        VersionedRows versionedRows = new VersionedRows(plugin);
+        when(plugin.getVersionedRows()).thenReturn(versionedRows);
+
+        AuditService auditService = new AuditService(plugin);
+        when(plugin.getAuditService()).thenReturn(auditService);
+        auditService.start();
+        TransactionHistoryService historyService = new TransactionHistoryService(plugin);
+        when(plugin.getTransactionHistoryService()).thenReturn(historyService);
+        historyService.start();
+
+        DeferredWorkScheduler deferredWork = new DeferredWorkScheduler(plugin);
+        when(plugin.getDeferredWorkScheduler()).thenReturn(deferredWork);
+        deferredWork.start();
+        AudienceService audienceService = new AudienceService(plugin);
+        when(plugin.getAudienceService()).thenReturn(audienceService);
+        audienceService.start();
+        PlayerNameIndex nameIndex = new PlayerNameIndex(plugin);
+        when(plugin.getPlayerNameIndex()).thenReturn(nameIndex);
+        SessionService sessionService = new SessionService(plugin);
+        when(plugin.getSessionService()).thenReturn(sessionService);
+        sessionService.start();
+
+        ShutdownCoordinator shutdownCoordinator = new ShutdownCoordinator(plugin);
+        shutdownCoordinator.register(persistenceExecutor);
+        shutdownCoordinator.register(auditService);
+        when(plugin.getShutdownCoordinator()).thenReturn(shutdownCoordinator);
+
+        workload = new Workload(plugin, server, options.players());
+        workload.seed();
+        nameIndex.load();
+        database.getThreadGuard().arm();
+    }
+
+    // ========================================
+    // LOAD
+    // ========================================
+
+    void run() throws InterruptedException {
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Nexus-Load-Sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            logIn();
+            if (options.warmupSeconds() > 0) {
+                generate(TimeUnit.SECONDS.toNanos(options.warmupSeconds()));
+                drain();
+            }
+
+            resetMetrics();
+            heapStart = usedHeapAfterGc();
+            heapPeak.set(heapStart);
+            sampler.scheduleAtFixedRate(this::sample, 1, 1, TimeUnit.SECONDS);
+
+            recording = true;
+            long started = System.nanoTime();
+            generate(TimeUnit.SECONDS.toNanos(options.durationSeconds()));
+            elapsedNanos = System.nanoTime() - started;
+            drain();
+            recording = false;
+        } finally {
+            sampler.shutdownNow();
+        }
+        heapEnd = usedHeapAfterGc();
+    }
+
+    /**
+     * Bring the online population up before measuring
+     */
+    private void logIn() throws InterruptedException {
+        int target = (int) (workload.getPlayerCount() * ONLINE_SHARE);
+        for (int i = 0; i < target; i++) {
+            Workload.SimPlayer player = workload.randomPlayer(false);
+            if (player != null) {
+                issue(Workload.Operation.JOIN, player, System.nanoTime());
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Issue actions at the configured rate for a while (open loop)
+     */
+    private void generate(long durationNanos) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled - start >= durationNanos) {
+                return;
+            }
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            Workload.Operation operation = pickOperation();
+            Workload.SimPlayer actor = switch (operation) {
+                case JOIN -> workload.randomPlayer(false);
+                default -> workload.randomPlayer(true);
+            };
+            if (actor == null) {
+                // Nobody in the needed state: log someone in or out instead
+                operation = operation == Workload.Operation.JOIN ? Workload.Operation.QUIT : Workload.Operation.JOIN;
+                actor = workload.randomPlayer(operation == Workload.Operation.QUIT);
+                if (actor == null) {
+                    continue;
+                }
+            }
+            if (outstanding.get() >= MAX_OUTSTANDING) {
+                skipped.incrementAndGet();
+                continue;
+            }
+            issue(operation, actor, scheduled);
+        }
+    }
+
+    private static Workload.Operation pickOperation() {
+        Workload.Operation[] operations = Workload.Operation.values();
+        int total = 0;
+        for (Workload.Operation operation : operations) {
+            total += operation.getWeight();
+        }
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Workload.Operation operation : operations) {
+            roll -= operation.getWeight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Start an action on the server thread and time it to completion
+     */
+    private void issue(Workload.Operation operation, Workload.SimPlayer actor, long scheduled) {
+        outstanding.incrementAndGet();
+        server.execute(() -> {
+            CompletableFuture<?> future;
+            try {
+                future = workload.start(operation, actor);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((result, error) -> {
+                if (recording) {
+                    OperationStats operationStats = stats.get(operation);
+                    operationStats.latency.record((System.nanoTime() - scheduled) / 1000);
+                    if (error != null) {
+                        operationStats.errors.incrementAndGet();
+                        operationStats.lastError = String.valueOf(error.getCause() != null ? error.getCause() : error);
+                    }
+                }
+                outstanding.decrementAndGet();
+            });
+        });
+    }
+
+    /**
+     * Wait for actions in flight to finish
+     */
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_SECONDS);
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void resetMetrics() {
+        for (OperationStats operationStats : stats.values()) {
+            operationStats.latency.reset();
+            operationStats.errors.set(0);
+        }
+        skipped.set(0);
+        plugin.getPersistenceExecutor().resetMetrics();
+        plugin.getDeferredWorkScheduler().resetMetrics();
+        DatabaseMetrics metrics = plugin.getDatabaseService().getMetrics();
+        if (metrics != null) {
+            metrics.reset();
+        }
+    }
+
+    private void sample() {
+        executorWaiting.sample(plugin.getPersistenceExecutor().getWaiting());
+        DatabaseMetrics metrics = plugin.getDatabaseService().getMetrics();
+        if (metrics != null) {
+            poolWaiting.sample(metrics.getPoolState().waiting());
+        }
+        auditQueue.sample(plugin.getAuditService().getQueueSize());
+        deferredBacklog.sample(plugin.getDeferredWorkScheduler().getBacklog());
+        heapPeak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+    }
+
+    private long usedHeapAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // ========================================
+    // REPORT
+    // ========================================
+
+    void report(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        PersistenceExecutor executor = plugin.getPersistenceExecutor();
+
+        out.println();
+        out.printf("Nexus load simulation: %s, %d players (%d online), %d ops/s offered for %ds%n",
+            plugin.getDatabaseService().getStorageType(), options.players(), server.getOnlineCount(),
+            options.rate(), options.durationSeconds());
+        out.printf("Executor: %s, %d database permits%n%n",
+            executor.isVirtual() ? "virtual threads" : "platform threads", executor.getPermits());
+
+        out.printf("%-10s %9s %7s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "errors", "ops/s", "p50", "p99", "p99.9", "max");
+        long totalCount = 0;
+        long totalErrors = 0;
+        Histogram all = new Histogram();
+        for (Map.Entry<Workload.Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            long count = latency.getCount();
+            long errors = entry.getValue().errors.get();
+            totalCount += count;
+            totalErrors += errors;
+            out.printf("%-10s %9d %7d %9.1f %9s %9s %9s %9s%n", entry.getKey().getLabel(), count, errors,
+                count / seconds, millis(latency.percentile(0.50)), millis(latency.percentile(0.99)),
+                millis(latency.percentile(0.999)), millis(latency.snapshot().max()));
+        }
+        out.printf("%-10s %9d %7d %9.1f%n%n", "total", totalCount, totalErrors, totalCount / seconds);
+
+        out.println("Queue depth (mean / max of 1 s samples):");
+        out.println("  executor waiting for a permit: " + executorWaiting.describe());
+        out.println("  threads waiting on the pool:   " + poolWaiting.describe());
+        out.println("  audit buffer:                  " + auditQueue.describe());
+        out.println("  deferred main-thread work:     " + deferredBacklog.describe());
+        out.println();
+
+        out.printf("Heap: %s at start, %s peak, %s at end (%+.1f MB after GC)%n",
+            megabytes(heapStart), megabytes(heapPeak.get()), megabytes(heapEnd), (heapEnd - heapStart) / 1048576.0);
+        out.printf("Skipped (over %d in flight): %d, rejected by executor: %d, audit dropped: %d, "
+                + "server-thread DB calls: %d, failed timer runs: %d%n",
+            MAX_OUTSTANDING, skipped.get(), executor.getRejected(), plugin.getAuditService().getDroppedCount(),
+            plugin.getDatabaseService().getThreadGuard().getViolations(), server.getTimerFailures());
+        VersionedRows versioned = plugin.getVersionedRows();
+        out.printf("Versioned row writes: %d, retries: %d, conflicts: %d, gave up: %d%n",
+            versioned.getWriteCount(), versioned.getRetryCount(), versioned.getConflictCount(),
+            versioned.getExhaustedCount());
+        SessionService sessions = plugin.getSessionService();
+        Histogram.Snapshot prefetch = sessions.getLoadTime().snapshot();
+        out.printf("Login prefetch: %d loaded (p50 %s, p99 %s), %d joined a guild already in memory, "
+                + "%d sessions and %d guilds held at the end%n",
+            sessions.getLoadCount(), millis(prefetch.p50()), millis(prefetch.p99()), sessions.getSharedGuildCount(),
+            sessions.getSessionCount(), sessions.getGuildCount());
+
+        DatabaseMetrics metrics = plugin.getDatabaseService().getMetrics();
+        if (metrics != null) {
+            out.println();
+            out.println("Slowest statements by total time:");
+            List<DatabaseMetrics.StatementStats> statements = new ArrayList<>(metrics.getStatements());
+            for (DatabaseMetrics.StatementStats statement
+                    : statements.subList(0, Math.min(SLOW_STATEMENTS_SHOWN, statements.size()))) {
+                Histogram.Snapshot snapshot = statement.getLatency().snapshot();
+                out.printf("  %-36s %8d x  p50 %s  p99 %s%n", statement.getLabel(), snapshot.count(),
+                    millis(snapshot.p50()), millis(snapshot.p99()));
+            }
+        }
+
+        for (Map.Entry<Workload.Operation, OperationStats> entry : stats.entrySet()) {
+            if (entry.getValue().lastError != null) {
+                out.println("Last " + entry.getKey().getLabel() + " error: " + entry.getValue().lastError);
+            }
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2fms", micros / 1000.0);
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / 1048576.0);
+    }
+
+    // ========================================
+    // TEARDOWN
+    // ========================================
+
+    /**
+     * Same order as NexusPlugin.onDisable, then remove the temporary folder
+     */
+    void tearDown() throws IOException, InterruptedException {
+        if (plugin != null) {
+            DatabaseService database = plugin.getDatabaseService();
+            if (database != null) {
+                database.getThreadGuard().disarm();
+            }
+            enabled.set(false);
+            if (plugin.getShutdownCoordinator() != null) {
+                plugin.getShutdownCoordinator().flush();
+            }
+            if (plugin.getSessionService() != null) {
+                plugin.getSessionService().shutdown();
+            }
+            if (plugin.getAudienceService() != null) {
+                plugin.getAudienceService().shutdown();
+            }
+            if (plugin.getDeferredWorkScheduler() != null) {
+                plugin.getDeferredWorkScheduler().shutdown();
+            }
+            if (plugin.getPersistenceExecutor() != null) {
+                plugin.getPersistenceExecutor().shutdown();
+            }
+            if (plugin.getAuditService() != null) {
+                plugin.getAuditService().shutdown();
+            }
+            if (database != null) {
+                database.close();
+            }
+        }
+        if (server != null) {
+            server.shutdown();
+        }
+        if (folder != null) {
+            try (Stream<Path> files = Files.walk(folder)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+}
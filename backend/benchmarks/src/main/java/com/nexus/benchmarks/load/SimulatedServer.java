@@ -0,0 +1,232 @@
+package com.nexus.benchmarks.load;
+
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * SimulatedServer - Headless stand-in for the Bukkit server and scheduler
+ *
+ * One single-threaded executor plays the server thread: sync tasks and
+ * timers run on it (one tick = 50 ms) and isPrimaryThread() answers for it,
+ * so AsyncDatabase, DeferredWorkScheduler and the MainThreadGuard behave as
+ * they do in game. Async tasks run on a small scheduled pool. Only the
+ * Runnable variants of the scheduler are implemented; anything else the
+ * services have no business calling fails loudly.
+ *
+ * Players are mocks answering for identity and permissions; the online set
+ * is changed on the server thread only, like join and quit events.
+ *
+ * @author Nexus Development Team
+ */
+final class SimulatedServer {
+
+    private static final long TICK_MILLIS = 50;
+    // Same logger as the plugin (BenchmarkPlugin)
+    private static final Logger LOGGER = Logger.getLogger("Nexus-Benchmark");
+
+    private final ScheduledExecutorService mainThread;
+    private final ScheduledExecutorService asyncPool;
+    private final Thread primary;
+
+    private final Server server;
+    private final BukkitScheduler scheduler;
+    private final Map<UUID, Player> online = new ConcurrentHashMap<>();
+    private final AtomicInteger taskIds = new AtomicInteger();
+    private final AtomicInteger timerFailures = new AtomicInteger();
+
+    SimulatedServer() {
+        Thread[] holder = new Thread[1];
+        this.mainThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Server thread");
+            thread.setDaemon(true);
+            holder[0] = thread;
+            return thread;
+        });
+        // Start the thread now so isPrimaryThread() has something to compare with
+        try {
+            mainThread.submit(() -> { }).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        this.primary = holder[0];
+
+        AtomicInteger counter = new AtomicInteger();
+        this.asyncPool = Executors.newScheduledThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "Craft Scheduler Thread - " + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scheduler = mock(BukkitScheduler.class, this::answerScheduler);
+        this.server = mock(Server.class, this::answerServer);
+    }
+
+    // ========================================
+    // SERVER
+    // ========================================
+
+    Server getServer() {
+        return server;
+    }
+
+    /**
+     * Run on the server thread as soon as possible
+     */
+    void execute(Runnable task) {
+        mainThread.execute(task);
+    }
+
+    boolean isPrimaryThread() {
+        return Thread.currentThread() == primary;
+    }
+
+    void setOnline(Player player, boolean isOnline) {
+        if (isOnline) {
+            online.put(player.getUniqueId(), player);
+        } else {
+            online.remove(player.getUniqueId());
+        }
+    }
+
+    int getOnlineCount() {
+        return online.size();
+    }
+
+    /**
+     * Timer runs that threw (the timer kept running, as in Bukkit)
+     */
+    int getTimerFailures() {
+        return timerFailures.get();
+    }
+
+    private Object answerServer(InvocationOnMock invocation) throws Throwable {
+        switch (invocation.getMethod().getName()) {
+            case "isPrimaryThread":
+                return isPrimaryThread();
+            case "getScheduler":
+                return scheduler;
+            case "getOnlinePlayers":
+                return Collections.unmodifiableCollection(online.values());
+            case "getPlayer":
+                Object key = invocation.getArgument(0);
+                return key instanceof UUID uuid ? online.get(uuid) : null;
+            default:
+                return Mockito.RETURNS_DEFAULTS.answer(invocation);
+        }
+    }
+
+    /**
+     * Player mock with a fixed identity; staff players hold every permission
+     */
+    static Player player(UUID uuid, String name, boolean staff) {
+        return mock(Player.class, invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                case "getDisplayName":
+                    return name;
+                case "hasPermission":
+                case "isOp":
+                    return staff;
+                case "isOnline":
+                    return true;
+                default:
+                    return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+        });
+    }
+
+    // ========================================
+    // SCHEDULER
+    // ========================================
+
+    private Object answerScheduler(InvocationOnMock invocation) {
+        String name = invocation.getMethod().getName();
+        Object[] args = invocation.getArguments();
+        if (args.length < 2 || !(args[1] instanceof Runnable task)) {
+            throw new UnsupportedOperationException("BukkitScheduler." + name + " is not simulated");
+        }
+
+        boolean sync = !name.endsWith("Asynchronously");
+        ScheduledExecutorService target = sync ? mainThread : asyncPool;
+        switch (name) {
+            case "runTask":
+            case "runTaskAsynchronously":
+                return task(target.submit(task), sync);
+            case "runTaskLater":
+            case "runTaskLaterAsynchronously":
+                return task(target.schedule(task, ticks(args[2]), TimeUnit.MILLISECONDS), sync);
+            case "runTaskTimer":
+            case "runTaskTimerAsynchronously":
+                // Bukkit keeps a timer scheduled when one run throws; an executor would cancel it
+                Runnable guarded = () -> {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        timerFailures.incrementAndGet();
+                        LOGGER.log(Level.WARNING, "Timer task threw; it stays scheduled", e);
+                    }
+                };
+                return task(target.scheduleAtFixedRate(guarded, Math.max(ticks(args[2]), 1),
+                    Math.max(ticks(args[3]), TICK_MILLIS), TimeUnit.MILLISECONDS), sync);
+            default:
+                throw new UnsupportedOperationException("BukkitScheduler." + name + " is not simulated");
+        }
+    }
+
+    private static long ticks(Object value) {
+        return ((Long) value) * TICK_MILLIS;
+    }
+
+    private BukkitTask task(Future<?> future, boolean sync) {
+        int id = taskIds.incrementAndGet();
+        return mock(BukkitTask.class, invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "cancel":
+                    future.cancel(false);
+                    return null;
+                case "isCancelled":
+                    return future.isCancelled();
+                case "getTaskId":
+                    return id;
+                case "isSync":
+                    return sync;
+                default:
+                    return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+        });
+    }
+
+    // ========================================
+    // LIFECYCLE
+    // ========================================
+
+    /**
+     * Stop both threads, letting the current tick finish
+     */
+    void shutdown() throws InterruptedException {
+        mainThread.shutdownNow();
+        asyncPool.shutdownNow();
+        mainThread.awaitTermination(5, TimeUnit.SECONDS);
+        asyncPool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
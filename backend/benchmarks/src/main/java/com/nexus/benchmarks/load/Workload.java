@@ -0,0 +1,527 @@
+package com.nexus.benchmarks.load;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.AuditEvent;
+import com.nexus.models.Transaction;
+import com.nexus.services.DeferredWorkScheduler;
+import com.nexus.services.SessionService;
+import com.nexus.services.VersionedRows;
+import org.bukkit.entity.Player;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Workload - The simulated player actions and the data they run against
+ *
+ * The guild, economy, objective, siege and market services are not part of
+ * the plugin yet, so each action issues the statements those features
+ * need against their tables, through the same path a command would take:
+ * it starts on the server thread, does its database work through
+ * AsyncDatabase (PersistenceExecutor permits, pooled and instrumented
+ * connections), audits through AuditService and finishes on the server
+ * thread. Services that exist (audience, history cache, deferred work) are
+ * called for real.
+ *
+ * All actions are written for both SQLite and MySQL.
+ *
+ * @author Nexus Development Team
+ */
+final class Workload {
+
+    /**
+     * One kind of simulated action; weights set the operation mix
+     */
+    enum Operation {
+        JOIN("join", 10),
+        QUIT("quit", 10),
+        PAY("pagar", 25),
+        GUILD_JOIN("guilda", 5),
+        OBJECTIVE("objetivo", 25),
+        SIEGE("cerco", 15),
+        MARKET_BUY("mercado", 10);
+
+        private final String label;
+        private final int weight;
+
+        Operation(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        String getLabel() { return label; }
+        int getWeight() { return weight; }
+    }
+
+    /**
+     * A simulated account; online is changed on the server thread only
+     */
+    static final class SimPlayer {
+        final UUID uuid;
+        final Player player;
+        volatile boolean online;
+
+        SimPlayer(UUID uuid, Player player) {
+            this.uuid = uuid;
+            this.player = player;
+        }
+    }
+
+    private static final double STARTING_BALANCE = 100000.0;
+    private static final int PLAYERS_PER_GUILD = 20;
+    private static final int OBJECTIVES = 8;
+    private static final int LISTINGS_PER_PLAYER = 2;
+    private static final double HEART_HEALTH = 10000.0;
+
+    private final NexusPlugin plugin;
+    private final SimulatedServer server;
+    private final SimPlayer[] players;
+    private final int[] guildIds;
+    private final int[] objectiveIds = new int[OBJECTIVES];
+    private long firstListingId;
+    private long seededListings;
+
+    Workload(NexusPlugin plugin, SimulatedServer server, int playerCount) {
+        this.plugin = plugin;
+        this.server = server;
+        this.players = new SimPlayer[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            UUID uuid = UUID.randomUUID();
+            // One staff member in fifty, so staff broadcasts have an audience
+            players[i] = new SimPlayer(uuid, SimulatedServer.player(uuid, "sim" + i, i % 50 == 0));
+        }
+        this.guildIds = new int[Math.max(1, playerCount / PLAYERS_PER_GUILD)];
+    }
+
+    // ========================================
+    // SEED DATA
+    // ========================================
+
+    /**
+     * Accounts, guilds with hearts, active objectives and market listings
+     */
+    void seed() throws SQLException {
+        long now = System.currentTimeMillis();
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO nexus_players (uuid, name, team, balance, created_at) VALUES (?, ?, ?, ?, ?)")) {
+                    for (int i = 0; i < players.length; i++) {
+                        stmt.setString(1, players[i].uuid.toString());
+                        stmt.setString(2, "sim" + i);
+                        stmt.setString(3, i % 2 == 0 ? "SOLAR" : "LUNAR");
+                        stmt.setDouble(4, STARTING_BALANCE);
+                        stmt.setLong(5, now);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                String prefix = "sim" + Long.toString(now, 36) + "-";
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO nexus_guilds (name, team, leader_uuid, created_at) VALUES (?, ?, ?, ?)")) {
+                    for (int g = 0; g < guildIds.length; g++) {
+                        stmt.setString(1, prefix + g);
+                        stmt.setString(2, g % 2 == 0 ? "SOLAR" : "LUNAR");
+                        stmt.setString(3, players[g].uuid.toString());
+                        stmt.setLong(4, now);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                readIds(conn, "SELECT id FROM nexus_guilds WHERE name LIKE ?", prefix + "%", guildIds);
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO nexus_hearts (guild_id, health, max_health, created_at) VALUES (?, ?, ?, ?)")) {
+                    for (int guildId : guildIds) {
+                        stmt.setInt(1, guildId);
+                        stmt.setDouble(2, HEART_HEALTH);
+                        stmt.setDouble(3, HEART_HEALTH);
+                        stmt.setLong(4, now);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO nexus_objectives (name, category, difficulty, reward, goal, created_at) " +
+                        "VALUES (?, 'COLETA', 'MEDIO', 500, ?, ?)")) {
+                    for (int o = 0; o < objectiveIds.length; o++) {
+                        stmt.setString(1, prefix + o);
+                        stmt.setInt(2, Integer.MAX_VALUE);
+                        stmt.setLong(3, now);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                readIds(conn, "SELECT id FROM nexus_objectives WHERE name LIKE ?", prefix + "%", objectiveIds);
+
+                try (PreparedStatement stmt = conn.prepareStatement(LIST_SQL)) {
+                    for (SimPlayer seller : players) {
+                        for (int l = 0; l < LISTINGS_PER_PLAYER; l++) {
+                            bindListing(stmt, seller.uuid, now);
+                            stmt.addBatch();
+                        }
+                    }
+                    stmt.executeBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT MIN(id), COUNT(*) FROM nexus_market_listings WHERE listed_at = ?")) {
+                    stmt.setLong(1, now);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        firstListingId = rs.getLong(1);
+                        seededListings = rs.getLong(2);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Ids of the rows just seeded (auto-increment keys are not read back:
+     * the SQLite driver does not return them)
+     */
+    private static void readIds(Connection conn, String sql, String pattern, int[] into) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, pattern);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int i = 0;
+                while (rs.next() && i < into.length) {
+                    into[i++] = rs.getInt(1);
+                }
+                if (i < into.length) {
+                    throw new SQLException("Seeded " + into.length + " rows but found " + i);
+                }
+            }
+        }
+    }
+
+    // ========================================
+    // PLAYER SELECTION
+    // ========================================
+
+    int getPlayerCount() {
+        return players.length;
+    }
+
+    SimPlayer randomPlayer() {
+        return players[ThreadLocalRandom.current().nextInt(players.length)];
+    }
+
+    /**
+     * A random player in the wanted state, or null after a few misses
+     */
+    SimPlayer randomPlayer(boolean online) {
+        for (int attempt = 0; attempt < 16; attempt++) {
+            SimPlayer candidate = randomPlayer();
+            if (candidate.online == online) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // ========================================
+    // OPERATIONS (started on the server thread)
+    // ========================================
+
+    /**
+     * Start an operation; the future completes on the server thread
+     */
+    CompletableFuture<?> start(Operation operation, SimPlayer actor) {
+        return switch (operation) {
+            case JOIN -> join(actor);
+            case QUIT -> quit(actor);
+            case PAY -> pay(actor);
+            case GUILD_JOIN -> joinGuild(actor);
+            case OBJECTIVE -> progressObjective(actor);
+            case SIEGE -> damageHeart(actor);
+            case MARKET_BUY -> buyListing(actor);
+        };
+    }
+
+    private CompletableFuture<?> join(SimPlayer actor) {
+        actor.online = true;
+        server.setOnline(actor.player, true);
+        plugin.getAudienceService().onJoin(actor.player);
+        plugin.getAuditService().log(actor.uuid, AuditEvent.EventType.PLAYER_JOIN, "simulação", "127.0.0.1");
+
+        // Pre-login prefetch (one joined query), then the last login stamp
+        SessionService sessions = plugin.getSessionService();
+        return plugin.getAsyncDatabase().call(Operation.JOIN.label, () -> {
+            SessionService.Session session = sessions.load(actor.uuid, actor.player.getName());
+            sessions.markJoined(actor.uuid);
+            try (Connection conn = plugin.getDatabaseService().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE nexus_players SET last_login = ? WHERE uuid = ?")) {
+                stmt.setLong(1, System.currentTimeMillis());
+                stmt.setString(2, actor.uuid.toString());
+                stmt.executeUpdate();
+            }
+            return session.getPlayer();
+        }).thenAccept(profile -> {
+            if (!actor.online) {
+                return;
+            }
+            plugin.getAudienceService().setTeam(actor.uuid, profile.getTeam());
+            plugin.getAudienceService().setGuild(actor.uuid, profile.getGuildId());
+        });
+    }
+
+    private CompletableFuture<?> quit(SimPlayer actor) {
+        actor.online = false;
+        plugin.getAudienceService().onQuit(actor.player);
+        plugin.getTransactionHistoryService().onQuit(actor.uuid);
+        plugin.getSessionService().onQuit(actor.uuid);
+        server.setOnline(actor.player, false);
+        plugin.getAuditService().log(actor.uuid, AuditEvent.EventType.PLAYER_QUIT, "simulação");
+
+        return plugin.getAsyncDatabase().run(Operation.QUIT.label, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE nexus_players SET last_login = ? WHERE uuid = ?")) {
+                stmt.setLong(1, System.currentTimeMillis());
+                stmt.setString(2, actor.uuid.toString());
+                stmt.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * /pagar: debit, credit and ledger row in one transaction
+     */
+    private CompletableFuture<?> pay(SimPlayer actor) {
+        SimPlayer target = randomPlayer();
+        double amount = 1 + ThreadLocalRandom.current().nextInt(100);
+
+        return plugin.getAsyncDatabase().supply(Operation.PAY.label, conn ->
+            transfer(conn, actor.uuid, target.uuid, amount, Transaction.Type.PLAYER_TO_PLAYER, "/pagar")
+        ).thenAccept(transaction -> {
+            if (transaction == null) {
+                return;
+            }
+            plugin.getTransactionHistoryService().invalidate(transaction);
+            plugin.getAuditService().log(actor.uuid, AuditEvent.EventType.MONEY_TRANSFER,
+                String.format("%.2f para %s", amount, target.uuid));
+        });
+    }
+
+    private CompletableFuture<?> joinGuild(SimPlayer actor) {
+        int guildId = guildIds[ThreadLocalRandom.current().nextInt(guildIds.length)];
+
+        return plugin.getAsyncDatabase().run(Operation.GUILD_JOIN.label, conn -> inTransaction(conn, () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "DELETE FROM nexus_guild_members WHERE player_uuid = ?")) {
+                stmt.setString(1, actor.uuid.toString());
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO nexus_guild_members (guild_id, player_uuid, role, joined_at) VALUES (?, ?, 'MEMBER', ?)")) {
+                stmt.setInt(1, guildId);
+                stmt.setString(2, actor.uuid.toString());
+                stmt.setLong(3, System.currentTimeMillis());
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE nexus_players SET guild_id = ? WHERE uuid = ?")) {
+                stmt.setInt(1, guildId);
+                stmt.setString(2, actor.uuid.toString());
+                stmt.executeUpdate();
+            }
+            return null;
+        })).thenRun(() -> {
+            plugin.getAudienceService().setGuild(actor.uuid, guildId);
+            plugin.getAuditService().log(actor.uuid, AuditEvent.EventType.GUILD_JOIN, "guilda " + guildId);
+        });
+    }
+
+    /**
+     * One unit of contribution; the panel refresh is deferred and coalesced
+     * per objective, as the objective service would do
+     */
+    private CompletableFuture<?> progressObjective(SimPlayer actor) {
+        int objectiveId = objectiveIds[ThreadLocalRandom.current().nextInt(objectiveIds.length)];
+
+        return plugin.getAsyncDatabase().supply(Operation.OBJECTIVE.label, conn -> inTransaction(conn, () -> {
+            try (PreparedStatement update = conn.prepareStatement(
+                    "UPDATE nexus_objective_participants SET contribution = contribution + 1 " +
+                    "WHERE objective_id = ? AND player_uuid = ?")) {
+                update.setInt(1, objectiveId);
+                update.setString(2, actor.uuid.toString());
+                if (update.executeUpdate() == 0) {
+                    try (PreparedStatement insert = conn.prepareStatement(
+                            "INSERT INTO nexus_objective_participants (objective_id, player_uuid, contribution) " +
+                            "VALUES (?, ?, 1)")) {
+                        insert.setInt(1, objectiveId);
+                        insert.setString(2, actor.uuid.toString());
+                        insert.executeUpdate();
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE nexus_objectives SET progress = progress + 1 WHERE id = ?")) {
+                stmt.setInt(1, objectiveId);
+                stmt.executeUpdate();
+            }
+            return objectiveId;
+        })).thenAccept(id -> plugin.getDeferredWorkScheduler().submitUnique(
+            DeferredWorkScheduler.Priority.NORMAL, "objective:" + id,
+            () -> plugin.getAudienceService().send(plugin.getAudienceService().staff(), "Objetivo #" + id + " avançou")));
+    }
+
+    /**
+     * Heart damage; a destroyed heart is rebuilt at full health
+     */
+    private CompletableFuture<?> damageHeart(SimPlayer actor) {
+        int guildId = guildIds[ThreadLocalRandom.current().nextInt(guildIds.length)];
+        double damage = 10 + ThreadLocalRandom.current().nextInt(90);
+
+        return plugin.getAsyncDatabase().supply(Operation.SIEGE.label, conn -> inTransaction(conn, () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE nexus_hearts SET health = CASE WHEN health > ? THEN health - ? ELSE 0 END " +
+                    "WHERE guild_id = ?")) {
+                stmt.setDouble(1, damage);
+                stmt.setDouble(2, damage);
+                stmt.setInt(3, guildId);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT health FROM nexus_hearts WHERE guild_id = ?")) {
+                stmt.setInt(1, guildId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next() || rs.getDouble(1) > 0) {
+                        return false;
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE nexus_hearts SET health = max_health, last_destroyed = ? WHERE guild_id = ?")) {
+                stmt.setLong(1, System.currentTimeMillis());
+                stmt.setInt(2, guildId);
+                stmt.executeUpdate();
+            }
+            return true;
+        })).thenAccept(destroyed -> plugin.getAuditService().log(actor.uuid,
+            destroyed ? AuditEvent.EventType.NEXUS_DESTROY : AuditEvent.EventType.NEXUS_DAMAGE,
+            String.format("guilda %d, %.0f de dano", guildId, damage)));
+    }
+
+    /**
+     * Buy a random unsold listing; the seller relists so supply stays level.
+     * Two buyers racing for one listing is settled by the sold flag.
+     */
+    private CompletableFuture<?> buyListing(SimPlayer actor) {
+        return plugin.getAsyncDatabase().supply(Operation.MARKET_BUY.label, conn -> inTransaction(conn, () -> {
+            long listingId;
+            UUID seller;
+            double price;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT id, seller_uuid, price FROM nexus_market_listings " +
+                    "WHERE sold = ? AND id >= ? ORDER BY id LIMIT 1")) {
+                stmt.setBoolean(1, false);
+                stmt.setLong(2, firstListingId + ThreadLocalRandom.current().nextLong(seededListings));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    listingId = rs.getLong(1);
+                    seller = UUID.fromString(rs.getString(2));
+                    price = rs.getDouble(3);
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE nexus_market_listings SET sold = ? WHERE id = ? AND sold = ?")) {
+                stmt.setBoolean(1, true);
+                stmt.setLong(2, listingId);
+                stmt.setBoolean(3, false);
+                if (stmt.executeUpdate() == 0) {
+                    return null;
+                }
+            }
+            Transaction transaction = transfer(conn, actor.uuid, seller, price,
+                Transaction.Type.MARKET_PURCHASE, "anúncio " + listingId);
+            if (transaction == null) {
+                conn.rollback();
+                return null;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(LIST_SQL)) {
+                bindListing(stmt, seller, System.currentTimeMillis());
+                stmt.executeUpdate();
+            }
+            return transaction;
+        })).thenAccept(transaction -> {
+            if (transaction == null) {
+                return;
+            }
+            plugin.getTransactionHistoryService().invalidate(transaction);
+            plugin.getAuditService().log(actor.uuid, AuditEvent.EventType.MARKET_BUY,
+                String.format("%.2f de %s", transaction.getAmount(), transaction.getToUUID()));
+        });
+    }
+
+    // ========================================
+    // SQL HELPERS
+    // ========================================
+
+    private static final String LIST_SQL =
+        "INSERT INTO nexus_market_listings (seller_uuid, item_data, price, listed_at, expires_at, sold) " +
+        "VALUES (?, 'DIAMOND:16', ?, ?, ?, ?)";
+
+    private static void bindListing(PreparedStatement stmt, UUID seller, long now) throws SQLException {
+        stmt.setString(1, seller.toString());
+        stmt.setDouble(2, 10 + ThreadLocalRandom.current().nextInt(500));
+        stmt.setLong(3, now);
+        stmt.setLong(4, now + 86_400_000L);
+        stmt.setBoolean(5, false);
+    }
+
+    /**
+     * Move money between players and record it; null (nothing written) when
+     * the payer cannot afford it. Joins the caller's transaction if one is
+     * open; otherwise a concurrent write to either balance reruns it.
+     */
+    private Transaction transfer(Connection conn, UUID from, UUID to, double amount,
+                                 Transaction.Type type, String reason) throws SQLException {
+        VersionedRows versioned = plugin.getVersionedRows();
+        BigDecimal value = BigDecimal.valueOf(amount);
+        return inTransaction(conn, () -> {
+            if (versioned.addDelta(conn, VersionedRows.Table.PLAYERS, from, "balance", value.negate(),
+                    BigDecimal.ZERO) == null) {
+                return null;
+            }
+            versioned.addDelta(conn, VersionedRows.Table.PLAYERS, to, "balance", value, null);
+            Transaction transaction = new Transaction(from, to, amount, type, reason);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO nexus_transactions (from_uuid, to_uuid, amount, type, reason, timestamp) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)")) {
+                stmt.setString(1, from.toString());
+                stmt.setString(2, to.toString());
+                stmt.setDouble(3, amount);
+                stmt.setString(4, type.name());
+                stmt.setString(5, reason);
+                stmt.setLong(6, transaction.getTimestamp());
+                stmt.executeUpdate();
+            }
+            return transaction;
+        });
+    }
+
+    /**
+     * Run work in a transaction, or as part of the caller's if one is open
+     */
+    private <T> T inTransaction(Connection conn, VersionedRows.SqlWork<T> work) throws SQLException {
+        return plugin.getVersionedRows().transaction(conn, work);
+    }
+}
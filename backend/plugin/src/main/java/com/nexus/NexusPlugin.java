@@ -1,13 +1,44 @@
 package com.nexus;
 
+import com.nexus.commands.AuditCommand;
+import com.nexus.commands.HistoryCommand;
+import com.nexus.commands.NexusDebugCommand;
+import com.nexus.commands.TransactionAdminCommand;
+import com.nexus.listeners.AudienceListener;
+import com.nexus.listeners.SessionListener;
+import com.nexus.listeners.TransactionHistoryListener;
+import com.nexus.services.AsyncDatabase;
+import com.nexus.services.AudienceService;
+import com.nexus.services.AuditQueryService;
+import com.nexus.services.AuditService;
+import com.nexus.services.ChangeFeedService;
 import com.nexus.services.DatabaseService;
+import com.nexus.services.DeferredWorkScheduler;
+import com.nexus.services.ExportService;
+import com.nexus.services.LedgerService;
+import com.nexus.services.MetricsService;
+import com.nexus.services.PersistenceExecutor;
+import com.nexus.services.PlayerNameIndex;
+import com.nexus.services.ServiceLifecycle;
+import com.nexus.services.SessionService;
+import com.nexus.services.ShutdownCoordinator;
+import com.nexus.services.TransactionHistoryService;
+import com.nexus.services.UuidMigrationService;
+import com.nexus.services.VersionedRows;
 import com.nexus.utils.ConfigManager;
+import com.nexus.utils.ConfigSnapshot;
 import com.nexus.utils.MessageUtil;
+import com.nexus.utils.ProfanityFilter;
+import com.nexus.utils.ValidationUtil;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
+import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
 import java.util.logging.Level;
 
 /**
@@ -37,6 +68,23 @@ public class NexusPlugin extends JavaPlugin {
     // SERVICE LAYER (Only DatabaseService implemented for now)
     // ========================================
     private DatabaseService databaseService;
+    private PersistenceExecutor persistenceExecutor;
+    private AsyncDatabase asyncDatabase;
+    private VersionedRows versionedRows;
+    private DeferredWorkScheduler deferredWorkScheduler;
+    private AudienceService audienceService;
+    private AuditService auditService;
+    private AuditQueryService auditQueryService;
+    private ExportService exportService;
+    private LedgerService ledgerService;
+    private TransactionHistoryService transactionHistoryService;
+    private UuidMigrationService uuidMigrationService;
+    private ChangeFeedService changeFeedService;
+    private SessionService sessionService;
+    private PlayerNameIndex playerNameIndex;
+    private MetricsService metricsService;
+    private ServiceLifecycle lifecycle;
+    private ShutdownCoordinator shutdownCoordinator;
     
     // TODO: Implement remaining services
     // private EconomyService economyService;
@@ -48,9 +96,13 @@ public class NexusPlugin extends JavaPlugin {
     // private PanelService panelService;
     // private VIPService vipService;
     // private TransactionService transactionService;
-    // private AuditService auditService;
     // private MarketService marketService;
     
+    // ========================================
+    // COMMANDS WITH PER-PLAYER STATE
+    // ========================================
+    private HistoryCommand historyCommand;
+    
     // ========================================
     // UTILITIES
     // ========================================
@@ -74,44 +126,57 @@ public class NexusPlugin extends JavaPlugin {
         getLogger().info("Nexus Plugin - Initializing...");
         getLogger().info("========================================");
         
-        // Phase 1: Configuration & Utilities
-        if (!initializeConfiguration()) {
-            getLogger().severe("Failed to initialize configuration! Disabling plugin...");
-            Bukkit.getPluginManager().disablePlugin(this);
-            return;
-        }
-        
-        // Phase 2: External Dependencies (Vault)
-        if (!setupVault()) {
-            getLogger().warning("Vault not found! Economy features will be limited.");
-        }
-        
-        // Phase 3: Database & Core Services
-        if (!initializeCoreServices()) {
-            getLogger().severe("Failed to initialize core services! Disabling plugin...");
+        lifecycle = new ServiceLifecycle(this);
+        registerServices();
+        if (!lifecycle.start()) {
+            getLogger().severe("Failed to initialize services! Disabling plugin...");
             Bukkit.getPluginManager().disablePlugin(this);
             return;
         }
         
-        // TODO: Phase 4: Feature Services (not yet implemented)
-        // initializeFeatureServices();
-        
-        // TODO: Phase 5: Commands (not yet implemented)
-        // registerCommands();
-        
-        // TODO: Phase 6: Event Listeners (not yet implemented)
-        // registerListeners();
-        
-        // TODO: Phase 7: Scheduled Tasks (not yet implemented)
+        // TODO: Scheduled Tasks (not yet implemented)
         // startScheduledTasks();
         
+        // Startup may block; from here on the server thread must not
+        databaseService.getThreadGuard().arm();
+        
         long loadTime = System.currentTimeMillis() - startTime;
         getLogger().info("========================================");
         getLogger().info(String.format("Nexus Plugin - Enabled (took %dms)", loadTime));
-        getLogger().info("NOTE: Core infrastructure loaded. Services/Commands not yet implemented.");
         getLogger().info("========================================");
     }
     
+    /**
+     * Declare every service with what it needs; the lifecycle starts
+     * independent ones in parallel and stops them in reverse order
+     */
+    private void registerServices() {
+        // Phase 1: Configuration & Utilities
+        lifecycle.register("config", ServiceLifecycle.Mode.MAIN, this::initializeConfiguration)
+            .onStop(() -> configManager.shutdown());
+        
+        // Phase 2: External Dependencies (Vault)
+        lifecycle.register("vault", ServiceLifecycle.Mode.MAIN, () -> {
+            if (!setupVault()) {
+                getLogger().warning("Vault not found! Economy features will be limited.");
+            }
+        }).optional();
+        
+        // Phase 3: Database & Core Services
+        registerCoreServices();
+        
+        // Phase 4: Feature Services (only broadcast audiences so far)
+        registerFeatureServices();
+        
+        // Phase 5: Commands (only administrative commands so far)
+        lifecycle.register("commands", ServiceLifecycle.Mode.MAIN, this::registerCommands,
+            "audit", "export", "history", "ledger", "uuid-migration", "persistence", "changefeed", "names", "metrics");
+        
+        // Phase 6: Event Listeners
+        lifecycle.register("listeners", ServiceLifecycle.Mode.MAIN, this::registerListeners,
+            "audience", "history", "sessions", "commands");
+    }
+    
     // ========================================
     // LIFECYCLE: DISABLE
     // ========================================
@@ -121,11 +186,21 @@ public class NexusPlugin extends JavaPlugin {
         getLogger().info("Nexus Plugin - Shutting down...");
         getLogger().info("========================================");
         
-        // TODO: Save all pending data when services are implemented
-        
-        // Close database connections
+        // Shutdown flushes synchronously on the server thread by design
         if (databaseService != null) {
-            databaseService.close();
+            databaseService.getThreadGuard().disarm();
+        }
+        
+        // Write pending data within the shutdown budget; the rest is saved
+        // for recovery on the next start
+        if (shutdownCoordinator != null) {
+            shutdownCoordinator.flush();
+        }
+        
+        // Dependents stop first: metrics and audiences, then executors and
+        // the audit flush, the database last
+        if (lifecycle != null) {
+            lifecycle.shutdown();
         }
         
         getLogger().info("Nexus Plugin - Disabled successfully.");
@@ -134,20 +209,42 @@ public class NexusPlugin extends JavaPlugin {
     // ========================================
     // INITIALIZATION: CONFIGURATION
     // ========================================
-    private boolean initializeConfiguration() {
+    private void initializeConfiguration() {
+        // Save default config if not exists
+        saveDefaultConfig();
+        
+        // Initialize config manager
+        configManager = new ConfigManager(this);
+        messageUtil = new MessageUtil(this);
+        configManager.updateWatcher();
+        loadProfanityFilter();
+        
+        getLogger().info("✓ Configuration loaded successfully.");
+    }
+    
+    /**
+     * Compile the word filter from the configured word list
+     * (also called after a successful config reload)
+     */
+    public void loadProfanityFilter() {
+        ConfigSnapshot.FilterConfig filterConfig = configManager.getSnapshot().filter();
+        if (!filterConfig.enabled()) {
+            ValidationUtil.setProfanityFilter(ProfanityFilter.EMPTY);
+            return;
+        }
+        
+        File wordFile = new File(getDataFolder(), filterConfig.wordFile());
+        if (!wordFile.exists() && filterConfig.wordFile().equals("palavras-bloqueadas.txt")) {
+            saveResource("palavras-bloqueadas.txt", false);
+        }
+        
         try {
-            // Save default config if not exists
-            saveDefaultConfig();
-            
-            // Initialize config manager
-            configManager = new ConfigManager(this);
-            messageUtil = new MessageUtil(this);
-            
-            getLogger().info("✓ Configuration loaded successfully.");
-            return true;
-        } catch (Exception e) {
-            getLogger().log(Level.SEVERE, "Failed to load configuration!", e);
-            return false;
+            ProfanityFilter filter = ProfanityFilter.load(wordFile, filterConfig.extraWords());
+            ValidationUtil.setProfanityFilter(filter);
+            getLogger().info(String.format("✓ Word filter loaded (%d terms, %d states).",
+                filter.getWordCount(), filter.getStateCount()));
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Failed to load word filter; keeping the previous one.", e);
         }
     }
     
@@ -173,28 +270,165 @@ public class NexusPlugin extends JavaPlugin {
     // ========================================
     // INITIALIZATION: CORE SERVICES
     // ========================================
-    private boolean initializeCoreServices() {
-        try {
-            // Database (must be first)
+    private void registerCoreServices() {
+        // Database (must be first)
+        lifecycle.register("database", ServiceLifecycle.Mode.PARALLEL, () -> {
             getLogger().info("Initializing DatabaseService...");
             databaseService = new DatabaseService(this);
             if (!databaseService.connect()) {
-                getLogger().severe("Failed to connect to database!");
-                return false;
+                throw new IllegalStateException("Failed to connect to database!");
             }
             getLogger().info("✓ DatabaseService initialized.");
-            
-            // TODO: Initialize remaining services
-            // - EconomyService (depends on Vault + Database)
-            // - TransactionService (depends on Database)
-            // - AuditService (depends on Database)
-            // See IMPLEMENTATION_STATUS.md for implementation order
-            
-            return true;
-        } catch (Exception e) {
-            getLogger().log(Level.SEVERE, "Failed to initialize core services!", e);
-            return false;
+        }, "config").onStop(() -> databaseService.close());
+        
+        lifecycle.register("persistence", ServiceLifecycle.Mode.PARALLEL, () -> {
+            persistenceExecutor = new PersistenceExecutor(this);
+            asyncDatabase = new AsyncDatabase(this, persistenceExecutor);
+            versionedRows = new VersionedRows(this);
+        }, "database").onStop(() -> persistenceExecutor.shutdown());
+        
+        // Audit pipeline (depends on Database); flushes buffered events
+        // before the pool closes
+        lifecycle.register("audit", ServiceLifecycle.Mode.PARALLEL, () -> {
+            auditService = new AuditService(this);
+            auditService.start();
+            auditQueryService = new AuditQueryService(this, auditService);
+        }, "database").onStop(() -> auditService.shutdown());
+        // Index upgrades and the MySQL partition conversion rewrite whole tables
+        lifecycle.register("audit-maintenance", ServiceLifecycle.Mode.WARMUP,
+            () -> auditService.getStorage().warmUp(), "audit");
+        
+        lifecycle.register("export", ServiceLifecycle.Mode.PARALLEL, () -> exportService = new ExportService(this),
+            "database").onStop(() -> exportService.shutdown());
+        
+        // Ledger checkpoints and reconciliation (depends on Database)
+        lifecycle.register("ledger", ServiceLifecycle.Mode.PARALLEL, () -> {
+            ledgerService = new LedgerService(this);
+            ledgerService.start();
+        }, "database").onStop(() -> ledgerService.shutdown());
+        
+        // Seek indexes on older databases are added after enable; pages
+        // fall back to a slower plan until then
+        lifecycle.register("history", ServiceLifecycle.Mode.PARALLEL,
+            () -> transactionHistoryService = new TransactionHistoryService(this), "database");
+        lifecycle.register("history-indexes", ServiceLifecycle.Mode.WARMUP,
+            () -> transactionHistoryService.start(), "history");
+        
+        // Online UUID storage migration (after the audit storage knows its tables)
+        lifecycle.register("uuid-migration", ServiceLifecycle.Mode.PARALLEL, () -> {
+            uuidMigrationService = new UuidMigrationService(this);
+            uuidMigrationService.start();
+        }, "audit").onStop(() -> uuidMigrationService.shutdown());
+        
+        // Cross-server cache invalidation (shared MySQL database)
+        lifecycle.register("changefeed", ServiceLifecycle.Mode.PARALLEL, () -> {
+            changeFeedService = new ChangeFeedService(this);
+            changeFeedService.subscribe(ChangeFeedService.Entity.PLAYER,
+                key -> transactionHistoryService.invalidate(UUID.fromString(key)));
+            changeFeedService.onReset(transactionHistoryService::clearCache);
+            changeFeedService.start();
+        }, "history").onStop(() -> changeFeedService.shutdown());
+        
+        // Drain order on shutdown: queued work first, it may still log audit events
+        lifecycle.register("shutdown-flush", ServiceLifecycle.Mode.MAIN, () -> {
+            shutdownCoordinator = new ShutdownCoordinator(this);
+            shutdownCoordinator.register(persistenceExecutor);
+            shutdownCoordinator.register(auditService);
+        }, "persistence", "audit");
+        lifecycle.register("recovery", ServiceLifecycle.Mode.WARMUP,
+            () -> shutdownCoordinator.recover(), "shutdown-flush");
+        
+        // TODO: Initialize remaining services
+        // - EconomyService (depends on Vault + Database)
+        // - TransactionService (depends on Database)
+        // See IMPLEMENTATION_STATUS.md for implementation order
+    }
+    
+    // ========================================
+    // INITIALIZATION: FEATURE SERVICES
+    // ========================================
+    private void registerFeatureServices() {
+        lifecycle.register("deferred-work", ServiceLifecycle.Mode.MAIN, () -> {
+            deferredWorkScheduler = new DeferredWorkScheduler(this);
+            deferredWorkScheduler.start();
+        }, "config").onStop(() -> deferredWorkScheduler.shutdown());
+        
+        // Touches online players, so it stays on the server thread
+        lifecycle.register("audience", ServiceLifecycle.Mode.MAIN, () -> {
+            audienceService = new AudienceService(this);
+            audienceService.start();
+            getLogger().info("✓ AudienceService initialized.");
+        }, "deferred-work").onStop(() -> audienceService.shutdown());
+        
+        // Name lookups for commands; logins update it before the stored names are read
+        lifecycle.register("names", ServiceLifecycle.Mode.PARALLEL,
+            () -> playerNameIndex = new PlayerNameIndex(this), "database");
+        lifecycle.register("names-seed", ServiceLifecycle.Mode.WARMUP, () -> playerNameIndex.load(), "names");
+        
+        // Player and shared guild state, loaded at pre-login and kept current by the feed
+        lifecycle.register("sessions", ServiceLifecycle.Mode.MAIN, () -> {
+            sessionService = new SessionService(this);
+            changeFeedService.subscribe(ChangeFeedService.Entity.PLAYER, sessionService::onPlayerChanged);
+            changeFeedService.subscribe(ChangeFeedService.Entity.GUILD, sessionService::onGuildChanged);
+            changeFeedService.onReset(sessionService::onReset);
+            sessionService.start();
+        }, "persistence", "changefeed", "names").onStop(() -> sessionService.shutdown());
+        
+        // Registers what the services above measure, so it starts last
+        lifecycle.register("metrics", ServiceLifecycle.Mode.MAIN, () -> {
+            metricsService = new MetricsService(this);
+            metricsService.start();
+        }, "audit", "persistence", "deferred-work", "history", "changefeed", "names", "sessions")
+            .onStop(() -> metricsService.shutdown());
+        
+        // TODO: Initialize gameplay services (Team, Guild, Nexus, Shield, ...)
+    }
+    
+    // ========================================
+    // REGISTRATION: COMMANDS
+    // ========================================
+    private void registerCommands() {
+        NexusDebugCommand debugCommand = new NexusDebugCommand(this);
+        PluginCommand command = getCommand("nexusdebug");
+        if (command != null) {
+            command.setExecutor(debugCommand);
+            command.setTabCompleter(debugCommand);
         }
+        
+        AuditCommand auditCommand = new AuditCommand(this);
+        command = getCommand("auditoria");
+        if (command != null) {
+            command.setExecutor(auditCommand);
+            command.setTabCompleter(auditCommand);
+        }
+        
+        historyCommand = new HistoryCommand(this);
+        command = getCommand("historico");
+        if (command != null) {
+            command.setExecutor(historyCommand);
+            command.setTabCompleter(historyCommand);
+        }
+        
+        TransactionAdminCommand transactionCommand = new TransactionAdminCommand(this);
+        command = getCommand("transacoes");
+        if (command != null) {
+            command.setExecutor(transactionCommand);
+            command.setTabCompleter(transactionCommand);
+        }
+        
+        // TODO: Register gameplay commands when their services exist
+    }
+    
+    // ========================================
+    // REGISTRATION: LISTENERS
+    // ========================================
+    private void registerListeners() {
+        getServer().getPluginManager().registerEvents(new AudienceListener(audienceService), this);
+        getServer().getPluginManager().registerEvents(new SessionListener(sessionService, messageUtil), this);
+        getServer().getPluginManager().registerEvents(
+            new TransactionHistoryListener(transactionHistoryService, historyCommand), this);
+        
+        // TODO: Register gameplay listeners when their services exist
     }
     
     // ========================================
@@ -208,6 +442,22 @@ public class NexusPlugin extends JavaPlugin {
     // SERVICE ACCESSORS
     // ========================================
     public DatabaseService getDatabaseService() { return databaseService; }
+    public PersistenceExecutor getPersistenceExecutor() { return persistenceExecutor; }
+    public AsyncDatabase getAsyncDatabase() { return asyncDatabase; }
+    public VersionedRows getVersionedRows() { return versionedRows; }
+    public DeferredWorkScheduler getDeferredWorkScheduler() { return deferredWorkScheduler; }
+    public AudienceService getAudienceService() { return audienceService; }
+    public AuditService getAuditService() { return auditService; }
+    public AuditQueryService getAuditQueryService() { return auditQueryService; }
+    public ExportService getExportService() { return exportService; }
+    public LedgerService getLedgerService() { return ledgerService; }
+    public TransactionHistoryService getTransactionHistoryService() { return transactionHistoryService; }
+    public UuidMigrationService getUuidMigrationService() { return uuidMigrationService; }
+    public ChangeFeedService getChangeFeedService() { return changeFeedService; }
+    public SessionService getSessionService() { return sessionService; }
+    public PlayerNameIndex getPlayerNameIndex() { return playerNameIndex; }
+    public MetricsService getMetricsService() { return metricsService; }
+    public ShutdownCoordinator getShutdownCoordinator() { return shutdownCoordinator; }
     
     // TODO: Implement getters for remaining services when they are created
     // public EconomyService getEconomyService() { return economyService; }
@@ -0,0 +1,305 @@
+package com.nexus.commands;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.AuditEvent;
+import com.nexus.services.AudienceService;
+import com.nexus.services.AuditQueryService;
+import com.nexus.services.ExportJob;
+import com.nexus.services.PlayerNameIndex;
+import com.nexus.utils.MessageUtil;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * AuditCommand - /auditoria <listar|query|mais|export>
+ *
+ * Staff lookups over the audit log:
+ * - /auditoria listar [horas]                         recent events of everyone
+ * - /auditoria query <jogador> [horas] [TIPO,TIPO...]  events of one player
+ * - /auditoria mais                                   next page of the last lookup
+ * - /auditoria export ...                             see {@link ExportCommandSupport}
+ *
+ * Lookups inside the in-memory window are answered immediately; anything
+ * older runs asynchronously and replies on the main thread.
+ *
+ * @author Nexus Development Team
+ */
+public class AuditCommand implements CommandExecutor, TabCompleter {
+
+    private static final List<String> SUBCOMMANDS = Arrays.asList("listar", "query", "mais", "export");
+    private static final int PAGE_SIZE = 10;
+    private static final int DEFAULT_HOURS = 24;
+    private static final int MAX_NAME_COMPLETIONS = 20;
+
+    private final NexusPlugin plugin;
+
+    // Last lookup per sender, for /auditoria mais
+    private final Map<String, Lookup> lookups = new ConcurrentHashMap<>();
+
+    private record Lookup(AuditQueryService.Filter filter, AuditQueryService.Cursor cursor) {}
+
+    public AuditCommand(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        MessageUtil messages = plugin.getMessageUtil();
+
+        if (!sender.hasPermission(AudienceService.STAFF_PERMISSION)) {
+            messages.noPermission(sender);
+            return true;
+        }
+
+        if (plugin.getAuditQueryService() == null) {
+            messages.error(sender, "Auditoria indisponível.");
+            return true;
+        }
+
+        if (args.length == 0) {
+            messages.info(sender, "Uso: /" + label + " <listar|query|mais|export>");
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "listar":
+                startLookup(sender, null, args.length > 1 ? args[1] : null, null);
+                return true;
+            case "query":
+                if (args.length < 2) {
+                    messages.error(sender, "Uso: /" + label + " query <jogador> [horas] [TIPO,TIPO...]");
+                    return true;
+                }
+                startLookup(sender, args[1], args.length > 2 ? args[2] : null, args.length > 3 ? args[3] : null);
+                return true;
+            case "mais":
+                Lookup lookup = lookups.get(sender.getName());
+                if (lookup == null || lookup.cursor() == null) {
+                    messages.error(sender, "Nenhuma consulta com mais resultados.");
+                    return true;
+                }
+                runPage(sender, lookup.filter(), lookup.cursor());
+                return true;
+            case "export":
+                ExportCommandSupport.handle(plugin, sender, ExportJob.Source.AUDIT, label, args);
+                return true;
+            default:
+                messages.error(sender, "Subcomando desconhecido: " + args[0]);
+                return true;
+        }
+    }
+
+    // ========================================
+    // LOOKUPS
+    // ========================================
+
+    private void startLookup(CommandSender sender, String playerName, String hoursArg, String typesArg) {
+        MessageUtil messages = plugin.getMessageUtil();
+
+        int hours = DEFAULT_HOURS;
+        if (hoursArg != null) {
+            try {
+                hours = Integer.parseInt(hoursArg);
+            } catch (NumberFormatException e) {
+                messages.error(sender, "Horas inválidas: " + hoursArg);
+                return;
+            }
+        }
+
+        Set<AuditEvent.EventType> types = EnumSet.noneOf(AuditEvent.EventType.class);
+        if (typesArg != null) {
+            for (String name : typesArg.split(",")) {
+                try {
+                    types.add(AuditEvent.EventType.valueOf(name.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    messages.error(sender, "Tipo de evento desconhecido: " + name);
+                    return;
+                }
+            }
+        }
+
+        long to = System.currentTimeMillis() + 1;
+        long from = to - TimeUnit.HOURS.toMillis(Math.max(1, hours));
+
+        if (playerName == null) {
+            runPage(sender, new AuditQueryService.Filter(null, types, from, to), null);
+            return;
+        }
+
+        Player online = plugin.getServer().getPlayerExact(playerName);
+        if (online != null) {
+            runPage(sender, new AuditQueryService.Filter(online.getUniqueId(), types, from, to), null);
+            return;
+        }
+
+        UUID known = lookupPlayer(plugin, playerName);
+        if (known != null) {
+            runPage(sender, new AuditQueryService.Filter(known, types, from, to), null);
+            return;
+        }
+        PlayerNameIndex names = plugin.getPlayerNameIndex();
+        if (names != null && names.isLoaded()) {
+            messages.error(sender, "Jogador não encontrado: " + playerName);
+            return;
+        }
+
+        // Name index still loading: resolve the name off the main thread
+        plugin.getAsyncDatabase().call("jogador-offline", () -> resolvePlayer(plugin, playerName)).whenComplete((uuid, error) -> {
+            if (error != null) {
+                failed(sender, error);
+            } else if (uuid == null) {
+                messages.error(sender, "Jogador não encontrado: " + playerName);
+            } else {
+                runPage(sender, new AuditQueryService.Filter(uuid, types, from, to), null);
+            }
+        });
+    }
+
+    private void runPage(CommandSender sender, AuditQueryService.Filter filter, AuditQueryService.Cursor cursor) {
+        AuditQueryService queries = plugin.getAuditQueryService();
+
+        if (cursor != null ? cursor.memory() : queries.isInMemory(filter)) {
+            // Hot window: no database access
+            try {
+                showPage(sender, filter, queries.query(filter, cursor, PAGE_SIZE));
+            } catch (SQLException e) {
+                failed(sender, e);
+            }
+            return;
+        }
+
+        plugin.getAsyncDatabase().call("auditoria", () -> queries.query(filter, cursor, PAGE_SIZE)).whenComplete((page, error) -> {
+            if (error != null) {
+                failed(sender, error);
+            } else {
+                showPage(sender, filter, page);
+            }
+        });
+    }
+
+    private void showPage(CommandSender sender, AuditQueryService.Filter filter, AuditQueryService.Page page) {
+        MessageUtil messages = plugin.getMessageUtil();
+        lookups.put(sender.getName(), new Lookup(filter, page.next()));
+
+        if (page.events().isEmpty()) {
+            messages.info(sender, "Nenhum evento encontrado.");
+            return;
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat("dd/MM HH:mm:ss");
+        for (AuditEvent event : page.events()) {
+            messages.sendRaw(sender, String.format("&7[%s] &e%s &f%s &7%s",
+                format.format(new Date(event.getTimestamp())), event.getEventType().name(),
+                playerLabel(event.getPlayerUUID()), event.getDetails() != null ? event.getDetails() : ""));
+        }
+        if (page.hasMore()) {
+            messages.info(sender, "Use &e/auditoria mais&7 para a próxima página.");
+        }
+    }
+
+    private void failed(CommandSender sender, Throwable e) {
+        plugin.getLogger().log(Level.WARNING, "Audit lookup failed!", e);
+        plugin.getMessageUtil().error(sender, "Falha na consulta. Veja o console.");
+    }
+
+    private String playerLabel(UUID uuid) {
+        if (uuid == null) {
+            return "-";
+        }
+        Player player = plugin.getServer().getPlayer(uuid);
+        return player != null ? player.getName() : uuid.toString().substring(0, 8);
+    }
+
+    /**
+     * Name or UUID to UUID from memory (any thread); null if unknown
+     */
+    static UUID lookupPlayer(NexusPlugin plugin, String nameOrUuid) {
+        try {
+            return UUID.fromString(nameOrUuid);
+        } catch (IllegalArgumentException ignored) {
+            // Not a UUID
+        }
+        PlayerNameIndex names = plugin.getPlayerNameIndex();
+        return names != null ? names.resolve(nameOrUuid) : null;
+    }
+
+    /**
+     * Name or UUID to UUID, using the players table for offline names only
+     * while the name index is still loading (blocking)
+     */
+    static UUID resolvePlayer(NexusPlugin plugin, String nameOrUuid) {
+        UUID known = lookupPlayer(plugin, nameOrUuid);
+        PlayerNameIndex names = plugin.getPlayerNameIndex();
+        if (known != null || (names != null && names.isLoaded())) {
+            return known;
+        }
+
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT uuid FROM nexus_players WHERE LOWER(name) = LOWER(?)")) {
+            stmt.setString(1, nameOrUuid);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? UUID.fromString(rs.getString(1)) : null;
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to resolve player " + nameOrUuid, e);
+            return null;
+        }
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            for (String sub : SUBCOMMANDS) {
+                if (sub.startsWith(args[0].toLowerCase())) {
+                    completions.add(sub);
+                }
+            }
+        } else if (args[0].equalsIgnoreCase("export")) {
+            return ExportCommandSupport.complete(args);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("query")) {
+            PlayerNameIndex names = plugin.getPlayerNameIndex();
+            if (names != null) {
+                return names.complete(args[1], MAX_NAME_COMPLETIONS);
+            }
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                if (player.getName().toLowerCase().startsWith(args[1].toLowerCase())) {
+                    completions.add(player.getName());
+                }
+            }
+        } else if (args.length == 4 && args[0].equalsIgnoreCase("query")) {
+            // Complete the last entry of a comma-separated type list
+            String typed = args[3];
+            int comma = typed.lastIndexOf(',');
+            String prefix = typed.substring(0, comma + 1);
+            String partial = typed.substring(comma + 1).toUpperCase();
+            for (AuditEvent.EventType type : AuditEvent.EventType.values()) {
+                if (type.name().startsWith(partial)) {
+                    completions.add(prefix + type.name());
+                }
+            }
+        }
+        return completions;
+    }
+}
@@ -0,0 +1,205 @@
+package com.nexus.commands;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.AuditEvent;
+import com.nexus.models.Transaction;
+import com.nexus.services.ExportJob;
+import com.nexus.services.ExportService;
+import com.nexus.utils.MessageUtil;
+import org.bukkit.command.CommandSender;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * ExportCommandSupport - Shared "export" subcommand of /auditoria and /transacoes
+ *
+ * - export <ndjson|csv> [dias] [jogador|*] [TIPO,TIPO...]   start an export
+ * - export status                                        progress of the running export
+ * - export cancelar                                      stop it (resumable)
+ * - export retomar                                       resume the last unfinished export
+ *
+ * Progress is reported to the sender at each checkpoint.
+ *
+ * @author Nexus Development Team
+ */
+final class ExportCommandSupport {
+
+    private static final List<String> ACTIONS = Arrays.asList("ndjson", "csv", "status", "cancelar", "retomar");
+    private static final int DEFAULT_DAYS = 30;
+
+    private ExportCommandSupport() {
+    }
+
+    static void handle(NexusPlugin plugin, CommandSender sender, ExportJob.Source source, String label, String[] args) {
+        MessageUtil messages = plugin.getMessageUtil();
+        ExportService exports = plugin.getExportService();
+
+        if (args.length < 2) {
+            messages.info(sender, "Uso: /" + label + " export <ndjson|csv> [dias] [jogador|*] [TIPO,TIPO...]");
+            messages.info(sender, "     /" + label + " export <status|cancelar|retomar>");
+            return;
+        }
+
+        switch (args[1].toLowerCase()) {
+            case "status":
+                showStatus(plugin, sender, exports.getCurrent());
+                if (exports.getIncompleteCount() > 0 && !exports.isRunning()) {
+                    messages.info(sender, "Exportações incompletas: &e" + exports.getIncompleteCount()
+                        + "&7 (use &eretomar&7)");
+                }
+                return;
+            case "cancelar":
+                if (exports.cancel()) {
+                    messages.success(sender, "Exportação cancelada; pode ser retomada depois.");
+                } else {
+                    messages.error(sender, "Nenhuma exportação em andamento.");
+                }
+                return;
+            case "retomar":
+                try {
+                    ExportJob job = exports.resume(progressListener(plugin, sender));
+                    if (job == null) {
+                        messages.error(sender, "Nenhuma exportação incompleta.");
+                    } else {
+                        messages.info(sender, String.format("Retomando &e%s&7 após o id %d...",
+                            job.getFile().getName(), job.getLastId()));
+                    }
+                } catch (IllegalStateException e) {
+                    messages.error(sender, "Uma exportação já está em andamento.");
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to resume export!", e);
+                    messages.error(sender, "Falha ao retomar a exportação. Veja o console.");
+                }
+                return;
+            default:
+                break;
+        }
+
+        ExportJob.Format format;
+        try {
+            format = ExportJob.Format.valueOf(args[1].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            messages.error(sender, "Formato inválido: " + args[1] + " (ndjson ou csv)");
+            return;
+        }
+
+        int days = DEFAULT_DAYS;
+        if (args.length > 2) {
+            try {
+                days = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                messages.error(sender, "Dias inválidos: " + args[2]);
+                return;
+            }
+        }
+
+        Set<String> types = new LinkedHashSet<>();
+        if (args.length > 4) {
+            for (String name : args[4].split(",")) {
+                String type = name.trim().toUpperCase();
+                if (!isKnownType(source, type)) {
+                    messages.error(sender, "Tipo desconhecido: " + name);
+                    return;
+                }
+                types.add(type);
+            }
+        }
+
+        long to = System.currentTimeMillis() + 1;
+        long from = to - TimeUnit.DAYS.toMillis(Math.max(1, days));
+        String playerName = args.length > 3 && !args[3].equals("*") ? args[3] : null;
+
+        // Until the name index has loaded an offline name needs the database: resolve off the main thread
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            UUID player = playerName != null ? AuditCommand.resolvePlayer(plugin, playerName) : null;
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (playerName != null && player == null) {
+                    messages.error(sender, "Jogador não encontrado: " + playerName);
+                    return;
+                }
+                try {
+                    ExportJob job = exports.start(new ExportJob.Spec(source, format, from, to, player, types),
+                        progressListener(plugin, sender));
+                    messages.info(sender, "Exportando para &e" + job.getFile().getName() + "&7...");
+                } catch (IllegalStateException e) {
+                    messages.error(sender, "Uma exportação já está em andamento.");
+                }
+            });
+        });
+    }
+
+    private static boolean isKnownType(ExportJob.Source source, String name) {
+        try {
+            if (source == ExportJob.Source.AUDIT) {
+                AuditEvent.EventType.valueOf(name);
+            } else {
+                Transaction.Type.valueOf(name);
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Relay progress to the sender on the main thread; a job stopped by
+     * onDisable still reports, but the scheduler no longer accepts tasks
+     */
+    private static ExportJob.ProgressListener progressListener(NexusPlugin plugin, CommandSender sender) {
+        return job -> {
+            if (plugin.isEnabled()) {
+                plugin.getServer().getScheduler().runTask(plugin, () -> showStatus(plugin, sender, job));
+            }
+        };
+    }
+
+    private static void showStatus(NexusPlugin plugin, CommandSender sender, ExportJob job) {
+        MessageUtil messages = plugin.getMessageUtil();
+        if (job == null) {
+            messages.info(sender, "Nenhuma exportação nesta sessão.");
+            return;
+        }
+
+        String summary = String.format("&e%s&7: %d linhas, %.1f MB, %ds",
+            job.getFile().getName(), job.getRows(), job.getBytesWritten() / (1024.0 * 1024.0),
+            job.getElapsedMillis() / 1000);
+        switch (job.getState()) {
+            case DONE:
+                messages.success(sender, "Exportação concluída - " + summary);
+                break;
+            case FAILED:
+                plugin.getLogger().log(Level.WARNING, "Export failed!", job.getFailure());
+                messages.error(sender, "Exportação falhou (retomável) - " + summary);
+                break;
+            case CANCELLED:
+                messages.info(sender, "Exportação cancelada - " + summary);
+                break;
+            default:
+                messages.info(sender, String.format("Exportando (%d%%) - %s", job.getPercent(), summary));
+                break;
+        }
+    }
+
+    static List<String> complete(String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 2) {
+            for (String action : ACTIONS) {
+                if (action.startsWith(args[1].toLowerCase())) {
+                    completions.add(action);
+                }
+            }
+        }
+        return completions;
+    }
+}
@@ -0,0 +1,124 @@
+package com.nexus.commands;
+
+import com.nexus.NexusPlugin;
+import com.nexus.services.TransactionHistoryService;
+import com.nexus.utils.MessageUtil;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * HistoryCommand - /historico [mais]
+ *
+ * The player's own statement, newest first, one page at a time. The most
+ * recent page is usually answered from the cache; other pages are fetched
+ * asynchronously and shown on the main thread.
+ *
+ * @author Nexus Development Team
+ */
+public class HistoryCommand implements CommandExecutor, TabCompleter {
+
+    private final NexusPlugin plugin;
+
+    // Where "mais" continues, per player
+    private final Map<UUID, TransactionHistoryService.Cursor> cursors = new ConcurrentHashMap<>();
+
+    public HistoryCommand(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        MessageUtil messages = plugin.getMessageUtil();
+
+        if (!(sender instanceof Player player)) {
+            messages.playerOnly(sender);
+            return true;
+        }
+
+        TransactionHistoryService.Cursor after = null;
+        if (args.length > 0 && args[0].equalsIgnoreCase("mais")) {
+            after = cursors.get(player.getUniqueId());
+            if (after == null) {
+                messages.error(sender, "Não há mais transações.");
+                return true;
+            }
+        }
+
+        TransactionHistoryService history = plugin.getTransactionHistoryService();
+        UUID uuid = player.getUniqueId();
+        TransactionHistoryService.Page cached = after == null ? history.getCached(uuid) : null;
+        if (cached != null) {
+            showPage(player, cached, true);
+            return true;
+        }
+
+        TransactionHistoryService.Cursor cursor = after;
+        plugin.getAsyncDatabase().call("historico", () -> history.page(uuid, cursor)).whenComplete((page, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to load transaction history!", error);
+                messages.error(player, "Falha ao carregar o histórico. Tente novamente.");
+            } else {
+                showPage(player, page, cursor == null);
+            }
+        });
+        return true;
+    }
+
+    private void showPage(Player player, TransactionHistoryService.Page page, boolean first) {
+        MessageUtil messages = plugin.getMessageUtil();
+        if (page.next() != null) {
+            cursors.put(player.getUniqueId(), page.next());
+        } else {
+            cursors.remove(player.getUniqueId());
+        }
+
+        if (page.entries().isEmpty()) {
+            messages.info(player, first ? "Nenhuma transação encontrada." : "Não há mais transações.");
+            return;
+        }
+
+        if (first) {
+            messages.sendRaw(player, "&6&l=== Histórico de transações ===");
+        }
+        for (TransactionHistoryService.Entry entry : page.entries()) {
+            messages.sendRaw(player, String.format("&7%s &8| %s%s &7%s%s%s",
+                messages.formatTimestamp(entry.timestamp()),
+                entry.isIncoming() ? "&a+" : "&c-",
+                messages.formatMoney(Math.abs(entry.getAmount())),
+                entry.type().name(),
+                entry.counterparty() != null ? " &f" + playerLabel(entry.counterparty()) : "",
+                entry.reason() != null ? " &8(" + entry.reason() + ")" : ""));
+        }
+        if (page.hasMore()) {
+            messages.info(player, "Use &e/historico mais&7 para a próxima página.");
+        }
+    }
+
+    private String playerLabel(UUID uuid) {
+        Player player = plugin.getServer().getPlayer(uuid);
+        return player != null ? player.getName() : uuid.toString().substring(0, 8);
+    }
+
+    public void onQuit(UUID player) {
+        cursors.remove(player);
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1 && "mais".startsWith(args[0].toLowerCase())) {
+            completions.add("mais");
+        }
+        return completions;
+    }
+}
@@ -0,0 +1,330 @@
+package com.nexus.commands;
+
+import com.nexus.NexusPlugin;
+import com.nexus.services.AuditJournal;
+import com.nexus.services.AuditJournalImporter;
+import com.nexus.services.AuditService;
+import com.nexus.services.DatabaseMetrics;
+import com.nexus.services.DeferredWorkScheduler;
+import com.nexus.services.MainThreadGuard;
+import com.nexus.services.MetricsService;
+import com.nexus.services.PersistenceExecutor;
+import com.nexus.services.UuidMigrationService;
+import com.nexus.utils.ConfigSnapshot;
+import com.nexus.utils.Histogram;
+import com.nexus.utils.MessageUtil;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * NexusDebugCommand - /nexusdebug <info|reload|diario|uuid|db|agenda|metricas>
+ *
+ * Administrative diagnostics, configuration hot reload, audit journal import,
+ * database statistics, the deferred main-thread work backlog and the
+ * metrics exposed to Prometheus.
+ *
+ * @author Nexus Development Team
+ */
+public class NexusDebugCommand implements CommandExecutor, TabCompleter {
+
+    private static final List<String> SUBCOMMANDS =
+        Arrays.asList("info", "reload", "diario", "uuid", "db", "agenda", "metricas");
+
+    private static final int DB_STATEMENTS_SHOWN = 8;
+    private static final int METRIC_SAMPLES_SHOWN = 20;
+
+    private final NexusPlugin plugin;
+
+    public NexusDebugCommand(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        MessageUtil messages = plugin.getMessageUtil();
+
+        if (!sender.hasPermission("nexus.admin.debug")) {
+            messages.noPermission(sender);
+            return true;
+        }
+
+        if (args.length == 0) {
+            messages.info(sender, "Uso: /" + label + " <info|reload|diario|uuid|db|agenda|metricas>");
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "info":
+                showInfo(sender);
+                return true;
+            case "reload":
+                if (plugin.getConfigManager().reload()) {
+                    messages.success(sender, "Configuração recarregada.");
+                } else {
+                    messages.error(sender, "Configuração inválida; a anterior continua ativa. Veja o console.");
+                }
+                return true;
+            case "diario":
+                handleJournal(sender, args);
+                return true;
+            case "uuid":
+                showUuidMigration(sender);
+                return true;
+            case "db":
+                handleDatabase(sender, args);
+                return true;
+            case "agenda":
+                showDeferredWork(sender);
+                return true;
+            case "metricas":
+                showMetrics(sender, args);
+                return true;
+            default:
+                messages.error(sender, "Subcomando desconhecido: " + args[0]);
+                return true;
+        }
+    }
+
+    private void showInfo(CommandSender sender) {
+        MessageUtil messages = plugin.getMessageUtil();
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+
+        messages.info(sender, "Versão: &e" + plugin.getDescription().getVersion());
+        messages.info(sender, "Armazenamento: &e" + snapshot.storage().type()
+            + (plugin.getDatabaseService() != null && plugin.getDatabaseService().isConnected() ? " &a(conectado)" : " &c(desconectado)"));
+        messages.info(sender, "Auto-reload de config: &e" + (snapshot.isAutoReload() ? "ativo" : "inativo"));
+        messages.info(sender, "Eventos de auditoria rastreados: &e" + snapshot.audit().trackedEvents().size());
+
+        AuditService audit = plugin.getAuditService();
+        if (audit != null) {
+            messages.info(sender, String.format(
+                "Auditoria: &e%d&7 aceitos, &e%d&7 gravados, &e%d&7 descartados, &e%d&7 falhas, fila &e%d/%d&7 (pressão: %d)",
+                audit.getAcceptedCount(), audit.getWrittenCount(), audit.getDroppedCount(), audit.getFailedCount(),
+                audit.getQueueSize(), audit.getQueueCapacity(), audit.getBackpressureCount()));
+            messages.info(sender, String.format(
+                "Retenção: particionado &e%s&7, %d partições removidas, %d linhas podadas%s",
+                audit.getStorage().isPartitioned() ? "sim" : "não", audit.getStorage().getDroppedPartitions(),
+                audit.getStorage().getPrunedRows(), audit.getStorage().isPruning() ? " &e(podando)" : ""));
+        }
+    }
+
+    /**
+     * /nexusdebug uuid
+     */
+    private void showUuidMigration(CommandSender sender) {
+        MessageUtil messages = plugin.getMessageUtil();
+        UuidMigrationService migration = plugin.getUuidMigrationService();
+
+        messages.info(sender, "Armazenamento de UUIDs: &e" + plugin.getDatabaseService().getUuidMode());
+        if (migration != null && migration.isRunning()) {
+            String table = migration.getCurrentTable();
+            messages.info(sender, String.format("Migração em andamento: &e%d&7 linhas convertidas%s",
+                migration.getConvertedRows(), table != null ? " (tabela " + table + ")" : ""));
+        }
+    }
+
+    /**
+     * /nexusdebug db [stats|reset]
+     */
+    private void handleDatabase(CommandSender sender, String[] args) {
+        MessageUtil messages = plugin.getMessageUtil();
+        DatabaseMetrics metrics = plugin.getDatabaseService().getMetrics();
+        if (metrics == null) {
+            messages.error(sender, "Métricas de banco desativadas (storage.metricas.ativo).");
+            return;
+        }
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            plugin.getPersistenceExecutor().resetMetrics();
+            messages.success(sender, "Métricas de banco zeradas.");
+            return;
+        }
+        if (args.length > 1 && !args[1].equalsIgnoreCase("stats")) {
+            messages.error(sender, "Uso: /nexusdebug db [stats|reset]");
+            return;
+        }
+
+        DatabaseMetrics.PoolState pool = metrics.getPoolState();
+        long minutes = (System.currentTimeMillis() - metrics.getSince()) / 60000;
+        messages.info(sender, String.format("Banco (&e%s&7, últimos %d min): pool &e%d&7 ativas, &e%d&7 ociosas, &e%d&7 total, &e%d&7 aguardando",
+            plugin.getDatabaseService().getStorageType(), minutes, pool.active(), pool.idle(), pool.total(), pool.waiting()));
+        messages.info(sender, "Espera por conexão: " + formatLatency(metrics.getPoolWait().snapshot()));
+        messages.info(sender, "Conexão em uso: " + formatLatency(metrics.getConnectionHold().snapshot()));
+
+        Histogram.Snapshot batches = metrics.getBatchSizes().snapshot();
+        messages.info(sender, String.format("Lotes: &e%d&7, média &e%.1f&7, p99 &e%d&7, máx &e%d&7 linhas",
+            batches.count(), batches.mean(), batches.p99(), batches.max()));
+        messages.info(sender, String.format("Consultas lentas (≥ %d ms): &e%d",
+            plugin.getConfigManager().getSnapshot().databaseMetrics().slowQueryMillis(), metrics.getSlowQueries()));
+        MainThreadGuard guard = plugin.getDatabaseService().getThreadGuard();
+        messages.info(sender, String.format("Acessos na thread principal: &e%d&7 (%d locais, %d avisos suprimidos)",
+            guard.getViolations(), guard.getCallSites(), guard.getSuppressed()));
+
+        PersistenceExecutor executor = plugin.getPersistenceExecutor();
+        messages.info(sender, String.format("Executor (%s): &e%d/%d&7 permissões livres, &e%d&7 executando, &e%d&7 aguardando, &e%d&7 recusadas",
+            executor.isVirtual() ? "threads virtuais" : "threads de plataforma", executor.getAvailablePermits(),
+            executor.getPermits(), executor.getRunning(), executor.getWaiting(), executor.getRejected()));
+        for (PersistenceExecutor.TaskStats task : executor.getTasks()) {
+            Histogram.Snapshot wait = task.getWait().snapshot();
+            messages.sendRaw(sender, String.format("&e%s&7: espera p99 &e%s&7, execução %s%s", task.getLabel(),
+                formatMicros(wait.p99()), formatLatency(task.getRun().snapshot()),
+                task.getFailures() > 0 ? " &c" + task.getFailures() + " falhas" : ""));
+        }
+
+        List<DatabaseMetrics.StatementStats> statements = metrics.getStatements();
+        for (DatabaseMetrics.StatementStats stats : statements.subList(0, Math.min(DB_STATEMENTS_SHOWN, statements.size()))) {
+            messages.sendRaw(sender, String.format("&e%s&7: %s%s", stats.getLabel(),
+                formatLatency(stats.getLatency().snapshot()),
+                stats.getErrors() > 0 ? " &c" + stats.getErrors() + " erros" : ""));
+        }
+        if (statements.size() > DB_STATEMENTS_SHOWN) {
+            messages.info(sender, "... e mais " + (statements.size() - DB_STATEMENTS_SHOWN) + " tipos de consulta.");
+        }
+        for (String slow : metrics.getRecentSlow()) {
+            messages.sendRaw(sender, "&c» &7" + slow);
+        }
+    }
+
+    /**
+     * /nexusdebug agenda
+     */
+    private void showDeferredWork(CommandSender sender) {
+        MessageUtil messages = plugin.getMessageUtil();
+        DeferredWorkScheduler scheduler = plugin.getDeferredWorkScheduler();
+
+        Histogram.Snapshot ticks = scheduler.getTickTime().snapshot();
+        messages.info(sender, String.format("Trabalho adiado (orçamento %d ms/tick): &e%d&7 pendentes, &e%d&7 ticks acima do orçamento",
+            plugin.getConfigManager().getSnapshot().deferredWork().budgetMillis(), scheduler.getBacklog(),
+            scheduler.getOverBudgetTicks()));
+        messages.info(sender, "Tempo por tick com trabalho: " + formatLatency(ticks));
+        for (DeferredWorkScheduler.WorkQueue queue : scheduler.getQueues()) {
+            messages.sendRaw(sender, String.format("&e%s&7: &e%d&7 pendentes, %d executadas, %d ms gastos, %d ticks com sobra, espera máx %d ms%s",
+                queue.getPriority(), queue.getBacklog(), queue.getExecuted(), queue.getMillisSpent(),
+                queue.getCarriedTicks(), queue.getMaxWaitMillis(),
+                queue.getFailed() > 0 ? " &c" + queue.getFailed() + " falhas" : ""));
+        }
+    }
+
+    /**
+     * /nexusdebug metricas [prefixo]
+     */
+    private void showMetrics(CommandSender sender, String[] args) {
+        MessageUtil messages = plugin.getMessageUtil();
+        MetricsService metrics = plugin.getMetricsService();
+        if (metrics == null) {
+            messages.error(sender, "Métricas indisponíveis.");
+            return;
+        }
+
+        messages.info(sender, String.format("Endpoint: %s&7, &e%d&7 famílias, &e%d&7 coletas",
+            metrics.isServing() ? "&ahttp://127.0.0.1:" + metrics.getPort() + "/metrics" : "&cdesativado",
+            metrics.getRegistry().size(), metrics.getScrapes()));
+
+        // Samples only (no HELP/TYPE lines), optionally narrowed to names starting with nexus_<prefixo>
+        String prefix = "nexus_" + (args.length > 1 ? args[1].toLowerCase() : "");
+        int shown = 0;
+        int matched = 0;
+        for (String line : metrics.getRegistry().scrape().split("\n")) {
+            if (line.startsWith("#") || !line.startsWith(prefix)) {
+                continue;
+            }
+            matched++;
+            if (shown < METRIC_SAMPLES_SHOWN) {
+                int space = line.lastIndexOf(' ');
+                messages.sendRaw(sender, "&7" + line.substring(0, space) + " &e" + line.substring(space + 1));
+                shown++;
+            }
+        }
+        if (matched > shown) {
+            messages.info(sender, String.format("... e mais %d. Filtre com /nexusdebug metricas <prefixo> (ex.: db_, audit_).",
+                matched - shown));
+        }
+    }
+
+    private static String formatLatency(Histogram.Snapshot snapshot) {
+        return String.format("&e%d&7× média &e%s&7 p50 &e%s&7 p95 &e%s&7 p99 &e%s&7 máx &e%s&7",
+            snapshot.count(), formatMicros(Math.round(snapshot.mean())), formatMicros(snapshot.p50()),
+            formatMicros(snapshot.p95()), formatMicros(snapshot.p99()), formatMicros(snapshot.max()));
+    }
+
+    private static String formatMicros(long micros) {
+        return micros < 1000 ? micros + "µs" : String.format("%.1fms", micros / 1000.0);
+    }
+
+    /**
+     * /nexusdebug diario [importar]
+     */
+    private void handleJournal(CommandSender sender, String[] args) {
+        MessageUtil messages = plugin.getMessageUtil();
+        AuditService audit = plugin.getAuditService();
+        if (audit == null) {
+            messages.error(sender, "Auditoria indisponível.");
+            return;
+        }
+
+        AuditJournalImporter importer = audit.getJournalImporter();
+        if (args.length < 2) {
+            AuditJournal journal = audit.getJournal();
+            messages.info(sender, "Diário: &e" + (journal != null
+                ? "ativo (segmento " + journal.getActiveSegment() + ", " + journal.getActiveRecords() + " eventos)"
+                : "inativo"));
+            messages.info(sender, "Pasta: &e" + audit.getJournalFolder().getPath());
+            if (importer.isRunning()) {
+                messages.info(sender, "Importação em andamento: &e" + importer.getImported() + " eventos");
+            }
+            return;
+        }
+
+        if (!args[1].equalsIgnoreCase("importar")) {
+            messages.error(sender, "Uso: /nexusdebug diario [importar]");
+            return;
+        }
+        if (importer.isRunning()) {
+            messages.error(sender, "Uma importação já está em andamento.");
+            return;
+        }
+
+        messages.info(sender, "Importando segmentos fechados do diário...");
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            String result;
+            try {
+                long count = importer.run();
+                result = String.format("&a%d eventos importados de %d segmento(s).", count, importer.getSegmentsDone());
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Audit journal import failed!", e);
+                result = "&cFalha na importação após " + importer.getImported() + " eventos (retomável). Veja o console.";
+            }
+            String message = result;
+            plugin.getServer().getScheduler().runTask(plugin, () -> messages.info(sender, message));
+        });
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            for (String sub : SUBCOMMANDS) {
+                if (sub.startsWith(args[0].toLowerCase())) {
+                    completions.add(sub);
+                }
+            }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("diario") && "importar".startsWith(args[1].toLowerCase())) {
+            completions.add("importar");
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("db")) {
+            for (String sub : Arrays.asList("stats", "reset")) {
+                if (sub.startsWith(args[1].toLowerCase())) {
+                    completions.add(sub);
+                }
+            }
+        }
+        return completions;
+    }
+}
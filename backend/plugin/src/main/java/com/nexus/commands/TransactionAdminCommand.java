@@ -0,0 +1,170 @@
+package com.nexus.commands;
+
+import com.nexus.NexusPlugin;
+import com.nexus.services.ExportJob;
+import com.nexus.services.LedgerService;
+import com.nexus.utils.MessageUtil;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * TransactionAdminCommand - /transacoes <export|checkpoint|reconciliar|relatorio>
+ *
+ * Staff access to the transaction log:
+ * - /transacoes export ...                 see {@link ExportCommandSupport}
+ * - /transacoes checkpoint [reiniciar]     fold new transactions into the balance checkpoints
+ * - /transacoes reconciliar [reparar]      compare balances with the ledger
+ * - /transacoes relatorio                  last reconciliation report
+ *
+ * Ledger work runs asynchronously and replies on the main thread.
+ *
+ * @author Nexus Development Team
+ */
+public class TransactionAdminCommand implements CommandExecutor, TabCompleter {
+
+    private static final String PERMISSION = "nexus.transacoes.admin";
+    private static final List<String> SUBCOMMANDS = Arrays.asList("export", "checkpoint", "reconciliar", "relatorio");
+    private static final int REPORT_LINES = 5;
+
+    private final NexusPlugin plugin;
+
+    public TransactionAdminCommand(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        MessageUtil messages = plugin.getMessageUtil();
+
+        if (!sender.hasPermission(PERMISSION)) {
+            messages.noPermission(sender);
+            return true;
+        }
+
+        if (args.length == 0) {
+            messages.info(sender, "Uso: /" + label + " <export|checkpoint|reconciliar|relatorio>");
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "export":
+                ExportCommandSupport.handle(plugin, sender, ExportJob.Source.TRANSACTIONS, label, args);
+                break;
+            case "checkpoint":
+                runCheckpoint(sender, args.length > 1 && args[1].equalsIgnoreCase("reiniciar"));
+                break;
+            case "reconciliar":
+                runReconcile(sender, args.length > 1 && args[1].equalsIgnoreCase("reparar"));
+                break;
+            case "relatorio":
+                LedgerService.Report report = plugin.getLedgerService().getLastReport();
+                if (report == null) {
+                    messages.info(sender, "Nenhuma reconciliação desde que o servidor iniciou.");
+                } else {
+                    showReport(sender, report);
+                }
+                break;
+            default:
+                messages.error(sender, "Subcomando desconhecido: " + args[0]);
+                break;
+        }
+        return true;
+    }
+
+    // ========================================
+    // LEDGER
+    // ========================================
+
+    private void runCheckpoint(CommandSender sender, boolean reset) {
+        MessageUtil messages = plugin.getMessageUtil();
+        LedgerService ledger = plugin.getLedgerService();
+        messages.info(sender, reset ? "Recriando checkpoints a partir do histórico completo..." : "Gerando checkpoints...");
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                if (reset) {
+                    ledger.resetCheckpoints();
+                }
+                int accounts = ledger.checkpoint();
+                long watermark = ledger.getWatermark();
+                plugin.getServer().getScheduler().runTask(plugin, () -> messages.success(sender,
+                    String.format("Checkpoint concluído: %d contas atualizadas (até a transação #%d).",
+                        accounts, watermark)));
+            } catch (SQLException e) {
+                plugin.getServer().getScheduler().runTask(plugin, () -> failed(sender, "Balance checkpoint", e));
+            }
+        });
+    }
+
+    private void runReconcile(CommandSender sender, boolean repair) {
+        plugin.getMessageUtil().info(sender, repair ? "Reconciliando e reparando saldos..." : "Reconciliando saldos...");
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                LedgerService.Report report = plugin.getLedgerService().reconcile(repair);
+                plugin.getServer().getScheduler().runTask(plugin, () -> showReport(sender, report));
+            } catch (SQLException e) {
+                plugin.getServer().getScheduler().runTask(plugin, () -> failed(sender, "Ledger reconciliation", e));
+            }
+        });
+    }
+
+    private void showReport(CommandSender sender, LedgerService.Report report) {
+        MessageUtil messages = plugin.getMessageUtil();
+        String summary = String.format("%d contas, %d transações após o checkpoint #%d, %dms (%s)",
+            report.accounts(), report.replayed(), report.watermark(), report.elapsedMillis(),
+            new SimpleDateFormat("dd/MM HH:mm").format(new Date(report.finishedAt())));
+
+        if (report.isClean()) {
+            messages.success(sender, "Saldos conferem com o livro-razão: " + summary);
+            return;
+        }
+
+        messages.error(sender, String.format("%d contas divergentes (%d reparadas): %s",
+            report.mismatched(), report.repaired(), summary));
+        int shown = Math.min(REPORT_LINES, report.discrepancies().size());
+        for (LedgerService.Discrepancy discrepancy : report.discrepancies().subList(0, shown)) {
+            messages.sendRaw(sender, String.format("&7- &f%s&7: salvo &e%s&7, livro-razão &e%s",
+                discrepancy.player().toString().substring(0, 8), discrepancy.stored(), discrepancy.expected()));
+        }
+        if (report.orphans() > 0) {
+            messages.info(sender, report.orphans() + " contas do livro-razão sem jogador cadastrado.");
+        }
+    }
+
+    private void failed(CommandSender sender, String task, SQLException e) {
+        plugin.getLogger().log(Level.WARNING, task + " failed!", e);
+        plugin.getMessageUtil().error(sender, "Falha ao acessar o banco de dados. Veja o console.");
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            for (String sub : SUBCOMMANDS) {
+                if (sub.startsWith(args[0].toLowerCase())) {
+                    completions.add(sub);
+                }
+            }
+        } else if (args[0].equalsIgnoreCase("export")) {
+            return ExportCommandSupport.complete(args);
+        } else if (args.length == 2) {
+            String option = args[0].equalsIgnoreCase("checkpoint") ? "reiniciar"
+                : args[0].equalsIgnoreCase("reconciliar") ? "reparar" : null;
+            if (option != null && option.startsWith(args[1].toLowerCase())) {
+                completions.add(option);
+            }
+        }
+        return completions;
+    }
+}
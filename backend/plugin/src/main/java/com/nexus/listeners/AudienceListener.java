@@ -0,0 +1,36 @@
+package com.nexus.listeners;
+
+import com.nexus.services.AudienceService;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * AudienceListener - Keeps broadcast audiences in sync with online players
+ *
+ * Joins are indexed early (LOW, right after {@link SessionListener} has marked
+ * the session joined) so other join handlers can already broadcast to the new
+ * player; quits are removed last so quit handlers can still reach them.
+ *
+ * @author Nexus Development Team
+ */
+public class AudienceListener implements Listener {
+
+    private final AudienceService audienceService;
+
+    public AudienceListener(AudienceService audienceService) {
+        this.audienceService = audienceService;
+    }
+
+    @EventHandler(priority = EventPriority.LOW)
+    public void onJoin(PlayerJoinEvent event) {
+        audienceService.onJoin(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        audienceService.onQuit(event.getPlayer());
+    }
+}
@@ -0,0 +1,70 @@
+package com.nexus.listeners;
+
+import com.nexus.services.SessionService;
+import com.nexus.utils.MessageKey;
+import com.nexus.utils.MessageUtil;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * SessionListener - Loads player sessions before join and drops them on quit
+ *
+ * The prefetch runs late in pre-login so bans and whitelists refuse first;
+ * a login refused after it (by another plugin or at PlayerLoginEvent)
+ * discards the session again.
+ *
+ * Joins are handled at LOWEST, ahead of {@link AudienceListener} (LOW), so the
+ * session is marked joined before the player's audiences are indexed from it.
+ *
+ * @author Nexus Development Team
+ */
+public class SessionListener implements Listener {
+
+    private final SessionService sessionService;
+    private final MessageUtil messageUtil;
+
+    public SessionListener(SessionService sessionService, MessageUtil messageUtil) {
+        this.sessionService = sessionService;
+        this.messageUtil = messageUtil;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        if (!sessionService.prefetch(event.getUniqueId(), event.getName())) {
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                messageUtil.getMessage(MessageKey.DADOS_INDISPONIVEIS));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLoginResult(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            sessionService.discard(event.getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            sessionService.discard(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        sessionService.onJoin(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        sessionService.onQuit(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,30 @@
+package com.nexus.listeners;
+
+import com.nexus.commands.HistoryCommand;
+import com.nexus.services.TransactionHistoryService;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * TransactionHistoryListener - Drops cached statement pages of players who leave
+ *
+ * @author Nexus Development Team
+ */
+public class TransactionHistoryListener implements Listener {
+
+    private final TransactionHistoryService historyService;
+    private final HistoryCommand historyCommand;
+
+    public TransactionHistoryListener(TransactionHistoryService historyService, HistoryCommand historyCommand) {
+        this.historyService = historyService;
+        this.historyCommand = historyCommand;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        historyService.onQuit(event.getPlayer().getUniqueId());
+        historyCommand.onQuit(event.getPlayer().getUniqueId());
+    }
+}
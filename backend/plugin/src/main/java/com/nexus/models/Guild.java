@@ -21,6 +21,7 @@ public class Guild {
     private double cofreBalance;
     private int points;
     private long createdAt;
+    private long version;          // Row version for compare-and-set updates
     
     // In-memory member list (loaded separately)
     private List<UUID> members;
@@ -61,6 +62,7 @@ public class Guild {
     public double getCofreBalance() { return cofreBalance; }
     public int getPoints() { return points; }
     public long getCreatedAt() { return createdAt; }
+    public long getVersion() { return version; }
     public List<UUID> getMembers() { return members; }
     
     // Setters
@@ -69,6 +71,7 @@ public class Guild {
     public void setCofreBalance(double balance) { this.cofreBalance = balance; }
     public void setPoints(int points) { this.points = points; }
     public void setMembers(List<UUID> members) { this.members = members; }
+    public void setVersion(long version) { this.version = version; }
     
     // Utility methods
     public boolean isFull() {
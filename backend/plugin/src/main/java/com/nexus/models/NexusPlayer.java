@@ -22,6 +22,7 @@ public class NexusPlayer {
     private long lastTeamSwitch;
     private boolean economyFrozen;
     private long createdAt;
+    private long version;          // Row version for compare-and-set updates
     
     // Constructor
     public NexusPlayer(UUID uuid, String name) {
@@ -48,6 +49,7 @@ public class NexusPlayer {
     public long getLastTeamSwitch() { return lastTeamSwitch; }
     public boolean isEconomyFrozen() { return economyFrozen; }
     public long getCreatedAt() { return createdAt; }
+    public long getVersion() { return version; }
     
     // Setters
     public void setName(String name) { this.name = name; }
@@ -58,6 +60,8 @@ public class NexusPlayer {
     public void setLastLogin(long lastLogin) { this.lastLogin = lastLogin; }
     public void setLastTeamSwitch(long lastTeamSwitch) { this.lastTeamSwitch = lastTeamSwitch; }
     public void setEconomyFrozen(boolean frozen) { this.economyFrozen = frozen; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+    public void setVersion(long version) { this.version = version; }
     
     // Utility methods
     public boolean hasTeam() {
@@ -0,0 +1,41 @@
+package com.nexus.models;
+
+/**
+ * VIPTier - VIP tier enumeration
+ *
+ * Ordered from lowest to highest tier. The ordinal is used to index
+ * per-tier configuration arrays.
+ *
+ * @author Nexus Development Team
+ */
+public enum VIPTier {
+    GUERREIRO,    // Bronze
+    LORDE,        // Silver
+    MAGO;         // Gold
+
+    private static final VIPTier[] VALUES = values();
+
+    /**
+     * Config section key for this tier (e.g. "guerreiro")
+     */
+    public String getConfigKey() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Parse a tier name case-insensitively without allocating
+     *
+     * @return the tier, or null if the name is null or unknown
+     */
+    public static VIPTier fromString(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (VIPTier tier : VALUES) {
+            if (tier.name().equalsIgnoreCase(name)) {
+                return tier;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AsyncDatabase - Runs blocking database work off the server thread
+ *
+ * Work runs on the shared {@link PersistenceExecutor} and the returned
+ * future is completed on the main thread through the Bukkit scheduler, so
+ * callbacks attached with thenAccept/whenComplete can touch players and
+ * worlds directly:
+ *
+ * <pre>
+ * plugin.getAsyncDatabase().call("historico", () -> history.page(uuid, null))
+ *     .whenComplete((page, error) -> ...);   // main thread
+ * </pre>
+ *
+ * Once the plugin is disabling, futures complete on the worker thread
+ * instead (the scheduler no longer accepts tasks).
+ *
+ * @author Nexus Development Team
+ */
+public class AsyncDatabase {
+
+    /**
+     * Work that uses one pooled connection
+     */
+    @FunctionalInterface
+    public interface SqlFunction<T> {
+        T apply(Connection conn) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface SqlConsumer {
+        void accept(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Work that takes its own connections (usually a service method)
+     */
+    @FunctionalInterface
+    public interface SqlCallable<T> {
+        T call() throws SQLException;
+    }
+
+    private final NexusPlugin plugin;
+    private final PersistenceExecutor executor;
+
+    public AsyncDatabase(NexusPlugin plugin, PersistenceExecutor executor) {
+        this.plugin = plugin;
+        this.executor = executor;
+    }
+
+    // ========================================
+    // SUBMISSION
+    // ========================================
+
+    /**
+     * Run work with a pooled connection; completes on the main thread
+     *
+     * @param task label for executor metrics
+     */
+    public <T> CompletableFuture<T> supply(String task, SqlFunction<T> work) {
+        return call(task, () -> {
+            try (Connection conn = plugin.getDatabaseService().getConnection()) {
+                return work.apply(conn);
+            }
+        });
+    }
+
+    /**
+     * Run work with a pooled connection; completes on the main thread
+     */
+    public CompletableFuture<Void> run(String task, SqlConsumer work) {
+        return supply(task, conn -> {
+            work.accept(conn);
+            return null;
+        });
+    }
+
+    /**
+     * Run work that manages its own connections; completes on the main thread
+     */
+    public <T> CompletableFuture<T> call(String task, SqlCallable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.submit(task, work::call).whenComplete((result, error) -> {
+            if (error != null) {
+                completeOnMainThread(() -> future.completeExceptionally(error));
+            } else {
+                completeOnMainThread(() -> future.complete(result));
+            }
+        });
+        return future;
+    }
+
+    private void completeOnMainThread(Runnable completion) {
+        if (!plugin.isEnabled()) {
+            completion.run();
+            return;
+        }
+        try {
+            plugin.getServer().getScheduler().runTask(plugin, completion);
+        } catch (RuntimeException e) {
+            // Disabled between the check and the call (IllegalPluginAccessException)
+            completion.run();
+        }
+    }
+}
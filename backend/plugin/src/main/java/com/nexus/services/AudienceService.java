@@ -0,0 +1,306 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AudienceService - Precomputed broadcast recipient sets
+ *
+ * Keeps online players indexed by permission node, team and guild so that
+ * broadcasts fan out to a ready-made set instead of scanning every player
+ * and calling hasPermission() per message.
+ *
+ * Sets are maintained on join/quit, on team/guild changes and on permission
+ * recalculation, which runs periodically (one deferred low-priority task per
+ * player) and can be triggered per player through
+ * {@link #refreshPermissions(Player)}. Team and guild are read from the
+ * player's session ({@link SessionService}) at join; the session service
+ * reports them through {@link #setTeam} and {@link #setGuild} when the session
+ * loads after the join or the change feed refreshes it. Either side may run
+ * first: the membership is registered before the session is read, and the
+ * session is installed before it is reported, so one always sees the other.
+ *
+ * @author Nexus Development Team
+ */
+public class AudienceService {
+
+    /** Permission node that receives staff alerts (e.g. SUSPICIOUS_ACTIVITY) */
+    public static final String STAFF_PERMISSION = "nexus.auditoria.admin";
+
+    private static final long PERMISSION_REFRESH_TICKS = 20L * 30;
+
+    private final NexusPlugin plugin;
+
+    private final Map<String, Set<Player>> byPermission = new ConcurrentHashMap<>();
+    private final Map<String, Set<Player>> byTeam = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Player>> byGuild = new ConcurrentHashMap<>();
+    private final Map<UUID, Membership> memberships = new ConcurrentHashMap<>();
+
+    private BukkitTask refreshTask;
+
+    /**
+     * Current team/guild of an online player, used to move them between sets
+     */
+    private static final class Membership {
+        final Player player;
+        volatile String team;
+        volatile Integer guildId;
+
+        Membership(Player player) {
+            this.player = player;
+        }
+    }
+
+    public AudienceService(NexusPlugin plugin) {
+        this.plugin = plugin;
+        trackPermission(STAFF_PERMISSION);
+    }
+
+    /**
+     * Start the periodic permission recalculation and index online players
+     * (covers /reload, where no join events fire)
+     */
+    public void start() {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            onJoin(player);
+        }
+        refreshTask = plugin.getServer().getScheduler().runTaskTimer(
+            plugin, this::queueRefreshAll, PERMISSION_REFRESH_TICKS, PERMISSION_REFRESH_TICKS);
+    }
+
+    /**
+     * Stop background refresh and clear all sets
+     */
+    public void shutdown() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        memberships.clear();
+        byTeam.clear();
+        byGuild.clear();
+        for (Set<Player> set : byPermission.values()) {
+            set.clear();
+        }
+    }
+
+    // ========================================
+    // MEMBERSHIP UPDATES
+    // ========================================
+
+    /**
+     * Index a player that just joined, with the team and guild of their
+     * session if it is loaded
+     */
+    public void onJoin(Player player) {
+        UUID uuid = player.getUniqueId();
+        memberships.put(uuid, new Membership(player));
+        refreshPermissions(player);
+
+        SessionService sessions = plugin.getSessionService();
+        SessionService.Session session = sessions != null ? sessions.getSession(uuid) : null;
+        if (session != null) {
+            setTeam(uuid, session.getPlayer().getTeam());
+            setGuild(uuid, session.getPlayer().getGuildId());
+        }
+    }
+
+    /**
+     * Remove a player from every set
+     */
+    public void onQuit(Player player) {
+        Membership membership = memberships.remove(player.getUniqueId());
+        if (membership != null) {
+            synchronized (membership) {
+                removeFrom(byTeam, membership.team, player);
+                removeFrom(byGuild, membership.guildId, player);
+                membership.team = null;
+                membership.guildId = null;
+            }
+        }
+        for (Set<Player> set : byPermission.values()) {
+            set.remove(player);
+        }
+    }
+
+    /**
+     * Update a player's team (null when they have none)
+     */
+    public void setTeam(UUID uuid, String team) {
+        Membership membership = memberships.get(uuid);
+        if (membership == null) {
+            return;
+        }
+        String normalized = team != null ? team.toUpperCase() : null;
+        // Also reported from other threads; quit may have removed the player
+        synchronized (membership) {
+            if (memberships.get(uuid) != membership || Objects.equals(normalized, membership.team)) {
+                return;
+            }
+            removeFrom(byTeam, membership.team, membership.player);
+            membership.team = normalized;
+            if (normalized != null) {
+                byTeam.computeIfAbsent(normalized, k -> ConcurrentHashMap.newKeySet()).add(membership.player);
+            }
+        }
+    }
+
+    /**
+     * Update a player's guild (null when they have none)
+     */
+    public void setGuild(UUID uuid, Integer guildId) {
+        Membership membership = memberships.get(uuid);
+        if (membership == null) {
+            return;
+        }
+        synchronized (membership) {
+            if (memberships.get(uuid) != membership || Objects.equals(guildId, membership.guildId)) {
+                return;
+            }
+            removeFrom(byGuild, membership.guildId, membership.player);
+            membership.guildId = guildId;
+            if (guildId != null) {
+                byGuild.computeIfAbsent(guildId, k -> ConcurrentHashMap.newKeySet()).add(membership.player);
+            }
+        }
+    }
+
+    /**
+     * Drop a disbanded guild's audience
+     */
+    public void removeGuild(int guildId) {
+        Set<Player> members = byGuild.remove(guildId);
+        if (members == null) {
+            return;
+        }
+        for (Player player : members) {
+            Membership membership = memberships.get(player.getUniqueId());
+            if (membership != null) {
+                synchronized (membership) {
+                    if (Objects.equals(guildId, membership.guildId)) {
+                        membership.guildId = null;
+                    }
+                }
+            }
+        }
+    }
+
+    // ========================================
+    // PERMISSIONS
+    // ========================================
+
+    /**
+     * Start maintaining a recipient set for a permission node.
+     * The set is seeded from the players currently online.
+     */
+    public Set<Player> trackPermission(String node) {
+        return byPermission.computeIfAbsent(node, key -> {
+            Set<Player> set = ConcurrentHashMap.newKeySet();
+            for (Membership membership : memberships.values()) {
+                if (membership.player.hasPermission(key)) {
+                    set.add(membership.player);
+                }
+            }
+            return set;
+        });
+    }
+
+    /**
+     * Re-evaluate every tracked node for one player
+     * (call after a permission/group change)
+     */
+    public void refreshPermissions(Player player) {
+        if (!memberships.containsKey(player.getUniqueId())) {
+            return;
+        }
+        for (Map.Entry<String, Set<Player>> entry : byPermission.entrySet()) {
+            if (player.hasPermission(entry.getKey())) {
+                entry.getValue().add(player);
+            } else {
+                entry.getValue().remove(player);
+            }
+        }
+    }
+
+    /**
+     * Re-evaluate every tracked node for every online player
+     */
+    public void refreshAll() {
+        for (Membership membership : memberships.values()) {
+            refreshPermissions(membership.player);
+        }
+    }
+
+    /**
+     * Periodic refresh: one deferred task per player, spread over ticks
+     */
+    private void queueRefreshAll() {
+        DeferredWorkScheduler scheduler = plugin.getDeferredWorkScheduler();
+        for (Membership membership : memberships.values()) {
+            Player player = membership.player;
+            scheduler.submitUnique(DeferredWorkScheduler.Priority.LOW, "audience:" + player.getUniqueId(),
+                () -> refreshPermissions(player));
+        }
+    }
+
+    // ========================================
+    // AUDIENCES
+    // ========================================
+
+    public Collection<Player> withPermission(String node) {
+        return Collections.unmodifiableSet(trackPermission(node));
+    }
+
+    public Collection<Player> team(String team) {
+        if (team == null) {
+            return Collections.emptySet();
+        }
+        Set<Player> set = byTeam.get(team.toUpperCase());
+        return set != null ? Collections.unmodifiableSet(set) : Collections.emptySet();
+    }
+
+    public Collection<Player> guild(int guildId) {
+        Set<Player> set = byGuild.get(guildId);
+        return set != null ? Collections.unmodifiableSet(set) : Collections.emptySet();
+    }
+
+    public Collection<Player> staff() {
+        return withPermission(STAFF_PERMISSION);
+    }
+
+    /**
+     * Send an already rendered message to every player in an audience
+     */
+    public int send(Collection<Player> audience, String formatted) {
+        int sent = 0;
+        for (Player player : audience) {
+            player.sendMessage(formatted);
+            sent++;
+        }
+        return sent;
+    }
+
+    public int getTrackedPlayerCount() {
+        return memberships.size();
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Player>> index, K key, Player player) {
+        if (key == null) {
+            return;
+        }
+        Set<Player> set = index.get(key);
+        if (set != null) {
+            // Empty sets are kept: removing them would race with concurrent adds
+            set.remove(player);
+        }
+    }
+}
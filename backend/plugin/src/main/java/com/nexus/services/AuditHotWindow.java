@@ -0,0 +1,166 @@
+package com.nexus.services;
+
+import com.nexus.models.AuditEvent;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * AuditHotWindow - Recent audit events kept in memory, column by column
+ *
+ * Holds the events of the last N hours (bounded by a maximum count) in
+ * parallel primitive arrays used as a ring: timestamps, player UUID halves
+ * and type ordinals are scanned without touching objects, so a filtered
+ * query over the whole window is a tight loop over a few long arrays.
+ *
+ * Filled by the audit writer thread as events are drained, before they
+ * reach the database. Each event gets a window sequence number, used as its
+ * id in results and as the keyset cursor.
+ *
+ * @author Nexus Development Team
+ */
+final class AuditHotWindow {
+
+    private static final AuditEvent.EventType[] EVENT_TYPES = AuditEvent.EventType.values();
+
+    private final int capacity;
+    private final long windowMillis;
+    private final long createdAt = System.currentTimeMillis();
+
+    // Columns (index = sequence % capacity)
+    private final long[] timestamps;
+    private final long[] playerMost;
+    private final long[] playerLeast;
+    private final byte[] types;
+    private final String[] details;
+    private final String[] addresses;
+
+    // Sequences [head - size, head) are held
+    private long head;
+    private int size;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    AuditHotWindow(int capacity, long windowMillis) {
+        this.capacity = capacity;
+        this.windowMillis = windowMillis;
+        this.timestamps = new long[capacity];
+        this.playerMost = new long[capacity];
+        this.playerLeast = new long[capacity];
+        this.types = new byte[capacity];
+        this.details = new String[capacity];
+        this.addresses = new String[capacity];
+    }
+
+    /**
+     * Add batch entries [from, to) (audit writer thread)
+     */
+    void append(AuditRingBuffer.Batch batch, int from, int to) {
+        lock.writeLock().lock();
+        try {
+            for (int i = from; i < to; i++) {
+                int index = (int) (head % capacity);
+                UUID player = batch.players[i];
+                timestamps[index] = batch.timestamps[i];
+                playerMost[index] = player != null ? player.getMostSignificantBits() : 0L;
+                playerLeast[index] = player != null ? player.getLeastSignificantBits() : 0L;
+                types[index] = (byte) batch.types[i];
+                details[index] = batch.details[i];
+                addresses[index] = batch.addresses[i];
+                head++;
+                if (size < capacity) {
+                    size++;
+                }
+            }
+            evictExpired(System.currentTimeMillis() - windowMillis);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void evictExpired(long cutoff) {
+        while (size > 0) {
+            int oldest = (int) ((head - size) % capacity);
+            if (timestamps[oldest] >= cutoff) {
+                break;
+            }
+            details[oldest] = null;
+            addresses[oldest] = null;
+            size--;
+        }
+    }
+
+    /**
+     * Earliest timestamp from which the window is complete: queries starting
+     * at or after it can be answered from memory alone
+     */
+    long coverageStart() {
+        lock.readLock().lock();
+        try {
+            long start = Math.max(createdAt, System.currentTimeMillis() - windowMillis);
+            if (size == capacity) {
+                // Full ring: older events were overwritten
+                start = Math.max(start, timestamps[(int) ((head - size) % capacity)] + 1);
+            }
+            return start;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Newest-first scan for matching events, continuing below a cursor
+     *
+     * @param player     player filter, or null for all
+     * @param typeMask   bit per type ordinal, or -1 for all
+     * @param before     only sequences below this (Long.MAX_VALUE for the first page)
+     * @param limit      maximum results
+     * @return sequence of the last event returned, or -1 if the scan was exhausted
+     */
+    long query(UUID player, long typeMask, long from, long to, long before, int limit, List<AuditEvent> out) {
+        boolean anyPlayer = player == null;
+        long most = anyPlayer ? 0L : player.getMostSignificantBits();
+        long least = anyPlayer ? 0L : player.getLeastSignificantBits();
+
+        lock.readLock().lock();
+        try {
+            long oldest = head - size;
+            long start = Math.min(head, before) - 1;
+            int found = 0;
+            for (long sequence = start; sequence >= oldest; sequence--) {
+                int index = (int) (sequence % capacity);
+                long timestamp = timestamps[index];
+                if (timestamp < from || timestamp >= to
+                        || (typeMask & (1L << types[index])) == 0
+                        || (!anyPlayer && (playerMost[index] != most || playerLeast[index] != least))) {
+                    continue;
+                }
+
+                UUID uuid = playerMost[index] == 0L && playerLeast[index] == 0L
+                    ? null : new UUID(playerMost[index], playerLeast[index]);
+                out.add(new AuditEvent((int) sequence, uuid, EVENT_TYPES[types[index]], details[index],
+                    timestamp, addresses[index]));
+                if (++found == limit) {
+                    return sequence;
+                }
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
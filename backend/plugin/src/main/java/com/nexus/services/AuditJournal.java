@@ -0,0 +1,528 @@
+package com.nexus.services;
+
+import com.nexus.models.AuditEvent;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * AuditJournal - Append-only binary audit log in memory-mapped segments
+ *
+ * An alternative sink for the audit writer: appending an event is a copy
+ * into a mapped file, with no JDBC involved. Events are imported into
+ * nexus_audit later (see {@link AuditJournalImporter}).
+ *
+ * Each segment NNNNNN is a set of files in the journal folder:
+ * - NNNNNN.seg  fixed 32-byte records, preallocated and mapped:
+ *               [int type ordinal + 1][long uuid msb][long uuid lsb][long timestamp][int details ref]
+ *               A zero type marks the end of the written records.
+ * - NNNNNN.str  interned details: [int length][UTF-8 bytes], referenced by offset (-1 = none).
+ *               The details of a batch are written before its records, so a
+ *               record left in the mapping by a crash never points past the
+ *               end of this file.
+ * - NNNNNN.idx  sparse index written when the segment is sealed: per block of
+ *               {@value #INDEX_BLOCK} records, the min and max timestamp
+ *
+ * The IP address of an event is not part of the record layout.
+ *
+ * Appending is single-threaded (the audit writer thread). Readers do not
+ * map the files: they read blocks of records through their own channels
+ * (a mapped file cannot be deleted on Windows until the mapping is
+ * collected) and only see records published before they opened.
+ *
+ * @author Nexus Development Team
+ */
+public class AuditJournal implements Closeable {
+
+    static final int RECORD_SIZE = 32;
+    static final int INDEX_BLOCK = 4096;
+
+    private static final AuditEvent.EventType[] EVENT_TYPES = AuditEvent.EventType.values();
+    private static final int MAX_INTERNED = 65536;
+    private static final int NO_DETAILS = -1;
+
+    private final File folder;
+    private final int recordsPerSegment;
+
+    // Active segment (writer thread only)
+    private int segmentNumber;
+    private FileChannel dataChannel;
+    private MappedByteBuffer data;
+    private FileChannel stringChannel;
+    private final ByteBuffer stringBuffer = ByteBuffer.allocateDirect(64 * 1024);
+    private long stringPosition;
+    private final Map<String, Integer> interned = new HashMap<>();
+    private int[] detailsRefs = new int[0];
+    private long[] blockMin;
+    private long[] blockMax;
+
+    // Records readable by other threads in the active segment
+    private volatile int published;
+
+    public AuditJournal(File folder, int segmentMegabytes) throws IOException {
+        this.folder = folder;
+        this.recordsPerSegment = Math.max(INDEX_BLOCK, segmentMegabytes * 1024 * 1024 / RECORD_SIZE);
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Cannot create journal folder " + folder);
+        }
+
+        // Resume the last unsealed segment, or start a new one
+        List<Integer> segments = listSegments(folder);
+        int last = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        if (last > 0 && !indexFile(folder, last).exists()) {
+            openSegment(last);
+        } else {
+            openSegment(last + 1);
+        }
+    }
+
+    // ========================================
+    // APPEND
+    // ========================================
+
+    /**
+     * Append a drained batch (audit writer thread only)
+     */
+    void append(AuditRingBuffer.Batch batch) throws IOException {
+        if (detailsRefs.length < batch.size) {
+            detailsRefs = new int[batch.size];
+        }
+        int start = 0;
+        while (start < batch.size) {
+            if (!data.hasRemaining()) {
+                rotate();
+            }
+            int count = Math.min(batch.size - start, data.remaining() / RECORD_SIZE);
+
+            // Strings first: a record must not reference details that only exist in stringBuffer
+            for (int i = 0; i < count; i++) {
+                detailsRefs[i] = intern(batch.details[start + i]);
+            }
+            flushStrings();
+            for (int i = 0; i < count; i++) {
+                int index = start + i;
+                append(batch.types[index], batch.players[index], batch.timestamps[index], detailsRefs[i]);
+            }
+            start += count;
+        }
+        published = data.position() / RECORD_SIZE;
+    }
+
+    private void append(int type, UUID player, long timestamp, int detailsRef) {
+        int record = data.position() / RECORD_SIZE;
+        int block = record / INDEX_BLOCK;
+        blockMin[block] = Math.min(blockMin[block], timestamp);
+        blockMax[block] = Math.max(blockMax[block], timestamp);
+
+        int offset = data.position();
+        data.putLong(offset + 4, player != null ? player.getMostSignificantBits() : 0L);
+        data.putLong(offset + 12, player != null ? player.getLeastSignificantBits() : 0L);
+        data.putLong(offset + 20, timestamp);
+        data.putInt(offset + 28, detailsRef);
+        // Type last: a non-zero type marks the record as complete
+        data.putInt(offset, type + 1);
+        data.position(offset + RECORD_SIZE);
+    }
+
+    private int intern(String details) throws IOException {
+        if (details == null) {
+            return NO_DETAILS;
+        }
+        Integer existing = interned.get(details);
+        if (existing != null) {
+            return existing;
+        }
+
+        byte[] bytes = details.getBytes(StandardCharsets.UTF_8);
+        if (stringBuffer.remaining() < bytes.length + 4) {
+            flushStrings();
+        }
+        int reference = (int) (stringPosition + stringBuffer.position());
+        if (bytes.length + 4 > stringBuffer.capacity()) {
+            // Too large to buffer: write through
+            ByteBuffer large = ByteBuffer.allocate(bytes.length + 4).putInt(bytes.length).put(bytes);
+            large.flip();
+            while (large.hasRemaining()) {
+                stringPosition += stringChannel.write(large, stringPosition);
+            }
+        } else {
+            stringBuffer.putInt(bytes.length).put(bytes);
+        }
+
+        if (interned.size() >= MAX_INTERNED) {
+            interned.clear();
+        }
+        interned.put(details, reference);
+        return reference;
+    }
+
+    private void flushStrings() throws IOException {
+        stringBuffer.flip();
+        while (stringBuffer.hasRemaining()) {
+            stringPosition += stringChannel.write(stringBuffer, stringPosition);
+        }
+        stringBuffer.clear();
+    }
+
+    // ========================================
+    // SEGMENTS
+    // ========================================
+
+    /**
+     * Seal the active segment and start the next one
+     */
+    public void rotate() throws IOException {
+        int next = segmentNumber + 1;
+        seal();
+        openSegment(next);
+    }
+
+    private void openSegment(int number) throws IOException {
+        segmentNumber = number;
+        interned.clear();
+        blockMin = new long[(recordsPerSegment + INDEX_BLOCK - 1) / INDEX_BLOCK];
+        blockMax = new long[blockMin.length];
+        Arrays.fill(blockMin, Long.MAX_VALUE);
+        Arrays.fill(blockMax, Long.MIN_VALUE);
+
+        dataChannel = FileChannel.open(dataFile(folder, number).toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        stringChannel = FileChannel.open(stringFile(folder, number).toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        stringPosition = stringChannel.size();
+
+        // Reopened after a restart: find the end of the written records
+        int count = countRecords(data, recordsPerSegment);
+        for (int record = 0; record < count; record++) {
+            long timestamp = data.getLong(record * RECORD_SIZE + 20);
+            int block = record / INDEX_BLOCK;
+            blockMin[block] = Math.min(blockMin[block], timestamp);
+            blockMax[block] = Math.max(blockMax[block], timestamp);
+        }
+        data.position(count * RECORD_SIZE);
+        published = count;
+    }
+
+    private void seal() throws IOException {
+        flushStrings();
+        data.force();
+        stringChannel.force(false);
+
+        int records = data.position() / RECORD_SIZE;
+        int blocks = (records + INDEX_BLOCK - 1) / INDEX_BLOCK;
+        ByteBuffer index = ByteBuffer.allocate(4 + blocks * 16).putInt(records);
+        for (int block = 0; block < blocks; block++) {
+            index.putLong(blockMin[block]).putLong(blockMax[block]);
+        }
+        Files.write(indexFile(folder, segmentNumber).toPath(), index.array());
+
+        dataChannel.close();
+        stringChannel.close();
+        data = null;
+    }
+
+    /**
+     * Seal the active segment (written records stay readable and importable)
+     */
+    @Override
+    public void close() throws IOException {
+        if (data != null) {
+            seal();
+        }
+    }
+
+    public int getActiveSegment() { return segmentNumber; }
+    public int getActiveRecords() { return published; }
+    public File getFolder() { return folder; }
+
+    static List<Integer> listSegments(File folder) {
+        List<Integer> segments = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".seg"));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    segments.add(Integer.parseInt(file.getName().substring(0, file.getName().length() - 4)));
+                } catch (NumberFormatException ignored) {
+                    // Not a segment
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    static File dataFile(File folder, int segment) {
+        return new File(folder, String.format("%06d.seg", segment));
+    }
+
+    static File stringFile(File folder, int segment) {
+        return new File(folder, String.format("%06d.str", segment));
+    }
+
+    static File indexFile(File folder, int segment) {
+        return new File(folder, String.format("%06d.idx", segment));
+    }
+
+    /**
+     * Number of written records: they are contiguous, so binary search for the first empty one
+     */
+    private static int countRecords(ByteBuffer data, int capacity) {
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data.getInt(mid * RECORD_SIZE) != 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * {@link #countRecords(ByteBuffer, int)} for a reader's channel
+     */
+    private static int countRecords(FileChannel channel, int capacity) throws IOException {
+        ByteBuffer type = ByteBuffer.allocate(4);
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            type.clear();
+            channel.read(type, (long) mid * RECORD_SIZE);
+            if (type.position() == 4 && type.getInt(0) != 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ========================================
+    // READING
+    // ========================================
+
+    /**
+     * Open a reader over every segment, in append order
+     */
+    public static Reader read(File folder) throws IOException {
+        return new Reader(folder, listSegments(folder), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Open a reader over events with from <= timestamp < to, skipping
+     * blocks whose index range does not overlap
+     */
+    public static Reader seek(File folder, long from, long to) throws IOException {
+        return new Reader(folder, listSegments(folder), from, to);
+    }
+
+    /**
+     * Open a reader over a single segment
+     */
+    static Reader readSegment(File folder, int segment) throws IOException {
+        return new Reader(folder, List.of(segment), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Forward-only cursor over journal records.
+     * Call {@link #next()} before reading each record.
+     */
+    public static final class Reader implements Closeable {
+
+        private final File folder;
+        private final List<Integer> segments;
+        private final long from;
+        private final long to;
+
+        private int segmentIndex = -1;
+        private FileChannel dataChannel;
+        private FileChannel stringChannel;
+        // One index block of records at a time
+        private final ByteBuffer block = ByteBuffer.allocate(INDEX_BLOCK * RECORD_SIZE);
+        private int blockStart;
+        private int blockRecords;
+        private int records;
+        private long[] blockMin;
+        private long[] blockMax;
+        private int record = -1;
+        private final ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+
+        private Reader(File folder, List<Integer> segments, long from, long to) {
+            this.folder = folder;
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Advance to the next matching record
+         */
+        public boolean next() throws IOException {
+            while (true) {
+                if (dataChannel == null || ++record >= records) {
+                    if (!openNextSegment()) {
+                        return false;
+                    }
+                    record = 0;
+                    if (records == 0) {
+                        continue;
+                    }
+                }
+
+                // Skip whole blocks outside the range
+                if (record % INDEX_BLOCK == 0 && blockMin != null) {
+                    int block = record / INDEX_BLOCK;
+                    while (block < blockMin.length && (blockMax[block] < from || blockMin[block] >= to)) {
+                        block++;
+                    }
+                    record = Math.min(records, block * INDEX_BLOCK);
+                    if (record >= records) {
+                        continue;
+                    }
+                }
+
+                loadBlock();
+                long timestamp = timestamp();
+                if (timestamp >= from && timestamp < to) {
+                    return true;
+                }
+            }
+        }
+
+        private void loadBlock() throws IOException {
+            if (record >= blockStart && record < blockStart + blockRecords) {
+                return;
+            }
+            blockStart = record - record % INDEX_BLOCK;
+            blockRecords = Math.min(INDEX_BLOCK, records - blockStart);
+            block.clear().limit(blockRecords * RECORD_SIZE);
+            long position = (long) blockStart * RECORD_SIZE;
+            while (block.hasRemaining()) {
+                if (dataChannel.read(block, position + block.position()) < 0) {
+                    throw new IOException("Journal segment " + segment() + " is shorter than its records");
+                }
+            }
+        }
+
+        private int offset() {
+            return (record - blockStart) * RECORD_SIZE;
+        }
+
+        public int segment() { return segments.get(segmentIndex); }
+        public int position() { return record; }
+
+        public AuditEvent.EventType eventType() {
+            return EVENT_TYPES[block.getInt(offset()) - 1];
+        }
+
+        public int eventTypeOrdinal() {
+            return block.getInt(offset()) - 1;
+        }
+
+        public UUID playerUUID() {
+            long msb = block.getLong(offset() + 4);
+            long lsb = block.getLong(offset() + 12);
+            return msb == 0L && lsb == 0L ? null : new UUID(msb, lsb);
+        }
+
+        public long timestamp() {
+            return block.getLong(offset() + 20);
+        }
+
+        public String details() throws IOException {
+            int reference = block.getInt(offset() + 28);
+            if (reference == NO_DETAILS) {
+                return null;
+            }
+            lengthBuffer.clear();
+            if (stringChannel.read(lengthBuffer, reference) < 4) {
+                return null; // Active segment: not flushed yet
+            }
+            lengthBuffer.flip();
+            int length = lengthBuffer.getInt();
+            if (length < 0 || reference + 4L + length > stringChannel.size()) {
+                return null;
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(length);
+            while (bytes.hasRemaining() && stringChannel.read(bytes, reference + 4L + bytes.position()) > 0) {
+                // Read fully
+            }
+            return new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8);
+        }
+
+        private boolean openNextSegment() throws IOException {
+            closeSegment();
+            while (++segmentIndex < segments.size()) {
+                int segment = segments.get(segmentIndex);
+                File indexFile = indexFile(folder, segment);
+
+                // Sealed segments: the index gives the record count and block ranges
+                int indexedRecords = -1;
+                blockMin = null;
+                blockMax = null;
+                if (indexFile.exists()) {
+                    ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+                    indexedRecords = index.getInt();
+                    int blocks = index.remaining() / 16;
+                    blockMin = new long[blocks];
+                    blockMax = new long[blocks];
+                    long segmentMin = Long.MAX_VALUE;
+                    long segmentMax = Long.MIN_VALUE;
+                    for (int block = 0; block < blocks; block++) {
+                        blockMin[block] = index.getLong();
+                        blockMax[block] = index.getLong();
+                        segmentMin = Math.min(segmentMin, blockMin[block]);
+                        segmentMax = Math.max(segmentMax, blockMax[block]);
+                    }
+                    if (segmentMax < from || segmentMin >= to) {
+                        continue;
+                    }
+                }
+
+                dataChannel = FileChannel.open(dataFile(folder, segment).toPath(), StandardOpenOption.READ);
+                stringChannel = FileChannel.open(stringFile(folder, segment).toPath(), StandardOpenOption.READ);
+                records = indexedRecords >= 0
+                    ? indexedRecords
+                    : countRecords(dataChannel, (int) (dataChannel.size() / RECORD_SIZE));
+                blockStart = 0;
+                blockRecords = 0;
+                return true;
+            }
+            return false;
+        }
+
+        private void closeSegment() throws IOException {
+            if (dataChannel != null) {
+                dataChannel.close();
+                dataChannel = null;
+            }
+            if (stringChannel != null) {
+                stringChannel.close();
+                stringChannel = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeSegment();
+            segmentIndex = segments.size();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.nexus.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AuditJournalImporter - Moves sealed journal segments into nexus_audit
+ *
+ * Segments are imported oldest first in batches (one transaction each).
+ * After every committed batch the number of imported records is stored
+ * next to the segment (NNNNNN.pos), so an interrupted import resumes where
+ * it stopped. A fully imported segment is deleted.
+ *
+ * Blocking: run it off the main thread.
+ *
+ * @author Nexus Development Team
+ */
+public class AuditJournalImporter {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final AuditService auditService;
+    private final File folder;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile long imported;
+    private volatile int segmentsDone;
+
+    public AuditJournalImporter(AuditService auditService) {
+        this(auditService, auditService.getJournalFolder());
+    }
+
+    /**
+     * Importer for another folder of sealed segments (shutdown recovery)
+     */
+    public AuditJournalImporter(AuditService auditService, File folder) {
+        this.auditService = auditService;
+        this.folder = folder;
+    }
+
+    /**
+     * Import every sealed segment (the active one is left to the writer)
+     *
+     * @return number of records imported by this run
+     * @throws IllegalStateException if an import is already running
+     */
+    public long run() throws IOException, SQLException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Journal import already running");
+        }
+        imported = 0;
+        segmentsDone = 0;
+        try {
+            AuditJournal journal = auditService.getJournal();
+            int active = journal != null && journal.getFolder().equals(folder) ? journal.getActiveSegment() : -1;
+
+            List<Integer> segments = AuditJournal.listSegments(folder);
+            for (int segment : segments) {
+                if (segment == active || !AuditJournal.indexFile(folder, segment).exists()) {
+                    continue;
+                }
+                importSegment(segment);
+                segmentsDone++;
+            }
+            return imported;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void importSegment(int segment) throws IOException, SQLException {
+        File positionFile = new File(folder, String.format("%06d.pos", segment));
+        long done = positionFile.exists() ? ByteBuffer.wrap(Files.readAllBytes(positionFile.toPath())).getLong() : 0;
+
+        AuditRingBuffer.Batch batch = new AuditRingBuffer.Batch(BATCH_SIZE);
+        long position = 0;
+        try (AuditJournal.Reader reader = AuditJournal.readSegment(folder, segment)) {
+            while (reader.next()) {
+                if (position++ < done) {
+                    continue;
+                }
+                int index = batch.size++;
+                batch.types[index] = reader.eventTypeOrdinal();
+                batch.players[index] = reader.playerUUID();
+                batch.timestamps[index] = reader.timestamp();
+                batch.details[index] = reader.details();
+                if (batch.size == BATCH_SIZE) {
+                    done = commit(batch, positionFile, done);
+                }
+            }
+            if (batch.size > 0) {
+                commit(batch, positionFile, done);
+            }
+        }
+
+        for (File file : new File[] {
+                AuditJournal.dataFile(folder, segment), AuditJournal.stringFile(folder, segment),
+                AuditJournal.indexFile(folder, segment), positionFile }) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    private long commit(AuditRingBuffer.Batch batch, File positionFile, long done) throws IOException, SQLException {
+        int size = batch.size;
+        auditService.insert(batch);
+        batch.clear();
+        imported += size;
+        long total = done + size;
+        Files.write(positionFile.toPath(), ByteBuffer.allocate(8).putLong(total).array());
+        return total;
+    }
+
+    public boolean isRunning() { return running.get(); }
+    public long getImported() { return imported; }
+    public int getSegmentsDone() { return segmentsDone; }
+}
@@ -0,0 +1,210 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.AuditEvent;
+import com.nexus.utils.UuidCodec;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AuditQueryService - Filtered, paginated audit lookups
+ *
+ * Answers "events of player X between T1 and T2 of types {...}", newest
+ * first, one page at a time:
+ * - ranges inside the hot window are served from memory ({@link AuditHotWindow})
+ * - older ranges go to the database, using the (player_uuid, timestamp) and
+ *   (event_type, timestamp) indexes, across the weekly partitions that
+ *   overlap the range
+ *
+ * Pagination is keyset-based: the next page continues strictly below the
+ * (timestamp, id) of the last row returned, so deep pages cost the same as
+ * the first one.
+ *
+ * Database queries block: call {@link #query} off the main thread unless
+ * {@link #isInMemory} says the range is in the hot window.
+ *
+ * @author Nexus Development Team
+ */
+public class AuditQueryService {
+
+    private final NexusPlugin plugin;
+    private final AuditService auditService;
+
+    private final LongAdder memoryPages = new LongAdder();
+    private final LongAdder databasePages = new LongAdder();
+
+    /**
+     * Query filters. A null player or empty type set means "any".
+     */
+    public record Filter(UUID player, Set<AuditEvent.EventType> types, long from, long to) {
+        long typeMask() {
+            if (types == null || types.isEmpty()) {
+                return -1L;
+            }
+            long mask = 0L;
+            for (AuditEvent.EventType type : types) {
+                mask |= 1L << type.ordinal();
+            }
+            return mask;
+        }
+    }
+
+    /**
+     * Position after the last row of a page
+     */
+    public record Cursor(long timestamp, long id, boolean memory) {}
+
+    /**
+     * One page of results; next is null when there are no more rows
+     */
+    public record Page(List<AuditEvent> events, Cursor next, boolean fromMemory) {
+        public boolean hasMore() {
+            return next != null;
+        }
+    }
+
+    public AuditQueryService(NexusPlugin plugin, AuditService auditService) {
+        this.plugin = plugin;
+        this.auditService = auditService;
+    }
+
+    /**
+     * Whether the first page of this filter can be answered without the database
+     */
+    public boolean isInMemory(Filter filter) {
+        return filter.from() >= auditService.getHotWindow().coverageStart();
+    }
+
+    /**
+     * Fetch the page after a cursor (null for the first page)
+     */
+    public Page query(Filter filter, Cursor after, int limit) throws SQLException {
+        if (after != null ? after.memory() : isInMemory(filter)) {
+            memoryPages.increment();
+            return queryMemory(filter, after, limit);
+        }
+        databasePages.increment();
+        return queryDatabase(filter, after, limit);
+    }
+
+    public long getMemoryPages() { return memoryPages.sum(); }
+    public long getDatabasePages() { return databasePages.sum(); }
+
+    // ========================================
+    // HOT WINDOW
+    // ========================================
+
+    private Page queryMemory(Filter filter, Cursor after, int limit) {
+        List<AuditEvent> events = new ArrayList<>(Math.min(limit, 256));
+        long last = auditService.getHotWindow().query(filter.player(), filter.typeMask(), filter.from(), filter.to(),
+            after != null ? after.id() : Long.MAX_VALUE, limit, events);
+        Cursor next = last >= 0
+            ? new Cursor(events.get(events.size() - 1).getTimestamp(), last, true)
+            : null;
+        return new Page(events, next, true);
+    }
+
+    // ========================================
+    // DATABASE
+    // ========================================
+
+    private Page queryDatabase(Filter filter, Cursor after, int limit) throws SQLException {
+        List<String> tables = new ArrayList<>(auditService.getStorage().tablesFor(filter.from(), filter.to()));
+        Collections.reverse(tables); // Newest first
+
+        List<AuditEvent> events = new ArrayList<>(Math.min(limit, 256));
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            for (String table : tables) {
+                if (events.size() >= limit) {
+                    break;
+                }
+                queryTable(conn, table, filter, after, limit - events.size(), events);
+            }
+        }
+
+        Cursor next = null;
+        if (events.size() >= limit) {
+            AuditEvent last = events.get(events.size() - 1);
+            next = new Cursor(last.getTimestamp(), last.getId(), false);
+        }
+        return new Page(events, next, false);
+    }
+
+    private void queryTable(Connection conn, String table, Filter filter, Cursor after, int limit,
+                            List<AuditEvent> out) throws SQLException {
+        boolean binary = plugin.getDatabaseService().getUuidMode() == DatabaseService.UuidMode.BINARY;
+        String playerColumn = binary ? "player_uuid_bin" : "player_uuid";
+        StringBuilder sql = new StringBuilder(256)
+            .append("SELECT id, ").append(playerColumn).append(" AS player_uuid, event_type, details, timestamp, ip_address")
+            .append(" FROM ").append(table)
+            .append(" WHERE timestamp >= ? AND timestamp < ?");
+        if (filter.player() != null) {
+            sql.append(" AND ").append(playerColumn).append(" = ?");
+        }
+        Set<AuditEvent.EventType> types = filter.types();
+        boolean filterTypes = types != null && !types.isEmpty();
+        if (filterTypes) {
+            sql.append(" AND event_type IN (");
+            for (int i = 0; i < types.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+        }
+        if (after != null) {
+            sql.append(" AND (timestamp < ? OR (timestamp = ? AND id < ?))");
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            stmt.setLong(index++, filter.from());
+            stmt.setLong(index++, after != null ? Math.min(filter.to(), after.timestamp() + 1) : filter.to());
+            if (filter.player() != null) {
+                UuidCodec.bind(stmt, index++, filter.player(), binary);
+            }
+            if (filterTypes) {
+                for (AuditEvent.EventType type : types) {
+                    stmt.setString(index++, type.name());
+                }
+            }
+            if (after != null) {
+                stmt.setLong(index++, after.timestamp());
+                stmt.setLong(index++, after.timestamp());
+                stmt.setLong(index++, after.id());
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    AuditEvent event = readEvent(rs);
+                    if (event != null) {
+                        out.add(event);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Map a row to an event (null for event types no longer known)
+     */
+    private static AuditEvent readEvent(ResultSet rs) throws SQLException {
+        AuditEvent.EventType type;
+        try {
+            type = AuditEvent.EventType.valueOf(rs.getString("event_type"));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return new AuditEvent(rs.getInt("id"), UuidCodec.read(rs, "player_uuid"), type,
+            rs.getString("details"), rs.getLong("timestamp"), rs.getString("ip_address"));
+    }
+}
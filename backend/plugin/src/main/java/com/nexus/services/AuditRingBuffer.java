@@ -0,0 +1,156 @@
+package com.nexus.services;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * AuditRingBuffer - Preallocated multi-producer, single-consumer event queue
+ *
+ * Slots are parallel arrays sized once at startup, so publishing an event
+ * never allocates. Producers claim a sequence with a CAS on the head and
+ * publish the slot by writing its sequence number; the single consumer reads
+ * slots in order and releases them by advancing the tail.
+ *
+ * Producers never wait: when the buffer is full, {@link #tryPublish} returns
+ * false and the caller counts the drop.
+ *
+ * @author Nexus Development Team
+ */
+final class AuditRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+
+    // Slot storage (index = sequence & mask)
+    private final long[] timestamps;
+    private final int[] types;
+    private final UUID[] players;
+    private final String[] details;
+    private final String[] addresses;
+    // Sequence published in each slot; a slot is readable when published[i] == sequence
+    private final AtomicLongArray published;
+
+    // Next sequence to claim (producers) and next sequence to read (consumer)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.types = new int[capacity];
+        this.players = new UUID[capacity];
+        this.details = new String[capacity];
+        this.addresses = new String[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    // ========================================
+    // PRODUCERS
+    // ========================================
+
+    /**
+     * Publish an event; returns false immediately if the buffer is full
+     */
+    boolean tryPublish(UUID player, int type, String detail, String address, long timestamp) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail.get() >= capacity) {
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        timestamps[index] = timestamp;
+        types[index] = type;
+        players[index] = player;
+        details[index] = detail;
+        addresses[index] = address;
+        // Ordered write: slot fields become visible before the sequence
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    // ========================================
+    // CONSUMER
+    // ========================================
+
+    /**
+     * Move up to max published events into the batch (consumer thread only)
+     *
+     * @return number of events moved
+     */
+    int drainTo(Batch batch, int max) {
+        long sequence = tail.get();
+        int limit = Math.min(max, batch.capacity() - batch.size);
+        int moved = 0;
+        while (moved < limit) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence) {
+                break;
+            }
+            int target = batch.size++;
+            batch.timestamps[target] = timestamps[index];
+            batch.types[target] = types[index];
+            batch.players[target] = players[index];
+            batch.details[target] = details[index];
+            batch.addresses[target] = addresses[index];
+            // Release references so the slot does not pin strings until reuse
+            players[index] = null;
+            details[index] = null;
+            addresses[index] = null;
+            sequence++;
+            moved++;
+        }
+        if (moved > 0) {
+            tail.lazySet(sequence);
+        }
+        return moved;
+    }
+
+    int size() {
+        return (int) Math.max(0, head.get() - tail.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Consumer-side copy of drained events, reused between flushes
+     */
+    static final class Batch {
+        final long[] timestamps;
+        final int[] types;
+        final UUID[] players;
+        final String[] details;
+        final String[] addresses;
+        int size;
+
+        Batch(int capacity) {
+            this.timestamps = new long[capacity];
+            this.types = new int[capacity];
+            this.players = new UUID[capacity];
+            this.details = new String[capacity];
+            this.addresses = new String[capacity];
+        }
+
+        int capacity() {
+            return timestamps.length;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                players[i] = null;
+                details[i] = null;
+                addresses[i] = null;
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.AuditEvent;
+import com.nexus.utils.ConfigSnapshot;
+import com.nexus.utils.UuidCodec;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * AuditService - Non-blocking audit event ingest
+ *
+ * Game code calls {@link #log} from any thread. The event type is checked
+ * against the tracked set (an EnumSet from the config snapshot) before
+ * anything is allocated; accepted events are copied into a preallocated
+ * ring buffer and written to nexus_audit in batches by a single background
+ * thread. Callers never touch the database and never wait: if the buffer
+ * is full the event is dropped and counted. Batches are written when full
+ * or after the save interval, but the writer drains the buffer into the
+ * {@link AuditHotWindow} at least every {@value #HOT_WINDOW_LAG_MILLIS} ms,
+ * so queries see recent events even when traffic is too low to fill one.
+ *
+ * Rows are routed to weekly partitions by {@link AuditStorage}. When the
+ * binary journal is enabled, batches are appended to {@link AuditJournal}
+ * instead and imported into the database later.
+ *
+ * On disable the {@link ShutdownCoordinator} stops intake and lets the
+ * writer flush the buffer in full batches, once the producers already past
+ * the intake check have published. If the database fails or the
+ * shutdown budget runs out, the events still buffered are saved as journal
+ * segments in the recovery folder and imported on the next start (without
+ * their IP addresses, which the journal does not store).
+ *
+ * @author Nexus Development Team
+ */
+public class AuditService implements ShutdownCoordinator.Participant {
+
+    private static final AuditEvent.EventType[] EVENT_TYPES = AuditEvent.EventType.values();
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long HOT_WINDOW_LAG_MILLIS = 250;
+
+    // The trailing %s pair adds the id column where AuditStorage hands out ids
+    private static final String INSERT_SQL =
+        "INSERT INTO %s (player_uuid, event_type, details, timestamp, ip_address%s) VALUES (?, ?, ?, ?, ?%s)";
+    // Once the UUID migration has added the shadow column, both encodings are written
+    private static final String INSERT_DUAL_SQL =
+        "INSERT INTO %s (player_uuid, event_type, details, timestamp, ip_address, player_uuid_bin%s) " +
+        "VALUES (?, ?, ?, ?, ?, ?%s)";
+
+    private final NexusPlugin plugin;
+    private final AuditStorage storage;
+    private AuditJournal journal;
+    private final AuditJournalImporter journalImporter;
+    private final AuditRingBuffer buffer;
+    private final AuditRingBuffer.Batch batch;
+    private final AuditHotWindow hotWindow;
+    private final int highWaterMark;
+    private final long flushIntervalNanos;
+
+    // Counters
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder backpressure = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    // Producers between the running check and the end of their publish; the
+    // writer waits for them after intake stops so its last drain sees every event
+    private final AtomicInteger producers = new AtomicInteger();
+    private volatile boolean wakeRequested;
+    private volatile boolean abandoned;
+    private Thread consumer;
+
+    public AuditService(NexusPlugin plugin) {
+        this.plugin = plugin;
+        this.storage = new AuditStorage(plugin);
+
+        ConfigSnapshot.AuditConfig config = plugin.getConfigManager().getSnapshot().audit();
+        this.buffer = new AuditRingBuffer(config.bufferCapacity());
+        this.batch = new AuditRingBuffer.Batch(Math.min(config.batchSize(), buffer.capacity()));
+        this.highWaterMark = buffer.capacity() - buffer.capacity() / 4;
+        this.flushIntervalNanos = TimeUnit.SECONDS.toNanos(config.saveIntervalSeconds());
+
+        ConfigSnapshot.AuditWindowConfig windowConfig = plugin.getConfigManager().getSnapshot().auditWindow();
+        this.hotWindow = new AuditHotWindow(windowConfig.capacity(), TimeUnit.HOURS.toMillis(windowConfig.hours()));
+
+        ConfigSnapshot.AuditJournalConfig journalConfig = plugin.getConfigManager().getSnapshot().auditJournal();
+        if (journalConfig.enabled()) {
+            try {
+                this.journal = new AuditJournal(getJournalFolder(), journalConfig.segmentMegabytes());
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to open audit journal; writing to the database.", e);
+            }
+        }
+        this.journalImporter = new AuditJournalImporter(this);
+    }
+
+    /**
+     * Start the writer thread
+     */
+    public void start() {
+        storage.start();
+        running = true;
+        consumer = new Thread(this::runConsumer, "Nexus-Audit-Writer");
+        consumer.setDaemon(true);
+        consumer.start();
+        plugin.getLogger().info(String.format("✓ Audit pipeline started (buffer %d, batch %d, sink %s).",
+            buffer.capacity(), batch.capacity(), journal != null ? "journal" : "database"));
+    }
+
+    /**
+     * Stop accepting events, write what is buffered and stop the writer thread
+     */
+    public void shutdown() {
+        storage.shutdown();
+        if (consumer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            // After a spill the shutdown coordinator already waited as long as it could
+            if (!abandoned) {
+                consumer.join(SHUTDOWN_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer.isAlive()) {
+            plugin.getLogger().warning(String.format(
+                "Audit writer did not finish in time; %d event(s) may be lost.", buffer.size()));
+        } else if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to seal audit journal segment!", e);
+            }
+        }
+        consumer = null;
+    }
+
+    // ========================================
+    // INGEST
+    // ========================================
+
+    /**
+     * Whether events of this type are recorded (use to skip building details)
+     */
+    public boolean isTracked(AuditEvent.EventType type) {
+        return plugin.getConfigManager().getSnapshot().audit().isTracked(type);
+    }
+
+    public boolean log(UUID player, AuditEvent.EventType type, String details) {
+        return log(player, type, details, null);
+    }
+
+    public boolean log(AuditEvent event) {
+        return log(event.getPlayerUUID(), event.getEventType(), event.getDetails(), event.getIpAddress(),
+            event.getTimestamp());
+    }
+
+    /**
+     * Record an event; returns false when it is not tracked or the buffer is full
+     */
+    public boolean log(UUID player, AuditEvent.EventType type, String details, String ipAddress) {
+        return log(player, type, details, ipAddress, System.currentTimeMillis());
+    }
+
+    private boolean log(UUID player, AuditEvent.EventType type, String details, String ipAddress, long timestamp) {
+        if (!isTracked(type)) {
+            filtered.increment();
+            return false;
+        }
+        producers.incrementAndGet();
+        try {
+            if (!running) {
+                dropped.increment();
+                return false;
+            }
+            if (!buffer.tryPublish(player, type.ordinal(), details, ipAddress, timestamp)) {
+                dropped.increment();
+                return false;
+            }
+        } finally {
+            producers.decrementAndGet();
+        }
+        accepted.increment();
+
+        int size = buffer.size();
+        if (size >= highWaterMark) {
+            backpressure.increment();
+        }
+        if (size >= batch.capacity() && !wakeRequested) {
+            wakeRequested = true;
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    // ========================================
+    // WRITER THREAD
+    // ========================================
+
+    private void runConsumer() {
+        long lastFlush = System.nanoTime();
+        long lastDropWarning = lastFlush;
+        long reportedDrops = 0;
+
+        while (!abandoned) {
+            if (!running && producers.get() > 0) {
+                // A producer passed the running check: let it finish publishing
+                Thread.onSpinWait();
+                continue;
+            }
+            boolean stopping = !running;
+            int moved = buffer.drainTo(batch, batch.capacity());
+            if (moved > 0) {
+                // Recent events are queryable from memory before they reach the database
+                hotWindow.append(batch, batch.size - moved, batch.size);
+            }
+
+            long now = System.nanoTime();
+            if (batch.size > 0
+                    && (batch.size == batch.capacity() || stopping || now - lastFlush >= flushIntervalNanos)) {
+                if (!flush() && stopping) {
+                    break; // Keep the batch for the shutdown spill
+                }
+                lastFlush = now;
+                continue;
+            }
+            if (stopping) {
+                break;
+            }
+            if (batch.size == 0) {
+                lastFlush = now;
+            }
+
+            long drops = dropped.sum();
+            if (drops > reportedDrops && now - lastDropWarning >= DROP_WARNING_INTERVAL_NANOS) {
+                plugin.getLogger().warning(String.format(
+                    "Audit buffer full: %d event(s) dropped since last report.", drops - reportedDrops));
+                reportedDrops = drops;
+                lastDropWarning = now;
+            }
+
+            wakeRequested = false;
+            // Wake for the hot window even when the next flush is further away
+            long wait = Math.min(flushIntervalNanos - (now - lastFlush),
+                TimeUnit.MILLISECONDS.toNanos(HOT_WINDOW_LAG_MILLIS));
+            LockSupport.parkNanos(this, Math.max(wait, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    private boolean flush() {
+        int size = batch.size;
+        try {
+            if (journal != null) {
+                journal.append(batch);
+            } else {
+                insert(batch);
+            }
+            written.add(size);
+            batches.increment();
+            batch.clear();
+            return true;
+        } catch (SQLException | IOException e) {
+            if (!running) {
+                plugin.getLogger().log(Level.WARNING, String.format(
+                    "Failed to write %d audit event(s) on shutdown; keeping them for recovery.", size), e);
+                return false;
+            }
+            failed.add(size);
+            plugin.getLogger().log(Level.WARNING, String.format("Failed to write %d audit event(s)!", size), e);
+            batch.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Insert a batch into the audit tables in one transaction
+     * (writer thread, or the journal importer)
+     */
+    void insert(AuditRingBuffer.Batch batch) throws SQLException {
+        int size = batch.size;
+        boolean dual = plugin.getDatabaseService().getUuidMode() != DatabaseService.UuidMode.TEXT;
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            // Create missing partitions before the transaction so a rollback cannot undo them
+            long week = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                long start = AuditStorage.weekStart(batch.timestamps[i]);
+                if (start != week) {
+                    storage.tableForWrite(conn, batch.timestamps[i]);
+                    week = start;
+                }
+            }
+
+            boolean explicitIds = storage.assignsIds();
+            long nextId = explicitIds ? storage.nextIds(size) : 0;
+            int idIndex = dual ? 7 : 6;
+
+            conn.setAutoCommit(false);
+            PreparedStatement stmt = null;
+            week = Long.MIN_VALUE;
+            try {
+                for (int i = 0; i < size; i++) {
+                    // Batches are time-ordered, so the target table rarely changes mid-batch
+                    long start = AuditStorage.weekStart(batch.timestamps[i]);
+                    if (stmt == null || start != week) {
+                        if (stmt != null) {
+                            stmt.executeBatch();
+                            stmt.close();
+                        }
+                        String table = storage.tableForWrite(conn, batch.timestamps[i]);
+                        stmt = conn.prepareStatement(String.format(dual ? INSERT_DUAL_SQL : INSERT_SQL, table,
+                            explicitIds ? ", id" : "", explicitIds ? ", ?" : ""));
+                        week = start;
+                    }
+
+                    UUID player = batch.players[i];
+                    if (player != null) {
+                        stmt.setString(1, player.toString());
+                    } else {
+                        stmt.setNull(1, Types.VARCHAR);
+                    }
+                    stmt.setString(2, EVENT_TYPES[batch.types[i]].name());
+                    stmt.setString(3, batch.details[i]);
+                    stmt.setLong(4, batch.timestamps[i]);
+                    stmt.setString(5, batch.addresses[i]);
+                    if (dual) {
+                        UuidCodec.bind(stmt, 6, player, true);
+                    }
+                    if (explicitIds) {
+                        stmt.setLong(idIndex, nextId++);
+                    }
+                    stmt.addBatch();
+                }
+                if (stmt != null) {
+                    stmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                if (stmt != null) {
+                    stmt.close();
+                }
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // ========================================
+    // SHUTDOWN FLUSH
+    // ========================================
+
+    @Override
+    public String getShutdownName() {
+        return "auditoria";
+    }
+
+    @Override
+    public void stopIntake() {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Wait for the writer to flush the buffer and exit
+     */
+    @Override
+    public boolean drain(long deadlineNanos) {
+        if (consumer == null) {
+            return true;
+        }
+        joinConsumer(deadlineNanos);
+        return !consumer.isAlive() && getPending() == 0;
+    }
+
+    @Override
+    public int getPending() {
+        return buffer.size() + batch.size;
+    }
+
+    /**
+     * Stop the writer after its current write and save the buffered events
+     * as journal segments in the folder
+     */
+    @Override
+    public int spill(File folder, long deadlineNanos) throws IOException {
+        abandoned = true;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            joinConsumer(deadlineNanos);
+            if (consumer.isAlive()) {
+                return 0; // Still inside a write; the buffer is not ours to read
+            }
+        }
+
+        int saved = 0;
+        try (AuditJournal recovery = new AuditJournal(folder, 1)) {
+            // The batch may still hold what the writer failed to flush
+            while (System.nanoTime() < deadlineNanos) {
+                if (buffer.drainTo(batch, batch.capacity()) == 0 && batch.size == 0) {
+                    break;
+                }
+                recovery.append(batch);
+                saved += batch.size;
+                batch.clear();
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Import the segments saved by the last shutdown
+     */
+    @Override
+    public long recover(File folder) throws IOException, SQLException {
+        return new AuditJournalImporter(this, folder).run();
+    }
+
+    private void joinConsumer(long deadlineNanos) {
+        try {
+            TimeUnit.NANOSECONDS.timedJoin(consumer, Math.max(1, deadlineNanos - System.nanoTime()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========================================
+    // STATISTICS
+    // ========================================
+
+    public long getAcceptedCount() { return accepted.sum(); }
+    public long getFilteredCount() { return filtered.sum(); }
+    public long getDroppedCount() { return dropped.sum(); }
+    public long getBackpressureCount() { return backpressure.sum(); }
+    public long getWrittenCount() { return written.sum(); }
+    public long getFailedCount() { return failed.sum(); }
+    public long getBatchCount() { return batches.sum(); }
+    public int getQueueSize() { return buffer.size(); }
+    public int getQueueCapacity() { return buffer.capacity(); }
+    public AuditStorage getStorage() { return storage; }
+    public AuditJournal getJournal() { return journal; }
+    AuditHotWindow getHotWindow() { return hotWindow; }
+    public AuditJournalImporter getJournalImporter() { return journalImporter; }
+
+    public File getJournalFolder() {
+        return new File(plugin.getDataFolder(), plugin.getConfigManager().getSnapshot().auditJournal().folder());
+    }
+}
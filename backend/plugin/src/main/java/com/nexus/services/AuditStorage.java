@@ -0,0 +1,559 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.ConfigSnapshot;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * AuditStorage - Time-partitioned storage for audit events
+ *
+ * Audit rows are partitioned by week (Monday 00:00 UTC) so that retention
+ * removes a whole week at once instead of deleting rows one by one:
+ * - SQLite: one table per week (nexus_audit_yyyyMMdd), created on first write
+ *   (or a week ahead) and dropped when expired. Ids come from one sequence
+ *   shared by every audit table ({@link #nextIds}), so they stay unique
+ *   across weeks even while two weekly tables receive rows.
+ * - MySQL: nexus_audit is converted to native RANGE partitions on timestamp;
+ *   upcoming weeks are added ahead of time and expired ones dropped.
+ *
+ * Rows that cannot be dropped with a partition (the pre-partitioning
+ * nexus_audit table on SQLite, or MySQL when partitioning is disabled or
+ * unavailable) are pruned in small chunks, one chunk per run of an async
+ * task, so retention never holds the database for long.
+ *
+ * Index upgrades and the one-time MySQL conversion to partitions rewrite
+ * whole tables, so they run in {@link #warmUp()} after the server is up,
+ * not during startup.
+ *
+ * @author Nexus Development Team
+ */
+public class AuditStorage {
+
+    /** Table written before partitioning (and the partitioned table on MySQL) */
+    public static final String BASE_TABLE = "nexus_audit";
+
+    private static final String PARTITION_PREFIX = BASE_TABLE + "_";
+    private static final long WEEK_MILLIS = TimeUnit.DAYS.toMillis(7);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final long MAINTENANCE_PERIOD_TICKS = 20L * 60 * 60;
+
+    private final NexusPlugin plugin;
+    private final boolean mysql;
+
+    // SQLite weekly tables known to exist
+    private final Set<String> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    // Last id handed out for SQLite weekly tables (0 when they are not used)
+    private final AtomicLong lastId = new AtomicLong();
+
+    private volatile boolean partitioned;
+    private volatile boolean stopped;
+    private volatile long pruneCutoff;
+    // Maintenance and prune tasks run on different async threads
+    private final LongAdder prunedRows = new LongAdder();
+    private final LongAdder droppedPartitions = new LongAdder();
+
+    private BukkitTask maintenanceTask;
+    private BukkitTask pruneTask;
+
+    public AuditStorage(NexusPlugin plugin) {
+        this.plugin = plugin;
+        this.mysql = plugin.getConfigManager().getSnapshot().storage().isMySQL();
+    }
+
+    /**
+     * Prepare this week's partition and schedule chunked pruning; table
+     * rewrites wait for {@link #warmUp()}
+     */
+    public void start() {
+        ConfigSnapshot.AuditConfig config = plugin.getConfigManager().getSnapshot().audit();
+        partitioned = config.partitioning();
+
+        if (partitioned && !mysql) {
+            try (Connection conn = plugin.getDatabaseService().getConnection()) {
+                loadSQLitePartitions(conn);
+                ensurePartition(conn, System.currentTimeMillis());
+                lastId.set(readLastSQLiteId(conn));
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to prepare audit partitions; using the base table.", e);
+                partitioned = false;
+            }
+        }
+
+        pruneTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+            plugin, this::pruneChunk, config.pruneIntervalTicks(), config.pruneIntervalTicks());
+    }
+
+    /**
+     * Upgrade indexes, run the first maintenance (on MySQL, the one-time
+     * conversion to partitions) and schedule the next ones (startup pool,
+     * after enable)
+     */
+    public void warmUp() {
+        upgradeIndexes();
+        runMaintenance();
+        synchronized (this) {
+            if (!stopped) {
+                maintenanceTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                    plugin, this::runMaintenance, MAINTENANCE_PERIOD_TICKS, MAINTENANCE_PERIOD_TICKS);
+            }
+        }
+    }
+
+    public synchronized void shutdown() {
+        stopped = true;
+        if (maintenanceTask != null) {
+            maintenanceTask.cancel();
+            maintenanceTask = null;
+        }
+        if (pruneTask != null) {
+            pruneTask.cancel();
+            pruneTask = null;
+        }
+    }
+
+    // ========================================
+    // ROUTING
+    // ========================================
+
+    /**
+     * Table that receives an event with this timestamp, creating it if needed
+     * (called by the audit writer on its own connection)
+     */
+    public String tableForWrite(Connection conn, long timestamp) throws SQLException {
+        if (!partitioned || mysql) {
+            return BASE_TABLE;
+        }
+        return ensurePartition(conn, timestamp);
+    }
+
+    /**
+     * Whether inserts must carry ids from {@link #nextIds} (SQLite weekly tables)
+     */
+    public boolean assignsIds() {
+        return partitioned && !mysql;
+    }
+
+    /**
+     * Reserve ids for count rows; returns the first. Ids of a rolled back
+     * batch are not reused.
+     */
+    public long nextIds(int count) {
+        return lastId.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Tables that may hold events in [fromMillis, toMillis), oldest first.
+     * Queries should run against each and merge (or UNION ALL) the results.
+     */
+    public List<String> tablesFor(long fromMillis, long toMillis) {
+        List<String> tables = new ArrayList<>();
+        if (!partitioned || mysql) {
+            // MySQL prunes partitions itself from the timestamp predicate
+            tables.add(BASE_TABLE);
+            return tables;
+        }
+
+        // Legacy rows live in the base table until retention empties it
+        tables.add(BASE_TABLE);
+        List<String> weekly = new ArrayList<>(knownPartitions);
+        weekly.sort(null);
+        for (String table : weekly) {
+            long start = partitionStart(table);
+            if (start < toMillis && start + WEEK_MILLIS > fromMillis) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Every table that holds audit rows, oldest first
+     */
+    public List<String> allTables() {
+        return tablesFor(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2);
+    }
+
+    /**
+     * Start of the week (Monday 00:00 UTC) that contains a timestamp
+     */
+    public static long weekStart(long timestamp) {
+        long epochDay = Math.floorDiv(timestamp, DAY_MILLIS);
+        // 1970-01-01 was a Thursday: shift so weeks start on Monday
+        long monday = Math.floorDiv(epochDay + 3, 7) * 7 - 3;
+        return monday * DAY_MILLIS;
+    }
+
+    static String partitionName(long weekStart) {
+        return LocalDate.ofEpochDay(Math.floorDiv(weekStart, DAY_MILLIS)).format(PARTITION_FORMAT);
+    }
+
+    static long partitionStart(String name) {
+        String suffix = name.substring(name.lastIndexOf('_') + 1).replace("p", "");
+        return LocalDate.parse(suffix, PARTITION_FORMAT).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    // ========================================
+    // SQLITE WEEKLY TABLES
+    // ========================================
+
+    private void loadSQLitePartitions(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT name FROM sqlite_master WHERE type = 'table' AND name LIKE ?")) {
+            stmt.setString(1, PARTITION_PREFIX + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    if (isWeeklyTable(name)) {
+                        knownPartitions.add(name);
+                    }
+                }
+            }
+        }
+    }
+
+    private String ensurePartition(Connection conn, long timestamp) throws SQLException {
+        String table = PARTITION_PREFIX + partitionName(weekStart(timestamp));
+        if (knownPartitions.contains(table)) {
+            return table;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "player_uuid VARCHAR(36)," +
+                "event_type VARCHAR(50) NOT NULL," +
+                "details TEXT," +
+                "timestamp BIGINT," +
+                "ip_address VARCHAR(45)," +
+                "player_uuid_bin BLOB)");
+        }
+        createIndexes(conn, table);
+
+        knownPartitions.add(table);
+        return table;
+    }
+
+    /**
+     * Highest id used by any audit table (sqlite_sequence follows explicit
+     * ids as well as generated ones)
+     */
+    private static long readLastSQLiteId(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COALESCE(MAX(seq), 0) FROM sqlite_sequence WHERE name LIKE ?")) {
+            stmt.setString(1, BASE_TABLE + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    /**
+     * Composite indexes for investigations: player or type, then time range
+     */
+    private void createIndexes(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (plugin.getDatabaseService().getUuidMode() == DatabaseService.UuidMode.BINARY) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + table + "_player_bin_time ON " + table
+                    + " (player_uuid_bin, timestamp)");
+            } else {
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + table + "_player_time ON " + table
+                    + " (player_uuid, timestamp)");
+            }
+            stmt.execute("CREATE INDEX IF NOT EXISTS " + table + "_event_time ON " + table + " (event_type, timestamp)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS " + table + "_timestamp ON " + table + " (timestamp)");
+            // Single-column indexes are prefixes of the composite ones
+            stmt.execute("DROP INDEX IF EXISTS " + table + "_player");
+            stmt.execute("DROP INDEX IF EXISTS " + table + "_event");
+        }
+    }
+
+    /**
+     * Bring indexes of existing tables up to date (one-time cost after an upgrade)
+     */
+    private void upgradeIndexes() {
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            if (mysql) {
+                List<String> existing = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+                    stmt.setString(1, BASE_TABLE);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            existing.add(rs.getString(1));
+                        }
+                    }
+                }
+                boolean binary = plugin.getDatabaseService().getUuidMode() == DatabaseService.UuidMode.BINARY;
+                if (!binary && !existing.contains("idx_player_time")) {
+                    execute(conn, "ALTER TABLE " + BASE_TABLE + " ADD INDEX idx_player_time (player_uuid, timestamp)");
+                }
+                if (!existing.contains("idx_event_time")) {
+                    execute(conn, "ALTER TABLE " + BASE_TABLE + " ADD INDEX idx_event_time (event_type, timestamp)");
+                }
+                for (String obsolete : new String[] {"idx_player", "idx_event"}) {
+                    if (existing.contains(obsolete)) {
+                        execute(conn, "ALTER TABLE " + BASE_TABLE + " DROP INDEX " + obsolete);
+                    }
+                }
+            } else {
+                // Base table composites are created with the schema; drop the old ones
+                execute(conn, "DROP INDEX IF EXISTS " + BASE_TABLE + "_idx_player");
+                execute(conn, "DROP INDEX IF EXISTS " + BASE_TABLE + "_idx_event");
+                for (String table : knownPartitions) {
+                    createIndexes(conn, table);
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to upgrade audit indexes!", e);
+        }
+    }
+
+    /**
+     * Move player lookups to the binary UUID column on every audit table
+     * (last step of the UUID migration)
+     */
+    void switchToBinaryIndexes(Connection conn) throws SQLException {
+        if (mysql) {
+            boolean hasText = false;
+            boolean hasBinary = false;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+                stmt.setString(1, BASE_TABLE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        hasText |= rs.getString(1).equals("idx_player_time");
+                        hasBinary |= rs.getString(1).equals("idx_player_bin_time");
+                    }
+                }
+            }
+            if (!hasBinary) {
+                execute(conn, "ALTER TABLE " + BASE_TABLE + " ADD INDEX idx_player_bin_time (player_uuid_bin, timestamp)");
+            }
+            if (hasText) {
+                execute(conn, "ALTER TABLE " + BASE_TABLE + " DROP INDEX idx_player_time");
+            }
+            return;
+        }
+
+        // SQLite: the base table follows the schema naming (table_idx_name), weekly tables their own
+        for (String table : allTables()) {
+            String prefix = table.equals(BASE_TABLE) ? BASE_TABLE + "_idx" : table;
+            execute(conn, "CREATE INDEX IF NOT EXISTS " + prefix + "_player_bin_time ON " + table
+                + " (player_uuid_bin, timestamp)");
+            execute(conn, "DROP INDEX IF EXISTS " + prefix + "_player_time");
+        }
+    }
+
+    private static boolean isWeeklyTable(String name) {
+        if (!name.startsWith(PARTITION_PREFIX) || name.length() != PARTITION_PREFIX.length() + 8) {
+            return false;
+        }
+        for (int i = PARTITION_PREFIX.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========================================
+    // RETENTION
+    // ========================================
+
+    /**
+     * Drop expired partitions and schedule chunked pruning for the rest
+     */
+    private void runMaintenance() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(
+            plugin.getConfigManager().getSnapshot().audit().historyDays());
+
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            if (partitioned && mysql) {
+                partitioned = maintainMySQLPartitions(conn, cutoff);
+            } else if (partitioned) {
+                maintainSQLitePartitions(conn, cutoff);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Audit partition maintenance failed!", e);
+        }
+
+        // Base table rows (legacy or unpartitioned) are pruned in chunks
+        pruneCutoff = cutoff;
+    }
+
+    private void maintainSQLitePartitions(Connection conn, long cutoff) throws SQLException {
+        ensurePartition(conn, System.currentTimeMillis());
+        ensurePartition(conn, System.currentTimeMillis() + WEEK_MILLIS);
+
+        List<String> tables = new ArrayList<>(knownPartitions);
+        tables.sort(null);
+        for (String table : tables) {
+            if (partitionStart(table) + WEEK_MILLIS > cutoff) {
+                break;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS " + table);
+                stmt.execute("DELETE FROM sqlite_sequence WHERE name = '" + table + "'");
+            }
+            knownPartitions.remove(table);
+            droppedPartitions.increment();
+            plugin.getLogger().info("Dropped expired audit partition " + table);
+        }
+    }
+
+    /**
+     * Keep RANGE partitions from the retention cutoff to next week.
+     *
+     * @return false if the table cannot be partitioned (chunked pruning takes over)
+     */
+    private boolean maintainMySQLPartitions(Connection conn, long cutoff) {
+        try {
+            List<String> existing = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                    "ORDER BY PARTITION_ORDINAL_POSITION")) {
+                stmt.setString(1, BASE_TABLE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+            }
+
+            long firstWeek = weekStart(cutoff);
+            long lastWeek = weekStart(System.currentTimeMillis()) + WEEK_MILLIS;
+
+            if (existing.isEmpty()) {
+                convertToPartitioned(conn, firstWeek, lastWeek);
+                return true;
+            }
+
+            // Add upcoming weeks by splitting the catch-all partition
+            long newest = firstWeek - WEEK_MILLIS;
+            for (String name : existing) {
+                if (!name.equals("pmax")) {
+                    newest = Math.max(newest, partitionStart(name));
+                }
+            }
+            StringBuilder added = new StringBuilder();
+            for (long week = newest + WEEK_MILLIS; week <= lastWeek; week += WEEK_MILLIS) {
+                added.append(partitionClause(week)).append(", ");
+            }
+            if (added.length() > 0) {
+                execute(conn, "ALTER TABLE " + BASE_TABLE + " REORGANIZE PARTITION pmax INTO (" +
+                    added + "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+            }
+
+            // Drop expired weeks whole
+            for (String name : existing) {
+                if (!name.equals("pmax") && partitionStart(name) + WEEK_MILLIS <= cutoff) {
+                    execute(conn, "ALTER TABLE " + BASE_TABLE + " DROP PARTITION " + name);
+                    droppedPartitions.increment();
+                    plugin.getLogger().info("Dropped expired audit partition " + name);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING,
+                "MySQL audit partitioning unavailable; falling back to chunked pruning.", e);
+            return false;
+        }
+    }
+
+    private void convertToPartitioned(Connection conn, long firstWeek, long lastWeek) throws SQLException {
+        plugin.getLogger().info("Converting " + BASE_TABLE + " to weekly partitions (one-time)...");
+        long start = System.currentTimeMillis();
+
+        // The partition column must be part of every unique key
+        execute(conn, "UPDATE " + BASE_TABLE + " SET timestamp = 0 WHERE timestamp IS NULL");
+        execute(conn, "ALTER TABLE " + BASE_TABLE + " MODIFY timestamp BIGINT NOT NULL, " +
+            "DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp)");
+
+        StringBuilder partitions = new StringBuilder();
+        // Everything older than retention lands in the first partition and is dropped next cycle
+        partitions.append("PARTITION p").append(partitionName(firstWeek - WEEK_MILLIS))
+            .append(" VALUES LESS THAN (").append(firstWeek).append("), ");
+        for (long week = firstWeek; week <= lastWeek; week += WEEK_MILLIS) {
+            partitions.append(partitionClause(week)).append(", ");
+        }
+        partitions.append("PARTITION pmax VALUES LESS THAN MAXVALUE");
+        execute(conn, "ALTER TABLE " + BASE_TABLE + " PARTITION BY RANGE (timestamp) (" + partitions + ")");
+
+        plugin.getLogger().info(String.format("✓ %s partitioned (took %dms)",
+            BASE_TABLE, System.currentTimeMillis() - start));
+    }
+
+    private static String partitionClause(long weekStart) {
+        return "PARTITION p" + partitionName(weekStart) + " VALUES LESS THAN (" + (weekStart + WEEK_MILLIS) + ")";
+    }
+
+    /**
+     * Delete one small chunk of expired rows from the base table.
+     * Runs on a short async timer until a chunk comes back short.
+     */
+    private void pruneChunk() {
+        long cutoff = pruneCutoff;
+        if (cutoff <= 0 || (partitioned && mysql)) {
+            return;
+        }
+
+        int chunk = plugin.getConfigManager().getSnapshot().audit().pruneChunkSize();
+        String sql = mysql
+            ? "DELETE FROM " + BASE_TABLE + " WHERE timestamp < ? LIMIT ?"
+            : "DELETE FROM " + BASE_TABLE + " WHERE id IN (SELECT id FROM " + BASE_TABLE +
+              " WHERE timestamp < ? LIMIT ?)";
+
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, cutoff);
+            stmt.setInt(2, chunk);
+            int deleted = stmt.executeUpdate();
+            prunedRows.add(deleted);
+            if (deleted < chunk) {
+                // Caught up until the next maintenance cycle
+                pruneCutoff = 0;
+            }
+        } catch (SQLException e) {
+            pruneCutoff = 0;
+            plugin.getLogger().log(Level.WARNING, "Failed to prune expired audit rows!", e);
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    // ========================================
+    // STATISTICS
+    // ========================================
+
+    public boolean isPartitioned() { return partitioned; }
+    public int getPartitionCount() { return mysql ? -1 : knownPartitions.size(); }
+    public long getPrunedRows() { return prunedRows.sum(); }
+    public long getDroppedPartitions() { return droppedPartitions.sum(); }
+    public boolean isPruning() { return pruneCutoff > 0; }
+}
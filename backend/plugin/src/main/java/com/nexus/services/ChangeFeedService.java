@@ -0,0 +1,408 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.ConfigSnapshot;
+import com.nexus.utils.Histogram;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * ChangeFeedService - Cache coherence between servers sharing one database
+ *
+ * Code that mutates a player or guild row calls {@link #publish} with the
+ * same connection, inside the same transaction, so the change row commits
+ * or rolls back with the mutation. Every server polls nexus_changes after
+ * its cursor on an async timer and hands the affected keys to the caches
+ * that subscribed for that entity; a key changed many times between two
+ * polls is delivered once. Rows written by this server are skipped: the
+ * writer updates or invalidates its own caches in place.
+ *
+ * Auto-increment ids are allocated before commit, so a row can become
+ * visible after rows with higher ids. Ids skipped by the cursor are kept
+ * as gaps and looked up again on later polls until they show up or are
+ * older than the lag bound (rolled back).
+ *
+ * Staleness is bounded by rede.feed-mudancas.atraso-maximo-segundos: if the
+ * feed cannot be read for that long, falls that far behind, or tracks too
+ * many gaps, every subscriber is reset (caches cleared) and the cursor
+ * jumps to the newest row. Lag is measured against created_at, the
+ * writing server's clock, so keep the servers' clocks in sync.
+ *
+ * @author Nexus Development Team
+ */
+public class ChangeFeedService {
+
+    private static final int MAX_PAGES_PER_POLL = 10;
+    private static final int MAX_GAPS = 1024;
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int PRUNE_CHUNK = 5000;
+
+    /**
+     * Kind of row a change refers to; the key is its primary key as text
+     */
+    public enum Entity { PLAYER, GUILD }
+
+    private record Change(Entity entity, String key) {}
+
+    /**
+     * Distinct changes collected by one poll
+     */
+    private static final class Batch {
+        final Set<Change> changes = new LinkedHashSet<>();
+        int rows;
+        int foreign;
+    }
+
+    private final NexusPlugin plugin;
+    private final ConfigSnapshot.ChangeFeedConfig config;
+    private final boolean mysql;
+    private final String origin;
+
+    private final Map<Entity, List<Consumer<String>>> subscribers = new EnumMap<>(Entity.class);
+    private final List<Runnable> resetListeners = new CopyOnWriteArrayList<>();
+
+    // Poller state (one poll at a time)
+    private final AtomicBoolean polling = new AtomicBoolean();
+    // Skipped id -> first seen; only the poller writes, metrics read the size
+    private final Map<Long, Long> gaps = new ConcurrentHashMap<>();
+    private volatile long cursor;
+    private volatile long lastSuccess;
+    private boolean resetSinceSuccess;
+    private long lastPrune;
+    private BukkitTask task;
+
+    // Metrics
+    private final LongAdder published = new LongAdder();
+    private final LongAdder read = new LongAdder();
+    private final LongAdder own = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder recoveredGaps = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Histogram lag = new Histogram();
+    private volatile long lastLagMillis;
+
+    public ChangeFeedService(NexusPlugin plugin) {
+        this.plugin = plugin;
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+        this.config = snapshot.changeFeed();
+        this.mysql = snapshot.storage().isMySQL();
+        this.origin = config.serverId().isEmpty() ? UUID.randomUUID().toString() : config.serverId();
+        for (Entity entity : Entity.values()) {
+            subscribers.put(entity, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * Start reading after the newest row (caches start empty) and schedule
+     * the poller (blocking)
+     */
+    public void start() throws SQLException {
+        if (!config.enabled()) {
+            return;
+        }
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            cursor = readNewestId(conn);
+        }
+        lastSuccess = System.currentTimeMillis();
+        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+            plugin, this::poll, config.intervalTicks(), config.intervalTicks());
+        plugin.getLogger().info(String.format("✓ Change feed: server %s, polling every %d tick(s) after id %d.",
+            origin, config.intervalTicks(), cursor));
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    // ========================================
+    // SUBSCRIPTION
+    // ========================================
+
+    /**
+     * Called on the poller thread with the key of each changed row
+     */
+    public void subscribe(Entity entity, Consumer<String> listener) {
+        subscribers.get(entity).add(listener);
+    }
+
+    /**
+     * Called on the poller thread when changes may have been missed:
+     * drop everything cached
+     */
+    public void onReset(Runnable listener) {
+        resetListeners.add(listener);
+    }
+
+    // ========================================
+    // PUBLISHING
+    // ========================================
+
+    /**
+     * Record a change on the caller's connection (and transaction)
+     */
+    public void publish(Connection conn, Entity entity, String key) throws SQLException {
+        if (!config.enabled()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO nexus_changes (entity, entity_key, origin, created_at) VALUES (?, ?, ?, ?)")) {
+            stmt.setString(1, entity.name());
+            stmt.setString(2, key);
+            stmt.setString(3, origin);
+            stmt.setLong(4, System.currentTimeMillis());
+            stmt.executeUpdate();
+        }
+        published.increment();
+    }
+
+    public void publish(Connection conn, UUID player) throws SQLException {
+        publish(conn, Entity.PLAYER, player.toString());
+    }
+
+    // ========================================
+    // POLLING
+    // ========================================
+
+    /**
+     * Read new rows and late commits, then deliver each changed key once
+     * (async timer)
+     */
+    void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            long maxLagMillis = TimeUnit.SECONDS.toMillis(config.maxLagSeconds());
+            Batch batch = new Batch();
+            boolean behind = false;
+            SQLException failure = null;
+
+            try (Connection conn = plugin.getDatabaseService().getConnection()) {
+                if (!gaps.isEmpty()) {
+                    readGaps(conn, batch, now, maxLagMillis);
+                }
+                for (int page = 0; page < MAX_PAGES_PER_POLL; page++) {
+                    behind = readAfter(conn, batch, now) == config.batchSize();
+                    if (!behind) {
+                        break;
+                    }
+                }
+                if (gaps.size() > MAX_GAPS || (behind && lastLagMillis > maxLagMillis)) {
+                    reset(conn, gaps.size() > MAX_GAPS ? "too many uncommitted ids" : "feed too far behind");
+                    batch.changes.clear();
+                }
+            } catch (SQLException e) {
+                failure = e;
+            }
+
+            // Rows read before a failure already moved the cursor: they are never read again
+            deliver(batch);
+
+            if (failure != null) {
+                failures.increment();
+                if (!resetSinceSuccess && now - lastSuccess > maxLagMillis) {
+                    plugin.getLogger().log(Level.WARNING, String.format(
+                        "Change feed unreadable for %ds; clearing caches.", (now - lastSuccess) / 1000), failure);
+                    resetSubscribers();
+                    resetSinceSuccess = true;
+                }
+                return;
+            }
+            lastSuccess = now;
+            resetSinceSuccess = false;
+
+            if (now - lastPrune >= PRUNE_INTERVAL_MILLIS) {
+                lastPrune = now;
+                prune(now);
+            }
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    private int readAfter(Connection conn, Batch batch, long now) throws SQLException {
+        String sql = "SELECT id, entity, entity_key, origin, created_at FROM nexus_changes WHERE id > ? " +
+            "ORDER BY id LIMIT " + config.batchSize();
+        int count = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, cursor);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    for (long missing = cursor + 1; missing < id && gaps.size() <= MAX_GAPS; missing++) {
+                        gaps.put(missing, now);
+                    }
+                    accept(rs, batch, now);
+                    cursor = id;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Look up ids skipped earlier; forget those older than the lag bound
+     */
+    private void readGaps(Connection conn, Batch batch, long now, long maxLagMillis) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, entity, entity_key, origin, created_at FROM nexus_changes WHERE id IN (");
+        for (int i = 0; i < gaps.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (long id : gaps.keySet()) {
+                stmt.setLong(index++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    accept(rs, batch, now);
+                    gaps.remove(id);
+                    recoveredGaps.increment();
+                }
+            }
+        }
+
+        Iterator<Long> seenAt = gaps.values().iterator();
+        while (seenAt.hasNext()) {
+            if (now - seenAt.next() > maxLagMillis) {
+                seenAt.remove(); // Rolled back, or committed too late to matter
+            }
+        }
+    }
+
+    private void accept(ResultSet rs, Batch batch, long now) throws SQLException {
+        batch.rows++;
+        if (origin.equals(rs.getString(4))) {
+            own.increment();
+            return;
+        }
+        batch.foreign++;
+        Entity entity;
+        try {
+            entity = Entity.valueOf(rs.getString(2));
+        } catch (IllegalArgumentException e) {
+            return; // Written by a newer version
+        }
+        batch.changes.add(new Change(entity, rs.getString(3)));
+        lastLagMillis = Math.max(0, now - rs.getLong(5));
+        lag.record(lastLagMillis);
+    }
+
+    private void deliver(Batch batch) {
+        read.add(batch.rows);
+        coalesced.add(Math.max(0, batch.foreign - batch.changes.size()));
+        for (Change change : batch.changes) {
+            for (Consumer<String> listener : subscribers.get(change.entity())) {
+                try {
+                    listener.accept(change.key());
+                } catch (RuntimeException e) {
+                    plugin.getLogger().log(Level.WARNING, "Change feed listener failed for "
+                        + change.entity() + " " + change.key() + "!", e);
+                }
+            }
+            applied.increment();
+        }
+    }
+
+    // ========================================
+    // RESET & PRUNING
+    // ========================================
+
+    private void reset(Connection conn, String reason) throws SQLException {
+        long from = cursor;
+        cursor = Math.max(cursor, readNewestId(conn));
+        gaps.clear();
+        plugin.getLogger().warning(String.format("Change feed reset (%s): skipped ids %d-%d, caches cleared.",
+            reason, from, cursor));
+        resetSubscribers();
+    }
+
+    private void resetSubscribers() {
+        resets.increment();
+        for (Runnable listener : resetListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Change feed reset listener failed!", e);
+            }
+        }
+    }
+
+    /**
+     * Delete one chunk of rows past retention (any server may do it);
+     * after delivery, so a failure here never costs a read
+     */
+    private void prune(long now) {
+        String sql = mysql
+            ? "DELETE FROM nexus_changes WHERE created_at < ? LIMIT ?"
+            : "DELETE FROM nexus_changes WHERE id IN (SELECT id FROM nexus_changes WHERE created_at < ? LIMIT ?)";
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, now - TimeUnit.MINUTES.toMillis(config.retentionMinutes()));
+            stmt.setInt(2, PRUNE_CHUNK);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to prune the change feed!", e);
+        }
+    }
+
+    private static long readNewestId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM nexus_changes")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // ========================================
+    // STATISTICS
+    // ========================================
+
+    public boolean isEnabled() { return config.enabled(); }
+    public String getOrigin() { return origin; }
+    public long getCursor() { return cursor; }
+    public int getGapCount() { return gaps.size(); }
+    public long getPublishedCount() { return published.sum(); }
+    public long getReadCount() { return read.sum(); }
+    public long getOwnCount() { return own.sum(); }
+    public long getAppliedCount() { return applied.sum(); }
+    public long getCoalescedCount() { return coalesced.sum(); }
+    public long getRecoveredGapCount() { return recoveredGaps.sum(); }
+    public long getResetCount() { return resets.sum(); }
+    public long getFailureCount() { return failures.sum(); }
+    public long getLastSuccess() { return lastSuccess; }
+
+    /**
+     * Delay between a change being written and read here, in milliseconds
+     */
+    public Histogram getLag() { return lag; }
+}
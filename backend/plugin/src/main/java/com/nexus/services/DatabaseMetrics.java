@@ -0,0 +1,372 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.Histogram;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DatabaseMetrics - Statement latency and connection pool instrumentation
+ *
+ * Connections handed out by {@link DatabaseService#getConnection()} are
+ * wrapped so that every execute call is timed into a histogram keyed by a
+ * statement label ("SELECT nexus_transactions", "INSERT nexus_audit_*"),
+ * derived once per SQL string. Alongside the statements it records:
+ * - pool wait: time spent inside the pool's getConnection
+ * - connection hold: time between getConnection and close, which is what
+ *   everyone else waits for on SQLite's single connection
+ * - batch sizes of executeBatch calls
+ * Statements slower than storage.metricas.consulta-lenta-ms are logged.
+ *
+ * All figures are in microseconds except batch sizes (rows).
+ *
+ * @author Nexus Development Team
+ */
+public class DatabaseMetrics {
+
+    private static final int MAX_LABELS = 256;
+    private static final int MAX_CACHED_SQL = 2048;
+    private static final int RECENT_SLOW = 5;
+    private static final int SLOW_SQL_CHARS = 200;
+    private static final String OVERFLOW_LABEL = "other";
+
+    // First table reference: INSERT INTO t, UPDATE t, ... FROM t (skips "FROM (")
+    private static final Pattern TABLE = Pattern.compile("(?i)\\b(?:FROM|INTO|UPDATE)\\s+`?([A-Za-z_][\\w.]*)");
+    private static final Pattern PARTITION_SUFFIX = Pattern.compile("_\\d{6,}$");
+
+    private static final Class<?>[] CONNECTION_TYPES = {Connection.class};
+    private static final Class<?>[] STATEMENT_TYPES = {Statement.class};
+    private static final Class<?>[] PREPARED_TYPES = {PreparedStatement.class};
+
+    private final NexusPlugin plugin;
+    private final HikariDataSource dataSource;
+
+    private final Histogram poolWait = new Histogram();
+    private final Histogram connectionHold = new Histogram();
+    private final Histogram batchSizes = new Histogram();
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final Map<String, String> labels = new ConcurrentHashMap<>();
+
+    private final AtomicLong slowQueries = new AtomicLong();
+    private final String[] recentSlow = new String[RECENT_SLOW];
+    private int recentSlowNext;
+    private volatile long since = System.currentTimeMillis();
+
+    /**
+     * Latency and failures of one statement label
+     */
+    public static final class StatementStats {
+        private final String label;
+        private final Histogram latency = new Histogram();
+        private final AtomicLong errors = new AtomicLong();
+
+        private StatementStats(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+        public Histogram getLatency() { return latency; }
+        public long getErrors() { return errors.get(); }
+    }
+
+    /**
+     * Connection counts as reported by the pool
+     */
+    public record PoolState(int active, int idle, int total, int waiting) {}
+
+    public DatabaseMetrics(NexusPlugin plugin, HikariDataSource dataSource) {
+        this.plugin = plugin;
+        this.dataSource = dataSource;
+    }
+
+    // ========================================
+    // WRAPPING
+    // ========================================
+
+    /**
+     * Instrument a connection just taken from the pool
+     *
+     * @param requestedAt System.nanoTime() before the pool was asked
+     */
+    Connection wrap(Connection connection, long requestedAt) {
+        long acquiredAt = System.nanoTime();
+        poolWait.record((acquiredAt - requestedAt) / 1000);
+        ConnectionHandler handler = new ConnectionHandler(connection, acquiredAt);
+        handler.proxy = (Connection) Proxy.newProxyInstance(
+            DatabaseMetrics.class.getClassLoader(), CONNECTION_TYPES, handler);
+        return handler.proxy;
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection delegate;
+        private final long acquiredAt;
+        private Connection proxy;
+        private boolean closed;
+
+        private ConnectionHandler(Connection delegate, long acquiredAt) {
+            this.delegate = delegate;
+            this.acquiredAt = acquiredAt;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        connectionHold.record((System.nanoTime() - acquiredAt) / 1000);
+                    }
+                    return call(delegate, method, args);
+                case "prepareStatement": {
+                    String sql = (String) args[0];
+                    Object statement = call(delegate, method, args);
+                    return Proxy.newProxyInstance(DatabaseMetrics.class.getClassLoader(), PREPARED_TYPES,
+                        new StatementHandler(statement, proxy, sql));
+                }
+                case "createStatement": {
+                    Object statement = call(delegate, method, args);
+                    return Proxy.newProxyInstance(DatabaseMetrics.class.getClassLoader(), STATEMENT_TYPES,
+                        new StatementHandler(statement, proxy, null));
+                }
+                default:
+                    return call(delegate, method, args);
+            }
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Object delegate;
+        private final Connection connection;
+        private final String sql;
+        private final String label;
+        private String batchSql;
+        private int pendingBatch;
+
+        private StatementHandler(Object delegate, Connection connection, String sql) {
+            this.delegate = delegate;
+            this.connection = connection;
+            this.sql = sql;
+            this.label = sql != null ? label(sql) : null;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "addBatch":
+                    pendingBatch++;
+                    if (sql == null && args != null && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                    return call(delegate, method, args);
+                case "clearBatch":
+                    pendingBatch = 0;
+                    batchSql = null;
+                    return call(delegate, method, args);
+                case "executeBatch":
+                case "executeLargeBatch": {
+                    batchSizes.record(pendingBatch);
+                    String statementSql = sql != null ? sql : batchSql;
+                    pendingBatch = 0;
+                    batchSql = null;
+                    return timed(statementSql, label != null ? label : labelOf(statementSql), method, args);
+                }
+                case "execute":
+                case "executeQuery":
+                case "executeUpdate":
+                case "executeLargeUpdate": {
+                    if (sql != null) {
+                        return timed(sql, label, method, args);
+                    }
+                    String statementSql = args != null && args.length > 0 ? (String) args[0] : null;
+                    return timed(statementSql, labelOf(statementSql), method, args);
+                }
+                case "getConnection":
+                    return connection;
+                default:
+                    return call(delegate, method, args);
+            }
+        }
+
+        private Object timed(String statementSql, String statementLabel, Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = call(delegate, method, args);
+                failed = false;
+                return result;
+            } finally {
+                record(statementLabel, statementSql, (System.nanoTime() - start) / 1000, failed);
+            }
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ========================================
+    // RECORDING
+    // ========================================
+
+    private void record(String label, String sql, long micros, boolean failed) {
+        StatementStats stats = statements.get(label);
+        if (stats == null) {
+            stats = statements.size() < MAX_LABELS
+                ? statements.computeIfAbsent(label, StatementStats::new)
+                : statements.computeIfAbsent(OVERFLOW_LABEL, StatementStats::new);
+        }
+        stats.latency.record(micros);
+        if (failed) {
+            stats.errors.incrementAndGet();
+        }
+
+        long thresholdMillis = plugin.getConfigManager().getSnapshot().databaseMetrics().slowQueryMillis();
+        if (micros >= thresholdMillis * 1000L) {
+            slow(label, sql, micros);
+        }
+    }
+
+    private void slow(String label, String sql, long micros) {
+        slowQueries.incrementAndGet();
+        String text = sql == null ? "" : sql.length() > SLOW_SQL_CHARS ? sql.substring(0, SLOW_SQL_CHARS) + "..." : sql;
+        String line = String.format("%d ms [%s] (%s) %s", micros / 1000, label,
+            Thread.currentThread().getName(), text);
+        plugin.getLogger().warning("Slow query: " + line);
+        synchronized (recentSlow) {
+            recentSlow[recentSlowNext] = line;
+            recentSlowNext = (recentSlowNext + 1) % RECENT_SLOW;
+        }
+    }
+
+    private String labelOf(String sql) {
+        return sql != null ? label(sql) : "unknown";
+    }
+
+    /**
+     * Statement label, cached per SQL text (prepared statements repeat it)
+     */
+    private String label(String sql) {
+        String cached = labels.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String label = describe(sql);
+        if (labels.size() < MAX_CACHED_SQL) {
+            labels.put(sql, label);
+        }
+        return label;
+    }
+
+    /**
+     * "VERB table" for DML, "VERB KIND" for DDL; partition suffixes collapse to "_*"
+     */
+    static String describe(String sql) {
+        String trimmed = sql.strip();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String verb = trimmed.substring(0, end).toUpperCase();
+
+        switch (verb) {
+            case "CREATE":
+            case "ALTER":
+            case "DROP": {
+                String rest = trimmed.substring(end).stripLeading();
+                int kindEnd = 0;
+                while (kindEnd < rest.length() && Character.isLetter(rest.charAt(kindEnd))) {
+                    kindEnd++;
+                }
+                return verb + " " + rest.substring(0, kindEnd).toUpperCase();
+            }
+            default:
+                Matcher table = TABLE.matcher(trimmed);
+                if (!table.find()) {
+                    return verb;
+                }
+                return verb + " " + PARTITION_SUFFIX.matcher(table.group(1)).replaceFirst("_*");
+        }
+    }
+
+    // ========================================
+    // READING
+    // ========================================
+
+    /**
+     * Statement labels, most total time first
+     */
+    public List<StatementStats> getStatements() {
+        List<StatementStats> result = new ArrayList<>(statements.values());
+        result.sort(Comparator.comparingDouble((StatementStats stats) -> {
+            Histogram.Snapshot snapshot = stats.latency.snapshot();
+            return snapshot.mean() * snapshot.count();
+        }).reversed());
+        return result;
+    }
+
+    public PoolState getPoolState() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return new PoolState(0, 0, 0, 0);
+        }
+        return new PoolState(pool.getActiveConnections(), pool.getIdleConnections(),
+            pool.getTotalConnections(), pool.getThreadsAwaitingConnection());
+    }
+
+    /**
+     * Most recent slow statements, newest first
+     */
+    public List<String> getRecentSlow() {
+        List<String> result = new ArrayList<>(RECENT_SLOW);
+        synchronized (recentSlow) {
+            for (int i = 1; i <= RECENT_SLOW; i++) {
+                String line = recentSlow[(recentSlowNext - i + RECENT_SLOW) % RECENT_SLOW];
+                if (line != null) {
+                    result.add(line);
+                }
+            }
+        }
+        return result;
+    }
+
+    public Histogram getPoolWait() { return poolWait; }
+    public Histogram getConnectionHold() { return connectionHold; }
+    public Histogram getBatchSizes() { return batchSizes; }
+    public long getSlowQueries() { return slowQueries.get(); }
+    public long getSince() { return since; }
+
+    public void reset() {
+        poolWait.reset();
+        connectionHold.reset();
+        batchSizes.reset();
+        statements.clear();
+        slowQueries.set(0);
+        synchronized (recentSlow) {
+            Arrays.fill(recentSlow, null);
+            recentSlowNext = 0;
+        }
+        since = System.currentTimeMillis();
+    }
+}
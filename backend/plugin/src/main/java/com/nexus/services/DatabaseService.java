@@ -6,7 +6,11 @@ import com.zaxxer.hikari.HikariDataSource;
 
 import java.io.File;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * DatabaseService - Database connection and management
@@ -18,13 +22,29 @@ import java.util.logging.Level;
  */
 public class DatabaseService {
     
+    // Inline "INDEX name (cols)" clauses are MySQL-only; SQLite needs CREATE INDEX
+    private static final Pattern CREATE_TABLE = Pattern.compile("^CREATE TABLE IF NOT EXISTS (\\w+)");
+    private static final Pattern INLINE_INDEX = Pattern.compile(",\\s*INDEX\\s+(\\w+)\\s*\\(([^)]*)\\)");
+    
+    /**
+     * How player UUID columns are stored (see {@link UuidMigrationService}):
+     * TEXT - VARCHAR(36) only; DUAL - "_bin" shadow columns are kept in sync
+     * and being backfilled; BINARY - shadow columns are complete and indexed,
+     * and lookups use them
+     */
+    public enum UuidMode { TEXT, DUAL, BINARY }
+    
     private final NexusPlugin plugin;
     private HikariDataSource dataSource;
+    private DatabaseMetrics metrics;
+    private final MainThreadGuard threadGuard;
     private String storageType;
+    private volatile UuidMode uuidMode = UuidMode.TEXT;
     
     public DatabaseService(NexusPlugin plugin) {
         this.plugin = plugin;
         this.storageType = plugin.getConfigManager().getStorageType();
+        this.threadGuard = new MainThreadGuard(plugin);
     }
     
     /**
@@ -43,22 +63,24 @@ public class DatabaseService {
             
             // Create data source
             dataSource = new HikariDataSource(config);
+            if (plugin.getConfigManager().getSnapshot().databaseMetrics().enabled()) {
+                metrics = new DatabaseMetrics(plugin, dataSource);
+            }
             
-            // Test connection
+            // Test connection (released before createTables: the SQLite pool has one)
             try (Connection conn = dataSource.getConnection()) {
-                if (conn.isValid(5)) {
-                    plugin.getLogger().info("✓ Database connection established (" + storageType + ")");
-                    
-                    // Create tables
-                    createTables();
-                    
-                    return true;
-                } else {
+                if (!conn.isValid(5)) {
                     plugin.getLogger().severe("Database connection is not valid!");
                     return false;
                 }
             }
-            
+            plugin.getLogger().info("✓ Database connection established (" + storageType + ")");
+
+            // Create tables
+            createTables();
+
+            return true;
+
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to connect to database!", e);
             return false;
@@ -133,6 +155,18 @@ public class DatabaseService {
      */
     private void createTables() throws SQLException {
         try (Connection conn = getConnection()) {
+            // UUID storage migration state (read first: it decides which indexes exist)
+            execute(conn,
+                "CREATE TABLE IF NOT EXISTS nexus_uuid_migration (" +
+                "table_name VARCHAR(64) PRIMARY KEY," +
+                "state VARCHAR(16) NOT NULL," +
+                "last_key VARCHAR(64)," +
+                "updated_at BIGINT" +
+                ")"
+            );
+            uuidMode = readUuidMode(conn);
+            boolean binary = uuidMode == UuidMode.BINARY;
+            
             // Players table
             execute(conn, 
                 "CREATE TABLE IF NOT EXISTS nexus_players (" +
@@ -146,6 +180,7 @@ public class DatabaseService {
                 "last_team_switch BIGINT," +
                 "economy_frozen BOOLEAN DEFAULT FALSE," +
                 "created_at BIGINT," +
+                "version BIGINT NOT NULL DEFAULT 0," +
                 "INDEX idx_team (team)," +
                 "INDEX idx_guild (guild_id)" +
                 ")"
@@ -172,11 +207,16 @@ public class DatabaseService {
                 "cofre_balance DECIMAL(15,2) DEFAULT 0.00," +
                 "points INTEGER DEFAULT 0," +
                 "created_at BIGINT," +
+                "version BIGINT NOT NULL DEFAULT 0," +
                 "INDEX idx_name (name)," +
                 "INDEX idx_team (team)" +
                 ")"
             );
             
+            // Row versions for compare-and-set updates (databases created before them)
+            addColumnIfMissing(conn, "nexus_players", "version", "BIGINT NOT NULL DEFAULT 0");
+            addColumnIfMissing(conn, "nexus_guilds", "version", "BIGINT NOT NULL DEFAULT 0");
+            
             // Guild Members table
             execute(conn,
                 "CREATE TABLE IF NOT EXISTS nexus_guild_members (" +
@@ -184,8 +224,8 @@ public class DatabaseService {
                 "player_uuid VARCHAR(36) NOT NULL," +
                 "role VARCHAR(20) DEFAULT 'MEMBER'," +
                 "joined_at BIGINT," +
-                "PRIMARY KEY (guild_id, player_uuid)," +
-                "INDEX idx_player (player_uuid)" +
+                "PRIMARY KEY (guild_id, player_uuid)" +
+                (binary ? "" : ",INDEX idx_player (player_uuid)") +
                 ")"
             );
             
@@ -224,12 +264,35 @@ public class DatabaseService {
                 "type VARCHAR(30) NOT NULL," +
                 "reason TEXT," +
                 "timestamp BIGINT," +
-                "INDEX idx_from (from_uuid)," +
-                "INDEX idx_to (to_uuid)," +
+                (binary ? "" : "INDEX idx_from_time (from_uuid, timestamp, id),INDEX idx_to_time (to_uuid, timestamp, id),") +
                 "INDEX idx_timestamp (timestamp)" +
                 ")"
             );
             
+            // Balance checkpoints (ledger reconciliation)
+            execute(conn,
+                "CREATE TABLE IF NOT EXISTS nexus_balance_checkpoints (" +
+                "uuid VARCHAR(36) PRIMARY KEY," +
+                "balance DECIMAL(15,2) NOT NULL," +
+                "last_tx_id BIGINT NOT NULL," +
+                "taken_at BIGINT," +
+                "opening_balance DECIMAL(15,2)" +
+                ")"
+            );
+            addColumnIfMissing(conn, "nexus_balance_checkpoints", "opening_balance", "DECIMAL(15,2)");
+            
+            // Change feed (cache coherence between servers sharing the database)
+            execute(conn,
+                "CREATE TABLE IF NOT EXISTS nexus_changes (" +
+                "id " + (storageType.equalsIgnoreCase("mysql") ? "BIGINT PRIMARY KEY AUTO_INCREMENT" : "INTEGER PRIMARY KEY AUTOINCREMENT") + "," +
+                "entity VARCHAR(16) NOT NULL," +
+                "entity_key VARCHAR(36) NOT NULL," +
+                "origin VARCHAR(36) NOT NULL," +
+                "created_at BIGINT NOT NULL," +
+                "INDEX idx_created (created_at)" +
+                ")"
+            );
+            
             // Audit log table
             execute(conn,
                 "CREATE TABLE IF NOT EXISTS nexus_audit (" +
@@ -239,8 +302,8 @@ public class DatabaseService {
                 "details TEXT," +
                 "timestamp BIGINT," +
                 "ip_address VARCHAR(45)," +
-                "INDEX idx_player (player_uuid)," +
-                "INDEX idx_event (event_type)," +
+                (binary ? "" : "INDEX idx_player_time (player_uuid, timestamp),") +
+                "INDEX idx_event_time (event_type, timestamp)," +
                 "INDEX idx_timestamp (timestamp)" +
                 ")"
             );
@@ -270,8 +333,8 @@ public class DatabaseService {
                 "objective_id INTEGER NOT NULL," +
                 "player_uuid VARCHAR(36) NOT NULL," +
                 "contribution INTEGER DEFAULT 0," +
-                "PRIMARY KEY (objective_id, player_uuid)," +
-                "INDEX idx_player (player_uuid)" +
+                "PRIMARY KEY (objective_id, player_uuid)" +
+                (binary ? "" : ",INDEX idx_player (player_uuid)") +
                 ")"
             );
             
@@ -298,7 +361,7 @@ public class DatabaseService {
                 "listed_at BIGINT," +
                 "expires_at BIGINT," +
                 "sold BOOLEAN DEFAULT FALSE," +
-                "INDEX idx_seller (seller_uuid)," +
+                (binary ? "" : "INDEX idx_seller (seller_uuid),") +
                 "INDEX idx_expires (expires_at)" +
                 ")"
             );
@@ -329,19 +392,86 @@ public class DatabaseService {
             sql = sql.replace("AUTOINCREMENT", "AUTO_INCREMENT");
         }
         
+        // SQLite: move inline indexes to separate statements (names are schema-wide, so prefix the table)
+        List<String> indexes = new ArrayList<>();
+        Matcher table = CREATE_TABLE.matcher(sql);
+        if (!storageType.equalsIgnoreCase("mysql") && table.find()) {
+            Matcher index = INLINE_INDEX.matcher(sql);
+            while (index.find()) {
+                indexes.add(String.format("CREATE INDEX IF NOT EXISTS %s_%s ON %s (%s)",
+                    table.group(1), index.group(1), table.group(1), index.group(2)));
+            }
+            sql = index.replaceAll("");
+        }
+        
         try (Statement stmt = conn.createStatement()) {
             stmt.execute(sql);
+            for (String indexSql : indexes) {
+                stmt.execute(indexSql);
+            }
+        }
+    }
+    
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+    
+    private static UuidMode readUuidMode(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT state FROM nexus_uuid_migration WHERE table_name = ?")) {
+            stmt.setString(1, UuidMigrationService.MODE_KEY);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? UuidMode.valueOf(rs.getString(1)) : UuidMode.TEXT;
+            }
         }
     }
     
+    // ========================================
+    // UUID COLUMNS
+    // ========================================
+    
+    public UuidMode getUuidMode() {
+        return uuidMode;
+    }
+    
+    void setUuidMode(UuidMode uuidMode) {
+        this.uuidMode = uuidMode;
+    }
+    
     /**
-     * Get a connection from the pool
+     * Get a connection from the pool (instrumented when metrics are enabled)
+     * 
+     * Blocking: not meant for the server thread (see {@link MainThreadGuard}).
      */
     public Connection getConnection() throws SQLException {
         if (dataSource == null) {
             throw new SQLException("DataSource is not initialized!");
         }
-        return dataSource.getConnection();
+        threadGuard.check();
+        if (metrics == null) {
+            return dataSource.getConnection();
+        }
+        long requestedAt = System.nanoTime();
+        return metrics.wrap(dataSource.getConnection(), requestedAt);
+    }
+    
+    /**
+     * Statement and pool metrics, or null when disabled
+     */
+    public DatabaseMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public MainThreadGuard getThreadGuard() {
+        return threadGuard;
     }
     
     /**
@@ -0,0 +1,246 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.Histogram;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * DeferredWorkScheduler - Main-thread work spread over ticks within a budget
+ *
+ * Work that must run on the server thread but not necessarily this tick
+ * (timer expirations, panel pushes, objective progress, cache eviction
+ * callbacks) is queued here by priority from any thread. Every tick the
+ * queues are drained in priority order until performance.trabalho-adiado
+ * .orcamento-ms is used up; whatever is left carries over to the next tick.
+ * A burst after a siege or an objective therefore costs a few milliseconds
+ * over many ticks instead of one long tick.
+ *
+ * So that a steady stream of HIGH work cannot starve the rest, every
+ * non-empty queue runs at least one task per tick. Tasks should be small:
+ * one player, one panel, one timer.
+ *
+ * @author Nexus Development Team
+ */
+public class DeferredWorkScheduler {
+
+    /**
+     * Drain order; HIGH first
+     */
+    public enum Priority {
+        /** Player-visible and time-sensitive: timer expirations */
+        HIGH,
+        /** Panel pushes, objective progress */
+        NORMAL,
+        /** Housekeeping: cache eviction, permission refreshes */
+        LOW
+    }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final NexusPlugin plugin;
+    private final WorkQueue[] queues = new WorkQueue[PRIORITIES.length];
+
+    // Keys of work queued through submitUnique and not yet run
+    private final Set<Object> pendingKeys = ConcurrentHashMap.newKeySet();
+
+    private final Histogram tickTime = new Histogram();
+    private final AtomicLong overBudgetTicks = new AtomicLong();
+
+    private BukkitTask drainTask;
+
+    /**
+     * One priority level
+     */
+    public static final class WorkQueue {
+        private final Priority priority;
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger backlog = new AtomicInteger();
+        private final AtomicLong executed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong nanosSpent = new AtomicLong();
+        private final AtomicLong carriedTicks = new AtomicLong();
+        private final AtomicLong maxWaitMillis = new AtomicLong();
+
+        private WorkQueue(Priority priority) {
+            this.priority = priority;
+        }
+
+        public Priority getPriority() { return priority; }
+        public int getBacklog() { return backlog.get(); }
+        public long getExecuted() { return executed.get(); }
+        public long getFailed() { return failed.get(); }
+        public long getMillisSpent() { return TimeUnit.NANOSECONDS.toMillis(nanosSpent.get()); }
+        public long getCarriedTicks() { return carriedTicks.get(); }
+        public long getMaxWaitMillis() { return maxWaitMillis.get(); }
+    }
+
+    private record Task(Runnable work, Object key, long queuedAt) {}
+
+    public DeferredWorkScheduler(NexusPlugin plugin) {
+        this.plugin = plugin;
+        for (Priority priority : PRIORITIES) {
+            queues[priority.ordinal()] = new WorkQueue(priority);
+        }
+    }
+
+    public void start() {
+        drainTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    /**
+     * Stop draining; queued work is dropped
+     */
+    public void shutdown() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        int dropped = 0;
+        for (WorkQueue queue : queues) {
+            dropped += queue.backlog.getAndSet(0);
+            queue.tasks.clear();
+        }
+        pendingKeys.clear();
+        if (dropped > 0) {
+            plugin.getLogger().info("Dropped " + dropped + " deferred main-thread tasks on shutdown.");
+        }
+    }
+
+    // ========================================
+    // SUBMISSION
+    // ========================================
+
+    /**
+     * Queue work for the main thread (any thread may call this)
+     */
+    public void submit(Priority priority, Runnable work) {
+        enqueue(priority, new Task(work, null, System.currentTimeMillis()));
+    }
+
+    /**
+     * Queue work unless work with the same key is already waiting; repeated
+     * requests (refresh this panel, recheck this player) collapse into one run
+     *
+     * @return false if an equal key was already queued
+     */
+    public boolean submitUnique(Priority priority, Object key, Runnable work) {
+        if (!pendingKeys.add(key)) {
+            return false;
+        }
+        enqueue(priority, new Task(work, key, System.currentTimeMillis()));
+        return true;
+    }
+
+    private void enqueue(Priority priority, Task task) {
+        WorkQueue queue = queues[priority.ordinal()];
+        queue.tasks.add(task);
+        queue.backlog.incrementAndGet();
+    }
+
+    // ========================================
+    // DRAINING
+    // ========================================
+
+    /**
+     * Run queued work until the tick budget is spent (main thread, every tick)
+     */
+    private void drain() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(
+            plugin.getConfigManager().getSnapshot().deferredWork().budgetMillis());
+
+        int ran = 0;
+        for (WorkQueue queue : queues) {
+            // At least one task per non-empty queue, then only within budget
+            boolean first = true;
+            while (first || System.nanoTime() < deadline) {
+                Task task = queue.tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                run(queue, task);
+                ran++;
+                first = false;
+            }
+        }
+
+        long end = System.nanoTime();
+        for (WorkQueue queue : queues) {
+            if (queue.backlog.get() > 0) {
+                queue.carriedTicks.incrementAndGet();
+            }
+        }
+        if (ran > 0) {
+            tickTime.record((end - start) / 1000);
+        }
+        if (end > deadline) {
+            overBudgetTicks.incrementAndGet();
+        }
+    }
+
+    private void run(WorkQueue queue, Task task) {
+        queue.backlog.decrementAndGet();
+        if (task.key() != null) {
+            pendingKeys.remove(task.key());
+        }
+
+        long waited = System.currentTimeMillis() - task.queuedAt();
+        if (waited > queue.maxWaitMillis.get()) {
+            queue.maxWaitMillis.set(waited);
+        }
+
+        long started = System.nanoTime();
+        try {
+            task.work().run();
+            queue.executed.incrementAndGet();
+        } catch (RuntimeException e) {
+            queue.failed.incrementAndGet();
+            plugin.getLogger().log(Level.WARNING, "Deferred " + queue.priority + " task failed!", e);
+        } finally {
+            queue.nanosSpent.addAndGet(System.nanoTime() - started);
+        }
+    }
+
+    // ========================================
+    // METRICS
+    // ========================================
+
+    public WorkQueue[] getQueues() {
+        return queues.clone();
+    }
+
+    public int getBacklog() {
+        int total = 0;
+        for (WorkQueue queue : queues) {
+            total += queue.backlog.get();
+        }
+        return total;
+    }
+
+    /**
+     * Time spent draining per tick in microseconds (ticks with no work excluded)
+     */
+    public Histogram getTickTime() { return tickTime; }
+    public long getOverBudgetTicks() { return overBudgetTicks.get(); }
+
+    public void resetMetrics() {
+        tickTime.reset();
+        overBudgetTicks.set(0);
+        for (WorkQueue queue : queues) {
+            queue.executed.set(0);
+            queue.failed.set(0);
+            queue.nanosSpent.set(0);
+            queue.carriedTicks.set(0);
+            queue.maxWaitMillis.set(0);
+        }
+    }
+}
@@ -0,0 +1,605 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.UuidCodec;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ExportJob - Streams audit or transaction rows to a gzip NDJSON/CSV file
+ *
+ * Rows are read in id order with forward-only cursors and written straight
+ * to the compressed output, so memory use does not depend on table size:
+ * - MySQL: one streaming query (fetch size Integer.MIN_VALUE)
+ * - SQLite: stepped keyset reads (id > last LIMIT n), releasing the single
+ *   pooled connection between steps
+ *
+ * Every {@value #CHECKPOINT_ROWS} rows the current gzip member is finished
+ * and a cursor per table (last id written, or "done") plus the file offset
+ * are saved next to the output (name.progress). Weekly audit tables do not
+ * share one id order, so each table resumes after its own cursor: an
+ * interrupted export truncates the file to the last checkpoint, skips the
+ * finished tables and continues the current one after its saved id;
+ * concatenated gzip members read back as one stream.
+ *
+ * @author Nexus Development Team
+ */
+public class ExportJob implements Runnable {
+
+    static final int CHECKPOINT_ROWS = 50_000;
+    private static final int SQLITE_STEP_ROWS = 5_000;
+    private static final String CURSOR_PREFIX = "cursor.";
+    private static final String CURSOR_DONE = "done";
+
+    public enum Source {
+        AUDIT("id, player_uuid, event_type, details, timestamp, ip_address",
+            "event_type", "player_uuid"),
+        TRANSACTIONS("id, from_uuid, to_uuid, amount, type, reason, timestamp",
+            "type", "from_uuid", "to_uuid");
+
+        private final String columns;
+        private final String typeColumn;
+        // Matching any of these selects a player's rows
+        private final String[] playerColumns;
+
+        Source(String columns, String typeColumn, String... playerColumns) {
+            this.columns = columns;
+            this.typeColumn = typeColumn;
+            this.playerColumns = playerColumns;
+        }
+    }
+
+    public enum Format {
+        NDJSON("ndjson.gz"),
+        CSV("csv.gz");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+    }
+
+    public enum State { PENDING, RUNNING, DONE, FAILED, CANCELLED }
+
+    /**
+     * What to export. A null player or empty type set means "any".
+     */
+    public record Spec(Source source, Format format, long from, long to, UUID player, Set<String> types) {}
+
+    /**
+     * Called from the export thread at each checkpoint and when the job ends
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ExportJob job);
+    }
+
+    private final NexusPlugin plugin;
+    private final Spec spec;
+    private final File file;
+    private final File progressFile;
+    private final ProgressListener listener;
+
+    private volatile State state = State.PENDING;
+    // Last id written in the table being read
+    private volatile long lastId;
+    // Per-table resume points, in read order: last id written, or -1 once the table is finished
+    private final Map<String, Long> cursors = new LinkedHashMap<>();
+    // Pre-cursor progress files kept one id for every table
+    private long legacyLastId;
+    private volatile long rows;
+    private volatile long maxId;
+    private volatile long checkpointOffset;
+    private volatile boolean cancelled;
+    private volatile Exception failure;
+    private long startedAt;
+    private boolean binaryUuids;
+
+    // Output chain (export thread only)
+    private CountingOutputStream counter;
+    private Writer writer;
+    private long rowsSinceCheckpoint;
+    private final StringBuilder line = new StringBuilder(512);
+
+    ExportJob(NexusPlugin plugin, Spec spec, File file, ProgressListener listener) {
+        this.plugin = plugin;
+        this.spec = spec;
+        this.file = file;
+        this.progressFile = progressFile(file);
+        this.listener = listener;
+    }
+
+    /**
+     * Recreate a job from its progress file
+     */
+    static ExportJob resume(NexusPlugin plugin, File file, ProgressListener listener) throws IOException {
+        Properties progress = new Properties();
+        try (InputStream in = Files.newInputStream(progressFile(file).toPath())) {
+            progress.load(in);
+        }
+
+        Set<String> types = new LinkedHashSet<>();
+        for (String type : progress.getProperty("types", "").split(",")) {
+            if (!type.isEmpty()) {
+                types.add(type);
+            }
+        }
+        String player = progress.getProperty("player", "");
+        Spec spec = new Spec(
+            Source.valueOf(progress.getProperty("source")),
+            Format.valueOf(progress.getProperty("format")),
+            Long.parseLong(progress.getProperty("from")),
+            Long.parseLong(progress.getProperty("to")),
+            player.isEmpty() ? null : UUID.fromString(player),
+            types);
+
+        ExportJob job = new ExportJob(plugin, spec, file, listener);
+        boolean hasCursors = false;
+        for (String key : progress.stringPropertyNames()) {
+            if (key.startsWith(CURSOR_PREFIX)) {
+                String value = progress.getProperty(key);
+                job.cursors.put(key.substring(CURSOR_PREFIX.length()),
+                    value.equals(CURSOR_DONE) ? -1L : Long.parseLong(value));
+                hasCursors = true;
+            }
+        }
+        job.lastId = Long.parseLong(progress.getProperty("lastId", "0"));
+        if (!hasCursors) {
+            job.legacyLastId = job.lastId;
+        }
+        job.rows = Long.parseLong(progress.getProperty("rows", "0"));
+        job.checkpointOffset = Long.parseLong(progress.getProperty("offset", "0"));
+        return job;
+    }
+
+    static File progressFile(File file) {
+        return new File(file.getParentFile(), file.getName() + ".progress");
+    }
+
+    // ========================================
+    // EXECUTION
+    // ========================================
+
+    @Override
+    public void run() {
+        state = State.RUNNING;
+        startedAt = System.currentTimeMillis();
+        binaryUuids = plugin.getDatabaseService().getUuidMode() == DatabaseService.UuidMode.BINARY;
+        try {
+            openOutput();
+            saveProgress();
+            List<String> tables = tables();
+            maxId = maxId(tables);
+
+            for (String table : tables) {
+                if (cancelled) {
+                    break;
+                }
+                long cursor = cursors.getOrDefault(table, legacyLastId);
+                if (cursor < 0) {
+                    continue;
+                }
+                lastId = cursor;
+                cursors.put(table, cursor);
+                if (plugin.getConfigManager().getSnapshot().storage().isMySQL()) {
+                    streamMySQL(table);
+                } else {
+                    stepSQLite(table);
+                }
+                if (!cancelled) {
+                    cursors.put(table, -1L);
+                }
+            }
+
+            checkpoint();
+            counter.reallyClose();
+            if (cancelled) {
+                state = State.CANCELLED;
+            } else {
+                Files.deleteIfExists(progressFile.toPath());
+                state = State.DONE;
+            }
+        } catch (Exception e) {
+            failure = e;
+            state = State.FAILED;
+            closeQuietly();
+        }
+        listener.onProgress(this);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private List<String> tables() {
+        if (spec.source() == Source.TRANSACTIONS) {
+            return Collections.singletonList("nexus_transactions");
+        }
+        AuditService audit = plugin.getAuditService();
+        return audit != null
+            ? audit.getStorage().tablesFor(spec.from(), spec.to())
+            : Collections.singletonList(AuditStorage.BASE_TABLE);
+    }
+
+    private long maxId(List<String> tables) throws SQLException {
+        long max = 0;
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            for (String table : tables) {
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(id) FROM " + table);
+                     ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        max = Math.max(max, rs.getLong(1));
+                    }
+                }
+            }
+        }
+        return max;
+    }
+
+    private String buildQuery(String table, boolean limited) {
+        StringBuilder sql = new StringBuilder(256)
+            .append("SELECT ").append(spec.source().columns).append(" FROM ").append(table)
+            .append(" WHERE id > ? AND timestamp >= ? AND timestamp < ?");
+        if (spec.player() != null) {
+            sql.append(" AND (");
+            for (int i = 0; i < spec.source().playerColumns.length; i++) {
+                String column = spec.source().playerColumns[i];
+                sql.append(i == 0 ? "" : " OR ").append(binaryUuids ? column + "_bin" : column).append(" = ?");
+            }
+            sql.append(')');
+        }
+        if (spec.types() != null && !spec.types().isEmpty()) {
+            sql.append(" AND ").append(spec.source().typeColumn).append(" IN (");
+            for (int i = 0; i < spec.types().size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+        }
+        sql.append(" ORDER BY id");
+        if (limited) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    private int bind(PreparedStatement stmt) throws SQLException {
+        int index = 1;
+        stmt.setLong(index++, lastId);
+        stmt.setLong(index++, spec.from());
+        stmt.setLong(index++, spec.to());
+        if (spec.player() != null) {
+            for (int i = 0; i < spec.source().playerColumns.length; i++) {
+                UuidCodec.bind(stmt, index++, spec.player(), binaryUuids);
+            }
+        }
+        if (spec.types() != null) {
+            for (String type : spec.types()) {
+                stmt.setString(index++, type);
+            }
+        }
+        return index;
+    }
+
+    private void streamMySQL(String table) throws SQLException, IOException {
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(buildQuery(table, false),
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (!cancelled && rs.next()) {
+                    writeRow(table, rs);
+                }
+            }
+        }
+    }
+
+    private void stepSQLite(String table) throws SQLException, IOException {
+        String sql = buildQuery(table, true);
+        while (!cancelled) {
+            int read = 0;
+            try (Connection conn = plugin.getDatabaseService().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(SQLITE_STEP_ROWS);
+                stmt.setInt(bind(stmt), SQLITE_STEP_ROWS);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        writeRow(table, rs);
+                        read++;
+                    }
+                }
+            }
+            if (read < SQLITE_STEP_ROWS) {
+                return;
+            }
+        }
+    }
+
+    // ========================================
+    // OUTPUT
+    // ========================================
+
+    private void openOutput() throws IOException {
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Cannot create export folder " + folder);
+        }
+
+        // Drop anything written after the last checkpoint
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(checkpointOffset);
+        }
+        counter = new CountingOutputStream(new FileOutputStream(file, true), checkpointOffset);
+        openMember();
+
+        if (checkpointOffset == 0 && spec.format() == Format.CSV) {
+            writer.write(spec.source().columns.replace(" ", ""));
+            writer.write('\n');
+        }
+    }
+
+    private void openMember() throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(
+            new GZIPOutputStream(new NonClosingOutputStream(counter), 64 * 1024), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private void writeRow(String table, ResultSet rs) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        line.setLength(0);
+
+        if (spec.format() == Format.NDJSON) {
+            line.append('{');
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    line.append(',');
+                }
+                line.append('"').append(meta.getColumnLabel(i)).append("\":");
+                appendJson(rs, meta, i);
+            }
+            line.append('}');
+        } else {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    line.append(',');
+                }
+                appendCsv(rs.getString(i));
+            }
+        }
+        line.append('\n');
+        writer.append(line);
+
+        lastId = rs.getLong(1);
+        cursors.put(table, lastId);
+        rows++;
+        if (++rowsSinceCheckpoint >= CHECKPOINT_ROWS) {
+            checkpoint();
+            openMember();
+            listener.onProgress(this);
+        }
+    }
+
+    private void appendJson(ResultSet rs, ResultSetMetaData meta, int column) throws SQLException {
+        switch (meta.getColumnType(column)) {
+            case Types.INTEGER, Types.BIGINT, Types.SMALLINT, Types.TINYINT, Types.DECIMAL, Types.NUMERIC,
+                 Types.DOUBLE, Types.FLOAT, Types.REAL -> {
+                String value = rs.getString(column);
+                line.append(value != null ? value : "null");
+            }
+            default -> {
+                String value = rs.getString(column);
+                if (value == null) {
+                    line.append("null");
+                    return;
+                }
+                line.append('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    switch (c) {
+                        case '"' -> line.append("\\\"");
+                        case '\\' -> line.append("\\\\");
+                        case '\n' -> line.append("\\n");
+                        case '\r' -> line.append("\\r");
+                        case '\t' -> line.append("\\t");
+                        default -> {
+                            if (c < 0x20) {
+                                line.append(String.format("\\u%04x", (int) c));
+                            } else {
+                                line.append(c);
+                            }
+                        }
+                    }
+                }
+                line.append('"');
+            }
+        }
+    }
+
+    private void appendCsv(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /**
+     * Finish the current gzip member and persist the resume point
+     */
+    private void checkpoint() throws IOException {
+        writer.close(); // Finishes the gzip member; the file stream stays open
+        counter.flush();
+        checkpointOffset = counter.count;
+        rowsSinceCheckpoint = 0;
+        saveProgress();
+    }
+
+    private void saveProgress() throws IOException {
+        Properties progress = new Properties();
+        progress.setProperty("source", spec.source().name());
+        progress.setProperty("format", spec.format().name());
+        progress.setProperty("from", Long.toString(spec.from()));
+        progress.setProperty("to", Long.toString(spec.to()));
+        progress.setProperty("player", spec.player() != null ? spec.player().toString() : "");
+        progress.setProperty("types", spec.types() != null ? String.join(",", spec.types()) : "");
+        progress.setProperty("lastId", Long.toString(lastId));
+        for (Map.Entry<String, Long> cursor : cursors.entrySet()) {
+            progress.setProperty(CURSOR_PREFIX + cursor.getKey(),
+                cursor.getValue() < 0 ? CURSOR_DONE : Long.toString(cursor.getValue()));
+        }
+        progress.setProperty("rows", Long.toString(rows));
+        progress.setProperty("offset", Long.toString(checkpointOffset));
+        try (OutputStream out = Files.newOutputStream(progressFile.toPath())) {
+            progress.store(out, "Nexus export progress - resume with /auditoria export retomar");
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (counter != null) {
+                counter.reallyClose();
+            }
+        } catch (IOException ignored) {
+            // Already failing
+        }
+    }
+
+    // ========================================
+    // STATUS
+    // ========================================
+
+    public Spec getSpec() { return spec; }
+    public File getFile() { return file; }
+    public State getState() { return state; }
+    public long getRows() { return rows; }
+    public long getLastId() { return lastId; }
+    public long getMaxId() { return maxId; }
+    public long getBytesWritten() { return checkpointOffset; }
+    public Exception getFailure() { return failure; }
+
+    public long getElapsedMillis() {
+        return startedAt > 0 ? System.currentTimeMillis() - startedAt : 0;
+    }
+
+    /**
+     * Rough completion by id range (0-100)
+     */
+    public int getPercent() {
+        if (state == State.DONE) {
+            return 100;
+        }
+        return maxId > 0 ? (int) Math.min(99, lastId * 100 / maxId) : 0;
+    }
+
+    /**
+     * Unfinished exports in a folder (those with a progress file)
+     */
+    static List<File> findIncomplete(File folder) {
+        List<File> files = new ArrayList<>();
+        File[] progress = folder.listFiles((dir, name) -> name.endsWith(".progress"));
+        if (progress != null) {
+            for (File file : progress) {
+                files.add(new File(folder, file.getName().substring(0, file.getName().length() - ".progress".length())));
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Counts bytes reaching the file; close() is deferred to {@link #reallyClose()}
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out, long start) {
+            super(out);
+            this.count = start;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        void reallyClose() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Lets a gzip member be finished without closing the file underneath
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * ExportService - Runs audit/transaction exports off the main thread
+ *
+ * One export runs at a time, on a dedicated daemon thread, writing into the
+ * "exports" folder of the plugin. Interrupted exports (crash, restart or
+ * cancel) keep a progress file and can be resumed.
+ *
+ * @author Nexus Development Team
+ */
+public class ExportService {
+
+    private final NexusPlugin plugin;
+    private final File folder;
+
+    private volatile ExportJob current;
+    private Thread thread;
+
+    public ExportService(NexusPlugin plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "exports");
+    }
+
+    /**
+     * Start a new export
+     *
+     * @throws IllegalStateException if another export is running
+     */
+    public synchronized ExportJob start(ExportJob.Spec spec, ExportJob.ProgressListener listener) {
+        String name = String.format("%s-%s.%s",
+            spec.source().name().toLowerCase(),
+            new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()),
+            spec.format().getExtension());
+        return launch(new ExportJob(plugin, spec, new File(folder, name), listener));
+    }
+
+    /**
+     * Resume the most recent unfinished export
+     *
+     * @return the resumed job, or null if there is nothing to resume
+     * @throws IllegalStateException if another export is running
+     */
+    public synchronized ExportJob resume(ExportJob.ProgressListener listener) throws IOException {
+        List<File> incomplete = ExportJob.findIncomplete(folder);
+        if (incomplete.isEmpty()) {
+            return null;
+        }
+        return launch(ExportJob.resume(plugin, incomplete.get(incomplete.size() - 1), listener));
+    }
+
+    private ExportJob launch(ExportJob job) {
+        if (isRunning()) {
+            throw new IllegalStateException("An export is already running");
+        }
+        current = job;
+        thread = new Thread(job, "Nexus-Export");
+        thread.setDaemon(true);
+        thread.start();
+        return job;
+    }
+
+    public boolean isRunning() {
+        ExportJob job = current;
+        return job != null && (job.getState() == ExportJob.State.PENDING || job.getState() == ExportJob.State.RUNNING);
+    }
+
+    /**
+     * Cancel the running export; it stays resumable
+     */
+    public boolean cancel() {
+        ExportJob job = current;
+        if (job == null || !isRunning()) {
+            return false;
+        }
+        job.cancel();
+        return true;
+    }
+
+    /**
+     * Stop the running export at its next row (on disable)
+     */
+    public void shutdown() {
+        if (cancel() && thread != null) {
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public ExportJob getCurrent() { return current; }
+    public File getFolder() { return folder; }
+
+    public int getIncompleteCount() {
+        return ExportJob.findIncomplete(folder).size();
+    }
+}
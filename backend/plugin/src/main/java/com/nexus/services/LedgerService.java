@@ -0,0 +1,544 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.AuditEvent;
+import com.nexus.utils.ConfigSnapshot;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * LedgerService - Balance checkpoints and ledger reconciliation
+ *
+ * The ledger-derived balance of an account is the starting balance plus every
+ * credit (to_uuid) minus every debit (from_uuid) in nexus_transactions.
+ * Instead of summing the whole history each time, balances are checkpointed
+ * in nexus_balance_checkpoints (uuid, balance, last_tx_id, taken_at):
+ * - the checkpoint job only aggregates transactions after the watermark (the
+ *   last transaction id folded into the checkpoints) and updates the accounts
+ *   they touched, in steps of bounded id ranges
+ * - reconciliation replays only the transactions after the watermark on top
+ *   of the checkpoints and compares the result with nexus_players.balance,
+ *   reporting (and optionally repairing) discrepancies
+ *
+ * Transactions are checkpointed only once they are older than a settle
+ * delay, so rows committed late with a lower id are never skipped.
+ *
+ * The starting balance is recorded on the watermark row (opening_balance)
+ * the first time the ledger is checkpointed, so changing saldo-inicial later
+ * does not move the ledger value of existing accounts.
+ *
+ * All work blocks on the database: run it off the main thread.
+ *
+ * @author Nexus Development Team
+ */
+public class LedgerService {
+
+    private static final String CHECKPOINT_TABLE = "nexus_balance_checkpoints";
+
+    /** Row holding the watermark (last_tx_id) rather than an account */
+    private static final String WATERMARK_KEY = "*";
+
+    /** Transaction ids folded per checkpoint step (one database transaction each) */
+    private static final long STEP_IDS = 50000;
+    private static final int MAX_STEPS_PER_RUN = 40;
+
+    /** Discrepancies kept in a report (all are counted) */
+    private static final int MAX_REPORTED = 100;
+
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.005");
+
+    private static final String DELTA_SQL =
+        "SELECT uuid, SUM(delta) FROM (" +
+        "SELECT to_uuid AS uuid, amount AS delta FROM nexus_transactions " +
+        "WHERE id > ? AND id <= ? AND to_uuid IS NOT NULL " +
+        "UNION ALL " +
+        "SELECT from_uuid AS uuid, -amount AS delta FROM nexus_transactions " +
+        "WHERE id > ? AND id <= ? AND from_uuid IS NOT NULL" +
+        ") deltas GROUP BY uuid";
+
+    private final NexusPlugin plugin;
+    private final boolean mysql;
+
+    private volatile Report lastReport;
+    private volatile long lastCheckpointAt;
+    private volatile long checkpointedAccounts;
+
+    private BukkitTask checkpointTask;
+    private BukkitTask reconcileTask;
+
+    /**
+     * Account whose stored balance differs from the ledger
+     */
+    public record Discrepancy(UUID player, BigDecimal stored, BigDecimal expected) {
+        public BigDecimal difference() {
+            return stored.subtract(expected);
+        }
+    }
+
+    /**
+     * Outcome of a reconciliation run
+     *
+     * @param replayed      transactions replayed after the watermark
+     * @param discrepancies first {@value #MAX_REPORTED} mismatches found
+     * @param mismatched    total number of mismatches
+     * @param orphans       ledger accounts with no nexus_players row
+     */
+    public record Report(long finishedAt, long elapsedMillis, long watermark, int accounts, long replayed,
+                         List<Discrepancy> discrepancies, int mismatched, int repaired, int orphans) {
+        public boolean isClean() {
+            return mismatched == 0;
+        }
+    }
+
+    public LedgerService(NexusPlugin plugin) {
+        this.plugin = plugin;
+        this.mysql = plugin.getConfigManager().getSnapshot().storage().isMySQL();
+    }
+
+    /**
+     * Schedule the checkpoint and reconciliation jobs (both async)
+     */
+    public void start() {
+        ConfigSnapshot.LedgerConfig config = plugin.getConfigManager().getSnapshot().ledger();
+
+        long checkpointTicks = 20L * 60 * config.checkpointMinutes();
+        checkpointTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+            plugin, this::runCheckpoint, 20L * 30, checkpointTicks);
+
+        if (config.reconcileHours() > 0) {
+            long reconcileTicks = 20L * 60 * 60 * config.reconcileHours();
+            reconcileTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin, this::runReconcile, reconcileTicks, reconcileTicks);
+        }
+    }
+
+    public void shutdown() {
+        if (checkpointTask != null) {
+            checkpointTask.cancel();
+            checkpointTask = null;
+        }
+        if (reconcileTask != null) {
+            reconcileTask.cancel();
+            reconcileTask = null;
+        }
+    }
+
+    private void runCheckpoint() {
+        try {
+            checkpoint();
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Balance checkpoint failed!", e);
+        }
+    }
+
+    private void runReconcile() {
+        try {
+            reconcile(plugin.getConfigManager().getSnapshot().ledger().autoRepair());
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Ledger reconciliation failed!", e);
+        }
+    }
+
+    // ========================================
+    // CHECKPOINTS
+    // ========================================
+
+    /**
+     * Fold settled transactions after the watermark into the checkpoints
+     *
+     * @return number of account checkpoints written
+     */
+    public synchronized int checkpoint() throws SQLException {
+        long settleMillis = TimeUnit.SECONDS.toMillis(plugin.getConfigManager().getSnapshot().ledger().settleSeconds());
+        long settledBefore = System.currentTimeMillis() - settleMillis;
+
+        int written = 0;
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            BigDecimal opening = openingBalance(conn);
+            for (int step = 0; step < MAX_STEPS_PER_RUN; step++) {
+                long watermark = readWatermark(conn);
+                long settled = lastSettledId(conn, watermark, settledBefore);
+                if (settled <= watermark) {
+                    break;
+                }
+                long upper = Math.min(settled, watermark + STEP_IDS);
+                written += checkpointStep(conn, watermark, upper, opening);
+            }
+        }
+
+        lastCheckpointAt = System.currentTimeMillis();
+        checkpointedAccounts += written;
+        return written;
+    }
+
+    /**
+     * Apply the deltas of transactions (watermark, upper] atomically
+     */
+    private int checkpointStep(Connection conn, long watermark, long upper, BigDecimal opening) throws SQLException {
+        Map<String, BigDecimal> deltas = readDeltas(conn, watermark, upper);
+        long now = System.currentTimeMillis();
+
+        conn.setAutoCommit(false);
+        try {
+            List<String> missing = new ArrayList<>();
+            try (PreparedStatement update = conn.prepareStatement(
+                    "UPDATE " + CHECKPOINT_TABLE + " SET balance = balance + ?, last_tx_id = ?, taken_at = ? " +
+                    "WHERE uuid = ?")) {
+                List<String> order = new ArrayList<>(deltas.keySet());
+                for (String uuid : order) {
+                    update.setBigDecimal(1, deltas.get(uuid));
+                    update.setLong(2, upper);
+                    update.setLong(3, now);
+                    update.setString(4, uuid);
+                    update.addBatch();
+                }
+                update.setBigDecimal(1, BigDecimal.ZERO);
+                update.setLong(2, upper);
+                update.setLong(3, now);
+                update.setString(4, WATERMARK_KEY);
+                update.addBatch();
+
+                int[] counts = update.executeBatch();
+                for (int i = 0; i < order.size(); i++) {
+                    if (counts[i] == 0) {
+                        missing.add(order.get(i));
+                    }
+                }
+                if (counts[order.size()] == 0) {
+                    missing.add(WATERMARK_KEY);
+                }
+            }
+
+            if (!missing.isEmpty()) {
+                try (PreparedStatement insert = conn.prepareStatement(
+                        "INSERT INTO " + CHECKPOINT_TABLE + " (uuid, balance, last_tx_id, taken_at) " +
+                        "VALUES (?, ?, ?, ?)")) {
+                    for (String uuid : missing) {
+                        insert.setString(1, uuid);
+                        insert.setBigDecimal(2, uuid.equals(WATERMARK_KEY)
+                            ? BigDecimal.ZERO : opening.add(deltas.get(uuid)));
+                        insert.setLong(3, upper);
+                        insert.setLong(4, now);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+
+            conn.commit();
+            return deltas.size();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Drop every checkpoint; the next run rebuilds them from the full history
+     * (and records the current saldo-inicial as the opening balance)
+     */
+    public synchronized void resetCheckpoints() throws SQLException {
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + CHECKPOINT_TABLE)) {
+            stmt.executeUpdate();
+        }
+        plugin.getLogger().info("Balance checkpoints cleared; they will be rebuilt from the full history.");
+    }
+
+    // ========================================
+    // RECONCILIATION
+    // ========================================
+
+    /**
+     * Compare stored balances with checkpoint + transactions after the watermark
+     *
+     * @param repair set mismatched balances to the ledger value (only if the
+     *               stored balance has not changed since it was read)
+     */
+    public synchronized Report reconcile(boolean repair) throws SQLException {
+        long start = System.currentTimeMillis();
+
+        long watermark;
+        long replayed;
+        int accounts = 0;
+        int mismatched = 0;
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        List<Discrepancy> toRepair = new ArrayList<>();
+        Map<String, BigDecimal> expected = new HashMap<>();
+
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            BigDecimal opening = openingBalance(conn);
+
+            // One read transaction: balances and transactions from the same snapshot
+            if (mysql) {
+                conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            }
+            conn.setAutoCommit(false);
+            try {
+                watermark = readWatermark(conn);
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT uuid, balance FROM " + CHECKPOINT_TABLE + " WHERE uuid <> ?")) {
+                    stmt.setString(1, WATERMARK_KEY);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            expected.put(rs.getString(1), money(rs.getBigDecimal(2)));
+                        }
+                    }
+                }
+
+                for (Map.Entry<String, BigDecimal> delta : readDeltas(conn, watermark, Long.MAX_VALUE).entrySet()) {
+                    expected.merge(delta.getKey(), opening.add(delta.getValue()),
+                        (checkpoint, fresh) -> checkpoint.add(delta.getValue()));
+                }
+                replayed = countAfter(conn, watermark);
+
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT uuid, balance FROM nexus_players");
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        accounts++;
+                        String uuid = rs.getString(1);
+                        BigDecimal stored = money(rs.getBigDecimal(2));
+                        BigDecimal ledger = expected.remove(uuid);
+                        if (ledger == null) {
+                            ledger = opening;
+                        }
+                        if (stored.subtract(ledger).abs().compareTo(TOLERANCE) > 0) {
+                            Discrepancy discrepancy = new Discrepancy(UUID.fromString(uuid), stored, ledger);
+                            mismatched++;
+                            if (discrepancies.size() < MAX_REPORTED) {
+                                discrepancies.add(discrepancy);
+                            }
+                            if (repair) {
+                                toRepair.add(discrepancy);
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            int repaired = repair ? repair(conn, toRepair) : 0;
+            Report report = new Report(System.currentTimeMillis(), System.currentTimeMillis() - start, watermark,
+                accounts, replayed, Collections.unmodifiableList(discrepancies), mismatched, repaired,
+                expected.size());
+            lastReport = report;
+            logReport(report);
+            return report;
+        }
+    }
+
+    /**
+     * Compare-and-set the ledger balance on each mismatched account
+     */
+    private int repair(Connection conn, List<Discrepancy> discrepancies) throws SQLException {
+        if (discrepancies.isEmpty()) {
+            return 0;
+        }
+
+        List<Discrepancy> applied = new ArrayList<>();
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE nexus_players SET balance = ?, version = version + 1 WHERE uuid = ? AND balance = ?")) {
+            for (Discrepancy discrepancy : discrepancies) {
+                stmt.setBigDecimal(1, discrepancy.expected());
+                stmt.setString(2, discrepancy.player().toString());
+                stmt.setBigDecimal(3, discrepancy.stored());
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            ChangeFeedService changeFeed = plugin.getChangeFeedService();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    applied.add(discrepancies.get(i));
+                    if (changeFeed != null) {
+                        changeFeed.publish(conn, discrepancies.get(i).player());
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        // Only balances actually set: a skipped account changed since it was read
+        AuditService audit = plugin.getAuditService();
+        if (audit != null) {
+            for (Discrepancy discrepancy : applied) {
+                audit.log(discrepancy.player(), AuditEvent.EventType.ADMIN_COMMAND, String.format(
+                    "Ledger repair: balance %s -> %s", discrepancy.stored(), discrepancy.expected()));
+            }
+        }
+        return applied.size();
+    }
+
+    private void logReport(Report report) {
+        if (report.isClean()) {
+            plugin.getLogger().info(String.format(
+                "Ledger reconciliation: %d accounts OK (%d transactions replayed, %dms).",
+                report.accounts(), report.replayed(), report.elapsedMillis()));
+            return;
+        }
+
+        plugin.getLogger().warning(String.format(
+            "Ledger reconciliation: %d of %d accounts differ from the ledger (%d repaired, %dms).",
+            report.mismatched(), report.accounts(), report.repaired(), report.elapsedMillis()));
+        int shown = Math.min(10, report.discrepancies().size());
+        for (Discrepancy discrepancy : report.discrepancies().subList(0, shown)) {
+            plugin.getLogger().warning(String.format("  %s: stored %s, ledger %s",
+                discrepancy.player(), discrepancy.stored(), discrepancy.expected()));
+        }
+    }
+
+    // ========================================
+    // QUERIES
+    // ========================================
+
+    private long readWatermark(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT last_tx_id FROM " + CHECKPOINT_TABLE + " WHERE uuid = ?")) {
+            stmt.setString(1, WATERMARK_KEY);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    /**
+     * Highest transaction id after the watermark that is older than the settle
+     * delay (scans down from the newest id, so only the recent tail is read)
+     */
+    private long lastSettledId(Connection conn, long watermark, long settledBefore) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id FROM nexus_transactions WHERE id > ? AND timestamp <= ? ORDER BY id DESC LIMIT 1")) {
+            stmt.setLong(1, watermark);
+            stmt.setLong(2, settledBefore);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : watermark;
+            }
+        }
+    }
+
+    /**
+     * Net balance change per account for transactions (after, upTo]
+     */
+    private Map<String, BigDecimal> readDeltas(Connection conn, long after, long upTo) throws SQLException {
+        Map<String, BigDecimal> deltas = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(DELTA_SQL)) {
+            stmt.setLong(1, after);
+            stmt.setLong(2, upTo);
+            stmt.setLong(3, after);
+            stmt.setLong(4, upTo);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    deltas.put(rs.getString(1), money(rs.getBigDecimal(2)));
+                }
+            }
+        }
+        return deltas;
+    }
+
+    private long countAfter(Connection conn, long watermark) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM nexus_transactions WHERE id > ?")) {
+            stmt.setLong(1, watermark);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    /**
+     * Opening balance recorded on the watermark row; records the configured
+     * saldo-inicial there if the ledger has none yet
+     */
+    private BigDecimal openingBalance(Connection conn) throws SQLException {
+        BigDecimal recorded = readOpeningBalance(conn);
+        if (recorded != null) {
+            return recorded;
+        }
+
+        BigDecimal configured = money(BigDecimal.valueOf(
+            plugin.getConfigManager().getSnapshot().economy().startingBalance()));
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE " + CHECKPOINT_TABLE + " SET opening_balance = ? WHERE uuid = ? AND opening_balance IS NULL")) {
+            update.setBigDecimal(1, configured);
+            update.setString(2, WATERMARK_KEY);
+            if (update.executeUpdate() > 0) {
+                return configured;
+            }
+        }
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO " + CHECKPOINT_TABLE + " (uuid, balance, last_tx_id, taken_at, opening_balance) " +
+                "VALUES (?, ?, ?, ?, ?)")) {
+            insert.setString(1, WATERMARK_KEY);
+            insert.setBigDecimal(2, BigDecimal.ZERO);
+            insert.setLong(3, 0L);
+            insert.setLong(4, System.currentTimeMillis());
+            insert.setBigDecimal(5, configured);
+            insert.executeUpdate();
+            return configured;
+        } catch (SQLException e) {
+            // Another server recorded it first
+            recorded = readOpeningBalance(conn);
+            if (recorded == null) {
+                throw e;
+            }
+            return recorded;
+        }
+    }
+
+    private BigDecimal readOpeningBalance(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT opening_balance FROM " + CHECKPOINT_TABLE + " WHERE uuid = ?")) {
+            stmt.setString(1, WATERMARK_KEY);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBigDecimal(1) != null ? money(rs.getBigDecimal(1)) : null;
+            }
+        }
+    }
+
+    /**
+     * Round to the 2 decimal places of the DECIMAL(15,2) columns
+     * (SQLite sums amounts as floating point)
+     */
+    private static BigDecimal money(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO.setScale(2) : value.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // ========================================
+    // STATUS
+    // ========================================
+
+    public Report getLastReport() { return lastReport; }
+    public long getLastCheckpointAt() { return lastCheckpointAt; }
+    public long getCheckpointedAccounts() { return checkpointedAccounts; }
+
+    /**
+     * Current watermark (blocking)
+     */
+    public long getWatermark() throws SQLException {
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            return readWatermark(conn);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.ConfigSnapshot;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * MainThreadGuard - Detects database connections taken on the server thread
+ *
+ * A blocking query on the main thread stalls the whole tick. Once armed
+ * (after startup), every connection request from the primary thread is
+ * counted and, depending on storage.thread-principal.modo, either logged
+ * with its stack trace (at most once per call site per interval) or refused
+ * with an SQLException. Startup and shutdown run on the main thread by
+ * design and happen while the guard is disarmed.
+ *
+ * Use {@link AsyncDatabase} to move the work off the main thread.
+ *
+ * @author Nexus Development Team
+ */
+public class MainThreadGuard {
+
+    private final NexusPlugin plugin;
+    private volatile boolean armed;
+
+    private final AtomicLong violations = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    // Call site -> last warning (millis)
+    private final Map<String, Long> lastWarning = new ConcurrentHashMap<>();
+
+    public MainThreadGuard(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void arm() {
+        armed = true;
+    }
+
+    public void disarm() {
+        armed = false;
+    }
+
+    /**
+     * Called before a connection is taken from the pool
+     */
+    void check() throws SQLException {
+        if (!armed || !plugin.getServer().isPrimaryThread()) {
+            return;
+        }
+
+        ConfigSnapshot.MainThreadGuardConfig config = plugin.getConfigManager().getSnapshot().mainThreadGuard();
+        if (config.mode() == ConfigSnapshot.MainThreadGuardConfig.GuardMode.IGNORE) {
+            return;
+        }
+        violations.incrementAndGet();
+
+        Throwable trace = new Throwable("Database connection requested on the server thread");
+        String site = callSite(trace.getStackTrace());
+
+        if (config.mode() == ConfigSnapshot.MainThreadGuardConfig.GuardMode.THROW) {
+            warn(site, trace, config.warnIntervalSeconds());
+            throw new SQLException("Database access on the server thread is disabled (" + site + ")");
+        }
+        warn(site, trace, config.warnIntervalSeconds());
+    }
+
+    private void warn(String site, Throwable trace, int intervalSeconds) {
+        long now = System.currentTimeMillis();
+        Long last = lastWarning.get(site);
+        if (last != null && now - last < TimeUnit.SECONDS.toMillis(intervalSeconds)) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        lastWarning.put(site, now);
+        plugin.getLogger().log(Level.WARNING, "Blocking database call on the server thread at " + site
+            + " (" + violations.get() + " so far); move it to AsyncDatabase.", trace);
+    }
+
+    /**
+     * First frame outside the database layer
+     */
+    private static String callSite(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.equals(MainThreadGuard.class.getName())
+                    && !className.equals(DatabaseService.class.getName())) {
+                return className + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "unknown";
+    }
+
+    public boolean isArmed() { return armed; }
+    public long getViolations() { return violations.get(); }
+    public long getSuppressed() { return suppressed.get(); }
+    public int getCallSites() { return lastWarning.size(); }
+}
@@ -0,0 +1,317 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.Transaction;
+import com.nexus.utils.ConfigSnapshot;
+import com.nexus.utils.Histogram;
+import com.nexus.utils.MetricsRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * MetricsService - Plugin metrics for Prometheus
+ *
+ * Owns the {@link MetricsRegistry} and registers what the services already
+ * measure: economy transactions and volume, audit pipeline throughput and
+ * queue depth, statement latency and pool state, persistence executor
+ * queueing, deferred main-thread work, change feed lag, and cache hit
+ * counts. Services started after this one can register their own families
+ * through {@link #getRegistry()}.
+ *
+ * With monitoramento.http.ativo the text exposition is served at
+ * http://127.0.0.1:&lt;porta&gt;/metrics by the JDK HTTP server on one daemon
+ * thread. It only binds to loopback; expose it through the proxy that is
+ * already scraped. /nexusdebug metricas shows the same samples in game.
+ *
+ * @author Nexus Development Team
+ */
+public class MetricsService {
+
+    private static final double MICROS = 1e-6;
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final NexusPlugin plugin;
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    private final MetricsRegistry.CounterFamily transactions;
+    private final MetricsRegistry.CounterFamily volume;
+
+    private final AtomicLong scrapes = new AtomicLong();
+    private final Histogram scrapeTime = new Histogram();
+
+    private HttpServer server;
+    private ExecutorService serverThread;
+
+    public MetricsService(NexusPlugin plugin) {
+        this.plugin = plugin;
+        this.transactions = registry.counter("nexus_economy_transactions_total",
+            "Economy transactions recorded, by type", "type");
+        this.volume = registry.counter("nexus_economy_volume_total",
+            "Currency moved by recorded transactions, by type", "type");
+    }
+
+    /**
+     * Register the service metrics and start the endpoint if enabled
+     */
+    public void start() {
+        registerServices();
+
+        ConfigSnapshot.MetricsConfig config = plugin.getConfigManager().getSnapshot().metrics();
+        if (!config.httpEnabled()) {
+            return;
+        }
+        try {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), config.httpPort());
+            server = HttpServer.create(address, 0);
+            server.createContext("/metrics", this::handle);
+            serverThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Nexus-Metrics-HTTP");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(serverThread);
+            server.start();
+            plugin.getLogger().info("✓ Metrics endpoint: http://" + address.getHostString() + ":"
+                + config.httpPort() + "/metrics");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to start the metrics endpoint on port "
+                + config.httpPort() + "!", e);
+            server = null;
+        }
+    }
+
+    public void shutdown() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (serverThread != null) {
+            serverThread.shutdownNow();
+            serverThread = null;
+        }
+    }
+
+    // ========================================
+    // RECORDING
+    // ========================================
+
+    /**
+     * Count a committed transaction (call once per row written to nexus_transactions)
+     */
+    public void recordTransaction(Transaction transaction) {
+        String type = transaction.getType().name();
+        transactions.labels(type).inc();
+        volume.labels(type).add(transaction.getAmount());
+    }
+
+    // ========================================
+    // SERVICE METRICS
+    // ========================================
+
+    private void registerServices() {
+        registry.gauge("nexus_players_online", "Players online",
+            () -> plugin.getServer().getOnlinePlayers().size());
+
+        AuditService audit = plugin.getAuditService();
+        if (audit != null) {
+            registry.gauge("nexus_audit_queue_depth", "Audit events buffered for the writer", audit::getQueueSize);
+            registry.gauge("nexus_audit_queue_capacity", "Audit buffer capacity", audit::getQueueCapacity);
+            registry.counter("nexus_audit_events_accepted_total", "Audit events accepted", audit::getAcceptedCount);
+            registry.counter("nexus_audit_events_written_total", "Audit events written", audit::getWrittenCount);
+            registry.counter("nexus_audit_events_dropped_total", "Audit events dropped on a full buffer",
+                audit::getDroppedCount);
+            registry.counter("nexus_audit_write_failures_total", "Failed audit batch writes", audit::getFailedCount);
+        }
+
+        DatabaseService database = plugin.getDatabaseService();
+        DatabaseMetrics db = database != null ? database.getMetrics() : null;
+        if (db != null) {
+            registry.register("nexus_db_statement_seconds", "Statement latency by statement",
+                MetricsRegistry.Type.SUMMARY, out -> {
+                    for (DatabaseMetrics.StatementStats stats : db.getStatements()) {
+                        out.summary("statement", stats.getLabel(), stats.getLatency(), MICROS);
+                    }
+                });
+            registry.register("nexus_db_statement_errors_total", "Failed statements by statement",
+                MetricsRegistry.Type.COUNTER, out -> {
+                    for (DatabaseMetrics.StatementStats stats : db.getStatements()) {
+                        out.value("statement", stats.getLabel(), stats.getErrors());
+                    }
+                });
+            registry.summary("nexus_db_pool_wait_seconds", "Time to obtain a pooled connection",
+                db.getPoolWait(), MICROS);
+            registry.summary("nexus_db_connection_hold_seconds", "Time a connection is held",
+                db.getConnectionHold(), MICROS);
+            registry.register("nexus_db_pool_connections", "Pool connections by state",
+                MetricsRegistry.Type.GAUGE, out -> {
+                    DatabaseMetrics.PoolState pool = db.getPoolState();
+                    out.value("state", "active", pool.active());
+                    out.value("state", "idle", pool.idle());
+                    out.value("state", "waiting", pool.waiting());
+                });
+            registry.counter("nexus_db_slow_queries_total", "Statements over the slow query threshold",
+                db::getSlowQueries);
+        }
+        if (database != null) {
+            registry.counter("nexus_db_main_thread_calls_total", "Connections requested on the server thread",
+                database.getThreadGuard()::getViolations);
+        }
+
+        PersistenceExecutor executor = plugin.getPersistenceExecutor();
+        if (executor != null) {
+            registry.gauge("nexus_persistence_waiting", "Persistence tasks waiting for a database permit",
+                executor::getWaiting);
+            registry.gauge("nexus_persistence_running", "Persistence tasks running", executor::getRunning);
+            registry.counter("nexus_persistence_rejected_total", "Persistence tasks refused on a full queue",
+                executor::getRejected);
+            registry.register("nexus_persistence_wait_seconds", "Queue wait by task",
+                MetricsRegistry.Type.SUMMARY, out -> {
+                    for (PersistenceExecutor.TaskStats stats : executor.getTasks()) {
+                        out.summary("task", stats.getLabel(), stats.getWait(), MICROS);
+                    }
+                });
+            registry.register("nexus_persistence_run_seconds", "Run time by task",
+                MetricsRegistry.Type.SUMMARY, out -> {
+                    for (PersistenceExecutor.TaskStats stats : executor.getTasks()) {
+                        out.summary("task", stats.getLabel(), stats.getRun(), MICROS);
+                    }
+                });
+        }
+
+        DeferredWorkScheduler deferred = plugin.getDeferredWorkScheduler();
+        if (deferred != null) {
+            registry.register("nexus_deferred_backlog", "Deferred main-thread tasks waiting, by priority",
+                MetricsRegistry.Type.GAUGE, out -> {
+                    for (DeferredWorkScheduler.WorkQueue queue : deferred.getQueues()) {
+                        out.value("priority", queue.getPriority().name(), queue.getBacklog());
+                    }
+                });
+            registry.summary("nexus_deferred_tick_seconds",
+                "Main-thread time spent on deferred work (panel pushes, timers) per tick",
+                deferred.getTickTime(), MICROS);
+            registry.counter("nexus_deferred_over_budget_ticks_total", "Ticks that exceeded the deferred work budget",
+                deferred::getOverBudgetTicks);
+        }
+
+        ChangeFeedService changeFeed = plugin.getChangeFeedService();
+        if (changeFeed != null && changeFeed.isEnabled()) {
+            registry.counter("nexus_changefeed_published_total", "Changes written by this server",
+                changeFeed::getPublishedCount);
+            registry.counter("nexus_changefeed_read_total", "Change rows read, including this server's own",
+                changeFeed::getReadCount);
+            registry.counter("nexus_changefeed_applied_total", "Distinct changed keys delivered to caches",
+                changeFeed::getAppliedCount);
+            registry.counter("nexus_changefeed_coalesced_total", "Changes merged into an earlier one of the same poll",
+                changeFeed::getCoalescedCount);
+            registry.counter("nexus_changefeed_late_total", "Changes committed after a higher id was read",
+                changeFeed::getRecoveredGapCount);
+            registry.counter("nexus_changefeed_resets_total", "Cache resets after the feed fell behind",
+                changeFeed::getResetCount);
+            registry.counter("nexus_changefeed_poll_failures_total", "Failed polls", changeFeed::getFailureCount);
+            registry.gauge("nexus_changefeed_cursor", "Last change id read", changeFeed::getCursor);
+            registry.gauge("nexus_changefeed_gaps", "Skipped change ids still awaited", changeFeed::getGapCount);
+            registry.summary("nexus_changefeed_lag_seconds", "Delay between a change being written and read here",
+                changeFeed.getLag(), 1e-3);
+        }
+
+        PlayerNameIndex names = plugin.getPlayerNameIndex();
+        if (names != null) {
+            registry.gauge("nexus_name_index_entries", "Player names resolvable without the database", names::size);
+            registry.gauge("nexus_name_index_bytes", "Memory held by the packed name arrays", names::getMemoryBytes);
+        }
+
+        SessionService sessions = plugin.getSessionService();
+        if (sessions != null) {
+            registry.summary("nexus_login_prefetch_seconds", "Time to load a player's session at pre-login",
+                sessions.getLoadTime(), MICROS);
+            registry.counter("nexus_login_prefetch_failures_total", "Logins refused because the session did not load",
+                sessions::getFailureCount);
+            registry.counter("nexus_login_shared_guilds_total", "Logins that joined guild state already in memory",
+                sessions::getSharedGuildCount);
+            registry.counter("nexus_session_refreshes_total", "Sessions and guilds re-read after a change",
+                sessions::getRefreshCount);
+            registry.counter("nexus_session_abandoned_total", "Prefetched sessions dropped without a join",
+                sessions::getAbandonedCount);
+            registry.gauge("nexus_sessions", "Player sessions in memory", sessions::getSessionCount);
+            registry.gauge("nexus_session_guilds", "Guilds shared by online members", sessions::getGuildCount);
+        }
+
+        VersionedRows versioned = plugin.getVersionedRows();
+        if (versioned != null) {
+            registry.counter("nexus_versioned_writes_total", "Player and guild row writes that passed the version check",
+                versioned::getWriteCount);
+            registry.counter("nexus_versioned_retries_total", "Re-reads after a concurrent write to the same row",
+                versioned::getRetryCount);
+            registry.counter("nexus_versioned_conflicts_total", "Writes rejected because the row changed since read",
+                versioned::getConflictCount);
+            registry.counter("nexus_versioned_exhausted_total", "Commutative writes that gave up after retrying",
+                versioned::getExhaustedCount);
+        }
+
+        TransactionHistoryService history = plugin.getTransactionHistoryService();
+        AuditQueryService auditQuery = plugin.getAuditQueryService();
+        registry.register("nexus_cache_hits_total", "Reads answered from memory, by cache",
+            MetricsRegistry.Type.COUNTER, out -> {
+                if (history != null) {
+                    out.value("cache", "historico", history.getCacheHits());
+                }
+                if (auditQuery != null) {
+                    out.value("cache", "auditoria", auditQuery.getMemoryPages());
+                }
+            });
+        registry.register("nexus_cache_misses_total", "Reads that went to the database, by cache",
+            MetricsRegistry.Type.COUNTER, out -> {
+                if (history != null) {
+                    out.value("cache", "historico", history.getCacheMisses());
+                }
+                if (auditQuery != null) {
+                    out.value("cache", "auditoria", auditQuery.getDatabasePages());
+                }
+            });
+
+        registry.counter("nexus_metrics_scrapes_total", "Scrapes of this endpoint", scrapes::get);
+    }
+
+    // ========================================
+    // ENDPOINT
+    // ========================================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            long started = System.nanoTime();
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            scrapeTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+        }
+    }
+
+    public String scrape() {
+        scrapes.incrementAndGet();
+        return registry.scrape();
+    }
+
+    public MetricsRegistry getRegistry() { return registry; }
+    public boolean isServing() { return server != null; }
+    public int getPort() { return server != null ? server.getAddress().getPort() : -1; }
+    public long getScrapes() { return scrapes.get(); }
+    public Histogram getScrapeTime() { return scrapeTime; }
+}
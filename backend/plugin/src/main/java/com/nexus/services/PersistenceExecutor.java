@@ -0,0 +1,290 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.ConfigSnapshot;
+import com.nexus.utils.Histogram;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * PersistenceExecutor - Shared executor for blocking persistence work
+ *
+ * On Java 21+ every task gets its own virtual thread, so thousands of small
+ * concurrent loads (offline lookups, history pages, market pages) cost
+ * almost nothing while they wait. On Java 17 it falls back to a bounded
+ * platform pool with a bounded queue. The plugin is compiled for 17, so
+ * virtual threads are created through reflection.
+ *
+ * Either way, a fair semaphore sized to the connection pool admits tasks to
+ * the database: no more tasks run than there are connections, so waiting
+ * happens here (cheaply, and measured) instead of inside Hikari, and
+ * drivers that pin carrier threads on synchronized blocks can pin at most
+ * that many.
+ *
+ * Tasks must not wait on other tasks of this executor (the permits would
+ * deadlock). Per-task-label queue wait and run time histograms are kept for
+ * /nexusdebug db.
+ *
+ * On disable the {@link ShutdownCoordinator} closes intake and waits for
+ * queued work within its budget. Tasks are opaque callables, so whatever is
+ * still queued after that cannot be saved for recovery; it is abandoned
+ * and counted in the shutdown report.
+ *
+ * @author Nexus Development Team
+ */
+public class PersistenceExecutor implements ShutdownCoordinator.Participant {
+
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+    private static final int MAX_LABELS = 64;
+    private static final String OVERFLOW_LABEL = "other";
+
+    private final NexusPlugin plugin;
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final Semaphore permits;
+    private final int permitCount;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean abandoned;
+    private final Map<String, TaskStats> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * Timing of one task label, in microseconds
+     */
+    public static final class TaskStats {
+        private final String label;
+        private final Histogram wait = new Histogram();
+        private final Histogram run = new Histogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        private TaskStats(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+        public Histogram getWait() { return wait; }
+        public Histogram getRun() { return run; }
+        public long getFailures() { return failures.get(); }
+    }
+
+    public PersistenceExecutor(NexusPlugin plugin) {
+        this.plugin = plugin;
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+        ConfigSnapshot.PersistenceExecutorConfig config = snapshot.persistenceExecutor();
+
+        // SQLite has a single connection
+        this.permitCount = snapshot.storage().isMySQL() ? snapshot.storage().hikariMaxPoolSize() : 1;
+        this.permits = new Semaphore(permitCount, true);
+
+        ExecutorService virtualExecutor = config.virtualThreads() ? createVirtualExecutor() : null;
+        this.virtual = virtualExecutor != null;
+        this.executor = virtual ? virtualExecutor : createPlatformExecutor(config);
+
+        plugin.getLogger().info(String.format("✓ Persistence executor: %s, %d database permits",
+            virtual ? "virtual threads" : config.platformThreads() + " platform threads", permitCount));
+    }
+
+    /**
+     * Thread-per-task executor on virtual threads, or null before Java 21
+     */
+    private ExecutorService createVirtualExecutor() {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "Nexus-IO-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Virtual threads unavailable; using a platform pool.", e);
+            return null;
+        }
+    }
+
+    private static ExecutorService createPlatformExecutor(ConfigSnapshot.PersistenceExecutorConfig config) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "Nexus-IO-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(config.platformThreads(), config.platformThreads(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(config.queueCapacity()), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // ========================================
+    // SUBMISSION
+    // ========================================
+
+    /**
+     * Run blocking work once a database permit is free; the future completes
+     * on the worker thread
+     *
+     * @param label task name for metrics ("historico", "auditoria", ...)
+     */
+    public <T> CompletableFuture<T> submit(String label, Callable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        TaskStats stats = stats(label);
+        long submittedAt = System.nanoTime();
+
+        waiting.incrementAndGet();
+        try {
+            executor.execute(() -> execute(stats, submittedAt, work, future));
+        } catch (RejectedExecutionException e) {
+            waiting.decrementAndGet();
+            rejected.incrementAndGet();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <T> void execute(TaskStats stats, long submittedAt, Callable<T> work, CompletableFuture<T> future) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            waiting.decrementAndGet();
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        waiting.decrementAndGet();
+        running.incrementAndGet();
+        stats.wait.record((startedAt - submittedAt) / 1000);
+        try {
+            T result = work.call();
+            future.complete(result);
+        } catch (Throwable e) {
+            stats.failures.incrementAndGet();
+            future.completeExceptionally(e);
+        } finally {
+            stats.run.record((System.nanoTime() - startedAt) / 1000);
+            running.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private TaskStats stats(String label) {
+        TaskStats stats = tasks.get(label);
+        if (stats != null) {
+            return stats;
+        }
+        return tasks.computeIfAbsent(tasks.size() < MAX_LABELS ? label : OVERFLOW_LABEL, TaskStats::new);
+    }
+
+    // ========================================
+    // METRICS
+    // ========================================
+
+    /**
+     * Task labels, most total run time first
+     */
+    public List<TaskStats> getTasks() {
+        List<TaskStats> result = new ArrayList<>(tasks.values());
+        result.sort(Comparator.comparingDouble((TaskStats stats) -> {
+            Histogram.Snapshot snapshot = stats.run.snapshot();
+            return snapshot.mean() * snapshot.count();
+        }).reversed());
+        return result;
+    }
+
+    public boolean isVirtual() { return virtual; }
+    public int getPermits() { return permitCount; }
+    public int getAvailablePermits() { return permits.availablePermits(); }
+    public int getWaiting() { return waiting.get(); }
+    public int getRunning() { return running.get(); }
+    public long getRejected() { return rejected.get(); }
+
+    public void resetMetrics() {
+        tasks.clear();
+        rejected.set(0);
+    }
+
+    // ========================================
+    // LIFECYCLE
+    // ========================================
+
+    /**
+     * Stop accepting work and wait briefly for queued and running work
+     */
+    public void shutdown() {
+        if (abandoned) {
+            return; // The shutdown coordinator already gave up on it
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning(String.format(
+                    "Persistence work still running after %ds (%d running, %d waiting); abandoning it.",
+                    SHUTDOWN_WAIT_SECONDS, running.get(), waiting.get()));
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========================================
+    // SHUTDOWN FLUSH
+    // ========================================
+
+    @Override
+    public String getShutdownName() {
+        return "persistencia";
+    }
+
+    @Override
+    public void stopIntake() {
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean drain(long deadlineNanos) {
+        try {
+            return executor.awaitTermination(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public int getPending() {
+        return waiting.get() + running.get();
+    }
+
+    /**
+     * Queued callables cannot be serialized: interrupt what runs, drop the rest
+     */
+    @Override
+    public int spill(File folder, long deadlineNanos) {
+        abandoned = true;
+        executor.shutdownNow();
+        return 0;
+    }
+}
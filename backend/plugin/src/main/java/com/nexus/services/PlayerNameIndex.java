@@ -0,0 +1,554 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * PlayerNameIndex - Case-insensitive name to UUID lookups without I/O
+ *
+ * Commands resolve player names (online or not) from memory instead of
+ * querying nexus_players by LOWER(name) or calling getOfflinePlayer:
+ * - the bulk of the names sits in sorted primitive arrays, seeded once at
+ *   startup by a streaming scan of nexus_players; each name is packed into
+ *   two longs (6 bits per character, case kept as a bit mask), so an entry
+ *   costs 32 bytes with its UUID
+ * - logins and renames go to a small sorted overlay that wins over the
+ *   arrays; once it grows past {@link #COMPACT_THRESHOLD} it is merged into
+ *   new arrays off the calling thread
+ *
+ * Lookups and prefix queries (tab completion) only read a volatile snapshot
+ * and the overlay, so they are safe on the server thread. Names outside
+ * the packable alphabet (non-ASCII, over 16 characters) stay in the
+ * overlay. When a name was reused, the player who logged in last wins.
+ *
+ * @author Nexus Development Team
+ */
+public class PlayerNameIndex {
+
+    private static final int COMPACT_THRESHOLD = 1024;
+    private static final int MAX_PACKED_LENGTH = 16;
+    private static final int CASE_BITS = 16;
+
+    /** Packable characters in ASCII order; code = position + 1, 0 pads */
+    private static final String ALPHABET = " -.0123456789_abcdefghijklmnopqrstuvwxyz";
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            CODES[ALPHABET.charAt(i)] = (byte) (i + 1);
+        }
+    }
+
+    /**
+     * Name as last seen (case kept) and its owner; a null UUID hides the
+     * name in the arrays (renamed away)
+     */
+    private record Entry(String name, UUID uuid) {}
+
+    /**
+     * Rename seen before the startup scan finished, replayed once it has
+     */
+    private record Rename(UUID uuid, String oldName) {}
+
+    /**
+     * Immutable sorted arrays: packed name (hi, lo) and UUID (msb, lsb)
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new long[0], new long[0], new long[0], new long[0], 0);
+
+        final long[] hi;
+        final long[] lo;
+        final long[] msb;
+        final long[] lsb;
+        final int size;
+
+        Snapshot(long[] hi, long[] lo, long[] msb, long[] lsb, int size) {
+            this.hi = hi;
+            this.lo = lo;
+            this.msb = msb;
+            this.lsb = lsb;
+            this.size = size;
+        }
+
+        /**
+         * First index whose name is not below the packed key
+         */
+        int lowerBound(long keyHi, long keyLo) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(hi[mid], lo[mid], keyHi, keyLo) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        UUID uuid(int index) {
+            return new UUID(msb[index], lsb[index]);
+        }
+    }
+
+    /**
+     * Growable parallel arrays used while seeding and compacting
+     */
+    private static final class Builder {
+        long[] hi;
+        long[] lo;
+        long[] msb;
+        long[] lsb;
+        long[] seen;
+        int size;
+
+        Builder(int capacity) {
+            capacity = Math.max(capacity, 16);
+            hi = new long[capacity];
+            lo = new long[capacity];
+            msb = new long[capacity];
+            lsb = new long[capacity];
+            seen = new long[capacity];
+        }
+
+        void add(long keyHi, long keyLo, UUID uuid, long lastSeen) {
+            if (size == hi.length) {
+                int capacity = size + (size >> 1);
+                hi = Arrays.copyOf(hi, capacity);
+                lo = Arrays.copyOf(lo, capacity);
+                msb = Arrays.copyOf(msb, capacity);
+                lsb = Arrays.copyOf(lsb, capacity);
+                seen = Arrays.copyOf(seen, capacity);
+            }
+            hi[size] = keyHi;
+            lo[size] = keyLo;
+            msb[size] = uuid.getMostSignificantBits();
+            lsb[size] = uuid.getLeastSignificantBits();
+            seen[size] = lastSeen;
+            size++;
+        }
+
+        /**
+         * Sort by name and keep the latest login of each name
+         */
+        Snapshot build() {
+            heapSort();
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (kept > 0 && compare(hi[kept - 1], lo[kept - 1], hi[i], lo[i]) == 0) {
+                    if (seen[i] > seen[kept - 1]) {
+                        move(i, kept - 1);
+                    }
+                    continue;
+                }
+                move(i, kept++);
+            }
+            return new Snapshot(Arrays.copyOf(hi, kept), Arrays.copyOf(lo, kept),
+                Arrays.copyOf(msb, kept), Arrays.copyOf(lsb, kept), kept);
+        }
+
+        private void heapSort() {
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i, size);
+            }
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private void siftDown(int node, int end) {
+            while (true) {
+                int child = 2 * node + 1;
+                if (child >= end) {
+                    return;
+                }
+                if (child + 1 < end && compare(hi[child], lo[child], hi[child + 1], lo[child + 1]) < 0) {
+                    child++;
+                }
+                if (compare(hi[node], lo[node], hi[child], lo[child]) >= 0) {
+                    return;
+                }
+                swap(node, child);
+                node = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long t;
+            t = hi[a]; hi[a] = hi[b]; hi[b] = t;
+            t = lo[a]; lo[a] = lo[b]; lo[b] = t;
+            t = msb[a]; msb[a] = msb[b]; msb[b] = t;
+            t = lsb[a]; lsb[a] = lsb[b]; lsb[b] = t;
+            t = seen[a]; seen[a] = seen[b]; seen[b] = t;
+        }
+
+        private void move(int from, int to) {
+            hi[to] = hi[from];
+            lo[to] = lo[from];
+            msb[to] = msb[from];
+            lsb[to] = lsb[from];
+            seen[to] = seen[from];
+        }
+    }
+
+    private final NexusPlugin plugin;
+    private final ConcurrentSkipListMap<String, Entry> overlay = new ConcurrentSkipListMap<>();
+    private final Queue<Rename> pendingRenames = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Object snapshotLock = new Object();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+
+    public PlayerNameIndex(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // ========================================
+    // SEEDING
+    // ========================================
+
+    /**
+     * Read every stored name with one streaming scan (blocking; startup)
+     */
+    public void load() throws SQLException {
+        long start = System.currentTimeMillis();
+        Builder builder = new Builder(1024);
+        List<Entry> unpacked = new ArrayList<>();
+        boolean mysql = plugin.getConfigManager().getSnapshot().storage().isMySQL();
+
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT uuid, name, last_login FROM nexus_players",
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams rows one by one instead of buffering the result
+            stmt.setFetchSize(mysql ? Integer.MIN_VALUE : 1000);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(2);
+                    UUID uuid;
+                    try {
+                        uuid = UUID.fromString(rs.getString(1));
+                    } catch (IllegalArgumentException | NullPointerException e) {
+                        continue;
+                    }
+                    if (name == null || name.isEmpty()) {
+                        continue;
+                    }
+                    if (packable(name)) {
+                        builder.add(packHi(name), packLo(name), uuid, rs.getLong(3));
+                    } else {
+                        unpacked.add(new Entry(name, uuid));
+                    }
+                }
+            }
+        }
+
+        synchronized (snapshotLock) {
+            snapshot = builder.build();
+        }
+        // Logins since startup are newer than the scan
+        for (Entry entry : unpacked) {
+            overlay.putIfAbsent(key(entry.name()), entry);
+        }
+        loaded = true;
+        replayRenames();
+        plugin.getLogger().info(String.format("✓ Player name index: %d names (%d KB) in %dms.",
+            size(), getMemoryBytes() / 1024, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * False until the startup scan finished: a miss may then be a stored
+     * name not read yet
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // ========================================
+    // LOOKUP
+    // ========================================
+
+    /**
+     * Owner of a name, ignoring case; null if unknown
+     */
+    public UUID resolve(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        Entry entry = overlay.get(key(name));
+        if (entry != null) {
+            return entry.uuid();
+        }
+        if (!packable(name)) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        long keyHi = packHi(name);
+        long keyLo = packLo(name);
+        int index = current.lowerBound(keyHi, keyLo);
+        if (index < current.size && compare(current.hi[index], current.lo[index], keyHi, keyLo) == 0) {
+            return current.uuid(index);
+        }
+        return null;
+    }
+
+    /**
+     * Stored names starting with the prefix (ignoring case), in order
+     */
+    public List<String> complete(String prefix, int limit) {
+        String lowerPrefix = key(prefix);
+        List<String> names = new ArrayList<>();
+
+        NavigableMap<String, Entry> changed = overlay.subMap(lowerPrefix, true, lowerPrefix + Character.MAX_VALUE, false);
+        Iterator<Map.Entry<String, Entry>> overlayIterator = changed.entrySet().iterator();
+        Map.Entry<String, Entry> pending = overlayIterator.hasNext() ? overlayIterator.next() : null;
+
+        Snapshot current = snapshot;
+        int index = packable(lowerPrefix) ? current.lowerBound(packHi(lowerPrefix), packLo(lowerPrefix)) : current.size;
+
+        while (names.size() < limit) {
+            String stored = null;
+            if (index < current.size) {
+                stored = unpack(current.hi[index], current.lo[index]);
+                if (!key(stored).startsWith(lowerPrefix)) {
+                    stored = null;
+                    index = current.size;
+                }
+            }
+            if (stored == null && pending == null) {
+                break;
+            }
+            int order = stored == null ? 1 : pending == null ? -1 : key(stored).compareTo(pending.getKey());
+            if (order < 0) {
+                names.add(stored);
+                index++;
+                continue;
+            }
+            if (order == 0) {
+                index++;   // the overlay has the newer owner
+            }
+            if (pending.getValue().uuid() != null) {
+                names.add(pending.getValue().name());
+            }
+            pending = overlayIterator.hasNext() ? overlayIterator.next() : null;
+        }
+        return names;
+    }
+
+    // ========================================
+    // UPDATES
+    // ========================================
+
+    /**
+     * Record a player's current name (login)
+     */
+    public void put(UUID uuid, String name) {
+        overlay.put(key(name), new Entry(name, uuid));
+        // Not before the scan: it replaces the arrays
+        if (loaded && overlay.size() > COMPACT_THRESHOLD && compacting.compareAndSet(false, true)) {
+            try {
+                plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this::compact);
+            } catch (RuntimeException e) {
+                // Disabling: stays in the overlay
+                compacting.set(false);
+            }
+        }
+    }
+
+    /**
+     * A player logged in under a new name: the old one no longer resolves
+     * to them
+     */
+    public void rename(UUID uuid, String oldName, String newName) {
+        if (oldName != null && !oldName.equalsIgnoreCase(newName)) {
+            if (loaded) {
+                hide(uuid, oldName);
+            } else {
+                // The scan may still add the old name: hide it once the arrays are in
+                pendingRenames.add(new Rename(uuid, oldName));
+                if (loaded) {
+                    replayRenames();
+                }
+            }
+        }
+        put(uuid, newName);
+    }
+
+    private void replayRenames() {
+        Rename rename;
+        while ((rename = pendingRenames.poll()) != null) {
+            hide(rename.uuid(), rename.oldName());
+        }
+    }
+
+    /**
+     * Tombstone a name unless someone else has taken it since
+     */
+    private void hide(UUID uuid, String oldName) {
+        if (uuid.equals(resolve(oldName))) {
+            overlay.put(key(oldName), new Entry(oldName, null));
+        }
+    }
+
+    /**
+     * Merge packable overlay entries into new arrays (async)
+     */
+    void compact() {
+        try {
+            synchronized (snapshotLock) {
+                Snapshot current = snapshot;
+                List<Map.Entry<String, Entry>> merged = new ArrayList<>();
+                Builder builder = new Builder(current.size + overlay.size());
+                int index = 0;
+                for (Map.Entry<String, Entry> change : overlay.entrySet()) {
+                    String name = change.getValue().name();
+                    if (!packable(name)) {
+                        continue;
+                    }
+                    long keyHi = packHi(name);
+                    long keyLo = packLo(name);
+                    for (; index < current.size && compare(current.hi[index], current.lo[index], keyHi, keyLo) < 0; index++) {
+                        builder.add(current.hi[index], current.lo[index], current.uuid(index), 0);
+                    }
+                    if (index < current.size && compare(current.hi[index], current.lo[index], keyHi, keyLo) == 0) {
+                        index++;
+                    }
+                    if (change.getValue().uuid() != null) {
+                        builder.add(keyHi, keyLo, change.getValue().uuid(), 0);
+                    }
+                    merged.add(change);
+                }
+                for (; index < current.size; index++) {
+                    builder.add(current.hi[index], current.lo[index], current.uuid(index), 0);
+                }
+                // Already sorted and unique: build() only trims
+                snapshot = builder.build();
+                for (Map.Entry<String, Entry> change : merged) {
+                    overlay.remove(change.getKey(), change.getValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to compact the player name index!", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    // ========================================
+    // PACKING
+    // ========================================
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    static boolean packable(String name) {
+        if (name.length() > MAX_PACKED_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            if (c >= 128 || CODES[c] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Characters 0-9, 6 bits each (60 bits)
+     */
+    static long packHi(String name) {
+        long packed = 0;
+        for (int i = 0; i < 10; i++) {
+            packed = (packed << 6) | code(name, i);
+        }
+        return packed;
+    }
+
+    /**
+     * Characters 10-15 (36 bits) above a 16-bit mask of upper-case positions
+     */
+    static long packLo(String name) {
+        long packed = 0;
+        for (int i = 10; i < MAX_PACKED_LENGTH; i++) {
+            packed = (packed << 6) | code(name, i);
+        }
+        long upper = 0;
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.isUpperCase(name.charAt(i))) {
+                upper |= 1L << i;
+            }
+        }
+        return (packed << CASE_BITS) | upper;
+    }
+
+    private static long code(String name, int index) {
+        return index < name.length() ? CODES[Character.toLowerCase(name.charAt(index))] : 0;
+    }
+
+    static String unpack(long hi, long lo) {
+        char[] chars = new char[MAX_PACKED_LENGTH];
+        int length = 0;
+        for (int i = 0; i < MAX_PACKED_LENGTH; i++) {
+            int code = i < 10
+                ? (int) (hi >>> (6 * (9 - i))) & 0x3F
+                : (int) (lo >>> (CASE_BITS + 6 * (15 - i))) & 0x3F;
+            if (code == 0) {
+                break;
+            }
+            char c = ALPHABET.charAt(code - 1);
+            chars[length++] = (lo & (1L << i)) != 0 ? Character.toUpperCase(c) : c;
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Order of packed names, ignoring case
+     */
+    static int compare(long hiA, long loA, long hiB, long loB) {
+        int order = Long.compare(hiA, hiB);
+        return order != 0 ? order : Long.compare(loA >>> CASE_BITS, loB >>> CASE_BITS);
+    }
+
+    // ========================================
+    // STATISTICS
+    // ========================================
+
+    /**
+     * Names in the arrays plus pending overlay entries (approximate)
+     */
+    public int size() {
+        return snapshot.size + overlay.size();
+    }
+
+    public int getOverlaySize() {
+        return overlay.size();
+    }
+
+    /**
+     * Bytes held by the packed arrays
+     */
+    public long getMemoryBytes() {
+        return 32L * snapshot.hi.length;
+    }
+}
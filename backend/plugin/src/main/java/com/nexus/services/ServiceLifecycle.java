@@ -0,0 +1,461 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * ServiceLifecycle - Dependency-ordered, parallel service startup and shutdown
+ *
+ * Each service is registered with the names of the services it needs and
+ * where it may start:
+ * - MAIN: on the server thread during onEnable (Bukkit state: commands,
+ *   listeners, online players)
+ * - PARALLEL: on the startup pool during onEnable, as soon as its
+ *   dependencies are up; independent services (database, executors,
+ *   pipelines) overlap
+ * - WARMUP: on the startup pool after onEnable returns (index upgrades,
+ *   cache seeding); the server accepts players meanwhile and a failure is
+ *   only logged
+ *
+ * {@link #start()} runs on the server thread and returns once every MAIN
+ * and PARALLEL service is up, or after a required one failed and those in
+ * flight finished. It logs how long each phase took and the critical path.
+ * {@link #shutdown()} stops the started services in reverse start order,
+ * so a service always stops before the services it depends on.
+ *
+ * @author Nexus Development Team
+ */
+public class ServiceLifecycle {
+
+    private static final long PROGRESS_LOG_SECONDS = 10;
+
+    /**
+     * Where and when a service starts
+     */
+    public enum Mode { MAIN, PARALLEL, WARMUP }
+
+    /**
+     * Creates and starts a service; throwing marks it failed
+     */
+    @FunctionalInterface
+    public interface StartAction {
+        void start() throws Exception;
+    }
+
+    private enum State { WAITING, RUNNING, STARTED, FAILED, SKIPPED }
+
+    /**
+     * One registered service
+     */
+    public final class Service {
+        private final String name;
+        private final Mode mode;
+        private final StartAction action;
+        private final List<String> dependsOn;
+        private final List<Service> dependents = new ArrayList<>();
+        private Runnable stopAction;
+        private boolean required = true;
+
+        // Graph state: touched by the server thread only (pool threads post completions)
+        private State state = State.WAITING;
+        private int waitingOn;
+        private long startedAt;
+        private long finishedAt;
+        private String thread;
+        private Throwable failure;
+
+        private Service(String name, Mode mode, StartAction action, List<String> dependsOn) {
+            this.name = name;
+            this.mode = mode;
+            this.action = action;
+            this.dependsOn = dependsOn;
+        }
+
+        /**
+         * Run on shutdown if the service started
+         */
+        public Service onStop(Runnable stop) {
+            this.stopAction = stop;
+            return this;
+        }
+
+        /**
+         * A failure is logged and dependents start anyway
+         */
+        public Service optional() {
+            this.required = false;
+            return this;
+        }
+    }
+
+    private final NexusPlugin plugin;
+    private final Map<String, Service> services = new LinkedHashMap<>();
+    private final BlockingQueue<Runnable> mainThreadEvents = new LinkedBlockingQueue<>();
+
+    // Started services in completion order (reversed for shutdown)
+    private final List<Service> started = new ArrayList<>();
+
+    private ExecutorService pool;
+    private long origin;
+    private int inFlight;
+    private boolean aborted;
+
+    // Warm-ups complete on pool threads after start() returned
+    private final AtomicInteger warmupsLeft = new AtomicInteger();
+    private volatile boolean stopping;
+
+    public ServiceLifecycle(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // ========================================
+    // REGISTRATION
+    // ========================================
+
+    public Service register(String name, Mode mode, StartAction action, String... dependsOn) {
+        Service service = new Service(name, mode, action, Arrays.asList(dependsOn));
+        if (services.putIfAbsent(name, service) != null) {
+            throw new IllegalArgumentException("Service registered twice: " + name);
+        }
+        return service;
+    }
+
+    /**
+     * Resolve dependencies; unknown names, cycles and enable-time services
+     * waiting on warm-ups are programming errors
+     */
+    private void link() {
+        for (Service service : services.values()) {
+            for (String dependency : service.dependsOn) {
+                Service target = services.get(dependency);
+                if (target == null) {
+                    throw new IllegalStateException(service.name + " depends on unknown service " + dependency);
+                }
+                if (target.mode == Mode.WARMUP && service.mode != Mode.WARMUP) {
+                    throw new IllegalStateException(service.name + " cannot wait for warm-up " + dependency);
+                }
+                target.dependents.add(service);
+            }
+            service.waitingOn = service.dependsOn.size();
+        }
+
+        // Kahn's algorithm over a copy of the counters finds cycles
+        Map<Service, Integer> remaining = new HashMap<>();
+        List<Service> ready = new ArrayList<>();
+        for (Service service : services.values()) {
+            remaining.put(service, service.waitingOn);
+            if (service.waitingOn == 0) {
+                ready.add(service);
+            }
+        }
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            Service service = ready.remove(ready.size() - 1);
+            visited++;
+            for (Service dependent : service.dependents) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (visited != services.size()) {
+            throw new IllegalStateException("Service dependencies contain a cycle");
+        }
+    }
+
+    // ========================================
+    // STARTUP
+    // ========================================
+
+    /**
+     * Start every MAIN and PARALLEL service (server thread; blocks until done)
+     *
+     * @return false if a required service failed
+     */
+    public boolean start() {
+        link();
+        origin = System.nanoTime();
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger counter = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Nexus-Startup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (Service service : services.values()) {
+            if (service.mode != Mode.WARMUP && service.waitingOn == 0) {
+                dispatch(service);
+            }
+        }
+
+        long nextProgressLog = System.nanoTime() + TimeUnit.SECONDS.toNanos(PROGRESS_LOG_SECONDS);
+        while (inFlight > 0) {
+            Runnable event;
+            try {
+                event = mainThreadEvents.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aborted = true;
+                break;
+            }
+            if (event != null) {
+                event.run();
+            } else if (System.nanoTime() > nextProgressLog) {
+                nextProgressLog = System.nanoTime() + TimeUnit.SECONDS.toNanos(PROGRESS_LOG_SECONDS);
+                plugin.getLogger().info("Still starting: " + String.join(", ", namesIn(State.RUNNING)));
+            }
+        }
+
+        logReport();
+        if (aborted) {
+            pool.shutdown(); // Warm-ups never start
+            return false;
+        }
+        startWarmups();
+        return true;
+    }
+
+    private void dispatch(Service service) {
+        service.state = State.RUNNING;
+        inFlight++;
+        if (service.mode == Mode.MAIN) {
+            mainThreadEvents.add(() -> {
+                run(service);
+                completed(service);
+            });
+        } else {
+            pool.execute(() -> {
+                run(service);
+                mainThreadEvents.add(() -> completed(service));
+            });
+        }
+    }
+
+    private void run(Service service) {
+        service.thread = Thread.currentThread().getName();
+        service.startedAt = System.nanoTime();
+        try {
+            service.action.start();
+            service.state = State.STARTED;
+        } catch (Exception | LinkageError e) {
+            service.failure = e;
+            service.state = State.FAILED;
+        } finally {
+            service.finishedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Bookkeeping after a service ran (server thread)
+     */
+    private void completed(Service service) {
+        inFlight--;
+        if (service.state == State.STARTED) {
+            started.add(service);
+        } else {
+            plugin.getLogger().log(service.required ? Level.SEVERE : Level.WARNING,
+                "Failed to start " + service.name + (service.required ? "!" : "; continuing without it."),
+                service.failure);
+            if (service.required) {
+                aborted = true;
+            }
+        }
+        if (aborted) {
+            return;
+        }
+        for (Service dependent : service.dependents) {
+            if (--dependent.waitingOn == 0 && dependent.mode != Mode.WARMUP) {
+                dispatch(dependent);
+            }
+        }
+    }
+
+    // ========================================
+    // WARM-UPS
+    // ========================================
+
+    /**
+     * Start warm-ups whose dependencies are up; the rest follow as their
+     * warm-up dependencies finish (pool threads)
+     */
+    private void startWarmups() {
+        List<Service> warmups = new ArrayList<>();
+        for (Service service : services.values()) {
+            if (service.mode == Mode.WARMUP) {
+                warmups.add(service);
+            }
+        }
+        if (warmups.isEmpty()) {
+            pool.shutdown();
+            return;
+        }
+        warmupsLeft.set(warmups.size());
+        for (Service warmup : warmups) {
+            if (warmup.waitingOn == 0) {
+                pool.execute(() -> runWarmup(warmup));
+            }
+        }
+    }
+
+    private void runWarmup(Service warmup) {
+        try {
+            if (stopping) {
+                return;
+            }
+            run(warmup);
+            if (warmup.state == State.FAILED) {
+                plugin.getLogger().log(Level.WARNING, "Warm-up " + warmup.name + " failed.", warmup.failure);
+            } else {
+                synchronized (started) {
+                    started.add(warmup);
+                }
+            }
+
+            for (Service dependent : warmup.dependents) {
+                boolean ready;
+                synchronized (this) {
+                    ready = --dependent.waitingOn == 0;
+                }
+                if (ready && !stopping) {
+                    pool.execute(() -> runWarmup(dependent));
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            // shutdown() closed the pool between the check and the submit
+        } finally {
+            // A skipped warm-up never schedules its dependents: the count cannot reach zero
+            boolean last = warmupsLeft.decrementAndGet() == 0;
+            if (last && !stopping) {
+                logWarmups();
+            }
+            if (last || stopping) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private void logWarmups() {
+        StringBuilder line = new StringBuilder();
+        for (Service service : services.values()) {
+            if (service.mode == Mode.WARMUP && service.finishedAt > 0) {
+                line.append(line.length() > 0 ? ", " : "").append(service.name).append(' ')
+                    .append(millis(service.finishedAt - service.startedAt)).append("ms");
+            }
+        }
+        plugin.getLogger().info(String.format("✓ Warm-ups finished %dms after startup began (%s).",
+            millis(System.nanoTime() - origin), line));
+    }
+
+    // ========================================
+    // SHUTDOWN
+    // ========================================
+
+    /**
+     * Stop started services, dependents first (server thread)
+     */
+    public void shutdown() {
+        stopping = true;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        List<Service> order;
+        synchronized (started) {
+            order = new ArrayList<>(started);
+            started.clear();
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Service service = order.get(i);
+            if (service.stopAction == null) {
+                continue;
+            }
+            try {
+                service.stopAction.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to stop " + service.name + "!", e);
+            }
+        }
+    }
+
+    // ========================================
+    // REPORT
+    // ========================================
+
+    private void logReport() {
+        long wall = System.nanoTime() - origin;
+        long work = 0;
+        Service last = null;
+        for (Service service : services.values()) {
+            if (service.finishedAt == 0 || service.mode == Mode.WARMUP) {
+                continue;
+            }
+            work += service.finishedAt - service.startedAt;
+            if (last == null || service.finishedAt > last.finishedAt) {
+                last = service;
+            }
+        }
+
+        plugin.getLogger().info(String.format("Startup phases: %dms wall, %dms of work, critical path %s",
+            millis(wall), millis(work), criticalPath(last)));
+        for (Service service : services.values()) {
+            if (service.mode == Mode.WARMUP) {
+                continue;
+            }
+            if (service.finishedAt == 0) {
+                plugin.getLogger().info(String.format("  %-18s not started", service.name));
+                continue;
+            }
+            plugin.getLogger().info(String.format("  %-18s %6dms +%5dms  %-10s %s", service.name,
+                millis(service.startedAt - origin), millis(service.finishedAt - service.startedAt),
+                service.mode == Mode.MAIN ? "main" : service.thread,
+                service.state == State.STARTED ? "" : service.state.name().toLowerCase()));
+        }
+    }
+
+    /**
+     * The chain of last-finishing dependencies that bounded the wall time
+     */
+    private String criticalPath(Service last) {
+        List<String> path = new ArrayList<>();
+        for (Service service = last; service != null; ) {
+            path.add(0, service.name);
+            Service slowest = null;
+            for (String dependency : service.dependsOn) {
+                Service candidate = services.get(dependency);
+                if (slowest == null || candidate.finishedAt > slowest.finishedAt) {
+                    slowest = candidate;
+                }
+            }
+            service = slowest;
+        }
+        return path.isEmpty() ? "-" : String.join(" → ", path);
+    }
+
+    private List<String> namesIn(State state) {
+        List<String> names = new ArrayList<>();
+        for (Service service : services.values()) {
+            if (service.state == state) {
+                names.add(service.name);
+            }
+        }
+        return names;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
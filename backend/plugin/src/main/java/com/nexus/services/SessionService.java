@@ -0,0 +1,627 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.Guild;
+import com.nexus.models.Nexus;
+import com.nexus.models.NexusPlayer;
+import com.nexus.models.Shield;
+import com.nexus.utils.Histogram;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+/**
+ * SessionService - Player and guild state of online players, loaded at login
+ *
+ * Everything a player needs on join (their nexus_players row, guild role,
+ * guild, nexus and shield) is read with one joined query during
+ * AsyncPlayerPreLoginEvent, so the session is in memory before the join
+ * event fires and a login storm costs one statement per player. VIP tier
+ * comes with the player row. A changed name is stored and passed to the
+ * {@link PlayerNameIndex}.
+ *
+ * Guild state is shared: members online at the same time hold one
+ * {@link GuildState}, reference-counted and dropped with its last member.
+ * The change feed keeps both current; a changed row is read again on the
+ * persistence executor and replaces the cached one.
+ *
+ * A session that never reaches the join event (login refused later, client
+ * gone) is dropped after {@link #PENDING_TIMEOUT_SECONDS}.
+ *
+ * @author Nexus Development Team
+ */
+public class SessionService {
+
+    private static final long LOGIN_TIMEOUT_SECONDS = 10;
+    private static final long PENDING_TIMEOUT_SECONDS = 60;
+    private static final long SWEEP_INTERVAL_TICKS = 20L * 30;
+    private static final String TASK = "sessao";
+
+    private static final String GUILD_COLUMNS =
+        "g.id AS g_id, g.name AS g_name, g.team AS g_team, g.leader_uuid, g.member_limit, g.cofre_balance, " +
+        "g.points, g.created_at AS g_created_at, g.version AS g_version, " +
+        "h.guild_id AS h_guild_id, h.level, h.health, h.max_health, h.state AS h_state, h.location, " +
+        "h.last_destroyed, h.created_at AS h_created_at, " +
+        "s.guild_id AS s_guild_id, s.state AS s_state, s.activated_at, s.expires_at, s.last_used";
+
+    private static final String GUILD_JOINS =
+        "LEFT JOIN nexus_hearts h ON h.guild_id = g.id " +
+        "LEFT JOIN nexus_shields s ON s.guild_id = g.id ";
+
+    private static final String LOGIN_SQL =
+        "SELECT p.name, p.team, p.guild_id, p.balance, p.vip_tier, p.last_login, p.last_team_switch, " +
+        "p.economy_frozen, p.created_at, p.version, m.role, " + GUILD_COLUMNS + " " +
+        "FROM nexus_players p " +
+        "LEFT JOIN nexus_guild_members m ON m.guild_id = p.guild_id AND m.player_uuid = p.uuid " +
+        "LEFT JOIN nexus_guilds g ON g.id = p.guild_id " +
+        GUILD_JOINS +
+        "WHERE p.uuid = ?";
+
+    private static final String GUILD_SQL =
+        "SELECT " + GUILD_COLUMNS + " FROM nexus_guilds g " + GUILD_JOINS + "WHERE g.id = ?";
+
+    /**
+     * An online (or logging in) player
+     */
+    public static final class Session {
+        private final UUID uuid;
+        private final long createdAt = System.nanoTime();
+        private volatile NexusPlayer player;
+        private volatile String guildRole;
+        private volatile GuildState guild;
+        private volatile boolean stored;
+        private volatile boolean joined;
+
+        private Session(UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        public UUID getUUID() { return uuid; }
+        public NexusPlayer getPlayer() { return player; }
+        public String getGuildRole() { return guildRole; }
+        public GuildState getGuild() { return guild; }
+        public boolean isJoined() { return joined; }
+
+        /**
+         * False for a first login (no nexus_players row yet)
+         */
+        public boolean isStored() { return stored; }
+    }
+
+    /**
+     * Guild, nexus and shield of a guild with members online
+     */
+    public static final class GuildState {
+        private volatile Guild guild;
+        private volatile Nexus nexus;
+        private volatile Shield shield;
+        private final Set<UUID> onlineMembers = ConcurrentHashMap.newKeySet();
+        private int references;   // guarded by the guilds map entry
+
+        private GuildState(Guild guild, Nexus nexus, Shield shield) {
+            this.guild = guild;
+            this.nexus = nexus;
+            this.shield = shield;
+        }
+
+        public Guild getGuild() { return guild; }
+        public Nexus getNexus() { return nexus; }
+        public Shield getShield() { return shield; }
+        public Set<UUID> getOnlineMembers() { return Collections.unmodifiableSet(onlineMembers); }
+
+        private void replaceWith(GuildState fresh) {
+            guild = fresh.guild;
+            nexus = fresh.nexus;
+            shield = fresh.shield;
+        }
+    }
+
+    private final NexusPlugin plugin;
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Integer, GuildState> guilds = new ConcurrentHashMap<>();
+    private BukkitTask sweepTask;
+
+    private final Histogram loadTime = new Histogram();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder sharedGuilds = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    public SessionService(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Load players already online (plugin reload) and schedule the sweep
+     */
+    public void start() {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            UUID uuid = player.getUniqueId();
+            String name = player.getName();
+            plugin.getPersistenceExecutor().submit(TASK, () -> load(uuid, name)).thenRun(() -> markJoined(uuid));
+        }
+        sweepTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+            plugin, this::sweep, SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
+    }
+
+    public void shutdown() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        sessions.clear();
+        guilds.clear();
+    }
+
+    // ========================================
+    // LOGIN
+    // ========================================
+
+    /**
+     * Load the session on the persistence executor and wait for it
+     * (AsyncPlayerPreLoginEvent thread)
+     *
+     * A load still queued or running when the login is refused does not
+     * install its session: it stops before touching shared state, or the
+     * session it installed is discarded as soon as it finishes.
+     *
+     * @return false if it could not be loaded in time; the login should be refused
+     */
+    public boolean prefetch(UUID uuid, String name) {
+        AtomicBoolean refused = new AtomicBoolean();
+        CompletableFuture<Session> loading = plugin.getPersistenceExecutor().submit(TASK,
+            () -> load(uuid, name, refused::get));
+        try {
+            loading.get(LOGIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load data of " + name + " at login!",
+                e instanceof ExecutionException ? e.getCause() : e);
+        }
+        refused.set(true);
+        loading.thenAccept(session -> {
+            if (session != null) {
+                discard(session);
+            }
+        });
+        failures.increment();
+        return false;
+    }
+
+    /**
+     * Read the player row with guild, nexus and shield in one query and
+     * install it as the player's session (blocking)
+     */
+    public Session load(UUID uuid, String name) throws SQLException {
+        return load(uuid, name, () -> false);
+    }
+
+    /**
+     * @return the installed session, or null if the login was refused before it was installed
+     */
+    private Session load(UUID uuid, String name, BooleanSupplier refused) throws SQLException {
+        if (refused.getAsBoolean()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Session session = new Session(uuid);
+        GuildState guild;
+        String storedName = null;
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(LOGIN_SQL)) {
+                stmt.setString(1, uuid.toString());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        session.player = readPlayer(rs, uuid);
+                        session.guildRole = rs.getString("role");
+                        session.stored = true;
+                        storedName = session.player.getName();
+                        guild = readGuild(rs);
+                    } else {
+                        session.player = new NexusPlayer(uuid, name);
+                        guild = null;
+                    }
+                }
+            }
+            if (refused.getAsBoolean()) {
+                return null;
+            }
+            if (storedName != null && !storedName.equals(name)) {
+                rename(conn, session.player, name);
+            }
+        }
+        session.player.setName(name);
+        PlayerNameIndex names = plugin.getPlayerNameIndex();
+        if (names != null) {
+            names.rename(uuid, storedName, name);
+        }
+        if (guild != null) {
+            session.guild = acquire(uuid, guild);
+        }
+
+        Session previous = sessions.put(uuid, session);
+        if (previous != null) {
+            end(previous);
+        }
+        loads.increment();
+        loadTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return session;
+    }
+
+    /**
+     * Store the name the player logged in with; a concurrent write to the
+     * row leaves the old one until the next login
+     */
+    private void rename(Connection conn, NexusPlayer player, String name) throws SQLException {
+        try {
+            long version = plugin.getVersionedRows().update(conn, VersionedRows.Table.PLAYERS, player.getUUID(),
+                player.getVersion(), "name = ?", name);
+            player.setVersion(version);
+        } catch (VersionedRows.StaleRowException e) {
+            plugin.getLogger().fine("Name change of " + name + " deferred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The player is in the world: keep the session until they quit
+     */
+    public void markJoined(UUID uuid) {
+        Session session = sessions.get(uuid);
+        if (session != null) {
+            session.joined = true;
+            // Covers sessions loaded after AudienceService indexed the join
+            publishMembership(session);
+        }
+    }
+
+    /**
+     * Join without a prefetched session (login before the plugin enabled)
+     */
+    public void onJoin(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (sessions.containsKey(uuid)) {
+            markJoined(uuid);
+            return;
+        }
+        String name = player.getName();
+        plugin.getPersistenceExecutor().submit(TASK, () -> load(uuid, name)).thenRun(() -> markJoined(uuid));
+    }
+
+    /**
+     * Login refused after the prefetch: drop the session unless the player
+     * is already in the world under it
+     */
+    public void discard(UUID uuid) {
+        Session session = sessions.get(uuid);
+        if (session != null) {
+            discard(session);
+        }
+    }
+
+    private void discard(Session session) {
+        if (!session.joined && sessions.remove(session.uuid, session)) {
+            end(session);
+        }
+    }
+
+    public void onQuit(UUID uuid) {
+        // A relog replaces the session before the old connection quits
+        Session session = sessions.get(uuid);
+        if (session != null && session.joined && sessions.remove(uuid, session)) {
+            end(session);
+        }
+    }
+
+    /**
+     * Drop sessions that never reached the join event (async timer)
+     */
+    private void sweep() {
+        long cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(PENDING_TIMEOUT_SECONDS);
+        for (Session session : sessions.values()) {
+            if (!session.joined && session.createdAt < cutoff && sessions.remove(session.uuid, session)) {
+                end(session);
+                abandoned.increment();
+            }
+        }
+    }
+
+    // ========================================
+    // LOOKUP
+    // ========================================
+
+    /**
+     * Session of an online player, or null
+     */
+    public Session getSession(UUID uuid) {
+        return sessions.get(uuid);
+    }
+
+    /**
+     * Shared state of a guild with members online, or null
+     */
+    public GuildState getGuild(int guildId) {
+        return guilds.get(guildId);
+    }
+
+    public Collection<Session> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    // ========================================
+    // GUILD SHARING
+    // ========================================
+
+    /**
+     * Join the shared state of a guild, installing the loaded one if no
+     * member is online yet
+     */
+    private GuildState acquire(UUID member, GuildState loaded) {
+        return guilds.compute(loaded.guild.getId(), (id, current) -> {
+            if (current == null) {
+                current = loaded;
+            } else {
+                sharedGuilds.increment();
+                if (loaded.guild.getVersion() > current.guild.getVersion()) {
+                    current.replaceWith(loaded);
+                }
+            }
+            current.references++;
+            current.onlineMembers.add(member);
+            return current;
+        });
+    }
+
+    private void release(UUID member, GuildState guild) {
+        guilds.computeIfPresent(guild.guild.getId(), (id, current) -> {
+            if (current != guild) {
+                return current;
+            }
+            current.onlineMembers.remove(member);
+            return --current.references > 0 ? current : null;
+        });
+    }
+
+    /**
+     * Let go of a session already removed from the map
+     */
+    private void end(Session session) {
+        synchronized (session) {
+            if (session.guild != null) {
+                release(session.uuid, session.guild);
+                session.guild = null;
+            }
+        }
+    }
+
+    // ========================================
+    // CHANGE FEED
+    // ========================================
+
+    /**
+     * Re-read a changed player row if they are online (feed poller thread)
+     */
+    public void onPlayerChanged(String key) {
+        UUID uuid = UUID.fromString(key);
+        Session session = sessions.get(uuid);
+        if (session == null) {
+            return;
+        }
+        plugin.getPersistenceExecutor().submit(TASK, () -> {
+            refresh(session);
+            return null;
+        });
+    }
+
+    /**
+     * Re-read a changed guild if members are online (feed poller thread)
+     */
+    public void onGuildChanged(String key) {
+        int guildId = Integer.parseInt(key);
+        if (!guilds.containsKey(guildId)) {
+            return;
+        }
+        plugin.getPersistenceExecutor().submit(TASK, () -> {
+            refreshGuild(guildId);
+            return null;
+        });
+    }
+
+    /**
+     * The feed fell behind: re-read everything cached
+     */
+    public void onReset() {
+        for (Session session : sessions.values()) {
+            onPlayerChanged(session.uuid.toString());
+        }
+        for (Integer guildId : guilds.keySet()) {
+            onGuildChanged(String.valueOf(guildId));
+        }
+    }
+
+    private void refresh(Session session) throws SQLException {
+        NexusPlayer player;
+        String role;
+        GuildState guild;
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LOGIN_SQL)) {
+            stmt.setString(1, session.uuid.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return;
+                }
+                player = readPlayer(rs, session.uuid);
+                role = rs.getString("role");
+                guild = readGuild(rs);
+            }
+        }
+
+        synchronized (session) {
+            // Not every writer bumps the version yet: only skip reads older than what we hold
+            if (sessions.get(session.uuid) != session
+                    || (session.stored && player.getVersion() < session.player.getVersion())) {
+                return;
+            }
+            player.setName(session.player.getName());
+            GuildState previous = session.guild;
+            boolean sameGuild = previous != null && guild != null
+                && previous.guild.getId() == guild.guild.getId();
+            if (!sameGuild) {
+                session.guild = guild != null ? acquire(session.uuid, guild) : null;
+                if (previous != null) {
+                    release(session.uuid, previous);
+                }
+            }
+            session.player = player;
+            session.guildRole = role;
+            session.stored = true;
+            if (session.joined) {
+                publishMembership(session);
+            }
+        }
+        refreshes.increment();
+    }
+
+    /**
+     * Report the session's team and guild to the broadcast audiences
+     */
+    private void publishMembership(Session session) {
+        AudienceService audiences = plugin.getAudienceService();
+        if (audiences != null) {
+            audiences.setTeam(session.uuid, session.player.getTeam());
+            audiences.setGuild(session.uuid, session.player.getGuildId());
+        }
+    }
+
+    private void refreshGuild(int guildId) throws SQLException {
+        GuildState fresh;
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GUILD_SQL)) {
+            stmt.setInt(1, guildId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                fresh = rs.next() ? readGuild(rs) : null;
+            }
+        }
+        if (fresh == null) {
+            return;
+        }
+        // Nexus and shield rows carry no version: a newer read always wins
+        guilds.computeIfPresent(guildId, (id, current) -> {
+            if (fresh.guild.getVersion() >= current.guild.getVersion()) {
+                current.replaceWith(fresh);
+            }
+            return current;
+        });
+        refreshes.increment();
+    }
+
+    // ========================================
+    // ROW MAPPING
+    // ========================================
+
+    private static NexusPlayer readPlayer(ResultSet rs, UUID uuid) throws SQLException {
+        NexusPlayer player = new NexusPlayer(uuid, rs.getString("name"));
+        player.setTeam(rs.getString("team"));
+        int guildId = rs.getInt("guild_id");
+        player.setGuildId(rs.wasNull() ? null : guildId);
+        player.setBalance(rs.getDouble("balance"));
+        player.setVIPTier(rs.getString("vip_tier"));
+        player.setLastLogin(rs.getLong("last_login"));
+        player.setLastTeamSwitch(rs.getLong("last_team_switch"));
+        player.setEconomyFrozen(rs.getBoolean("economy_frozen"));
+        player.setCreatedAt(rs.getLong("created_at"));
+        player.setVersion(rs.getLong("version"));
+        return player;
+    }
+
+    /**
+     * Guild columns of the current row, or null when there is no guild
+     */
+    private GuildState readGuild(ResultSet rs) throws SQLException {
+        int id = rs.getInt("g_id");
+        if (rs.wasNull()) {
+            return null;
+        }
+        Guild guild = new Guild(id, rs.getString("g_name"), rs.getString("g_team"),
+            UUID.fromString(rs.getString("leader_uuid")), rs.getInt("member_limit"),
+            rs.getDouble("cofre_balance"), rs.getInt("points"), rs.getLong("g_created_at"));
+        guild.setVersion(rs.getLong("g_version"));
+
+        Nexus nexus = null;
+        rs.getInt("h_guild_id");
+        if (!rs.wasNull()) {
+            nexus = new Nexus(id, rs.getInt("level"), rs.getDouble("health"), rs.getDouble("max_health"),
+                Nexus.State.valueOf(rs.getString("h_state")), parseLocation(rs.getString("location")),
+                rs.getLong("last_destroyed"), rs.getLong("h_created_at"));
+        }
+
+        Shield shield = null;
+        rs.getInt("s_guild_id");
+        if (!rs.wasNull()) {
+            shield = new Shield(id, Shield.State.valueOf(rs.getString("s_state")), rs.getLong("activated_at"),
+                rs.getLong("expires_at"), rs.getLong("last_used"));
+        }
+        return new GuildState(guild, nexus, shield);
+    }
+
+    /**
+     * "world,x,y,z" as written by the panels; null if the world is not loaded
+     */
+    private Location parseLocation(String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(",");
+        if (parts.length < 4) {
+            return null;
+        }
+        World world = plugin.getServer().getWorld(parts[0]);
+        if (world == null) {
+            return null;
+        }
+        try {
+            return new Location(world, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                Double.parseDouble(parts[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ========================================
+    // STATISTICS
+    // ========================================
+
+    /**
+     * Login query time in microseconds
+     */
+    public Histogram getLoadTime() { return loadTime; }
+    public long getLoadCount() { return loads.sum(); }
+    public long getFailureCount() { return failures.sum(); }
+    public long getSharedGuildCount() { return sharedGuilds.sum(); }
+    public long getRefreshCount() { return refreshes.sum(); }
+    public long getAbandonedCount() { return abandoned.sum(); }
+    public int getSessionCount() { return sessions.size(); }
+    public int getGuildCount() { return guilds.size(); }
+}
@@ -0,0 +1,187 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.ConfigSnapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * ShutdownCoordinator - Bounded-time flush of pending writes on disable
+ *
+ * Services holding write-behind state register as participants, in the
+ * order they should drain (producers before the sinks they feed: queued
+ * persistence work may still log audit events). {@link #flush()} then:
+ * 1. stops intake of each participant in turn and drains it with batched
+ *    writes, so a sink still accepts what its producers emit while they
+ *    drain; all share one deadline (storage.desligamento.tempo-maximo-segundos
+ *    minus a reserve)
+ * 2. spills what is still pending into the local recovery folder within
+ *    the reserve, one subfolder per participant
+ *
+ * On the next start {@link #recover()} hands each subfolder back to its
+ * participant to write to the database; a participant deletes what it
+ * replayed, so a failed replay is retried on the start after.
+ *
+ * @author Nexus Development Team
+ */
+public class ShutdownCoordinator {
+
+    private static final long MIN_SPILL_RESERVE_MILLIS = 500;
+
+    /**
+     * A service with pending writes
+     */
+    public interface Participant {
+        String getShutdownName();
+
+        /**
+         * Refuse new work (callers see the same result as a full queue)
+         */
+        void stopIntake();
+
+        /**
+         * Write what is pending until the deadline
+         *
+         * @return true when nothing is left
+         */
+        boolean drain(long deadlineNanos);
+
+        /**
+         * Work still pending (after drain: what spill has to save)
+         */
+        int getPending();
+
+        /**
+         * Save pending work to the folder before the deadline
+         *
+         * @return number of items saved; the rest of {@link #getPending()} is lost
+         */
+        default int spill(File folder, long deadlineNanos) throws IOException {
+            return 0;
+        }
+
+        /**
+         * Write work saved by an earlier spill (startup, off the main thread)
+         *
+         * @return number of items replayed
+         */
+        default long recover(File folder) throws Exception {
+            return 0;
+        }
+    }
+
+    private final NexusPlugin plugin;
+    private final List<Participant> participants = new ArrayList<>();
+    private final File recoveryFolder;
+    private boolean flushed;
+
+    public ShutdownCoordinator(NexusPlugin plugin) {
+        this.plugin = plugin;
+        ConfigSnapshot.ShutdownConfig config = plugin.getConfigManager().getSnapshot().shutdown();
+        this.recoveryFolder = new File(plugin.getDataFolder(), config.recoveryFolder());
+    }
+
+    public void register(Participant participant) {
+        participants.add(participant);
+    }
+
+    // ========================================
+    // SHUTDOWN
+    // ========================================
+
+    /**
+     * Stop intake, drain and spill within the configured budget (server thread)
+     */
+    public void flush() {
+        if (flushed) {
+            return;
+        }
+        flushed = true;
+
+        long budget = TimeUnit.SECONDS.toNanos(plugin.getConfigManager().getSnapshot().shutdown().budgetSeconds());
+        long reserve = Math.max(TimeUnit.MILLISECONDS.toNanos(MIN_SPILL_RESERVE_MILLIS), budget / 5);
+        long start = System.nanoTime();
+        long drainDeadline = start + budget - reserve;
+        long deadline = start + budget;
+
+        // One at a time: a sink keeps accepting until its producers have drained
+        List<Participant> leftover = new ArrayList<>();
+        for (Participant participant : participants) {
+            participant.stopIntake();
+            int pending = participant.getPending();
+            long began = System.nanoTime();
+            boolean drained;
+            try {
+                drained = participant.drain(drainDeadline);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to drain " + participant.getShutdownName() + "!", e);
+                drained = false;
+            }
+            if (drained) {
+                plugin.getLogger().info(String.format("✓ Flushed %s (%d pending, %dms).",
+                    participant.getShutdownName(), pending, millis(System.nanoTime() - began)));
+            } else {
+                leftover.add(participant);
+            }
+        }
+
+        for (Participant participant : leftover) {
+            int pending = participant.getPending();
+            int saved = 0;
+            try {
+                saved = participant.spill(new File(recoveryFolder, participant.getShutdownName()), deadline);
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to save pending " + participant.getShutdownName()
+                    + " work for recovery!", e);
+            }
+            int lost = Math.max(0, pending - saved);
+            plugin.getLogger().log(lost > 0 ? Level.SEVERE : Level.WARNING, String.format(
+                "%s not fully flushed: %d item(s) saved for recovery, %d lost.",
+                participant.getShutdownName(), saved, lost));
+        }
+
+        plugin.getLogger().info(String.format("Shutdown flush took %dms (budget %dms).",
+            millis(System.nanoTime() - start), millis(budget)));
+    }
+
+    // ========================================
+    // RECOVERY
+    // ========================================
+
+    /**
+     * Replay work saved by the last shutdown (blocking; off the main thread)
+     */
+    public void recover() {
+        for (Participant participant : participants) {
+            File folder = new File(recoveryFolder, participant.getShutdownName());
+            if (!folder.isDirectory()) {
+                continue;
+            }
+            try {
+                long replayed = participant.recover(folder);
+                String[] remaining = folder.list();
+                if (remaining != null && remaining.length == 0) {
+                    folder.delete();
+                }
+                if (replayed > 0) {
+                    plugin.getLogger().info(String.format("✓ Recovered %d %s item(s) saved at the last shutdown.",
+                        replayed, participant.getShutdownName()));
+                }
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to recover " + participant.getShutdownName()
+                    + " work saved at the last shutdown; retrying on the next start. Files: " + folder, e);
+            }
+        }
+    }
+
+    public File getRecoveryFolder() { return recoveryFolder; }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
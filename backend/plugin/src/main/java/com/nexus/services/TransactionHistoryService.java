@@ -0,0 +1,336 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.models.Transaction;
+import com.nexus.utils.UuidCodec;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * TransactionHistoryService - Per-player transaction statement, newest first
+ *
+ * A player's history is every transaction they sent or received. Instead of
+ * one query with "from_uuid = ? OR to_uuid = ?" (which cannot use a single
+ * index) and OFFSET (which rereads every skipped row), each page is a UNION
+ * of two index seeks, one on (from_uuid, timestamp) and one on
+ * (to_uuid, timestamp), each limited to the page size and continuing
+ * strictly below the (timestamp, id) of the last row shown. Page N costs
+ * the same as page 1, however long the history is.
+ *
+ * The first page of each online player is cached until another server
+ * reports a change to their row through the change feed, they log out, or
+ * it ages out after 30 seconds. Code that records transactions on this
+ * server must call {@link #invalidate(Transaction)} after the commit; no
+ * such writer exists in the plugin yet, so until one does a local
+ * transaction can be missing from the cached page for up to 30 seconds.
+ * Each invalidation bumps a per-player generation, and a page read before
+ * an invalidation is not cached after it.
+ *
+ * Database queries block: call {@link #page} off the main thread unless
+ * {@link #getCached} already has the answer.
+ *
+ * @author Nexus Development Team
+ */
+public class TransactionHistoryService {
+
+    public static final int PAGE_SIZE = 10;
+
+    private static final long CACHE_TTL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final Transaction.Type[] TYPES = Transaction.Type.values();
+
+    private static final String TEXT_PAGE_SQL = pageSql("from_uuid", "to_uuid");
+    private static final String BINARY_PAGE_SQL = pageSql("from_uuid_bin", "to_uuid_bin");
+
+    private final NexusPlugin plugin;
+    private final boolean mysql;
+
+    // First page per online player
+    private final Map<UUID, CachedPage> cache = new ConcurrentHashMap<>();
+    // Invalidations per player (online players only) and of the whole cache
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong clears = new AtomicLong();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private record CachedPage(Page page, long cachedAt) {}
+
+    /**
+     * One statement line, from the point of view of the player
+     *
+     * @param amountCents   amount in cents, negative when the player paid
+     * @param counterparty  other side of the transaction (null for system/guild)
+     */
+    public record Entry(long id, long timestamp, Transaction.Type type, long amountCents,
+                        UUID counterparty, String reason) {
+        public boolean isIncoming() {
+            return amountCents > 0;
+        }
+
+        public double getAmount() {
+            return amountCents / 100.0;
+        }
+    }
+
+    /**
+     * Position after the last entry of a page
+     */
+    public record Cursor(long timestamp, long id) {}
+
+    /**
+     * One page of entries; next is null on the last page
+     */
+    public record Page(List<Entry> entries, Cursor next) {
+        public boolean hasMore() {
+            return next != null;
+        }
+    }
+
+    /**
+     * Page query over the text or binary UUID columns. Each branch seeks its
+     * own index; the outer query merges the two sorted runs.
+     */
+    private static String pageSql(String from, String to) {
+        String columns = "id, " + from + " AS from_uuid, " + to + " AS to_uuid, amount, type, reason, timestamp";
+        return "SELECT id, from_uuid, to_uuid, amount, type, reason, timestamp FROM (" +
+            "SELECT * FROM (SELECT " + columns + " FROM nexus_transactions " +
+            "WHERE " + from + " = ? AND timestamp <= ? AND (timestamp < ? OR id < ?) " +
+            "ORDER BY timestamp DESC, id DESC LIMIT ?) sent " +
+            "UNION ALL " +
+            "SELECT * FROM (SELECT " + columns + " FROM nexus_transactions " +
+            "WHERE " + to + " = ? AND timestamp <= ? AND (timestamp < ? OR id < ?) " +
+            "AND (" + from + " IS NULL OR " + from + " <> ?) " +
+            "ORDER BY timestamp DESC, id DESC LIMIT ?) received" +
+            ") history ORDER BY timestamp DESC, id DESC LIMIT ?";
+    }
+
+    public TransactionHistoryService(NexusPlugin plugin) {
+        this.plugin = plugin;
+        this.mysql = plugin.getConfigManager().getSnapshot().storage().isMySQL();
+    }
+
+    /**
+     * Make sure the seek indexes exist on databases created before them
+     */
+    public void start() {
+        upgradeIndexes();
+    }
+
+    // ========================================
+    // QUERIES
+    // ========================================
+
+    /**
+     * Fetch the page after a cursor (null for the most recent page)
+     */
+    public Page page(UUID player, Cursor after) throws SQLException {
+        if (after == null) {
+            Page cached = getCached(player);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+            cacheMisses.increment();
+        }
+
+        long generation = generation(player);
+        DatabaseService database = plugin.getDatabaseService();
+        Page page;
+        try (Connection conn = database.getConnection()) {
+            page = readPage(conn, player, after, database.getUuidMode() == DatabaseService.UuidMode.BINARY);
+        }
+
+        if (after == null && plugin.getServer().getPlayer(player) != null) {
+            CachedPage fresh = new CachedPage(page, System.currentTimeMillis());
+            // Invalidations remove the entry after bumping the generation, so this cannot outlive one
+            cache.compute(player, (key, current) -> generation(key) == generation ? fresh : current);
+        }
+        return page;
+    }
+
+    /**
+     * Read the page after a cursor (null for the most recent page) on a connection
+     */
+    static Page readPage(Connection conn, UUID player, Cursor after, boolean binary) throws SQLException {
+        long timestamp = after != null ? after.timestamp() : Long.MAX_VALUE;
+        long id = after != null ? after.id() : Long.MAX_VALUE;
+
+        List<Entry> entries = new ArrayList<>(PAGE_SIZE + 1);
+        try (PreparedStatement stmt = conn.prepareStatement(binary ? BINARY_PAGE_SQL : TEXT_PAGE_SQL)) {
+            // One extra row tells whether another page exists
+            int limit = PAGE_SIZE + 1;
+            int index = 1;
+            UuidCodec.bind(stmt, index++, player, binary);
+            stmt.setLong(index++, timestamp);
+            stmt.setLong(index++, timestamp);
+            stmt.setLong(index++, id);
+            stmt.setInt(index++, limit);
+            UuidCodec.bind(stmt, index++, player, binary);
+            stmt.setLong(index++, timestamp);
+            stmt.setLong(index++, timestamp);
+            stmt.setLong(index++, id);
+            UuidCodec.bind(stmt, index++, player, binary);
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(readEntry(rs, player));
+                }
+            }
+        }
+
+        Cursor next = null;
+        if (entries.size() > PAGE_SIZE) {
+            entries = entries.subList(0, PAGE_SIZE);
+            Entry last = entries.get(PAGE_SIZE - 1);
+            next = new Cursor(last.timestamp(), last.id());
+        }
+        return new Page(Collections.unmodifiableList(new ArrayList<>(entries)), next);
+    }
+
+    /**
+     * Map a row to an entry for this player
+     */
+    private static Entry readEntry(ResultSet rs, UUID player) throws SQLException {
+        Transaction.Type type = parseType(rs.getString("type"));
+        UUID from = UuidCodec.read(rs, "from_uuid");
+        UUID to = UuidCodec.read(rs, "to_uuid");
+        long cents = Math.round(rs.getDouble("amount") * 100.0);
+        boolean incoming = player.equals(to);
+        return new Entry(rs.getLong("id"), rs.getLong("timestamp"), type, incoming ? cents : -cents,
+            incoming ? from : to, rs.getString("reason"));
+    }
+
+    /**
+     * Type by name; types no longer known show as OTHER so paging stays exact
+     */
+    private static Transaction.Type parseType(String name) {
+        for (Transaction.Type type : TYPES) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return Transaction.Type.OTHER;
+    }
+
+    // ========================================
+    // CACHE
+    // ========================================
+
+    /**
+     * Cached most recent page, if still fresh
+     */
+    public Page getCached(UUID player) {
+        CachedPage cached = cache.get(player);
+        if (cached == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - cached.cachedAt() > CACHE_TTL_MILLIS) {
+            cache.remove(player, cached);
+            return null;
+        }
+        return cached.page();
+    }
+
+    /**
+     * Forget cached pages of the players involved in a new transaction
+     */
+    public void invalidate(Transaction transaction) {
+        if (transaction.getFromUUID() != null) {
+            invalidate(transaction.getFromUUID());
+        }
+        if (transaction.getToUUID() != null) {
+            invalidate(transaction.getToUUID());
+        }
+    }
+
+    /**
+     * Forget the cached page of a player (their row changed on another server)
+     */
+    public void invalidate(UUID player) {
+        generations.merge(player, 1L, Long::sum);
+        cache.remove(player);
+    }
+
+    public void clearCache() {
+        clears.incrementAndGet();
+        cache.clear();
+    }
+
+    public void onQuit(UUID player) {
+        cache.remove(player);
+        generations.remove(player);
+    }
+
+    /**
+     * Changes whenever the player's cached page is invalidated
+     */
+    private long generation(UUID player) {
+        return clears.get() + generations.getOrDefault(player, 0L);
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    public long getCacheHits() { return cacheHits.sum(); }
+    public long getCacheMisses() { return cacheMisses.sum(); }
+
+    // ========================================
+    // INDEXES
+    // ========================================
+
+    /**
+     * Replace the single-column from/to indexes with (uuid, timestamp, id)
+     * composites; the old ones are prefixes of the new ones
+     */
+    private void upgradeIndexes() {
+        if (plugin.getDatabaseService().getUuidMode() == DatabaseService.UuidMode.BINARY) {
+            return; // Lookups use the binary indexes of the UUID migration
+        }
+        try (Connection conn = plugin.getDatabaseService().getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (mysql) {
+                List<String> existing = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'nexus_transactions'")) {
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+                if (!existing.contains("idx_from_time")) {
+                    stmt.execute("ALTER TABLE nexus_transactions ADD INDEX idx_from_time (from_uuid, timestamp, id)");
+                }
+                if (!existing.contains("idx_to_time")) {
+                    stmt.execute("ALTER TABLE nexus_transactions ADD INDEX idx_to_time (to_uuid, timestamp, id)");
+                }
+                for (String obsolete : new String[] {"idx_from", "idx_to"}) {
+                    if (existing.contains(obsolete)) {
+                        stmt.execute("ALTER TABLE nexus_transactions DROP INDEX " + obsolete);
+                    }
+                }
+            } else {
+                // Composites are created with the schema; drop the old ones
+                stmt.execute("DROP INDEX IF EXISTS nexus_transactions_idx_from");
+                stmt.execute("DROP INDEX IF EXISTS nexus_transactions_idx_to");
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to upgrade transaction indexes!", e);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+import com.nexus.utils.ConfigSnapshot;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * UuidMigrationService - Online move of player references to BINARY(16)
+ *
+ * Every VARCHAR(36) player column gets a 16-byte "_bin" shadow column
+ * (BINARY(16) on MySQL, BLOB on SQLite). The migration runs while the server
+ * is up, in three phases:
+ * 1. TEXT -> DUAL: add the shadow columns and install triggers that fill them
+ *    on every insert/update (the audit writer fills its own column directly)
+ * 2. DUAL: backfill existing rows in small keyset chunks, one chunk per run
+ *    of an async task, table by table
+ * 3. DUAL -> BINARY: index the shadow columns, drop the text indexes they
+ *    replace, and switch lookups to the binary columns
+ *
+ * Progress (mode and per-table cursors) lives in nexus_uuid_migration, so a
+ * restart resumes where it stopped. Text columns are kept and still written,
+ * so older readers and exports keep working.
+ *
+ * @author Nexus Development Team
+ */
+public class UuidMigrationService {
+
+    /** Row of nexus_uuid_migration holding the mode rather than a table */
+    static final String MODE_KEY = "*";
+
+    private static final String DONE = "DONE";
+    private static final String BACKFILL = "BACKFILL";
+
+    /**
+     * A table with UUID columns; keyColumn orders the backfill (null: small
+     * table converted in one statement)
+     */
+    private record Target(String table, String keyColumn, boolean numericKey, String... columns) {}
+
+    private static final List<Target> TARGETS = List.of(
+        new Target("nexus_players", "uuid", false, "uuid"),
+        new Target("nexus_guilds", "id", true, "leader_uuid"),
+        new Target("nexus_guild_members", null, false, "player_uuid"),
+        new Target("nexus_objective_participants", null, false, "player_uuid"),
+        new Target("nexus_market_listings", "id", true, "seller_uuid"),
+        new Target("nexus_transactions", "id", true, "from_uuid", "to_uuid"));
+
+    /**
+     * Binary index replacing a text one: name, table, columns, unique, replaced index
+     */
+    private record IndexSwap(String table, String name, String columns, boolean unique, String replaces) {}
+
+    private static final List<IndexSwap> INDEXES = List.of(
+        new IndexSwap("nexus_players", "idx_uuid_bin", "uuid_bin", true, null),
+        new IndexSwap("nexus_guild_members", "idx_player_bin", "player_uuid_bin", false, "idx_player"),
+        new IndexSwap("nexus_objective_participants", "idx_player_bin", "player_uuid_bin", false, "idx_player"),
+        new IndexSwap("nexus_market_listings", "idx_seller_bin", "seller_uuid_bin", false, "idx_seller"),
+        new IndexSwap("nexus_transactions", "idx_from_bin_time", "from_uuid_bin, timestamp, id", false, "idx_from_time"),
+        new IndexSwap("nexus_transactions", "idx_to_bin_time", "to_uuid_bin, timestamp, id", false, "idx_to_time"));
+
+    private final NexusPlugin plugin;
+    private final boolean mysql;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile String currentTable;
+    private volatile long convertedRows;
+
+    private BukkitTask task;
+
+    public UuidMigrationService(NexusPlugin plugin) {
+        this.plugin = plugin;
+        this.mysql = plugin.getConfigManager().getSnapshot().storage().isMySQL();
+    }
+
+    /**
+     * Schedule the migration steps if it is enabled and not finished
+     */
+    public void start() {
+        ConfigSnapshot.UuidMigrationConfig config = plugin.getConfigManager().getSnapshot().uuidMigration();
+        if (!config.enabled() || getMode() == DatabaseService.UuidMode.BINARY) {
+            return;
+        }
+        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+            plugin, this::step, 20L * 15, config.intervalTicks());
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private DatabaseService.UuidMode getMode() {
+        return plugin.getDatabaseService().getUuidMode();
+    }
+
+    /**
+     * One unit of work: a DDL phase or one backfill chunk
+     */
+    private void step() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try (Connection conn = plugin.getDatabaseService().getConnection()) {
+            switch (getMode()) {
+                case TEXT:
+                    addShadowColumns(conn);
+                    break;
+                case DUAL:
+                    if (!backfillChunk(conn)) {
+                        switchToBinary(conn);
+                    }
+                    break;
+                default:
+                    shutdown();
+                    break;
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "UUID migration step failed (will retry)!", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // ========================================
+    // PHASE 1: SHADOW COLUMNS
+    // ========================================
+
+    private void addShadowColumns(Connection conn) throws SQLException {
+        if (!mysql && !supportsUnhex(conn)) {
+            // Triggers calling a missing function would break every insert
+            plugin.getLogger().warning("UUID migration needs SQLite 3.41+ (unhex); staying on text UUIDs.");
+            shutdown();
+            return;
+        }
+        plugin.getLogger().info("UUID migration: adding binary columns...");
+        String type = mysql ? "BINARY(16)" : "BLOB";
+
+        for (Target target : TARGETS) {
+            Set<String> existing = columns(conn, target.table());
+            for (String column : target.columns()) {
+                if (!existing.contains(column + "_bin")) {
+                    execute(conn, "ALTER TABLE " + target.table() + " ADD COLUMN " + column + "_bin " + type);
+                }
+            }
+            installTriggers(conn, target);
+        }
+        for (String table : auditTables()) {
+            if (!columns(conn, table).contains("player_uuid_bin")) {
+                execute(conn, "ALTER TABLE " + table + " ADD COLUMN player_uuid_bin " + type);
+            }
+        }
+
+        setState(conn, MODE_KEY, DatabaseService.UuidMode.DUAL.name(), null);
+        plugin.getDatabaseService().setUuidMode(DatabaseService.UuidMode.DUAL);
+        plugin.getLogger().info("UUID migration: binary columns in place; backfilling existing rows.");
+    }
+
+    /**
+     * Keep the shadow columns in sync for every writer, present and future
+     */
+    private void installTriggers(Connection conn, Target target) throws SQLException {
+        String table = target.table();
+        if (mysql) {
+            Set<String> existing = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT TRIGGER_NAME FROM information_schema.TRIGGERS " +
+                    "WHERE TRIGGER_SCHEMA = DATABASE() AND EVENT_OBJECT_TABLE = ?")) {
+                stmt.setString(1, table);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+            }
+            StringBuilder assignments = new StringBuilder();
+            for (String column : target.columns()) {
+                assignments.append(assignments.length() == 0 ? "SET " : ", ")
+                    .append("NEW.").append(column).append("_bin = ").append(toBinary("NEW." + column));
+            }
+            for (String event : new String[] {"INSERT", "UPDATE"}) {
+                String name = table + "_uuid_bin_" + event.toLowerCase();
+                if (!existing.contains(name)) {
+                    execute(conn, "CREATE TRIGGER " + name + " BEFORE " + event + " ON " + table
+                        + " FOR EACH ROW " + assignments);
+                }
+            }
+            return;
+        }
+
+        // SQLite triggers cannot assign NEW: update the row right after the write
+        StringBuilder assignments = new StringBuilder();
+        StringBuilder columns = new StringBuilder();
+        for (String column : target.columns()) {
+            if (assignments.length() > 0) {
+                assignments.append(", ");
+                columns.append(", ");
+            }
+            assignments.append(column).append("_bin = ").append(toBinary("NEW." + column));
+            columns.append(column);
+        }
+        execute(conn, "CREATE TRIGGER IF NOT EXISTS " + table + "_uuid_bin_insert AFTER INSERT ON " + table
+            + " BEGIN UPDATE " + table + " SET " + assignments + " WHERE rowid = NEW.rowid; END");
+        execute(conn, "CREATE TRIGGER IF NOT EXISTS " + table + "_uuid_bin_update AFTER UPDATE OF " + columns
+            + " ON " + table + " BEGIN UPDATE " + table + " SET " + assignments + " WHERE rowid = NEW.rowid; END");
+    }
+
+    // ========================================
+    // PHASE 2: BACKFILL
+    // ========================================
+
+    /**
+     * Convert the next chunk of the first unfinished table
+     *
+     * @return false when every table is done
+     */
+    private boolean backfillChunk(Connection conn) throws SQLException {
+        int chunk = plugin.getConfigManager().getSnapshot().uuidMigration().chunkSize();
+
+        for (Target target : targets()) {
+            String[] state = readState(conn, target.table());
+            if (state != null && DONE.equals(state[0])) {
+                continue;
+            }
+            currentTable = target.table();
+
+            String assignments = assignments(target);
+            if (target.keyColumn() == null) {
+                execute(conn, "UPDATE " + target.table() + " SET " + assignments);
+                setState(conn, target.table(), DONE, null);
+                return true;
+            }
+
+            String lastKey = state != null && state[1] != null ? state[1] : (target.numericKey() ? "0" : "");
+            String upperKey = chunkEnd(conn, target, lastKey, chunk);
+
+            String sql = "UPDATE " + target.table() + " SET " + assignments + " WHERE " + target.keyColumn() + " > ?"
+                + (upperKey != null ? " AND " + target.keyColumn() + " <= ?" : "");
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bindKey(stmt, 1, target, lastKey);
+                if (upperKey != null) {
+                    bindKey(stmt, 2, target, upperKey);
+                }
+                convertedRows += stmt.executeUpdate();
+            }
+
+            // Fewer rows than a chunk remained: this was the last one
+            setState(conn, target.table(), upperKey != null ? BACKFILL : DONE, upperKey != null ? upperKey : lastKey);
+            return true;
+        }
+        currentTable = null;
+        return false;
+    }
+
+    /**
+     * Key of the last row of the next chunk, or null if fewer rows remain
+     */
+    private String chunkEnd(Connection conn, Target target, String lastKey, int chunk) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT " + target.keyColumn() + " FROM " + target.table() + " WHERE " + target.keyColumn() + " > ? " +
+                "ORDER BY " + target.keyColumn() + " LIMIT 1 OFFSET ?")) {
+            bindKey(stmt, 1, target, lastKey);
+            stmt.setInt(2, chunk - 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void bindKey(PreparedStatement stmt, int index, Target target, String key) throws SQLException {
+        if (target.numericKey()) {
+            stmt.setLong(index, Long.parseLong(key));
+        } else {
+            stmt.setString(index, key);
+        }
+    }
+
+    /**
+     * Fixed tables plus every audit table (weekly tables appear over time)
+     */
+    private List<Target> targets() {
+        List<Target> targets = new ArrayList<>(TARGETS);
+        for (String table : auditTables()) {
+            targets.add(new Target(table, "id", true, "player_uuid"));
+        }
+        return targets;
+    }
+
+    private List<String> auditTables() {
+        AuditService audit = plugin.getAuditService();
+        return audit != null ? audit.getStorage().allTables() : List.of(AuditStorage.BASE_TABLE);
+    }
+
+    private String assignments(Target target) {
+        StringBuilder sql = new StringBuilder();
+        for (String column : target.columns()) {
+            if (sql.length() > 0) {
+                sql.append(", ");
+            }
+            sql.append(column).append("_bin = ").append(toBinary(column));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * SQL expression turning a canonical UUID string into 16 bytes
+     * (same spelling on MySQL and SQLite 3.41+; invalid text gives NULL)
+     */
+    private static String toBinary(String expression) {
+        return "UNHEX(REPLACE(" + expression + ", '-', ''))";
+    }
+
+    // ========================================
+    // PHASE 3: SWITCH
+    // ========================================
+
+    private void switchToBinary(Connection conn) throws SQLException {
+        plugin.getLogger().info("UUID migration: backfill complete; indexing binary columns...");
+
+        for (IndexSwap swap : INDEXES) {
+            if (mysql) {
+                Set<String> existing = indexes(conn, swap.table());
+                if (!existing.contains(swap.name())) {
+                    execute(conn, "ALTER TABLE " + swap.table() + " ADD " + (swap.unique() ? "UNIQUE " : "")
+                        + "INDEX " + swap.name() + " (" + swap.columns() + ")");
+                }
+                if (swap.replaces() != null && existing.contains(swap.replaces())) {
+                    execute(conn, "ALTER TABLE " + swap.table() + " DROP INDEX " + swap.replaces());
+                }
+            } else {
+                // Same names as the schema's inline indexes (table_name)
+                execute(conn, "CREATE " + (swap.unique() ? "UNIQUE " : "") + "INDEX IF NOT EXISTS "
+                    + swap.table() + "_" + swap.name() + " ON " + swap.table() + " (" + swap.columns() + ")");
+                if (swap.replaces() != null) {
+                    execute(conn, "DROP INDEX IF EXISTS " + swap.table() + "_" + swap.replaces());
+                }
+            }
+        }
+        AuditService audit = plugin.getAuditService();
+        if (audit != null) {
+            audit.getStorage().switchToBinaryIndexes(conn);
+        }
+
+        setState(conn, MODE_KEY, DatabaseService.UuidMode.BINARY.name(), null);
+        plugin.getDatabaseService().setUuidMode(DatabaseService.UuidMode.BINARY);
+        currentTable = null;
+        shutdown();
+        plugin.getLogger().info(String.format("✓ UUID migration complete (%d rows converted).", convertedRows));
+    }
+
+    // ========================================
+    // HELPERS
+    // ========================================
+
+    private static boolean supportsUnhex(Connection conn) {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT UNHEX('00')")) {
+            return rs.next();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Set<String> columns(Connection conn, String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        if (mysql) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT COLUMN_NAME FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+                stmt.setString(1, table);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        columns.add(rs.getString(1).toLowerCase());
+                    }
+                }
+            }
+        } else {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+                while (rs.next()) {
+                    columns.add(rs.getString("name").toLowerCase());
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static Set<String> indexes(Connection conn, String table) throws SQLException {
+        Set<String> indexes = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    indexes.add(rs.getString(1));
+                }
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * State and last key of a table (null if not started)
+     */
+    private static String[] readState(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT state, last_key FROM nexus_uuid_migration WHERE table_name = ?")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new String[] {rs.getString(1), rs.getString(2)} : null;
+            }
+        }
+    }
+
+    private static void setState(Connection conn, String table, String state, String lastKey) throws SQLException {
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE nexus_uuid_migration SET state = ?, last_key = ?, updated_at = ? WHERE table_name = ?")) {
+            update.setString(1, state);
+            update.setString(2, lastKey);
+            update.setLong(3, System.currentTimeMillis());
+            update.setString(4, table);
+            if (update.executeUpdate() > 0) {
+                return;
+            }
+        }
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO nexus_uuid_migration (table_name, state, last_key, updated_at) VALUES (?, ?, ?, ?)")) {
+            insert.setString(1, table);
+            insert.setString(2, state);
+            insert.setString(3, lastKey);
+            insert.setLong(4, System.currentTimeMillis());
+            insert.executeUpdate();
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    // ========================================
+    // STATUS
+    // ========================================
+
+    public boolean isRunning() { return task != null; }
+    public String getCurrentTable() { return currentTable; }
+    public long getConvertedRows() { return convertedRows; }
+}
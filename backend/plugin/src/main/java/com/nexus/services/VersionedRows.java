@@ -0,0 +1,304 @@
+package com.nexus.services;
+
+import com.nexus.NexusPlugin;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * VersionedRows - Optimistic concurrency on nexus_players and nexus_guilds
+ *
+ * Both tables carry a version column that every write increments. A write
+ * is a compare-and-set, UPDATE ... SET ..., version = version + 1
+ * WHERE key = ? AND version = ?, so two servers or two async tasks writing
+ * the same row can no longer silently overwrite each other:
+ * - {@link #update} applies a change computed from a row read at a known
+ *   version (a rename, a leader change). If the row moved on, it throws
+ *   {@link StaleRowException} and the caller decides: re-read and ask
+ *   again, or report the conflict.
+ * - {@link #addDelta} applies a commutative change (balance add, cofre
+ *   deposit) by reading the current value, checking the floor and
+ *   compare-and-setting it, and re-reads and retries on conflict.
+ * - {@link #transaction} runs several of these as one unit (a transfer is
+ *   two deltas and a ledger row) and reruns it after a retryable conflict.
+ *   Inside a transaction a re-read would see the same snapshot, so deltas
+ *   give up on the first conflict and the whole unit is retried instead.
+ *
+ * Successful writes are published to the {@link ChangeFeedService} on the
+ * same connection and in the same transaction: a write made with autocommit
+ * on runs the UPDATE and the change row in a transaction of its own, so a
+ * failure between them cannot leave a change that other servers never hear
+ * about. Blocking: run on the persistence executor.
+ *
+ * @author Nexus Development Team
+ */
+public class VersionedRows {
+
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long BACKOFF_MICROS = 500;
+
+    /**
+     * Versioned tables and their keys
+     */
+    public enum Table {
+        PLAYERS("nexus_players", "uuid", ChangeFeedService.Entity.PLAYER),
+        GUILDS("nexus_guilds", "id", ChangeFeedService.Entity.GUILD);
+
+        private final String name;
+        private final String keyColumn;
+        private final ChangeFeedService.Entity entity;
+
+        Table(String name, String keyColumn, ChangeFeedService.Entity entity) {
+            this.name = name;
+            this.keyColumn = keyColumn;
+            this.entity = entity;
+        }
+
+        public String getName() { return name; }
+        public String getKeyColumn() { return keyColumn; }
+    }
+
+    /**
+     * A column value and the version of the row it was read from
+     */
+    public record Versioned<T>(T value, long version) {}
+
+    /**
+     * The row changed since it was read (or no longer exists)
+     */
+    public static final class StaleRowException extends SQLException {
+        private final Table table;
+        private final String key;
+        private final boolean retryable;
+
+        StaleRowException(Table table, String key, long expected, boolean retryable) {
+            super(String.format("%s %s changed since version %d", table.getName(), key, expected));
+            this.table = table;
+            this.key = key;
+            this.retryable = retryable;
+        }
+
+        public Table getTable() { return table; }
+        public String getKey() { return key; }
+
+        /**
+         * True for commutative changes that {@link #transaction} reruns
+         */
+        public boolean isRetryable() { return retryable; }
+    }
+
+    /**
+     * Work run by {@link #transaction}
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run() throws SQLException;
+    }
+
+    private final NexusPlugin plugin;
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public VersionedRows(NexusPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // ========================================
+    // READS
+    // ========================================
+
+    /**
+     * Read a numeric column with the row version; null if the row does not
+     * exist (getBigDecimal: sqlite-jdbc has no getObject(int, Class) mapping
+     * for BigDecimal)
+     */
+    public Versioned<BigDecimal> read(Connection conn, Table table, Object key, String column)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT " + column + ", version FROM " + table.name + " WHERE " + table.keyColumn + " = ?")) {
+            stmt.setObject(1, bindable(key));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new Versioned<>(rs.getBigDecimal(1), rs.getLong(2)) : null;
+            }
+        }
+    }
+
+    // ========================================
+    // NON-COMMUTATIVE WRITES
+    // ========================================
+
+    /**
+     * Apply assignments only if the row is still at the expected version
+     *
+     * @param assignments "column = ?, ..." bound from params in order
+     * @return the new version
+     * @throws StaleRowException if the row changed (never retried)
+     */
+    public long update(Connection conn, Table table, Object key, long expectedVersion, String assignments,
+                       Object... params) throws SQLException {
+        if (!compareAndSet(conn, table, key, expectedVersion, assignments, params)) {
+            conflicts.increment();
+            throw new StaleRowException(table, String.valueOf(key), expectedVersion, false);
+        }
+        return expectedVersion + 1;
+    }
+
+    // ========================================
+    // COMMUTATIVE WRITES
+    // ========================================
+
+    /**
+     * Add a delta to a numeric column, re-reading and retrying on conflict
+     *
+     * @param minimum lowest allowed result (null for none)
+     * @return the new value, or null if it would fall below the minimum
+     *         or the row does not exist (nothing written)
+     */
+    public BigDecimal addDelta(Connection conn, Table table, Object key, String column, BigDecimal delta,
+                               BigDecimal minimum) throws SQLException {
+        // In a transaction a re-read sees the same snapshot: let the caller rerun it
+        int attempts = conn.getAutoCommit() ? MAX_ATTEMPTS : 1;
+        long version = -1;
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            if (attempt > 0) {
+                retries.increment();
+                backoff(attempt);
+            }
+            Versioned<BigDecimal> current = read(conn, table, key, column);
+            if (current == null) {
+                return null;
+            }
+            version = current.version();
+            BigDecimal value = (current.value() != null ? current.value() : BigDecimal.ZERO).add(delta);
+            if (minimum != null && value.compareTo(minimum) < 0) {
+                return null;
+            }
+            if (compareAndSet(conn, table, key, version, column + " = ?", value)) {
+                return value;
+            }
+        }
+        if (attempts == MAX_ATTEMPTS) {
+            exhausted.increment();
+        }
+        throw new StaleRowException(table, String.valueOf(key), version, true);
+    }
+
+    // ========================================
+    // TRANSACTIONS
+    // ========================================
+
+    /**
+     * Run work in one transaction, rerunning it after a retryable conflict;
+     * joins the caller's transaction (without retrying) if one is open
+     */
+    public <T> T transaction(Connection conn, SqlWork<T> work) throws SQLException {
+        if (!conn.getAutoCommit()) {
+            return work.run();
+        }
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0) {
+                retries.increment();
+                backoff(attempt);
+            }
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run();
+                conn.commit();
+                return result;
+            } catch (StaleRowException e) {
+                conn.rollback();
+                if (!e.isRetryable() || attempt + 1 >= MAX_ATTEMPTS) {
+                    if (e.isRetryable()) {
+                        exhausted.increment();
+                    }
+                    throw e;
+                }
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // ========================================
+    // INTERNALS
+    // ========================================
+
+    private boolean compareAndSet(Connection conn, Table table, Object key, long expectedVersion,
+                                  String assignments, Object... params) throws SQLException {
+        ChangeFeedService changeFeed = plugin.getChangeFeedService();
+        if (changeFeed == null || !changeFeed.isEnabled() || !conn.getAutoCommit()) {
+            return apply(conn, changeFeed, table, key, expectedVersion, assignments, params);
+        }
+        // The row and its change feed entry commit together
+        conn.setAutoCommit(false);
+        try {
+            boolean applied = apply(conn, changeFeed, table, key, expectedVersion, assignments, params);
+            conn.commit();
+            return applied;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private boolean apply(Connection conn, ChangeFeedService changeFeed, Table table, Object key,
+                          long expectedVersion, String assignments, Object... params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE " + table.name + " SET " + assignments
+                + ", version = version + 1 WHERE " + table.keyColumn + " = ? AND version = ?")) {
+            int index = 1;
+            for (Object param : params) {
+                stmt.setObject(index++, param);
+            }
+            stmt.setObject(index++, bindable(key));
+            stmt.setLong(index, expectedVersion);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        if (changeFeed != null) {
+            changeFeed.publish(conn, table.entity, String.valueOf(key));
+        }
+        writes.increment();
+        return true;
+    }
+
+    /**
+     * Player keys are UUIDs, stored as text
+     */
+    private static Object bindable(Object key) {
+        return key instanceof UUID ? key.toString() : key;
+    }
+
+    /**
+     * Randomized, growing pause so contending writers spread out
+     */
+    private static void backoff(int attempt) {
+        long micros = BACKOFF_MICROS * (1L << Math.min(attempt - 1, 4));
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextLong(micros / 2, micros)));
+    }
+
+    // ========================================
+    // STATISTICS
+    // ========================================
+
+    public long getWriteCount() { return writes.sum(); }
+    public long getRetryCount() { return retries.sum(); }
+    public long getConflictCount() { return conflicts.sum(); }
+    public long getExhaustedCount() { return exhausted.sum(); }
+}
@@ -1,9 +1,21 @@
 package com.nexus.utils;
 
 import com.nexus.NexusPlugin;
-import org.bukkit.configuration.file.FileConfiguration;
+import com.nexus.models.AuditEvent;
+import com.nexus.models.Objective;
+import com.nexus.models.VIPTier;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
 
 /**
  * ConfigManager - Configuration access utility
@@ -11,341 +23,463 @@ import java.util.List;
  * Provides type-safe access to config.yml values with defaults.
  * Centralizes configuration logic to avoid scattered getConfig() calls.
  * 
+ * Values are read from an immutable {@link ConfigSnapshot} held in a volatile
+ * field. Reloads build and validate a complete new snapshot before swapping
+ * it in, so async readers never observe a half-updated configuration.
+ * Hot paths should call {@link #getSnapshot()} once and read its records.
+ * 
  * @author Nexus Development Team
  */
 public class ConfigManager {
     
     private final NexusPlugin plugin;
-    private FileConfiguration config;
+    private volatile ConfigSnapshot snapshot;
+    private ConfigWatcher watcher;
     
     public ConfigManager(NexusPlugin plugin) {
         this.plugin = plugin;
-        this.config = plugin.getConfig();
+        try {
+            this.snapshot = ConfigSnapshot.load(plugin.getConfig(), readRawConfig());
+        } catch (InvalidConfigurationException e) {
+            throw new IllegalStateException("Invalid config.yml: " + e.getMessage(), e);
+        }
     }
     
     /**
-     * Reload configuration from disk
+     * Get the current configuration snapshot
      */
-    public void reload() {
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Reload configuration from disk.
+     * The new file is parsed and validated first; on any error the current
+     * snapshot stays active and the problems are logged.
+     * 
+     * @return true if the new configuration was applied
+     */
+    public boolean reload() {
+        ConfigSnapshot next;
+        try {
+            String raw = readRawConfig();
+            YamlConfiguration parsed = new YamlConfiguration();
+            parsed.loadFromString(raw != null ? raw : "");
+            
+            InputStream defaults = plugin.getResource("config.yml");
+            if (defaults != null) {
+                parsed.setDefaults(YamlConfiguration.loadConfiguration(
+                    new InputStreamReader(defaults, StandardCharsets.UTF_8)));
+            }
+            
+            next = ConfigSnapshot.load(parsed, raw);
+        } catch (InvalidConfigurationException e) {
+            plugin.getLogger().severe("Configuration reload rejected: " + e.getMessage());
+            return false;
+        }
+        
+        // Keep Bukkit's view in sync for code that still reads getConfig() (messages)
         plugin.reloadConfig();
-        this.config = plugin.getConfig();
+        this.snapshot = next;
+        if (plugin.getMessageUtil() != null) {
+            plugin.getMessageUtil().reload();
+        }
+        plugin.loadProfanityFilter();
+        updateWatcher();
+        plugin.getLogger().info("✓ Configuration reloaded.");
+        return true;
+    }
+    
+    /**
+     * Start or stop the config.yml file watcher according to the current snapshot
+     */
+    public void updateWatcher() {
+        if (snapshot.isAutoReload() && watcher == null) {
+            watcher = new ConfigWatcher(plugin, new File(plugin.getDataFolder(), "config.yml"), this::reload);
+            watcher.start();
+        } else if (!snapshot.isAutoReload() && watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+    }
+    
+    /**
+     * Stop background resources (file watcher)
+     */
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+    }
+    
+    private String readRawConfig() {
+        File file = new File(plugin.getDataFolder(), "config.yml");
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not read config.yml for validation", e);
+            return null;
+        }
     }
     
     // ========================================
     // MODULE TOGGLES
     // ========================================
     public boolean isModuleEnabled(String module) {
-        return config.getBoolean("modulos." + module, true);
+        return snapshot.isModuleEnabled(module);
     }
     
     // ========================================
     // ECONOMY
     // ========================================
     public String getCurrencyName() {
-        return config.getString("moeda.nome", "moedas");
+        return snapshot.economy().currencyName();
     }
     
     public String getCurrencySymbol() {
-        return config.getString("moeda.simbolo", "§e⛃");
+        return snapshot.economy().currencySymbol();
     }
     
     public double getStartingBalance() {
-        return config.getDouble("economia.saldo-inicial", 1000.0);
+        return snapshot.economy().startingBalance();
     }
     
     public double getMaxBalance() {
-        return config.getDouble("economia.saldo-maximo", 100000000.0);
+        return snapshot.economy().maxBalance();
     }
     
     public double getMaxTransferAmount() {
-        return config.getDouble("economia.limites.pagar.max-por-transacao", 500000);
+        return snapshot.economy().maxTransferAmount();
     }
     
     public double getMaxDailyTransfer() {
-        return config.getDouble("economia.limites.pagar.max-por-dia", 2000000);
+        return snapshot.economy().maxDailyTransfer();
     }
     
     public int getTransferCooldown() {
-        return config.getInt("economia.limites.pagar.cooldown-segundos", 10);
+        return snapshot.economy().transferCooldown();
     }
     
     public double getTransferTaxPercent() {
-        return config.getDouble("economia.limites.pagar.taxa-porcentagem", 0);
+        return snapshot.economy().transferTaxPercent();
     }
     
     public boolean shouldAlertSuspiciousValues() {
-        return config.getBoolean("economia.anti-fraude.alertar-valores-suspeitos", true);
+        return snapshot.economy().alertSuspiciousValues();
     }
     
     public double getSuspiciousValueThreshold() {
-        return config.getDouble("economia.anti-fraude.limite-alerta", 1000000);
+        return snapshot.economy().suspiciousValueThreshold();
     }
     
     // ========================================
     // TEAMS
     // ========================================
     public boolean isTeamSelectionMandatory() {
-        return config.getBoolean("times.escolha-obrigatoria", true);
+        return snapshot.teams().selectionMandatory();
     }
     
     public boolean shouldBlockMovementWithoutTeam() {
-        return config.getBoolean("times.bloquear-movimento-sem-time", true);
+        return snapshot.teams().blockMovementWithoutTeam();
     }
     
     public double getTeamSwitchCost() {
-        return config.getDouble("times.custo-troca", 1000000);
+        return snapshot.teams().switchCost();
     }
     
     public int getTeamSwitchCooldownDays() {
-        return config.getInt("times.cooldown-troca-dias", 30);
+        return snapshot.teams().switchCooldownDays();
     }
     
     public String getTeamPrefix(String team) {
-        return config.getString("times.cores." + team.toLowerCase() + ".prefixo", "");
+        ConfigSnapshot.TeamStyle style = snapshot.teams().style(team);
+        return style != null ? style.prefix() : "";
     }
     
     public String getTeamColor(String team) {
-        return config.getString("times.cores." + team.toLowerCase() + ".cor-nome", "§f");
+        ConfigSnapshot.TeamStyle style = snapshot.teams().style(team);
+        return style != null ? style.nameColor() : "§f";
     }
     
     // ========================================
     // GUILDS
     // ========================================
     public int getDefaultGuildMemberLimit() {
-        return config.getInt("guildas.limite-membros-padrao", 20);
+        return snapshot.guilds().defaultMemberLimit();
     }
     
     public int getMaxGuildMemberLimit() {
-        return config.getInt("guildas.limite-membros-maximo", 50);
+        return snapshot.guilds().maxMemberLimit();
     }
     
     public double getGuildCreationCost() {
-        return config.getDouble("guildas.custo-criar", 50000);
+        return snapshot.guilds().creationCost();
     }
     
     public double getCostPerExtraMember() {
-        return config.getDouble("guildas.custo-por-membro-extra", 10000);
+        return snapshot.guilds().costPerExtraMember();
     }
     
     public int getGuildLeaveCooldownDays() {
-        return config.getInt("guildas.cooldown-sair-dias", 3);
+        return snapshot.guilds().leaveCooldownDays();
     }
     
     // ========================================
     // NEXUS
     // ========================================
     public double getNexusBuildCost() {
-        return config.getDouble("nexus.custo-construir", 500000);
+        return snapshot.nexus().buildCost();
     }
     
     public double getNexusRebuildMultiplier() {
-        return config.getDouble("nexus.custo-reconstruir-multiplicador", 1.5);
+        return snapshot.nexus().rebuildMultiplier();
     }
     
     public int getNexusRebuildCooldownHours() {
-        return config.getInt("nexus.cooldown-reconstruir-horas", 72);
+        return snapshot.nexus().rebuildCooldownHours();
     }
     
     public int getNexusMinOnlineMembers() {
-        return config.getInt("nexus.membros-online-minimo", 3);
+        return snapshot.nexus().minOnlineMembers();
     }
     
     public int getNexusMaxLevel() {
-        return config.getInt("nexus.upgrades.max-nivel", 10);
+        return snapshot.nexus().maxLevel();
     }
     
     public double getNexusUpgradeBaseCost() {
-        return config.getDouble("nexus.upgrades.custo-base", 100000);
+        return snapshot.nexus().upgradeBaseCost();
     }
     
     public double getNexusUpgradeCostMultiplier() {
-        return config.getDouble("nexus.upgrades.multiplicador-por-nivel", 1.8);
+        return snapshot.nexus().upgradeCostMultiplier();
     }
     
     // ========================================
     // SHIELD
     // ========================================
     public double getShieldActivationCost() {
-        return config.getDouble("escudo.custo-ativar-base", 50000);
+        return snapshot.shield().activationCost();
     }
     
     public int getShieldWarmupSeconds() {
-        return config.getInt("escudo.duracao-warmup-segundos", 300);
+        return snapshot.shield().warmupSeconds();
     }
     
     public int getShieldActiveDuration() {
-        return config.getInt("escudo.duracao-ativo-segundos", 3600);
+        return snapshot.shield().activeDurationSeconds();
     }
     
     public int getShieldCooldownHours() {
-        return config.getInt("escudo.cooldown-entre-ativacoes-horas", 24);
+        return snapshot.shield().cooldownHours();
     }
     
     // ========================================
     // SIEGE
     // ========================================
     public int getSiegeMinAttackers() {
-        return config.getInt("cerco.atacantes-minimos", 5);
+        return snapshot.siege().minAttackers();
     }
     
     public int getSiegeMinDefenders() {
-        return config.getInt("cerco.defensores-minimos", 3);
+        return snapshot.siege().minDefenders();
     }
     
     public double getSiegeDamagePerPlayer() {
-        return config.getDouble("cerco.dano-por-jogador", 100);
+        return snapshot.siege().damagePerPlayer();
     }
     
     public double getSiegeMaxTotalDamage() {
-        return config.getDouble("cerco.dano-maximo-total", 10000);
+        return snapshot.siege().maxTotalDamage();
     }
     
     // ========================================
     // OBJECTIVES
     // ========================================
     public int getMaxSimultaneousObjectives() {
-        return config.getInt("objetivos.max-ativos-simultaneos", 10);
+        return snapshot.objectives().maxSimultaneous();
     }
     
     public int getObjectiveGenerationInterval() {
-        return config.getInt("objetivos.intervalo-geracao-minutos", 30);
+        return snapshot.objectives().generationIntervalMinutes();
     }
     
     public double getObjectiveReward(String category) {
-        return config.getDouble("objetivos.categorias." + category + ".recompensa-base", 5000);
+        for (Objective.Category value : Objective.Category.values()) {
+            if (value.name().equalsIgnoreCase(category)) {
+                return getObjectiveReward(value);
+            }
+        }
+        return 5000;
+    }
+    
+    public double getObjectiveReward(Objective.Category category) {
+        return snapshot.objectives().baseReward(category);
     }
     
     public double getObjectiveDailyCapPerPlayer() {
-        return config.getDouble("objetivos.caps.por-jogador-dia", 50000);
+        return snapshot.objectives().dailyCapPerPlayer();
     }
     
     // ========================================
     // PANELS
     // ========================================
     public boolean useDecentHolograms() {
-        return config.getBoolean("painel.usar-decent-holograms", true);
+        return snapshot.panels().useDecentHolograms();
     }
     
     public int getPanelRefreshSeconds() {
-        return config.getInt("painel.refresh-segundos", 30);
+        return snapshot.panels().refreshSeconds();
     }
     
     public int getTopPlayersCount() {
-        return config.getInt("painel.metricas.top-jogadores", 6);
+        return snapshot.panels().topPlayers();
     }
     
     public int getTopGuildsCount() {
-        return config.getInt("painel.metricas.top-guildas", 6);
+        return snapshot.panels().topGuilds();
     }
     
     // ========================================
     // VIP
     // ========================================
     public double getVIPXPBoost(String tier) {
-        return config.getDouble("vip." + tier + ".xp-boost", 0);
+        VIPTier parsed = VIPTier.fromString(tier);
+        return parsed != null ? getVIPXPBoost(parsed) : 0;
     }
     
     public double getVIPMoneyBoost(String tier) {
-        return config.getDouble("vip." + tier + ".moedas-boost", 0);
+        VIPTier parsed = VIPTier.fromString(tier);
+        return parsed != null ? getVIPMoneyBoost(parsed) : 0;
     }
     
     public double getVIPDailyReward(String tier) {
-        return config.getDouble("vip." + tier + ".recompensa-diaria", 0);
+        VIPTier parsed = VIPTier.fromString(tier);
+        return parsed != null ? getVIPDailyReward(parsed) : 0;
     }
     
     public double getVIPRewardMultiplier(String tier) {
-        return config.getDouble("vip.multiplicadores-recompensas." + tier, 1.0);
+        VIPTier parsed = VIPTier.fromString(tier);
+        return parsed != null ? getVIPRewardMultiplier(parsed) : 1.0;
+    }
+    
+    public double getVIPXPBoost(VIPTier tier) {
+        return snapshot.vip().tier(tier).xpBoost();
+    }
+    
+    public double getVIPMoneyBoost(VIPTier tier) {
+        return snapshot.vip().tier(tier).moneyBoost();
+    }
+    
+    public double getVIPDailyReward(VIPTier tier) {
+        return snapshot.vip().tier(tier).dailyReward();
+    }
+    
+    public double getVIPRewardMultiplier(VIPTier tier) {
+        return snapshot.vip().tier(tier).rewardMultiplier();
     }
     
     // ========================================
     // MARKET
     // ========================================
     public double getMarketListingFeePercent() {
-        return config.getDouble("mercado.taxa-listagem-porcentagem", 5);
+        return snapshot.market().listingFeePercent();
     }
     
     public double getMarketSaleTaxPercent() {
-        return config.getDouble("mercado.taxa-venda-porcentagem", 10);
+        return snapshot.market().saleTaxPercent();
     }
     
     public int getDefaultMarketSlots() {
-        return config.getInt("mercado.limite-listagens-padrao", 3);
+        return snapshot.market().defaultSlots();
     }
     
     public int getMarketExpirationDays() {
-        return config.getInt("mercado.tempo-expiracao-dias", 7);
+        return snapshot.market().expirationDays();
     }
     
     // ========================================
     // AUDIT
     // ========================================
     public int getAuditHistoryDays() {
-        return config.getInt("auditoria.historico-por-jogador", 30);
+        return snapshot.audit().historyDays();
     }
     
     public int getAuditSaveInterval() {
-        return config.getInt("auditoria.salvar-intervalo-segundos", 60);
+        return snapshot.audit().saveIntervalSeconds();
     }
     
     public List<String> getTrackedEvents() {
-        return config.getStringList("auditoria.eventos-rastreados");
+        List<String> names = new ArrayList<>();
+        for (AuditEvent.EventType type : snapshot.audit().trackedEvents()) {
+            names.add(type.name());
+        }
+        return names;
+    }
+    
+    public boolean isEventTracked(AuditEvent.EventType type) {
+        return snapshot.audit().isTracked(type);
     }
     
     // ========================================
     // DATABASE
     // ========================================
     public String getStorageType() {
-        return config.getString("storage.tipo", "sqlite");
+        return snapshot.storage().type();
     }
     
     public String getSQLiteFile() {
-        return config.getString("storage.sqlite.arquivo", "database.db");
+        return snapshot.storage().sqliteFile();
     }
     
     public String getMySQLHost() {
-        return config.getString("storage.mysql.host", "127.0.0.1");
+        return snapshot.storage().mysqlHost();
     }
     
     public int getMySQLPort() {
-        return config.getInt("storage.mysql.porta", 3306);
+        return snapshot.storage().mysqlPort();
     }
     
     public String getMySQLDatabase() {
-        return config.getString("storage.mysql.database", "nexus");
+        return snapshot.storage().mysqlDatabase();
     }
     
     public String getMySQLUsername() {
-        return config.getString("storage.mysql.usuario", "root");
+        return snapshot.storage().mysqlUsername();
     }
     
     public String getMySQLPassword() {
-        return config.getString("storage.mysql.senha", "");
+        return snapshot.storage().mysqlPassword();
     }
     
     public int getHikariMaxPoolSize() {
-        return config.getInt("storage.hikari.maximum-pool-size", 10);
+        return snapshot.storage().hikariMaxPoolSize();
     }
     
     public int getHikariMinIdle() {
-        return config.getInt("storage.hikari.minimum-idle", 2);
+        return snapshot.storage().hikariMinIdle();
     }
     
     public long getHikariConnectionTimeout() {
-        return config.getLong("storage.hikari.connection-timeout", 30000);
+        return snapshot.storage().hikariConnectionTimeout();
     }
     
     // ========================================
     // DEBUG
     // ========================================
     public boolean isDebugEnabled() {
-        return config.getBoolean("debug.habilitado", false);
+        return snapshot.debug().enabled();
     }
     
     public boolean shouldLogTransactions() {
-        return config.getBoolean("debug.log-transacoes", true);
+        return snapshot.debug().logTransactions();
     }
     
     public boolean shouldLogPerformance() {
-        return config.getBoolean("debug.log-performance", false);
+        return snapshot.debug().logPerformance();
     }
 }
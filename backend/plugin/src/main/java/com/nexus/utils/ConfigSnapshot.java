@@ -0,0 +1,576 @@
+package com.nexus.utils;
+
+import com.nexus.models.AuditEvent;
+import com.nexus.models.Objective;
+import com.nexus.models.VIPTier;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ConfigSnapshot - Immutable, typed view of config.yml
+ *
+ * Built once per load/reload and published through a volatile reference in
+ * {@link ConfigManager}, so readers (including async threads) always see a
+ * complete, validated configuration. Each section is a record; VIP tiers and
+ * objective categories are indexed by enum ordinal.
+ *
+ * @author Nexus Development Team
+ */
+public final class ConfigSnapshot {
+
+    // ========================================
+    // SECTION RECORDS
+    // ========================================
+    public record EconomyConfig(String currencyName, String currencySymbol, double startingBalance,
+                                double maxBalance, double maxTransferAmount, double maxDailyTransfer,
+                                int transferCooldown, double transferTaxPercent,
+                                boolean alertSuspiciousValues, double suspiciousValueThreshold) {}
+
+    public record LedgerConfig(int checkpointMinutes, int settleSeconds, int reconcileHours, boolean autoRepair) {}
+
+    public record TeamStyle(String prefix, String nameColor) {}
+
+    public record TeamsConfig(boolean selectionMandatory, boolean blockMovementWithoutTeam,
+                              double switchCost, int switchCooldownDays, TeamStyle solar, TeamStyle lunar) {
+        /**
+         * Style for a team name (SOLAR/LUNAR, any case), or null if unknown
+         */
+        public TeamStyle style(String team) {
+            if ("SOLAR".equalsIgnoreCase(team)) return solar;
+            if ("LUNAR".equalsIgnoreCase(team)) return lunar;
+            return null;
+        }
+    }
+
+    public record GuildsConfig(int defaultMemberLimit, int maxMemberLimit, double creationCost,
+                               double costPerExtraMember, int leaveCooldownDays) {}
+
+    public record NexusConfig(double buildCost, double rebuildMultiplier, int rebuildCooldownHours,
+                              int minOnlineMembers, int maxLevel, double upgradeBaseCost,
+                              double upgradeCostMultiplier) {}
+
+    public record ShieldConfig(double activationCost, int warmupSeconds, int activeDurationSeconds,
+                               int cooldownHours) {}
+
+    public record SiegeConfig(int minAttackers, int minDefenders, double damagePerPlayer,
+                              double maxTotalDamage) {}
+
+    public record ObjectivesConfig(int maxSimultaneous, int generationIntervalMinutes,
+                                   double[] baseRewards, double dailyCapPerPlayer) {
+        public double baseReward(Objective.Category category) {
+            return baseRewards[category.ordinal()];
+        }
+
+        @Override
+        public double[] baseRewards() {
+            return baseRewards.clone();
+        }
+    }
+
+    public record PanelConfig(boolean useDecentHolograms, int refreshSeconds, int topPlayers, int topGuilds) {}
+
+    public record VipTierConfig(double xpBoost, double moneyBoost, double dailyReward, int marketSlots,
+                                int queuePriority, double rewardMultiplier) {}
+
+    public record VipConfig(VipTierConfig[] tiers) {
+        public VipTierConfig tier(VIPTier tier) {
+            return tiers[tier.ordinal()];
+        }
+
+        @Override
+        public VipTierConfig[] tiers() {
+            return tiers.clone();
+        }
+    }
+
+    public record MarketConfig(double listingFeePercent, double saleTaxPercent, int defaultSlots,
+                               int expirationDays) {}
+
+    public record AuditConfig(int historyDays, int saveIntervalSeconds, int bufferCapacity, int batchSize,
+                              boolean partitioning, int pruneChunkSize, int pruneIntervalTicks,
+                              Set<AuditEvent.EventType> trackedEvents) {
+        public boolean isTracked(AuditEvent.EventType type) {
+            return trackedEvents.contains(type);
+        }
+    }
+
+    public record AuditJournalConfig(boolean enabled, String folder, int segmentMegabytes) {}
+
+    public record AuditWindowConfig(int hours, int capacity) {}
+
+    public record StorageConfig(String type, String sqliteFile, String mysqlHost, int mysqlPort,
+                                String mysqlDatabase, String mysqlUsername, String mysqlPassword,
+                                int hikariMaxPoolSize, int hikariMinIdle, long hikariConnectionTimeout) {
+        public boolean isMySQL() {
+            return "mysql".equalsIgnoreCase(type);
+        }
+    }
+
+    public record UuidMigrationConfig(boolean enabled, int chunkSize, int intervalTicks) {}
+
+    public record DatabaseMetricsConfig(boolean enabled, int slowQueryMillis) {}
+
+    public record PersistenceExecutorConfig(boolean virtualThreads, int platformThreads, int queueCapacity) {}
+
+    public record MainThreadGuardConfig(GuardMode mode, int warnIntervalSeconds) {
+        public enum GuardMode { IGNORE, WARN, THROW }
+    }
+
+    public record ShutdownConfig(int budgetSeconds, String recoveryFolder) {}
+
+    public record DeferredWorkConfig(int budgetMillis) {}
+
+    public record ChangeFeedConfig(boolean enabled, String serverId, int intervalTicks, int batchSize,
+                                   int maxLagSeconds, int retentionMinutes) {}
+
+    public record MetricsConfig(boolean httpEnabled, int httpPort) {}
+
+    public record DebugConfig(boolean enabled, boolean logTransactions, boolean logPerformance) {}
+
+    public record FilterConfig(boolean enabled, String wordFile, List<String> extraWords) {}
+
+    // ========================================
+    // SNAPSHOT FIELDS
+    // ========================================
+    private final Map<String, Boolean> modules;
+    private final EconomyConfig economy;
+    private final LedgerConfig ledger;
+    private final TeamsConfig teams;
+    private final GuildsConfig guilds;
+    private final NexusConfig nexus;
+    private final ShieldConfig shield;
+    private final SiegeConfig siege;
+    private final ObjectivesConfig objectives;
+    private final PanelConfig panels;
+    private final VipConfig vip;
+    private final MarketConfig market;
+    private final AuditConfig audit;
+    private final AuditJournalConfig auditJournal;
+    private final AuditWindowConfig auditWindow;
+    private final StorageConfig storage;
+    private final UuidMigrationConfig uuidMigration;
+    private final DatabaseMetricsConfig databaseMetrics;
+    private final MainThreadGuardConfig mainThreadGuard;
+    private final PersistenceExecutorConfig persistenceExecutor;
+    private final ShutdownConfig shutdown;
+    private final DeferredWorkConfig deferredWork;
+    private final ChangeFeedConfig changeFeed;
+    private final MetricsConfig metrics;
+    private final DebugConfig debug;
+    private final FilterConfig filter;
+    private final boolean autoReload;
+
+    private ConfigSnapshot(ConfigurationSection config, List<String> errors) {
+        Map<String, Boolean> moduleMap = new HashMap<>();
+        ConfigurationSection moduleSection = config.getConfigurationSection("modulos");
+        if (moduleSection != null) {
+            for (String key : moduleSection.getKeys(false)) {
+                moduleMap.put(key, moduleSection.getBoolean(key, true));
+            }
+        }
+        this.modules = Collections.unmodifiableMap(moduleMap);
+
+        this.economy = new EconomyConfig(
+            config.getString("moeda.nome", "moedas"),
+            config.getString("moeda.simbolo", "§e⛃"),
+            config.getDouble("economia.saldo-inicial", 1000.0),
+            config.getDouble("economia.saldo-maximo", 100000000.0),
+            config.getDouble("economia.limites.pagar.max-por-transacao", 500000),
+            config.getDouble("economia.limites.pagar.max-por-dia", 2000000),
+            config.getInt("economia.limites.pagar.cooldown-segundos", 10),
+            config.getDouble("economia.limites.pagar.taxa-porcentagem", 0),
+            config.getBoolean("economia.anti-fraude.alertar-valores-suspeitos", true),
+            config.getDouble("economia.anti-fraude.limite-alerta", 1000000));
+
+        this.ledger = new LedgerConfig(
+            config.getInt("economia.livro-razao.checkpoint-intervalo-minutos", 10),
+            config.getInt("economia.livro-razao.atraso-consolidacao-segundos", 60),
+            config.getInt("economia.livro-razao.reconciliar-intervalo-horas", 24),
+            config.getBoolean("economia.livro-razao.reparar-automaticamente", false));
+
+        this.teams = new TeamsConfig(
+            config.getBoolean("times.escolha-obrigatoria", true),
+            config.getBoolean("times.bloquear-movimento-sem-time", true),
+            config.getDouble("times.custo-troca", 1000000),
+            config.getInt("times.cooldown-troca-dias", 30),
+            new TeamStyle(config.getString("times.cores.solar.prefixo", ""),
+                config.getString("times.cores.solar.cor-nome", "§f")),
+            new TeamStyle(config.getString("times.cores.lunar.prefixo", ""),
+                config.getString("times.cores.lunar.cor-nome", "§f")));
+
+        this.guilds = new GuildsConfig(
+            config.getInt("guildas.limite-membros-padrao", 20),
+            config.getInt("guildas.limite-membros-maximo", 50),
+            config.getDouble("guildas.custo-criar", 50000),
+            config.getDouble("guildas.custo-por-membro-extra", 10000),
+            config.getInt("guildas.cooldown-sair-dias", 3));
+
+        this.nexus = new NexusConfig(
+            config.getDouble("nexus.custo-construir", 500000),
+            config.getDouble("nexus.custo-reconstruir-multiplicador", 1.5),
+            config.getInt("nexus.cooldown-reconstruir-horas", 72),
+            config.getInt("nexus.membros-online-minimo", 3),
+            config.getInt("nexus.upgrades.max-nivel", 10),
+            config.getDouble("nexus.upgrades.custo-base", 100000),
+            config.getDouble("nexus.upgrades.multiplicador-por-nivel", 1.8));
+
+        this.shield = new ShieldConfig(
+            config.getDouble("escudo.custo-ativar-base", 50000),
+            config.getInt("escudo.duracao-warmup-segundos", 300),
+            config.getInt("escudo.duracao-ativo-segundos", 3600),
+            config.getInt("escudo.cooldown-entre-ativacoes-horas", 24));
+
+        this.siege = new SiegeConfig(
+            config.getInt("cerco.atacantes-minimos", 5),
+            config.getInt("cerco.defensores-minimos", 3),
+            config.getDouble("cerco.dano-por-jogador", 100),
+            config.getDouble("cerco.dano-maximo-total", 10000));
+
+        Objective.Category[] categories = Objective.Category.values();
+        double[] rewards = new double[categories.length];
+        for (Objective.Category category : categories) {
+            rewards[category.ordinal()] = config.getDouble(
+                "objetivos.categorias." + category.name().toLowerCase() + ".recompensa-base", 5000);
+        }
+        this.objectives = new ObjectivesConfig(
+            config.getInt("objetivos.max-ativos-simultaneos", 10),
+            config.getInt("objetivos.intervalo-geracao-minutos", 30),
+            rewards,
+            config.getDouble("objetivos.caps.por-jogador-dia", 50000));
+
+        this.panels = new PanelConfig(
+            config.getBoolean("painel.usar-decent-holograms", true),
+            config.getInt("painel.refresh-segundos", 30),
+            config.getInt("painel.metricas.top-jogadores", 6),
+            config.getInt("painel.metricas.top-guildas", 6));
+
+        VIPTier[] vipTiers = VIPTier.values();
+        VipTierConfig[] tierConfigs = new VipTierConfig[vipTiers.length];
+        for (VIPTier tier : vipTiers) {
+            String path = "vip." + tier.getConfigKey();
+            if (!config.isConfigurationSection(path)) {
+                errors.add("Missing VIP tier section '" + path + "'");
+            }
+            tierConfigs[tier.ordinal()] = new VipTierConfig(
+                config.getDouble(path + ".xp-boost", 0),
+                config.getDouble(path + ".moedas-boost", 0),
+                config.getDouble(path + ".recompensa-diaria", 0),
+                config.getInt(path + ".slots-mercado", 0),
+                config.getInt(path + ".prioridade-fila", 0),
+                config.getDouble("vip.multiplicadores-recompensas." + tier.getConfigKey(), 1.0));
+        }
+        this.vip = new VipConfig(tierConfigs);
+
+        this.market = new MarketConfig(
+            config.getDouble("mercado.taxa-listagem-porcentagem", 5),
+            config.getDouble("mercado.taxa-venda-porcentagem", 10),
+            config.getInt("mercado.limite-listagens-padrao", 3),
+            config.getInt("mercado.tempo-expiracao-dias", 7));
+
+        EnumSet<AuditEvent.EventType> tracked = EnumSet.noneOf(AuditEvent.EventType.class);
+        for (String name : config.getStringList("auditoria.eventos-rastreados")) {
+            try {
+                tracked.add(AuditEvent.EventType.valueOf(name.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                errors.add("Unknown audit event type in auditoria.eventos-rastreados: " + name);
+            }
+        }
+        this.audit = new AuditConfig(
+            config.getInt("auditoria.historico-por-jogador", 30),
+            config.getInt("auditoria.salvar-intervalo-segundos", 60),
+            config.getInt("auditoria.buffer-capacidade", 8192),
+            config.getInt("auditoria.tamanho-lote", 500),
+            config.getBoolean("auditoria.particionamento.habilitado", true),
+            config.getInt("auditoria.particionamento.limpeza-lote", 1000),
+            config.getInt("auditoria.particionamento.limpeza-intervalo-ticks", 2),
+            Collections.unmodifiableSet(tracked));
+        this.auditJournal = new AuditJournalConfig(
+            config.getBoolean("auditoria.diario.habilitado", false),
+            config.getString("auditoria.diario.pasta", "diario-auditoria"),
+            config.getInt("auditoria.diario.tamanho-segmento-mb", 64));
+        this.auditWindow = new AuditWindowConfig(
+            config.getInt("auditoria.janela-memoria.horas", 6),
+            config.getInt("auditoria.janela-memoria.capacidade", 200000));
+
+        this.storage = new StorageConfig(
+            config.getString("storage.tipo", "sqlite"),
+            config.getString("storage.sqlite.arquivo", "database.db"),
+            config.getString("storage.mysql.host", "127.0.0.1"),
+            config.getInt("storage.mysql.porta", 3306),
+            config.getString("storage.mysql.database", "nexus"),
+            config.getString("storage.mysql.usuario", "root"),
+            config.getString("storage.mysql.senha", ""),
+            config.getInt("storage.hikari.maximum-pool-size", 10),
+            config.getInt("storage.hikari.minimum-idle", 2),
+            config.getLong("storage.hikari.connection-timeout", 30000));
+
+        this.uuidMigration = new UuidMigrationConfig(
+            config.getBoolean("storage.uuid-binario.migrar", true),
+            config.getInt("storage.uuid-binario.lote", 2000),
+            config.getInt("storage.uuid-binario.intervalo-ticks", 10));
+
+        this.databaseMetrics = new DatabaseMetricsConfig(
+            config.getBoolean("storage.metricas.ativo", true),
+            config.getInt("storage.metricas.consulta-lenta-ms", 250));
+
+        String guardMode = config.getString("storage.thread-principal.modo", "avisar");
+        MainThreadGuardConfig.GuardMode mode;
+        switch (guardMode.toLowerCase()) {
+            case "ignorar" -> mode = MainThreadGuardConfig.GuardMode.IGNORE;
+            case "erro" -> mode = MainThreadGuardConfig.GuardMode.THROW;
+            case "avisar" -> mode = MainThreadGuardConfig.GuardMode.WARN;
+            default -> {
+                errors.add("storage.thread-principal.modo must be avisar, erro or ignorar: " + guardMode);
+                mode = MainThreadGuardConfig.GuardMode.WARN;
+            }
+        }
+        this.mainThreadGuard = new MainThreadGuardConfig(mode,
+            config.getInt("storage.thread-principal.intervalo-aviso-segundos", 60));
+
+        this.persistenceExecutor = new PersistenceExecutorConfig(
+            config.getBoolean("storage.executor.threads-virtuais", true),
+            config.getInt("storage.executor.threads-plataforma", 8),
+            config.getInt("storage.executor.fila-maxima", 10000));
+
+        this.shutdown = new ShutdownConfig(
+            config.getInt("storage.desligamento.tempo-maximo-segundos", 10),
+            config.getString("storage.desligamento.pasta-recuperacao", "recuperacao"));
+
+        this.deferredWork = new DeferredWorkConfig(
+            config.getInt("performance.trabalho-adiado.orcamento-ms", 5));
+
+        this.changeFeed = new ChangeFeedConfig(
+            config.getBoolean("rede.feed-mudancas.ativo", false),
+            config.getString("rede.servidor-id", ""),
+            config.getInt("rede.feed-mudancas.intervalo-ticks", 5),
+            config.getInt("rede.feed-mudancas.lote", 1000),
+            config.getInt("rede.feed-mudancas.atraso-maximo-segundos", 5),
+            config.getInt("rede.feed-mudancas.retencao-minutos", 10));
+
+        this.metrics = new MetricsConfig(
+            config.getBoolean("monitoramento.http.ativo", false),
+            config.getInt("monitoramento.http.porta", 9464));
+
+        this.debug = new DebugConfig(
+            config.getBoolean("debug.habilitado", false),
+            config.getBoolean("debug.log-transacoes", true),
+            config.getBoolean("debug.log-performance", false));
+
+        this.filter = new FilterConfig(
+            config.getBoolean("filtro.habilitado", true),
+            config.getString("filtro.arquivo-palavras", "palavras-bloqueadas.txt"),
+            List.copyOf(config.getStringList("filtro.palavras-extras")));
+
+        this.autoReload = config.getBoolean("configuracao.recarregar-automaticamente", false);
+
+        validate(errors);
+    }
+
+    /**
+     * Build and validate a snapshot.
+     *
+     * @param config parsed configuration
+     * @param rawYaml raw file contents, used to detect duplicated keys that the
+     *                YAML parser would otherwise silently collapse (may be null)
+     * @throws InvalidConfigurationException listing every problem found
+     */
+    public static ConfigSnapshot load(ConfigurationSection config, String rawYaml) throws InvalidConfigurationException {
+        List<String> errors = new ArrayList<>();
+        if (rawYaml != null) {
+            errors.addAll(findDuplicateKeys(rawYaml));
+        }
+
+        ConfigSnapshot snapshot = new ConfigSnapshot(config, errors);
+        if (!errors.isEmpty()) {
+            throw new InvalidConfigurationException(String.join("; ", errors));
+        }
+        return snapshot;
+    }
+
+    private void validate(List<String> errors) {
+        if (!storage.type().equalsIgnoreCase("sqlite") && !storage.type().equalsIgnoreCase("mysql")) {
+            errors.add("storage.tipo must be 'sqlite' or 'mysql' (was '" + storage.type() + "')");
+        }
+        if (storage.hikariMaxPoolSize() < 1) {
+            errors.add("storage.hikari.maximum-pool-size must be at least 1");
+        }
+        if (storage.hikariMinIdle() < 0 || storage.hikariMinIdle() > storage.hikariMaxPoolSize()) {
+            errors.add("storage.hikari.minimum-idle must be between 0 and maximum-pool-size");
+        }
+        if (economy.startingBalance() < 0 || economy.startingBalance() > economy.maxBalance()) {
+            errors.add("economia.saldo-inicial must be between 0 and economia.saldo-maximo");
+        }
+        if (ledger.checkpointMinutes() < 1) {
+            errors.add("economia.livro-razao.checkpoint-intervalo-minutos must be at least 1");
+        }
+        if (ledger.settleSeconds() < 0 || ledger.reconcileHours() < 0) {
+            errors.add("economia.livro-razao.atraso-consolidacao-segundos and reconciliar-intervalo-horas must not be negative");
+        }
+        if (guilds.defaultMemberLimit() > guilds.maxMemberLimit()) {
+            errors.add("guildas.limite-membros-padrao exceeds guildas.limite-membros-maximo");
+        }
+        if (audit.historyDays() < 1) {
+            errors.add("auditoria.historico-por-jogador must be at least 1 day");
+        }
+        if (audit.saveIntervalSeconds() < 1) {
+            errors.add("auditoria.salvar-intervalo-segundos must be at least 1");
+        }
+        if (audit.batchSize() < 1 || audit.bufferCapacity() < audit.batchSize()) {
+            errors.add("auditoria.tamanho-lote must be between 1 and auditoria.buffer-capacidade");
+        }
+        if (auditJournal.segmentMegabytes() < 1 || auditJournal.segmentMegabytes() > 1024) {
+            errors.add("auditoria.diario.tamanho-segmento-mb must be between 1 and 1024");
+        }
+        if (auditWindow.hours() < 1 || auditWindow.capacity() < 1) {
+            errors.add("auditoria.janela-memoria.horas and capacidade must be at least 1");
+        }
+        if (uuidMigration.chunkSize() < 1 || uuidMigration.intervalTicks() < 1) {
+            errors.add("storage.uuid-binario.lote and intervalo-ticks must be at least 1");
+        }
+        if (databaseMetrics.slowQueryMillis() < 1) {
+            errors.add("storage.metricas.consulta-lenta-ms must be at least 1");
+        }
+        if (mainThreadGuard.warnIntervalSeconds() < 0) {
+            errors.add("storage.thread-principal.intervalo-aviso-segundos cannot be negative");
+        }
+        if (deferredWork.budgetMillis() < 1 || deferredWork.budgetMillis() > 50) {
+            errors.add("performance.trabalho-adiado.orcamento-ms must be between 1 and 50");
+        }
+        if (changeFeed.intervalTicks() < 1 || changeFeed.batchSize() < 1) {
+            errors.add("rede.feed-mudancas.intervalo-ticks and lote must be at least 1");
+        }
+        if (changeFeed.maxLagSeconds() < 1 || changeFeed.retentionMinutes() < 1) {
+            errors.add("rede.feed-mudancas.atraso-maximo-segundos and retencao-minutos must be at least 1");
+        }
+        if (changeFeed.serverId().length() > 36) {
+            errors.add("rede.servidor-id must have at most 36 characters");
+        }
+        if (metrics.httpPort() < 1 || metrics.httpPort() > 65535) {
+            errors.add("monitoramento.http.porta must be between 1 and 65535");
+        }
+        if (persistenceExecutor.platformThreads() < 1 || persistenceExecutor.queueCapacity() < 1) {
+            errors.add("storage.executor.threads-plataforma and fila-maxima must be at least 1");
+        }
+        if (shutdown.budgetSeconds() < 1 || shutdown.budgetSeconds() > 300) {
+            errors.add("storage.desligamento.tempo-maximo-segundos must be between 1 and 300");
+        }
+        if (audit.pruneChunkSize() < 1 || audit.pruneIntervalTicks() < 1) {
+            errors.add("auditoria.particionamento.limpeza-lote and limpeza-intervalo-ticks must be at least 1");
+        }
+    }
+
+    /**
+     * Scan raw YAML for keys defined twice under the same parent.
+     * Only block mappings are considered; list items and flow style are skipped.
+     */
+    static List<String> findDuplicateKeys(String rawYaml) {
+        List<String> errors = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Set<String> duplicated = new HashSet<>();
+        List<Integer> indents = new ArrayList<>();
+        List<String> paths = new ArrayList<>();
+
+        String[] lines = rawYaml.split("\r?\n");
+        for (int lineNumber = 0; lineNumber < lines.length; lineNumber++) {
+            String line = lines[lineNumber];
+            int indent = 0;
+            while (indent < line.length() && line.charAt(indent) == ' ') {
+                indent++;
+            }
+            if (indent == line.length() || line.charAt(indent) == '#' || line.charAt(indent) == '-') {
+                continue;
+            }
+
+            int colon = keyEnd(line, indent);
+            if (colon < 0) {
+                continue;
+            }
+            String key = unquote(line.substring(indent, colon).trim());
+
+            while (!indents.isEmpty() && indents.get(indents.size() - 1) >= indent) {
+                indents.remove(indents.size() - 1);
+                paths.remove(paths.size() - 1);
+            }
+            String parent = paths.isEmpty() ? null : paths.get(paths.size() - 1);
+            String path = parent == null ? key : parent + "." + key;
+            // Children of an already reported duplicate are not reported again
+            if (!seen.add(path) && (parent == null || !duplicated.contains(parent))) {
+                errors.add("Duplicated key '" + path + "' at line " + (lineNumber + 1));
+                duplicated.add(path);
+            } else if (parent != null && duplicated.contains(parent)) {
+                duplicated.add(path);
+            }
+            indents.add(indent);
+            paths.add(path);
+        }
+        return errors;
+    }
+
+    private static int keyEnd(String line, int from) {
+        char quote = 0;
+        for (int i = from; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '#') {
+                return -1;
+            } else if (c == ':' && (i + 1 == line.length() || line.charAt(i + 1) == ' ')) {
+                return i > from ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static String unquote(String key) {
+        if (key.length() >= 2 && (key.charAt(0) == '"' || key.charAt(0) == '\'')
+                && key.charAt(key.length() - 1) == key.charAt(0)) {
+            return key.substring(1, key.length() - 1);
+        }
+        return key;
+    }
+
+    // ========================================
+    // ACCESSORS
+    // ========================================
+    public boolean isModuleEnabled(String module) {
+        return modules.getOrDefault(module, Boolean.TRUE);
+    }
+
+    public EconomyConfig economy() { return economy; }
+    public LedgerConfig ledger() { return ledger; }
+    public TeamsConfig teams() { return teams; }
+    public GuildsConfig guilds() { return guilds; }
+    public NexusConfig nexus() { return nexus; }
+    public ShieldConfig shield() { return shield; }
+    public SiegeConfig siege() { return siege; }
+    public ObjectivesConfig objectives() { return objectives; }
+    public PanelConfig panels() { return panels; }
+    public VipConfig vip() { return vip; }
+    public MarketConfig market() { return market; }
+    public AuditConfig audit() { return audit; }
+    public AuditJournalConfig auditJournal() { return auditJournal; }
+    public AuditWindowConfig auditWindow() { return auditWindow; }
+    public StorageConfig storage() { return storage; }
+    public UuidMigrationConfig uuidMigration() { return uuidMigration; }
+    public DatabaseMetricsConfig databaseMetrics() { return databaseMetrics; }
+    public MainThreadGuardConfig mainThreadGuard() { return mainThreadGuard; }
+    public PersistenceExecutorConfig persistenceExecutor() { return persistenceExecutor; }
+    public ShutdownConfig shutdown() { return shutdown; }
+    public DeferredWorkConfig deferredWork() { return deferredWork; }
+    public ChangeFeedConfig changeFeed() { return changeFeed; }
+    public MetricsConfig metrics() { return metrics; }
+    public DebugConfig debug() { return debug; }
+    public FilterConfig filter() { return filter; }
+    public boolean isAutoReload() { return autoReload; }
+}
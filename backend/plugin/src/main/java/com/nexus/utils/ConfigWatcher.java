@@ -0,0 +1,113 @@
+package com.nexus.utils;
+
+import com.nexus.NexusPlugin;
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * ConfigWatcher - Optional config.yml auto-reload
+ *
+ * Watches the plugin data folder on a daemon thread and triggers a reload on
+ * the main thread when config.yml changes. Bursts of write events (editors
+ * often save in several steps) are debounced into a single reload.
+ *
+ * @author Nexus Development Team
+ */
+public class ConfigWatcher {
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final NexusPlugin plugin;
+    private final File file;
+    private final Runnable onChange;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(NexusPlugin plugin, File file, Runnable onChange) {
+        this.plugin = plugin;
+        this.file = file;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Start watching (no-op if already running)
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParentFile().toPath().register(watchService,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not start config watcher", e);
+            return;
+        }
+
+        thread = new Thread(this::watchLoop, "Nexus-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        plugin.getLogger().info("✓ Watching config.yml for changes.");
+    }
+
+    /**
+     * Stop watching
+     */
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Closing wakes the watch thread; nothing else to do
+        }
+        thread.interrupt();
+        thread = null;
+    }
+
+    private void watchLoop() {
+        Path target = file.toPath().getFileName();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key, target);
+
+                // Debounce: keep absorbing events until the file is quiet
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(next, target);
+                }
+
+                if (changed && plugin.isEnabled()) {
+                    Bukkit.getScheduler().runTask(plugin, onChange);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private boolean drain(WatchKey key, Path target) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (target.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
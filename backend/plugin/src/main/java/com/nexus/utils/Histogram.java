@@ -0,0 +1,125 @@
+package com.nexus.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram - Concurrent log-linear histogram of non-negative values
+ *
+ * Buckets follow the HdrHistogram layout: values below 16 get one bucket
+ * each, and every power of two above that is split into 8 linear
+ * sub-buckets, so any recorded value is reported within 12.5%. Recording is
+ * an index computation and an atomic increment: no allocation and no locks,
+ * safe to call from any thread on every statement.
+ *
+ * Values above 2^40 are clamped into the last bucket.
+ *
+ * @author Nexus Development Team
+ */
+public final class Histogram {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MAX_MSB = 40;
+    private static final int BUCKETS = index((1L << (MAX_MSB + 1)) - 1) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Point-in-time summary
+     */
+    public record Snapshot(long count, double mean, long p50, long p95, long p99, long max) {}
+
+    // ========================================
+    // RECORDING
+    // ========================================
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(index(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    // ========================================
+    // READING
+    // ========================================
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile (0..1)
+     */
+    public long percentile(double quantile) {
+        long total = 0;
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += copy[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public Snapshot snapshot() {
+        long n = count.get();
+        return new Snapshot(n, n > 0 ? (double) sum.get() / n : 0.0,
+            percentile(0.50), percentile(0.95), percentile(0.99), max.get());
+    }
+
+    // ========================================
+    // BUCKETS
+    // ========================================
+
+    private static int index(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int msb = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_MSB);
+        int shift = msb - SUB_BITS;
+        int mantissa = (int) Math.min(value >>> shift, 2L * SUB - 1);
+        return LINEAR + (shift - 1) * SUB + (mantissa - SUB);
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int shift = (index - LINEAR) / SUB + 1;
+        long mantissa = SUB + (index - LINEAR) % SUB;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
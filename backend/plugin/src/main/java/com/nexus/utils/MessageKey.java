@@ -0,0 +1,101 @@
+package com.nexus.utils;
+
+/**
+ * MessageKey - Typed message identifiers
+ *
+ * Each key maps to a path under "mensagens." and declares its arguments in
+ * order. Templates are compiled against that order, so callers fill slots by
+ * position and translations are free to reorder placeholders.
+ *
+ * @author Nexus Development Team
+ */
+public enum MessageKey {
+
+    // General
+    SEM_PERMISSAO("sem-permissao"),
+    APENAS_JOGADOR("apenas-jogador"),
+    JOGADOR_NAO_ENCONTRADO("jogador-nao-encontrado", "jogador"),
+    DADOS_INDISPONIVEIS("dados-indisponiveis"),
+
+    // Economy
+    ECONOMIA_SALDO("economia.saldo", "valor", "moeda"),
+    ECONOMIA_SALDO_OUTRO("economia.saldo-outro", "jogador", "valor", "moeda"),
+    ECONOMIA_PAGAR_SUCESSO("economia.pagar-sucesso", "valor", "alvo"),
+    ECONOMIA_PAGAR_RECEBIDO("economia.pagar-recebido", "valor", "remetente"),
+    ECONOMIA_SALDO_INSUFICIENTE("economia.saldo-insuficiente", "saldo", "necessario"),
+    ECONOMIA_LIMITE_EXCEDIDO("economia.limite-excedido", "limite"),
+    ECONOMIA_COOLDOWN("economia.cooldown", "tempo"),
+    ECONOMIA_CONGELADA("economia.economia-congelada"),
+
+    // Teams
+    TIMES_ESCOLHER_SUCESSO("times.escolher-sucesso", "time"),
+    TIMES_JA_TEM_TIME("times.ja-tem-time"),
+    TIMES_TROCAR_SUCESSO("times.trocar-sucesso", "time"),
+    TIMES_ESCOLHA_OBRIGATORIA("times.escolha-obrigatoria"),
+    TIMES_TROCA_COOLDOWN("times.troca-cooldown", "dias"),
+
+    // Guilds
+    GUILDAS_CRIAR_SUCESSO("guildas.criar-sucesso", "nome"),
+    GUILDAS_JA_TEM_GUILDA("guildas.ja-tem-guilda"),
+    GUILDAS_CONVITE_ENVIADO("guildas.convite-enviado", "jogador"),
+    GUILDAS_CONVITE_RECEBIDO("guildas.convite-recebido", "guilda"),
+    GUILDAS_ENTRAR_SUCESSO("guildas.entrar-sucesso", "guilda"),
+    GUILDAS_SAIR_SUCESSO("guildas.sair-sucesso", "guilda"),
+    GUILDAS_EXPULSAR_SUCESSO("guildas.expulsar-sucesso", "jogador"),
+    GUILDAS_NAO_TEM_GUILDA("guildas.nao-tem-guilda"),
+    GUILDAS_SEM_PERMISSAO("guildas.sem-permissao-guilda"),
+    GUILDAS_GUILDA_CHEIA("guildas.guilda-cheia", "limite"),
+
+    // Nexus
+    NEXUS_CONSTRUIR_SUCESSO("nexus.construir-sucesso"),
+    NEXUS_DESTRUIDO("nexus.destruido", "guilda"),
+    NEXUS_UPGRADE_SUCESSO("nexus.upgrade-sucesso", "nivel"),
+    NEXUS_EM_ATAQUE("nexus.em-ataque"),
+
+    // Shield
+    ESCUDO_ATIVAR_SUCESSO("escudo.ativar-sucesso", "tempo"),
+    ESCUDO_ATIVO("escudo.ativo", "expiracao"),
+    ESCUDO_EXPIRADO("escudo.expirado"),
+    ESCUDO_COOLDOWN("escudo.cooldown", "tempo"),
+
+    // Objectives
+    OBJETIVOS_NOVO("objetivos.novo", "nome"),
+    OBJETIVOS_COMPLETO("objetivos.completo", "nome", "recompensa"),
+    OBJETIVOS_FALHOU("objetivos.falhou", "nome"),
+
+    // Panels
+    PAINEIS_CRIAR_SUCESSO("paineis.criar-sucesso", "id"),
+    PAINEIS_DELETAR_SUCESSO("paineis.deletar-sucesso", "id"),
+    PAINEIS_NAO_ENCONTRADO("paineis.nao-encontrado"),
+    PAINEIS_REFRESH_SUCESSO("paineis.refresh-sucesso", "total"),
+
+    // VIP
+    VIP_RECOMPENSA_RESGATADA("vip.recompensa-resgatada", "valor"),
+    VIP_RECOMPENSA_COOLDOWN("vip.recompensa-cooldown", "tempo"),
+    VIP_NAO_VIP("vip.nao-vip"),
+
+    // Audit
+    AUDITORIA_ATIVIDADE_SUSPEITA("auditoria.atividade-suspeita", "jogador", "detalhes");
+
+    private final String path;
+    private final String[] params;
+
+    MessageKey(String path, String... params) {
+        this.path = path;
+        this.params = params;
+    }
+
+    /**
+     * Path relative to "mensagens."
+     */
+    public String getPath() { return path; }
+
+    /**
+     * Placeholder names in argument order
+     */
+    public String[] getParams() { return params.clone(); }
+
+    public int getParamCount() { return params.length; }
+
+    String[] params() { return params; }
+}
@@ -0,0 +1,211 @@
+package com.nexus.utils;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MessageTemplate - Pre-compiled message with placeholder slots
+ *
+ * A message is split once (at load/reload) into literal segments, which are
+ * already colorized, and placeholder slots that are filled by index at render
+ * time. Rendering performs a single StringBuilder pass with no intermediate
+ * strings; templates without placeholders render to a cached constant.
+ *
+ * Placeholder values are inserted verbatim (they are not colorized).
+ *
+ * @author Nexus Development Team
+ */
+public final class MessageTemplate {
+
+    private static final char PLACEHOLDER = '%';
+
+    // Segment i is either a literal (literals[i] != null) or a slot (slots[i] >= 0)
+    private final String[] literals;
+    private final int[] slots;
+    private final String[] params;
+    private final String constant;
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, int[] slots, String[] params) {
+        this.literals = literals;
+        this.slots = slots;
+        this.params = params;
+
+        int length = 0;
+        boolean hasSlots = false;
+        for (int i = 0; i < literals.length; i++) {
+            if (literals[i] != null) {
+                length += literals[i].length();
+            } else {
+                hasSlots = true;
+            }
+        }
+        this.literalLength = length;
+        this.constant = hasSlots ? null : String.join("", literals);
+    }
+
+    /**
+     * Compile a raw message, discovering placeholders in order of first appearance
+     */
+    public static MessageTemplate compile(String raw) {
+        return compile(raw, null);
+    }
+
+    /**
+     * Compile a raw message against a fixed parameter order.
+     * Placeholders not listed in params are kept as literal text.
+     */
+    public static MessageTemplate compile(String raw, String[] params) {
+        String text = ChatColor.translateAlternateColorCodes('&', raw == null ? "" : raw);
+        List<String> discovered = params == null ? new ArrayList<>() : null;
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int end = c == PLACEHOLDER ? findPlaceholderEnd(text, i + 1) : -1;
+            if (end < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            String name = text.substring(i + 1, end);
+            int slot;
+            if (params != null) {
+                slot = indexOf(params, name);
+            } else {
+                slot = discovered.indexOf(name);
+                if (slot < 0) {
+                    discovered.add(name);
+                    slot = discovered.size() - 1;
+                }
+            }
+
+            if (slot < 0) {
+                literal.append(text, i, end + 1);
+            } else {
+                if (literal.length() > 0) {
+                    literals.add(literal.toString());
+                    slots.add(-1);
+                    literal.setLength(0);
+                }
+                literals.add(null);
+                slots.add(slot);
+            }
+            i = end + 1;
+        }
+        if (literal.length() > 0 || literals.isEmpty()) {
+            literals.add(literal.toString());
+            slots.add(-1);
+        }
+
+        int[] slotArray = new int[slots.size()];
+        for (int s = 0; s < slotArray.length; s++) {
+            slotArray[s] = slots.get(s);
+        }
+        String[] names = params != null ? params.clone() : discovered.toArray(new String[0]);
+        return new MessageTemplate(literals.toArray(new String[0]), slotArray, names);
+    }
+
+    /**
+     * Render with values given by slot index
+     */
+    public String render(String... values) {
+        if (constant != null) {
+            return constant;
+        }
+        StringBuilder builder = new StringBuilder(literalLength + 16 * params.length);
+        renderTo(builder, values);
+        return builder.toString();
+    }
+
+    /**
+     * Render into an existing builder (e.g. one already holding the prefix)
+     */
+    public void renderTo(StringBuilder builder, String... values) {
+        if (constant != null) {
+            builder.append(constant);
+            return;
+        }
+        for (int i = 0; i < literals.length; i++) {
+            String literal = literals[i];
+            if (literal != null) {
+                builder.append(literal);
+                continue;
+            }
+            int slot = slots[i];
+            if (values != null && slot < values.length && values[slot] != null) {
+                builder.append(values[slot]);
+            } else {
+                // Unfilled slots keep their placeholder text, as before
+                builder.append(PLACEHOLDER).append(params[slot]).append(PLACEHOLDER);
+            }
+        }
+    }
+
+    /**
+     * Render with named values (compatibility path for Map-based callers)
+     */
+    public String render(Map<String, String> values) {
+        if (constant != null) {
+            return constant;
+        }
+        String[] ordered = new String[params.length];
+        if (values != null) {
+            for (int i = 0; i < params.length; i++) {
+                ordered[i] = values.get(params[i]);
+            }
+        }
+        return render(ordered);
+    }
+
+    /**
+     * Get the slot index for a placeholder name, or -1
+     */
+    public int slot(String name) {
+        return indexOf(params, name);
+    }
+
+    public int getSlotCount() {
+        return params.length;
+    }
+
+    public boolean isConstant() {
+        return constant != null;
+    }
+
+    /**
+     * Approximate rendered length (literal text only)
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+
+    private static int findPlaceholderEnd(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == PLACEHOLDER) {
+                return i > from ? i : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(String[] array, String value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,11 +1,14 @@
 package com.nexus.utils;
 
 import com.nexus.NexusPlugin;
+import com.nexus.services.AudienceService;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 
 import java.text.DecimalFormat;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,19 +18,32 @@ import java.util.Map;
  * Provides consistent message formatting across the plugin.
  * Handles placeholders, color codes, and localized messages from config.
  * 
+ * Messages are compiled into {@link MessageTemplate}s on load and reload;
+ * prefer the {@link MessageKey} overloads, which fill slots by index.
+ * 
  * @author Nexus Development Team
  */
 public class MessageUtil {
     
+    private static final String MISSING_FORMAT = "§c[Missing message: %s]";
+    
     private final NexusPlugin plugin;
     private final DecimalFormat moneyFormat;
-    private String prefix;
+    
+    // Compiled on load/reload and published through one volatile write, so a
+    // reader never mixes the prefix or templates of two reloads
+    private volatile Compiled compiled;
+    
+    /**
+     * Everything reload() compiles (never modified after publication)
+     */
+    private record Compiled(String prefix, Map<String, MessageTemplate> templates, MessageTemplate[] keyed,
+                            MessageTemplate money) {}
     
     public MessageUtil(NexusPlugin plugin) {
         this.plugin = plugin;
         this.moneyFormat = new DecimalFormat("#,##0.00");
-        this.prefix = ChatColor.translateAlternateColorCodes('&', 
-            plugin.getConfig().getString("mensagens.prefixo", "§7[§bNexus§7] §r"));
+        reload();
     }
     
     /**
@@ -36,7 +52,7 @@ public class MessageUtil {
     public void send(CommandSender sender, String messageKey, Map<String, String> placeholders) {
         String message = getMessage(messageKey, placeholders);
         if (message != null && !message.isEmpty()) {
-            sender.sendMessage(prefix + message);
+            sender.sendMessage(compiled.prefix() + message);
         }
     }
     
@@ -44,7 +60,23 @@ public class MessageUtil {
      * Send a message to a player with prefix (no placeholders)
      */
     public void send(CommandSender sender, String messageKey) {
-        send(sender, messageKey, new HashMap<>());
+        send(sender, messageKey, Collections.emptyMap());
+    }
+    
+    /**
+     * Send a typed message with prefix; args fill the key's slots in order
+     */
+    public void send(CommandSender sender, MessageKey key, String... args) {
+        Compiled current = compiled;
+        MessageTemplate template = current.keyed()[key.ordinal()];
+        if (template == null) {
+            sender.sendMessage(current.prefix() + missing(key.getPath()));
+            return;
+        }
+        if (template.isConstant() && template.getLiteralLength() == 0) {
+            return;
+        }
+        sender.sendMessage(renderPrefixed(current.prefix(), template, args));
     }
     
     /**
@@ -58,26 +90,54 @@ public class MessageUtil {
      * Get a message from config with placeholders replaced
      */
     public String getMessage(String messageKey, Map<String, String> placeholders) {
-        String message = plugin.getConfig().getString("mensagens." + messageKey, null);
+        MessageTemplate template = compiled.templates().get(messageKey);
         
-        if (message == null) {
+        if (template == null) {
             plugin.getLogger().warning("Missing message key: mensagens." + messageKey);
-            return "§c[Missing message: " + messageKey + "]";
+            return missing(messageKey);
         }
         
-        // Replace placeholders
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            message = message.replace("%" + entry.getKey() + "%", entry.getValue());
-        }
-        
-        return colorize(message);
+        return template.render(placeholders);
     }
     
     /**
      * Get a message from config (no placeholders)
      */
     public String getMessage(String messageKey) {
-        return getMessage(messageKey, new HashMap<>());
+        return getMessage(messageKey, Collections.emptyMap());
+    }
+    
+    /**
+     * Render a typed message (no prefix); args fill the key's slots in order
+     */
+    public String getMessage(MessageKey key, String... args) {
+        MessageTemplate template = compiled.keyed()[key.ordinal()];
+        return template != null ? template.render(args) : missing(key.getPath());
+    }
+    
+    /**
+     * Get the compiled template for a typed key (null if missing from config)
+     */
+    public MessageTemplate getTemplate(MessageKey key) {
+        return compiled.keyed()[key.ordinal()];
+    }
+    
+    /**
+     * Render a template with the prefix in a single builder pass
+     */
+    public String renderPrefixed(MessageTemplate template, String... args) {
+        return renderPrefixed(compiled.prefix(), template, args);
+    }
+    
+    private static String renderPrefixed(String prefix, MessageTemplate template, String... args) {
+        StringBuilder builder = new StringBuilder(prefix.length() + template.getLiteralLength() + 16 * args.length);
+        builder.append(prefix);
+        template.renderTo(builder, args);
+        return builder.toString();
+    }
+    
+    private String missing(String messageKey) {
+        return String.format(MISSING_FORMAT, messageKey);
     }
     
     /**
@@ -91,14 +151,7 @@ public class MessageUtil {
      * Format a money value consistently
      */
     public String formatMoney(double amount) {
-        String symbol = plugin.getConfig().getString("moeda.simbolo", "§e⛃");
-        String name = plugin.getConfig().getString("moeda.nome", "moedas");
-        String format = plugin.getConfig().getString("moeda.formato", "%simbolo%%valor% %nome%");
-        
-        return format
-            .replace("%simbolo%", symbol)
-            .replace("%valor%", moneyFormat.format(amount))
-            .replace("%nome%", name);
+        return compiled.money().render(moneyFormat.format(amount));
     }
     
     /**
@@ -164,65 +217,68 @@ public class MessageUtil {
      * Send a success message
      */
     public void success(CommandSender sender, String message) {
-        sender.sendMessage(prefix + "§a✓ " + colorize(message));
+        sender.sendMessage(compiled.prefix() + "§a✓ " + colorize(message));
     }
     
     /**
      * Send an error message
      */
     public void error(CommandSender sender, String message) {
-        sender.sendMessage(prefix + "§c✗ " + colorize(message));
+        sender.sendMessage(compiled.prefix() + "§c✗ " + colorize(message));
     }
     
     /**
      * Send a warning message
      */
     public void warn(CommandSender sender, String message) {
-        sender.sendMessage(prefix + "§e⚠ " + colorize(message));
+        sender.sendMessage(compiled.prefix() + "§e⚠ " + colorize(message));
     }
     
     /**
      * Send an info message
      */
     public void info(CommandSender sender, String message) {
-        sender.sendMessage(prefix + "§b§ " + colorize(message));
+        sender.sendMessage(compiled.prefix() + "§b§ " + colorize(message));
     }
     
     /**
      * Send "no permission" message
      */
     public void noPermission(CommandSender sender) {
-        send(sender, "sem-permissao");
+        send(sender, MessageKey.SEM_PERMISSAO);
     }
     
     /**
      * Send "player only" message
      */
     public void playerOnly(CommandSender sender) {
-        send(sender, "apenas-jogador");
+        send(sender, MessageKey.APENAS_JOGADOR);
     }
     
     /**
      * Send "player not found" message
      */
     public void playerNotFound(CommandSender sender, String playerName) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("jogador", playerName);
-        send(sender, "jogador-nao-encontrado", placeholders);
+        send(sender, MessageKey.JOGADOR_NAO_ENCONTRADO, playerName);
     }
     
     /**
      * Broadcast a message to all online players
      */
     public void broadcast(String message) {
-        plugin.getServer().broadcastMessage(prefix + colorize(message));
+        plugin.getServer().broadcastMessage(compiled.prefix() + colorize(message));
     }
     
     /**
      * Broadcast a message to all players with a specific permission
      */
     public void broadcastPermission(String permission, String message) {
-        String formatted = prefix + colorize(message);
+        String formatted = compiled.prefix() + colorize(message);
+        AudienceService audiences = plugin.getAudienceService();
+        if (audiences != null) {
+            audiences.send(audiences.withPermission(permission), formatted);
+            return;
+        }
         for (Player player : plugin.getServer().getOnlinePlayers()) {
             if (player.hasPermission(permission)) {
                 player.sendMessage(formatted);
@@ -230,6 +286,54 @@ public class MessageUtil {
         }
     }
     
+    /**
+     * Broadcast a typed message to all players with a specific permission
+     */
+    public void broadcastPermission(String permission, MessageKey key, String... args) {
+        AudienceService audiences = plugin.getAudienceService();
+        if (audiences == null) {
+            broadcastPermission(permission, getMessage(key, args));
+            return;
+        }
+        audiences.send(audiences.withPermission(permission), renderBroadcast(key, args));
+    }
+    
+    /**
+     * Broadcast a typed message to the online members of a team
+     */
+    public void broadcastTeam(String team, MessageKey key, String... args) {
+        AudienceService audiences = plugin.getAudienceService();
+        if (audiences != null) {
+            audiences.send(audiences.team(team), renderBroadcast(key, args));
+        }
+    }
+    
+    /**
+     * Broadcast a typed message to the online members of a guild
+     */
+    public void broadcastGuild(int guildId, MessageKey key, String... args) {
+        AudienceService audiences = plugin.getAudienceService();
+        if (audiences != null) {
+            audiences.send(audiences.guild(guildId), renderBroadcast(key, args));
+        }
+    }
+    
+    /**
+     * Alert online staff (SUSPICIOUS_ACTIVITY and similar events)
+     */
+    public void alertStaff(String playerName, String details) {
+        broadcastPermission(AudienceService.STAFF_PERMISSION, MessageKey.AUDITORIA_ATIVIDADE_SUSPEITA,
+            playerName, details);
+    }
+    
+    private String renderBroadcast(MessageKey key, String... args) {
+        Compiled current = compiled;
+        MessageTemplate template = current.keyed()[key.ordinal()];
+        return template != null
+            ? renderPrefixed(current.prefix(), template, args)
+            : current.prefix() + missing(key.getPath());
+    }
+    
     /**
      * Create a progress bar
      * Example: [████████░░] 80%
@@ -263,10 +367,38 @@ public class MessageUtil {
     }
     
     /**
-     * Reload messages from config
+     * Reload messages from config, recompiling all templates
      */
     public void reload() {
-        this.prefix = ChatColor.translateAlternateColorCodes('&', 
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("mensagens");
+        
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        if (section != null) {
+            for (String path : section.getKeys(true)) {
+                if (section.isString(path)) {
+                    templates.put(path, MessageTemplate.compile(section.getString(path)));
+                }
+            }
+        }
+        
+        MessageTemplate[] compiledKeys = new MessageTemplate[MessageKey.values().length];
+        for (MessageKey key : MessageKey.values()) {
+            String raw = section != null ? section.getString(key.getPath()) : null;
+            if (raw == null) {
+                plugin.getLogger().warning("Missing message key: mensagens." + key.getPath());
+                continue;
+            }
+            compiledKeys[key.ordinal()] = MessageTemplate.compile(raw, key.params());
+        }
+        
+        String symbol = plugin.getConfig().getString("moeda.simbolo", "§e⛃");
+        String name = plugin.getConfig().getString("moeda.nome", "moedas");
+        String format = plugin.getConfig().getString("moeda.formato", "%simbolo%%valor% %nome%");
+        
+        MessageTemplate money = MessageTemplate.compile(
+            format.replace("%simbolo%", symbol).replace("%nome%", name), new String[] { "valor" });
+        String prefix = ChatColor.translateAlternateColorCodes('&', 
             plugin.getConfig().getString("mensagens.prefixo", "§7[§bNexus§7] §r"));
+        this.compiled = new Compiled(prefix, Collections.unmodifiableMap(templates), compiledKeys, money);
     }
 }
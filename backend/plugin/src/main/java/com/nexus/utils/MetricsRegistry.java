@@ -0,0 +1,231 @@
+package com.nexus.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * MetricsRegistry - Named counters, gauges and summaries in Prometheus text format
+ *
+ * Writes are lock-free: counters are adders, gauges and summaries are read
+ * from their owners ({@link Histogram}s, queue sizes, existing adders) only
+ * when the registry is scraped. Families with a changing set of label values
+ * (one series per SQL statement, per task label) register a collector that
+ * emits its samples at scrape time.
+ *
+ * Histograms are exposed as summaries (p50/p95/p99, sum and count) scaled
+ * to base units, so microsecond histograms become *_seconds.
+ *
+ * @author Nexus Development Team
+ */
+public final class MetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    /**
+     * Prometheus metric type
+     */
+    public enum Type {
+        COUNTER, GAUGE, SUMMARY;
+
+        String text() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Emits the samples of one family at scrape time
+     */
+    @FunctionalInterface
+    public interface Collector {
+        void collect(Samples out);
+    }
+
+    /**
+     * Sample sink handed to collectors; one optional label per sample
+     */
+    public interface Samples {
+        void value(double value);
+        void value(String label, String labelValue, double value);
+        void summary(Histogram histogram, double scale);
+        void summary(String label, String labelValue, Histogram histogram, double scale);
+    }
+
+    /**
+     * Monotonic counter
+     */
+    public static final class Counter {
+        private final DoubleAdder value = new DoubleAdder();
+
+        public void inc() {
+            value.add(1);
+        }
+
+        public void add(double amount) {
+            value.add(amount);
+        }
+
+        public double get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Counters sharing a name, one per value of a label
+     */
+    public static final class CounterFamily {
+        private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+        public Counter labels(String labelValue) {
+            Counter counter = counters.get(labelValue);
+            return counter != null ? counter : counters.computeIfAbsent(labelValue, key -> new Counter());
+        }
+    }
+
+    private record Family(String name, String help, Type type, Collector collector) {}
+
+    // Sorted by name so the exposition is stable between scrapes
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    // ========================================
+    // REGISTRATION
+    // ========================================
+
+    public void register(String name, String help, Type type, Collector collector) {
+        if (families.putIfAbsent(name, new Family(name, help, type, collector)) != null) {
+            throw new IllegalArgumentException("Metric already registered: " + name);
+        }
+    }
+
+    public Counter counter(String name, String help) {
+        Counter counter = new Counter();
+        register(name, help, Type.COUNTER, out -> out.value(counter.get()));
+        return counter;
+    }
+
+    public CounterFamily counter(String name, String help, String label) {
+        CounterFamily family = new CounterFamily();
+        register(name, help, Type.COUNTER, out -> {
+            for (Map.Entry<String, Counter> entry : family.counters.entrySet()) {
+                out.value(label, entry.getKey(), entry.getValue().get());
+            }
+        });
+        return family;
+    }
+
+    /**
+     * Counter kept elsewhere (an existing adder), read at scrape time
+     */
+    public void counter(String name, String help, DoubleSupplier total) {
+        register(name, help, Type.COUNTER, out -> out.value(total.getAsDouble()));
+    }
+
+    public void gauge(String name, String help, DoubleSupplier value) {
+        register(name, help, Type.GAUGE, out -> out.value(value.getAsDouble()));
+    }
+
+    /**
+     * @param scale multiplier to base units (1e-6 for microseconds to seconds)
+     */
+    public void summary(String name, String help, Histogram histogram, double scale) {
+        register(name, help, Type.SUMMARY, out -> out.summary(histogram, scale));
+    }
+
+    public void unregister(String name) {
+        families.remove(name);
+    }
+
+    public int size() {
+        return families.size();
+    }
+
+    // ========================================
+    // EXPOSITION
+    // ========================================
+
+    /**
+     * Every family in the text exposition format (version 0.0.4)
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name()).append(' ').append(escapeHelp(family.help())).append('\n');
+            out.append("# TYPE ").append(family.name()).append(' ').append(family.type().text()).append('\n');
+            family.collector().collect(new TextSamples(out, family.name()));
+        }
+        return out.toString();
+    }
+
+    private static final class TextSamples implements Samples {
+        private final StringBuilder out;
+        private final String name;
+
+        TextSamples(StringBuilder out, String name) {
+            this.out = out;
+            this.name = name;
+        }
+
+        @Override
+        public void value(double value) {
+            line(name, null, null, null, value);
+        }
+
+        @Override
+        public void value(String label, String labelValue, double value) {
+            line(name, label, labelValue, null, value);
+        }
+
+        @Override
+        public void summary(Histogram histogram, double scale) {
+            summary(null, null, histogram, scale);
+        }
+
+        @Override
+        public void summary(String label, String labelValue, Histogram histogram, double scale) {
+            Histogram.Snapshot snapshot = histogram.snapshot();
+            for (double quantile : QUANTILES) {
+                line(name, label, labelValue, Double.toString(quantile), histogram.percentile(quantile) * scale);
+            }
+            line(name + "_sum", label, labelValue, null, snapshot.mean() * snapshot.count() * scale);
+            line(name + "_count", label, labelValue, null, snapshot.count());
+        }
+
+        private void line(String metric, String label, String labelValue, String quantile, double value) {
+            out.append(metric);
+            if (label != null || quantile != null) {
+                out.append('{');
+                if (label != null) {
+                    out.append(label).append("=\"").append(escapeLabel(labelValue)).append('"');
+                }
+                if (quantile != null) {
+                    out.append(label != null ? "," : "").append("quantile=\"").append(quantile).append('"');
+                }
+                out.append('}');
+            }
+            out.append(' ').append(format(value)).append('\n');
+        }
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,356 @@
+package com.nexus.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ProfanityFilter - Aho-Corasick word filter with input normalization
+ *
+ * The word list is compiled into a deterministic automaton (goto + failure
+ * transitions folded into one table), so any input is scanned in a single
+ * linear pass regardless of list size, without allocating.
+ *
+ * Both the word list and the input are normalized on the fly:
+ * - case and accents are folded (é -> e, ç -> c)
+ * - common leetspeak is mapped (4 -> a, 3 -> e, 0 -> o, $ -> s, ...)
+ * - punctuation inside a word is skipped ("p.u.t.a" matches "puta")
+ * - repeated characters are collapsed ("meeerda" matches "merda")
+ * - whitespace is a word boundary: runs of it fold into one space symbol,
+ *   so a term never matches across words, while a term listed with a space
+ *   ("filho da puta") matches that phrase
+ *
+ * Match positions are reported against the original input, so callers can
+ * mask exactly the offending characters.
+ *
+ * Instances are immutable and safe to share between threads.
+ *
+ * @author Nexus Development Team
+ */
+public final class ProfanityFilter {
+
+    /** Filter with no words; never matches */
+    public static final ProfanityFilter EMPTY = new ProfanityFilter(new ArrayList<>());
+
+    private static final int ALPHABET = 27; // a-z (digits are folded by the leetspeak map) + space
+    private static final int SPACE = 26;
+    private static final int SKIP = -1;
+    private static final char[] FOLD = buildFoldTable();
+
+    /**
+     * Receives each match as a half-open [start, end) range of the original input
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        void onMatch(int start, int end);
+    }
+
+    // delta[state * ALPHABET + symbol] -> next state
+    private final int[] delta;
+    // Longest word that ends in this state (following failure links), 0 if none
+    private final int[] matchLength;
+    private final int maxLength;
+    private final int wordCount;
+    private final ThreadLocal<int[]> positions;
+
+    private ProfanityFilter(List<int[]> words) {
+        int states = 1;
+        for (int[] word : words) {
+            states += word.length;
+        }
+
+        int[] goTo = new int[states * ALPHABET];
+        int[] length = new int[states];
+        int[] fail = new int[states];
+        Arrays.fill(goTo, -1);
+
+        // Build the trie
+        int next = 1;
+        int longest = 0;
+        for (int[] word : words) {
+            int state = 0;
+            for (int symbol : word) {
+                int index = state * ALPHABET + symbol;
+                if (goTo[index] < 0) {
+                    goTo[index] = next++;
+                }
+                state = goTo[index];
+            }
+            length[state] = Math.max(length[state], word.length);
+            longest = Math.max(longest, word.length);
+        }
+
+        // Breadth-first: compute failure links and complete the transition table
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = goTo[symbol];
+            if (child < 0) {
+                goTo[symbol] = 0;
+            } else {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            length[state] = Math.max(length[state], length[fail[state]]);
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int index = state * ALPHABET + symbol;
+                int child = goTo[index];
+                int fallback = goTo[fail[state] * ALPHABET + symbol];
+                if (child < 0) {
+                    goTo[index] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.delta = Arrays.copyOf(goTo, next * ALPHABET);
+        this.matchLength = Arrays.copyOf(length, next);
+        this.maxLength = longest;
+        this.wordCount = words.size();
+
+        // Ring of original positions for the last maxLength symbols (power of two)
+        int ringSize = Integer.highestOneBit(Math.max(1, longest)) << 1;
+        this.positions = ThreadLocal.withInitial(() -> new int[ringSize]);
+    }
+
+    // ========================================
+    // CONSTRUCTION
+    // ========================================
+
+    /**
+     * Compile a filter from raw words (normalized with the same rules as input)
+     */
+    public static ProfanityFilter compile(Collection<String> words) {
+        Set<String> unique = new LinkedHashSet<>();
+        List<int[]> normalized = new ArrayList<>();
+        for (String word : words) {
+            if (word == null) {
+                continue;
+            }
+            int[] symbols = normalize(word.trim());
+            // Single characters would match nearly everything
+            if (symbols.length >= 2 && unique.add(Arrays.toString(symbols))) {
+                normalized.add(symbols);
+            }
+        }
+        return normalized.isEmpty() ? EMPTY : new ProfanityFilter(normalized);
+    }
+
+    /**
+     * Load a word list file (one term per line, '#' starts a comment) plus extra words
+     */
+    public static ProfanityFilter load(File file, Collection<String> extraWords) throws IOException {
+        List<String> words = new ArrayList<>(extraWords);
+        if (file != null && file.exists()) {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    String word = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                    if (!word.isEmpty()) {
+                        words.add(word);
+                    }
+                }
+            }
+        }
+        return compile(words);
+    }
+
+    // ========================================
+    // SCANNING
+    // ========================================
+
+    /**
+     * Check whether the text contains any blocked word
+     */
+    public boolean matches(CharSequence text) {
+        if (wordCount == 0 || text == null) {
+            return false;
+        }
+        int state = 0;
+        int previous = SKIP;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            int symbol = symbolOf(text.charAt(i));
+            if (symbol == SKIP || symbol == previous) {
+                continue;
+            }
+            previous = symbol;
+            state = delta[state * ALPHABET + symbol];
+            if (matchLength[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Report every match (longest word per end position) with original positions
+     *
+     * @return number of matches reported
+     */
+    public int scan(CharSequence text, MatchHandler handler) {
+        if (wordCount == 0 || text == null) {
+            return 0;
+        }
+        int[] ring = positions.get();
+        int mask = ring.length - 1;
+
+        int state = 0;
+        int previous = SKIP;
+        int normalizedIndex = 0;
+        int found = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            int symbol = symbolOf(text.charAt(i));
+            if (symbol == SKIP || symbol == previous) {
+                continue;
+            }
+            previous = symbol;
+            ring[normalizedIndex & mask] = i;
+            state = delta[state * ALPHABET + symbol];
+
+            int length = matchLength[state];
+            if (length > 0) {
+                int start = ring[(normalizedIndex - length + 1) & mask];
+                handler.onMatch(start, i + 1);
+                found++;
+            }
+            normalizedIndex++;
+        }
+        return found;
+    }
+
+    /**
+     * Replace the letters of every blocked word with the mask character
+     * (whitespace inside a match is preserved)
+     */
+    public String mask(String text, char maskChar) {
+        if (wordCount == 0 || text == null) {
+            return text;
+        }
+        char[][] result = new char[1][];
+        scan(text, (start, end) -> {
+            if (result[0] == null) {
+                result[0] = text.toCharArray();
+            }
+            for (int i = start; i < end; i++) {
+                if (!Character.isWhitespace(result[0][i])) {
+                    result[0][i] = maskChar;
+                }
+            }
+        });
+        return result[0] == null ? text : new String(result[0]);
+    }
+
+    public int getWordCount() { return wordCount; }
+    public int getStateCount() { return matchLength.length; }
+    public int getMaxWordLength() { return maxLength; }
+
+    // ========================================
+    // NORMALIZATION
+    // ========================================
+
+    /**
+     * Map a character to its alphabet symbol, SPACE for whitespace, or SKIP
+     * for punctuation/unknown
+     */
+    static int symbolOf(char c) {
+        if (c >= FOLD.length) {
+            return Character.isWhitespace(c) || Character.isSpaceChar(c) ? SPACE : SKIP;
+        }
+        char folded = FOLD[c];
+        if (folded == ' ') {
+            return SPACE;
+        }
+        return folded >= 'a' && folded <= 'z' ? folded - 'a' : SKIP;
+    }
+
+    private static int[] normalize(String word) {
+        int[] symbols = new int[word.length()];
+        int count = 0;
+        int previous = SKIP;
+        for (int i = 0; i < word.length(); i++) {
+            int symbol = symbolOf(word.charAt(i));
+            if (symbol == SKIP || symbol == previous || (symbol == SPACE && count == 0)) {
+                continue;
+            }
+            symbols[count++] = symbol;
+            previous = symbol;
+        }
+        // A trailing boundary would only match when followed by another word
+        while (count > 0 && symbols[count - 1] == SPACE) {
+            count--;
+        }
+        return Arrays.copyOf(symbols, count);
+    }
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[0x180]; // Basic Latin, Latin-1, Latin Extended-A
+        for (char c = 0; c < table.length; c++) {
+            table[c] = Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : 0;
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                table[c] = ' ';
+            }
+        }
+
+        fold(table, "àáâãäåāăą", 'a');
+        fold(table, "ÀÁÂÃÄÅĀĂĄ", 'a');
+        fold(table, "çćĉċč", 'c');
+        fold(table, "ÇĆĈĊČ", 'c');
+        fold(table, "èéêëēĕėęě", 'e');
+        fold(table, "ÈÉÊËĒĔĖĘĚ", 'e');
+        fold(table, "ìíîïĩīĭįı", 'i');
+        fold(table, "ÌÍÎÏĨĪĬĮİ", 'i');
+        fold(table, "ñńņňŉ", 'n');
+        fold(table, "ÑŃŅŇ", 'n');
+        fold(table, "òóôõöøōŏő", 'o');
+        fold(table, "ÒÓÔÕÖØŌŎŐ", 'o');
+        fold(table, "ùúûüũūŭůűų", 'u');
+        fold(table, "ÙÚÛÜŨŪŬŮŰŲ", 'u');
+        fold(table, "ýÿ", 'y');
+        fold(table, "Ý", 'y');
+        fold(table, "śŝşš", 's');
+        fold(table, "ŚŜŞŠ", 's');
+        fold(table, "źżž", 'z');
+        fold(table, "ŹŻŽ", 'z');
+
+        // Leetspeak
+        table['4'] = 'a';
+        table['@'] = 'a';
+        table['8'] = 'b';
+        table['3'] = 'e';
+        table['6'] = 'g';
+        table['9'] = 'g';
+        table['1'] = 'i';
+        table['!'] = 'i';
+        table['|'] = 'l';
+        table['0'] = 'o';
+        table['5'] = 's';
+        table['$'] = 's';
+        table['7'] = 't';
+        table['+'] = 't';
+        table['2'] = 'z';
+        return table;
+    }
+
+    private static void fold(char[] table, String from, char to) {
+        for (int i = 0; i < from.length(); i++) {
+            char c = from.charAt(i);
+            if (c < table.length) {
+                table[c] = to;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.nexus.utils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * UuidCodec - UUIDs as 16 big-endian bytes (BINARY(16) / BLOB)
+ *
+ * The binary form is the most significant long followed by the least
+ * significant long, so byte order matches the order of the canonical text
+ * form. Readers go through {@link #read}, which accepts either encoding and
+ * therefore works on text, binary and mid-migration columns alike.
+ *
+ * @author Nexus Development Team
+ */
+public final class UuidCodec {
+
+    public static final int BYTES = 16;
+
+    private UuidCodec() {
+    }
+
+    // ========================================
+    // BINARY
+    // ========================================
+
+    public static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[BYTES];
+        write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), bytes, 0);
+        return bytes;
+    }
+
+    public static void write(long most, long least, byte[] out, int offset) {
+        for (int i = 7; i >= 0; i--) {
+            out[offset + i] = (byte) most;
+            most >>>= 8;
+        }
+        for (int i = 15; i >= 8; i--) {
+            out[offset + i] = (byte) least;
+            least >>>= 8;
+        }
+    }
+
+    public static long mostBits(byte[] bytes, int offset) {
+        long value = 0L;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    public static long leastBits(byte[] bytes, int offset) {
+        return mostBits(bytes, offset + 8);
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes.length != BYTES) {
+            throw new IllegalArgumentException("Binary UUID must be 16 bytes, was " + bytes.length);
+        }
+        return new UUID(mostBits(bytes, 0), leastBits(bytes, 0));
+    }
+
+    // ========================================
+    // TEXT
+    // ========================================
+
+    /**
+     * Parse a UUID, with a fast path for the canonical 36-character form
+     */
+    public static UUID parse(String text) {
+        if (text.length() != 36 || text.charAt(8) != '-' || text.charAt(13) != '-'
+                || text.charAt(18) != '-' || text.charAt(23) != '-') {
+            return UUID.fromString(text);
+        }
+        long most = (hex(text, 0, 8) << 32) | (hex(text, 9, 13) << 16) | hex(text, 14, 18);
+        long least = (hex(text, 19, 23) << 48) | hex(text, 24, 36);
+        return new UUID(most, least);
+    }
+
+    private static long hex(String text, int from, int to) {
+        long value = 0L;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid UUID: " + text);
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    // ========================================
+    // JDBC
+    // ========================================
+
+    /**
+     * Read a UUID column stored either as text or as 16 bytes (null-safe)
+     */
+    public static UUID read(ResultSet rs, String column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[] bytes) {
+            return fromBytes(bytes);
+        }
+        return parse(value.toString());
+    }
+
+    /**
+     * Bind a UUID as text or as 16 bytes (null-safe)
+     */
+    public static void bind(PreparedStatement stmt, int index, UUID uuid, boolean binary) throws SQLException {
+        if (uuid == null) {
+            stmt.setNull(index, binary ? Types.BINARY : Types.VARCHAR);
+        } else if (binary) {
+            stmt.setBytes(index, toBytes(uuid));
+        } else {
+            stmt.setString(index, uuid.toString());
+        }
+    }
+}
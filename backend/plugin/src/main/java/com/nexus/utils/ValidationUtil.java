@@ -18,6 +18,9 @@ public class ValidationUtil {
     private static final Pattern GUILD_NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_]{3,16}$");
     private static final Pattern PLAYER_NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_]{3,16}$");
     
+    // Word filter (replaced atomically on reload)
+    private static volatile ProfanityFilter profanityFilter = ProfanityFilter.EMPTY;
+    
     // Money limits
     private static final double MIN_MONEY = 0.01;
     private static final double MAX_MONEY = 999999999.99;
@@ -98,28 +101,32 @@ public class ValidationUtil {
     
     /**
      * Check if a string contains profanity or inappropriate words
-     * (Basic implementation - should be expanded with a proper word list)
+     * (single linear scan; see {@link ProfanityFilter} for normalization rules)
      */
     public static boolean containsProfanity(String text) {
         if (text == null || text.isEmpty()) {
             return false;
         }
         
-        String lower = text.toLowerCase();
-        
-        // Basic profanity filter (expand this list as needed)
-        String[] badWords = {
-            // Add your server's blacklisted words here
-            // This is just a placeholder example
-        };
-        
-        for (String badWord : badWords) {
-            if (lower.contains(badWord)) {
-                return true;
-            }
-        }
-        
-        return false;
+        return profanityFilter.matches(text);
+    }
+    
+    /**
+     * Mask blocked words in a string (e.g. chat or market listings)
+     */
+    public static String maskProfanity(String text) {
+        return profanityFilter.mask(text, '*');
+    }
+    
+    /**
+     * Install the compiled word filter (called on load and config reload)
+     */
+    public static void setProfanityFilter(ProfanityFilter filter) {
+        profanityFilter = filter != null ? filter : ProfanityFilter.EMPTY;
+    }
+    
+    public static ProfanityFilter getProfanityFilter() {
+        return profanityFilter;
     }
     
     /**
@@ -0,0 +1,150 @@
+package com.nexus.services;
+
+import com.nexus.models.AuditEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AuditHotWindowTest - Keyset paging, filters and eviction of the in-memory window
+ *
+ * @author Nexus Development Team
+ */
+class AuditHotWindowTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final UUID ALICE = new UUID(1, 1);
+    private static final UUID BOB = new UUID(2, 2);
+
+    @Test
+    void pagesCoverEveryEventOnceNewestFirst() {
+        AuditHotWindow window = new AuditHotWindow(1000, HOUR);
+        long now = System.currentTimeMillis();
+        append(window, 95, i -> i % 2 == 0 ? ALICE : BOB, i -> AuditEvent.EventType.PLAYER_JOIN, now);
+
+        List<AuditEvent> all = new ArrayList<>();
+        long before = Long.MAX_VALUE;
+        int pages = 0;
+        while (true) {
+            List<AuditEvent> page = new ArrayList<>();
+            long last = window.query(null, -1L, 0, Long.MAX_VALUE, before, 10, page);
+            all.addAll(page);
+            pages++;
+            if (last < 0) {
+                break;
+            }
+            // The cursor is the sequence of the last event returned
+            assertEquals(page.get(page.size() - 1).getId(), last);
+            before = last;
+        }
+
+        assertEquals(10, pages);
+        assertEquals(95, all.size());
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            assertTrue(ids.add(all.get(i).getId()));
+            if (i > 0) {
+                assertTrue(all.get(i).getId() < all.get(i - 1).getId());
+            }
+        }
+    }
+
+    @Test
+    void exactlyFullLastPageStillEndsWithAnEmptyOne() {
+        AuditHotWindow window = new AuditHotWindow(100, HOUR);
+        append(window, 20, i -> ALICE, i -> AuditEvent.EventType.PLAYER_JOIN, System.currentTimeMillis());
+
+        List<AuditEvent> page = new ArrayList<>();
+        long last = window.query(null, -1L, 0, Long.MAX_VALUE, Long.MAX_VALUE, 20, page);
+        assertEquals(20, page.size());
+
+        page.clear();
+        assertEquals(-1, window.query(null, -1L, 0, Long.MAX_VALUE, last, 20, page));
+        assertTrue(page.isEmpty());
+    }
+
+    @Test
+    void filtersByPlayerTypeAndTimeRange() {
+        AuditHotWindow window = new AuditHotWindow(1000, HOUR);
+        long now = System.currentTimeMillis();
+        append(window, 60, i -> i % 3 == 0 ? ALICE : BOB,
+            i -> i % 2 == 0 ? AuditEvent.EventType.PLAYER_JOIN : AuditEvent.EventType.PLAYER_QUIT, now);
+
+        List<AuditEvent> out = new ArrayList<>();
+        long joinMask = 1L << AuditEvent.EventType.PLAYER_JOIN.ordinal();
+        window.query(ALICE, joinMask, 0, Long.MAX_VALUE, Long.MAX_VALUE, 100, out);
+        assertEquals(10, out.size()); // i % 6 == 0
+        for (AuditEvent event : out) {
+            assertEquals(ALICE, event.getPlayerUUID());
+            assertEquals(AuditEvent.EventType.PLAYER_JOIN, event.getEventType());
+        }
+
+        // Event i has timestamp now - 60 + i: [now - 50, now - 40) holds i = 10..19
+        out.clear();
+        window.query(null, -1L, now - 50, now - 40, Long.MAX_VALUE, 100, out);
+        assertEquals(10, out.size());
+        assertEquals(now - 41, out.get(0).getTimestamp());
+        assertEquals(now - 50, out.get(9).getTimestamp());
+    }
+
+    @Test
+    void fullRingKeepsNewestAndMovesCoverage() {
+        AuditHotWindow window = new AuditHotWindow(8, HOUR);
+        // Ahead of the window's creation time, so coverage is set by the oldest event held
+        long now = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        append(window, 20, i -> null, i -> AuditEvent.EventType.PLAYER_JOIN, now);
+
+        assertEquals(8, window.size());
+        List<AuditEvent> out = new ArrayList<>();
+        assertEquals(-1, window.query(null, -1L, 0, Long.MAX_VALUE, Long.MAX_VALUE, 100, out));
+        assertEquals(8, out.size());
+        assertEquals(19, out.get(0).getId());
+        assertEquals(12, out.get(7).getId());
+        assertNull(out.get(0).getPlayerUUID());
+        // Event 12 is the oldest held: the window is complete only after it
+        assertEquals(now - 20 + 12 + 1, window.coverageStart());
+    }
+
+    @Test
+    void expiredEventsAreEvicted() {
+        AuditHotWindow window = new AuditHotWindow(100, HOUR);
+        long now = System.currentTimeMillis();
+        AuditRingBuffer.Batch batch = new AuditRingBuffer.Batch(2);
+        batch.timestamps[0] = now - 2 * HOUR;
+        batch.timestamps[1] = now;
+        batch.size = 2;
+        window.append(batch, 0, 2);
+
+        assertEquals(1, window.size());
+        List<AuditEvent> out = new ArrayList<>();
+        window.query(null, -1L, 0, Long.MAX_VALUE, Long.MAX_VALUE, 10, out);
+        assertEquals(1, out.size());
+        assertEquals(now, out.get(0).getTimestamp());
+    }
+
+    /**
+     * Append count events; event i has timestamp now - count + i
+     */
+    private static void append(AuditHotWindow window, int count, IntFunction<UUID> player,
+                               IntFunction<AuditEvent.EventType> type, long now) {
+        AuditRingBuffer.Batch batch = new AuditRingBuffer.Batch(count);
+        for (int i = 0; i < count; i++) {
+            batch.players[i] = player.apply(i);
+            batch.types[i] = type.apply(i).ordinal();
+            batch.timestamps[i] = now - count + i;
+            batch.details[i] = "e" + i;
+        }
+        batch.size = count;
+        window.append(batch, 0, count);
+    }
+}
@@ -0,0 +1,156 @@
+package com.nexus.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AuditRingBufferTest - Capacity, drain order and multi-producer hand-off
+ *
+ * @author Nexus Development Team
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(4, new AuditRingBuffer(1).capacity());
+        assertEquals(8, new AuditRingBuffer(8).capacity());
+        assertEquals(16, new AuditRingBuffer(9).capacity());
+        assertEquals(1024, new AuditRingBuffer(1000).capacity());
+    }
+
+    @Test
+    void drainsInPublishOrderWithAllFields() {
+        AuditRingBuffer buffer = new AuditRingBuffer(8);
+        UUID player = UUID.randomUUID();
+        assertTrue(buffer.tryPublish(player, 3, "a", "1.2.3.4", 100L));
+        assertTrue(buffer.tryPublish(null, 4, null, null, 200L));
+
+        AuditRingBuffer.Batch batch = new AuditRingBuffer.Batch(8);
+        assertEquals(2, buffer.drainTo(batch, 8));
+
+        assertEquals(2, batch.size);
+        assertEquals(player, batch.players[0]);
+        assertEquals(3, batch.types[0]);
+        assertEquals("a", batch.details[0]);
+        assertEquals("1.2.3.4", batch.addresses[0]);
+        assertEquals(100L, batch.timestamps[0]);
+        assertNull(batch.players[1]);
+        assertEquals(200L, batch.timestamps[1]);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void refusesWhenFullAndAcceptsAgainAfterDrain() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.tryPublish(null, 0, null, null, i));
+        }
+        assertFalse(buffer.tryPublish(null, 0, null, null, 4));
+        assertEquals(4, buffer.size());
+
+        AuditRingBuffer.Batch batch = new AuditRingBuffer.Batch(2);
+        assertEquals(2, buffer.drainTo(batch, 10));
+        assertTrue(buffer.tryPublish(null, 0, null, null, 4));
+        assertTrue(buffer.tryPublish(null, 0, null, null, 5));
+        assertFalse(buffer.tryPublish(null, 0, null, null, 6));
+    }
+
+    @Test
+    void drainStopsAtMaxAndBatchCapacity() {
+        AuditRingBuffer buffer = new AuditRingBuffer(16);
+        for (int i = 0; i < 10; i++) {
+            buffer.tryPublish(null, 0, null, null, i);
+        }
+
+        AuditRingBuffer.Batch batch = new AuditRingBuffer.Batch(6);
+        assertEquals(3, buffer.drainTo(batch, 3));
+        assertEquals(3, buffer.drainTo(batch, 10)); // Batch full at 6
+        assertEquals(0, buffer.drainTo(batch, 10));
+        assertArrayEquals(new long[] {0, 1, 2, 3, 4, 5}, batch.timestamps);
+
+        batch.clear();
+        assertEquals(4, buffer.drainTo(batch, 10));
+        assertEquals(6L, batch.timestamps[0]);
+        assertEquals(9L, batch.timestamps[3]);
+    }
+
+    @Test
+    void wrapsAroundTheRing() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        AuditRingBuffer.Batch batch = new AuditRingBuffer.Batch(4);
+        for (long round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(buffer.tryPublish(null, 0, null, null, round * 3 + i));
+            }
+            batch.clear();
+            assertEquals(3, buffer.drainTo(batch, 4));
+            assertEquals(round * 3, batch.timestamps[0]);
+            assertEquals(round * 3 + 2, batch.timestamps[2]);
+        }
+    }
+
+    @Test
+    void singleConsumerSeesEveryEventOnceAcrossProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        AuditRingBuffer buffer = new AuditRingBuffer(1024);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    // Timestamp encodes producer and per-producer sequence
+                    while (!buffer.tryPublish(null, producer, null, null, (long) producer * perProducer + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] nextPerProducer = new long[producers];
+        AuditRingBuffer.Batch batch = new AuditRingBuffer.Batch(256);
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        start.countDown();
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, batch.capacity());
+            for (int i = 0; i < batch.size; i++) {
+                int producer = batch.types[i];
+                // Each producer's events arrive in the order it published them
+                assertEquals((long) producer * perProducer + nextPerProducer[producer], batch.timestamps[i]);
+                nextPerProducer[producer]++;
+            }
+            received += batch.size;
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        assertEquals(producers * perProducer, received);
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, nextPerProducer[p]);
+        }
+        assertEquals(0, buffer.size());
+    }
+}
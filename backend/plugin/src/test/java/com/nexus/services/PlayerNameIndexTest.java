@@ -0,0 +1,198 @@
+package com.nexus.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PlayerNameIndexTest - Name packing, ordering, lookups and prefix completion
+ *
+ * The index is built without a plugin: puts stay in the overlay until
+ * compact() moves them into the arrays, as the async task would.
+ *
+ * @author Nexus Development Team
+ */
+class PlayerNameIndexTest {
+
+    private static final String CHARS = " -.0123456789_abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Test
+    void packingRoundTripsAndKeepsCase() {
+        for (String name : List.of("a", "Notch", "jeb_", "x.Y-z 9", "ABCDEFGHIJKLMNOP", "abcdefghij", "abcdefghijK")) {
+            assertTrue(PlayerNameIndex.packable(name));
+            assertEquals(name, PlayerNameIndex.unpack(PlayerNameIndex.packHi(name), PlayerNameIndex.packLo(name)));
+        }
+    }
+
+    @Test
+    void unpackableNames() {
+        assertFalse(PlayerNameIndex.packable("abcdefghijklmnopq"));
+        assertFalse(PlayerNameIndex.packable("Jöns"));
+        assertFalse(PlayerNameIndex.packable("a+b"));
+        assertTrue(PlayerNameIndex.packable(""));
+    }
+
+    @Test
+    void packedOrderMatchesLowerCaseStringOrder() {
+        Random random = new Random(3);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            names.add(randomName(random));
+        }
+        names.add("ab");
+        names.add("abc");
+        names.add("ab ");
+
+        List<String> byText = new ArrayList<>(names);
+        byText.sort(Comparator.comparing(name -> name.toLowerCase(Locale.ROOT)));
+        List<String> byPacked = new ArrayList<>(names);
+        byPacked.sort((a, b) -> PlayerNameIndex.compare(PlayerNameIndex.packHi(a), PlayerNameIndex.packLo(a),
+            PlayerNameIndex.packHi(b), PlayerNameIndex.packLo(b)));
+
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(byText.get(i).toLowerCase(Locale.ROOT), byPacked.get(i).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Test
+    void compareIgnoresCase() {
+        String lower = "steve";
+        String upper = "STEVE";
+        assertEquals(0, PlayerNameIndex.compare(PlayerNameIndex.packHi(lower), PlayerNameIndex.packLo(lower),
+            PlayerNameIndex.packHi(upper), PlayerNameIndex.packLo(upper)));
+    }
+
+    @Test
+    void resolvesFromArraysAndOverlayIgnoringCase() {
+        PlayerNameIndex index = new PlayerNameIndex(null);
+        UUID steve = new UUID(0, 1);
+        UUID alex = new UUID(0, 2);
+        index.put(steve, "Steve");
+        index.compact();
+        index.put(alex, "Alex");
+
+        assertEquals(1, index.getOverlaySize());
+        assertEquals(2, index.size());
+        assertEquals(steve, index.resolve("steve"));
+        assertEquals(steve, index.resolve("STEVE"));
+        assertEquals(alex, index.resolve("aLEX"));
+        assertNull(index.resolve("Herobrine"));
+        assertNull(index.resolve(""));
+        assertNull(index.resolve(null));
+    }
+
+    @Test
+    void overlayWinsOverTheArrays() {
+        PlayerNameIndex index = new PlayerNameIndex(null);
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        index.put(first, "Steve");
+        index.compact();
+        index.put(second, "STEVE");
+
+        assertEquals(second, index.resolve("steve"));
+        assertEquals(List.of("STEVE"), index.complete("st", 10));
+
+        index.compact();
+        assertEquals(0, index.getOverlaySize());
+        assertEquals(second, index.resolve("Steve"));
+        assertEquals(List.of("STEVE"), index.complete("st", 10));
+    }
+
+    @Test
+    void completeMergesArraysAndOverlayInOrder() {
+        PlayerNameIndex index = new PlayerNameIndex(null);
+        String[] compacted = {"Bob", "bobby", "Carol", "Bo_", "alice"};
+        String[] pending = {"BOBCAT", "bob.x", "Bo", "Dave"};
+        long id = 0;
+        for (String name : compacted) {
+            index.put(new UUID(0, ++id), name);
+        }
+        index.compact();
+        for (String name : pending) {
+            index.put(new UUID(0, ++id), name);
+        }
+
+        assertEquals(List.of("Bo", "Bo_", "Bob", "bob.x", "bobby", "BOBCAT"), index.complete("bo", 10));
+        assertEquals(List.of("Bo", "Bo_", "Bob"), index.complete("BO", 3));
+        assertEquals(List.of("Bob", "bob.x", "bobby", "BOBCAT"), index.complete("bob", 10));
+        assertEquals(9, index.complete("", 100).size());
+        assertTrue(index.complete("zed", 10).isEmpty());
+    }
+
+    @Test
+    void unpackableNamesStayInTheOverlay() {
+        PlayerNameIndex index = new PlayerNameIndex(null);
+        UUID jons = new UUID(0, 1);
+        UUID longName = new UUID(0, 2);
+        index.put(jons, "Jöns");
+        index.put(longName, "abcdefghijklmnopq");
+        index.put(new UUID(0, 3), "Jonas");
+        index.compact();
+
+        assertEquals(2, index.getOverlaySize());
+        assertEquals(jons, index.resolve("JÖNS"));
+        assertEquals(longName, index.resolve("ABCDEFGHIJKLMNOPQ"));
+        assertEquals(List.of("Jonas", "Jöns"), index.complete("j", 10));
+        assertEquals(List.of("abcdefghijklmnopq"), index.complete("abc", 10));
+    }
+
+    @Test
+    void compactingManyNamesKeepsEveryOne() {
+        PlayerNameIndex index = new PlayerNameIndex(null);
+        Random random = new Random(5);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            String name = randomName(random);
+            if (index.resolve(name) == null) {
+                names.add(name);
+                index.put(new UUID(1, i), name);
+            }
+            if (i % 1_000 == 999) {
+                index.compact();
+            }
+        }
+
+        assertEquals(names.size(), index.size());
+        assertEquals(32L * names.size(), index.getMemoryBytes());
+        for (int i = 0; i < names.size(); i++) {
+            assertNotNull(index.resolve(names.get(i).toUpperCase(Locale.ROOT)), names.get(i));
+        }
+        List<String> sorted = new ArrayList<>(names);
+        sorted.sort(Comparator.comparing(name -> name.toLowerCase(Locale.ROOT)));
+        assertEquals(sorted, index.complete("", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void renameBeforeTheScanKeepsTheOldNameUntilReplayed() {
+        // Without the scan the old name cannot be hidden yet: it is queued and the new one resolves
+        PlayerNameIndex index = new PlayerNameIndex(null);
+        UUID uuid = new UUID(0, 1);
+        index.put(uuid, "OldName");
+        index.rename(uuid, "OldName", "NewName");
+
+        assertFalse(index.isLoaded());
+        assertEquals(uuid, index.resolve("newname"));
+        assertEquals(uuid, index.resolve("oldname"));
+    }
+
+    private static String randomName(Random random) {
+        int length = 1 + random.nextInt(16);
+        StringBuilder name = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            name.append(CHARS.charAt(random.nextInt(CHARS.length())));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.nexus.services;
+
+import com.nexus.models.Transaction;
+import com.nexus.utils.UuidCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TransactionHistoryServiceTest - Keyset paging of the statement query on SQLite
+ *
+ * @author Nexus Development Team
+ */
+class TransactionHistoryServiceTest {
+
+    private static final UUID PLAYER = new UUID(10, 10);
+    private static final UUID OTHER = new UUID(20, 20);
+    private static final UUID STRANGER = new UUID(30, 30);
+
+    private Connection conn;
+
+    /**
+     * A row as inserted, for the expected order
+     */
+    private record Row(long id, UUID from, UUID to, long timestamp) {}
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE nexus_transactions (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "from_uuid VARCHAR(36), to_uuid VARCHAR(36), from_uuid_bin BLOB, to_uuid_bin BLOB, " +
+                "amount DECIMAL(15,2) NOT NULL, type VARCHAR(30) NOT NULL, reason TEXT, timestamp BIGINT)");
+        }
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void pagesVisitEveryRowOnceWithTiedTimestamps() throws SQLException {
+        List<Row> expected = insertHistory();
+        assertEquals(expected, readAll(false));
+    }
+
+    @Test
+    void binaryColumnsPageTheSameWay() throws SQLException {
+        List<Row> expected = insertHistory();
+        assertEquals(expected, readAll(true));
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws SQLException {
+        for (int i = 0; i < TransactionHistoryService.PAGE_SIZE; i++) {
+            insert(PLAYER, OTHER, 1000L + i);
+        }
+
+        TransactionHistoryService.Page page = TransactionHistoryService.readPage(conn, PLAYER, null, false);
+        assertEquals(TransactionHistoryService.PAGE_SIZE, page.entries().size());
+        assertFalse(page.hasMore());
+        assertNull(page.next());
+
+        insert(OTHER, PLAYER, 999L);
+        page = TransactionHistoryService.readPage(conn, PLAYER, null, false);
+        assertTrue(page.hasMore());
+        TransactionHistoryService.Page rest = TransactionHistoryService.readPage(conn, PLAYER, page.next(), false);
+        assertEquals(1, rest.entries().size());
+        assertFalse(rest.hasMore());
+    }
+
+    @Test
+    void entriesAreSignedFromThePlayersSide() throws SQLException {
+        insert(PLAYER, OTHER, 1000L);
+        insert(OTHER, PLAYER, 1001L);
+        insert(null, PLAYER, 1002L);
+        insert(PLAYER, PLAYER, 1003L);
+
+        List<TransactionHistoryService.Entry> entries =
+            TransactionHistoryService.readPage(conn, PLAYER, null, false).entries();
+
+        // A transfer to oneself is listed once
+        assertEquals(4, entries.size());
+        assertEquals(1003L, entries.get(0).timestamp());
+        assertEquals(1250L, entries.get(0).amountCents());
+        assertEquals(1250L, entries.get(1).amountCents());
+        assertNull(entries.get(1).counterparty());
+        assertEquals(1250L, entries.get(2).amountCents());
+        assertEquals(OTHER, entries.get(2).counterparty());
+        assertEquals(-1250L, entries.get(3).amountCents());
+        assertEquals(OTHER, entries.get(3).counterparty());
+        assertEquals(Transaction.Type.PLAYER_TO_PLAYER, entries.get(3).type());
+    }
+
+    /**
+     * Player rows sent and received with many equal timestamps, between rows of other players
+     */
+    private List<Row> insertHistory() throws SQLException {
+        Random random = new Random(42);
+        List<Row> mine = new ArrayList<>();
+        for (int i = 0; i < 137; i++) {
+            long timestamp = 1_000L + random.nextInt(20);
+            int kind = random.nextInt(4);
+            UUID from = kind == 0 ? PLAYER : kind == 1 ? OTHER : kind == 2 ? null : STRANGER;
+            UUID to = kind == 0 ? OTHER : kind == 3 ? OTHER : PLAYER;
+            long id = insert(from, to, timestamp);
+            if (PLAYER.equals(from) || PLAYER.equals(to)) {
+                mine.add(new Row(id, from, to, timestamp));
+            }
+        }
+        mine.sort(Comparator.comparingLong(Row::timestamp).thenComparingLong(Row::id).reversed());
+        return mine;
+    }
+
+    private List<Row> readAll(boolean binary) throws SQLException {
+        List<Row> rows = new ArrayList<>();
+        TransactionHistoryService.Cursor cursor = null;
+        do {
+            TransactionHistoryService.Page page = TransactionHistoryService.readPage(conn, PLAYER, cursor, binary);
+            assertTrue(page.entries().size() <= TransactionHistoryService.PAGE_SIZE);
+            for (TransactionHistoryService.Entry entry : page.entries()) {
+                UUID from = entry.isIncoming() ? entry.counterparty() : PLAYER;
+                UUID to = entry.isIncoming() ? PLAYER : entry.counterparty();
+                rows.add(new Row(entry.id(), from, to, entry.timestamp()));
+            }
+            cursor = page.next();
+        } while (cursor != null);
+        return rows;
+    }
+
+    private long insert(UUID from, UUID to, long timestamp) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO nexus_transactions " +
+                "(from_uuid, to_uuid, from_uuid_bin, to_uuid_bin, amount, type, reason, timestamp) " +
+                "VALUES (?, ?, ?, ?, 12.50, 'PLAYER_TO_PLAYER', NULL, ?)")) {
+            UuidCodec.bind(stmt, 1, from, false);
+            UuidCodec.bind(stmt, 2, to, false);
+            UuidCodec.bind(stmt, 3, from, true);
+            UuidCodec.bind(stmt, 4, to, true);
+            stmt.setLong(5, timestamp);
+            stmt.executeUpdate();
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet keys = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.nexus.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HistogramTest - Bucket bounds, percentile ranks and concurrent recording
+ *
+ * @author Nexus Development Team
+ */
+class HistogramTest {
+
+    private static final long HUGE = 1L << 41;
+
+    @Test
+    void emptyHistogramReportsZero() {
+        Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.percentile(0.99));
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.count());
+        assertEquals(0.0, snapshot.mean());
+        assertEquals(0, snapshot.max());
+    }
+
+    @Test
+    void valuesBelowSixteenAreExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 0; value < 16; value++) {
+            histogram.record(value);
+        }
+
+        for (int rank = 1; rank <= 16; rank++) {
+            assertEquals(rank - 1, histogram.percentile(rank / 16.0));
+        }
+    }
+
+    @Test
+    void bucketUpperBoundIsWithinOneEighthAboveTheValue() {
+        List<Long> values = new ArrayList<>();
+        for (long value = 16; value < 5_000; value++) {
+            values.add(value);
+        }
+        for (int msb = 12; msb < 40; msb++) {
+            long base = 1L << msb;
+            values.add(base);
+            values.add(base + base / 8 - 1);
+            values.add(base + base / 8);
+            values.add(2 * base - 1);
+        }
+
+        for (long value : values) {
+            Histogram histogram = new Histogram();
+            histogram.record(value);
+            // A larger maximum keeps percentile() from clamping the bound to the value itself
+            histogram.record(HUGE);
+            long bound = histogram.percentile(0.5);
+            assertTrue(bound >= value, "bound " + bound + " below " + value);
+            assertTrue(bound - value <= value / 8, "bound " + bound + " too far above " + value);
+        }
+    }
+
+    @Test
+    void neighbouringSubBucketsDoNotOverlap() {
+        // 32..35 share a sub-bucket (width 4 above 32), 36 starts the next
+        Histogram histogram = new Histogram();
+        histogram.record(32);
+        histogram.record(HUGE);
+        assertEquals(35, histogram.percentile(0.5));
+
+        histogram = new Histogram();
+        histogram.record(36);
+        histogram.record(HUGE);
+        assertEquals(39, histogram.percentile(0.5));
+    }
+
+    @Test
+    void percentileNeverExceedsMax() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_000);
+
+        assertEquals(1_000, histogram.percentile(0.5));
+        assertEquals(1_000, histogram.percentile(1.0));
+    }
+
+    @Test
+    void largeValuesClampIntoTheLastBucket() {
+        Histogram histogram = new Histogram();
+        histogram.record(1L << 50);
+
+        assertEquals(HUGE - 1, histogram.percentile(1.0));
+        assertEquals(1L << 50, histogram.snapshot().max());
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.percentile(1.0));
+        assertEquals(0.0, histogram.snapshot().mean());
+    }
+
+    @Test
+    void percentilesFollowRanks() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value < 100 ? 1 : 10_000);
+        }
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.count());
+        assertEquals(1, snapshot.p50());
+        assertEquals(1, snapshot.p99());
+        assertEquals(10_000, histogram.percentile(1.0));
+        assertEquals((99 + 10_000) / 100.0, snapshot.mean(), 1e-9);
+    }
+
+    @Test
+    void resetClearsEverything() {
+        Histogram histogram = new Histogram();
+        histogram.record(5);
+        histogram.record(500);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(1.0));
+        assertEquals(0, histogram.snapshot().max());
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        int threads = 4;
+        int perThread = 100_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(offset * 1_000L + i % 1_000);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals((long) threads * perThread, snapshot.count());
+        assertEquals(3_999, snapshot.max());
+        assertEquals(1_999.5, snapshot.mean(), 1e-9);
+    }
+}
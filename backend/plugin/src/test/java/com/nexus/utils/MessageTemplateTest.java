@@ -0,0 +1,105 @@
+package com.nexus.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MessageTemplateTest - Placeholder compilation and rendering
+ *
+ * @author Nexus Development Team
+ */
+class MessageTemplateTest {
+
+    @Test
+    void rendersSlotsInOrderOfFirstAppearance() {
+        MessageTemplate template = MessageTemplate.compile("%player% pagou %amount% a %target%");
+
+        assertEquals(3, template.getSlotCount());
+        assertEquals(0, template.slot("player"));
+        assertEquals(1, template.slot("amount"));
+        assertEquals(2, template.slot("target"));
+        assertEquals("Ana pagou 10 a Bia", template.render("Ana", "10", "Bia"));
+    }
+
+    @Test
+    void repeatedPlaceholderSharesOneSlot() {
+        MessageTemplate template = MessageTemplate.compile("%name% e %name%");
+
+        assertEquals(1, template.getSlotCount());
+        assertEquals("Ana e Ana", template.render("Ana"));
+    }
+
+    @Test
+    void fixedParameterOrderKeepsUnknownPlaceholdersAsText() {
+        MessageTemplate template = MessageTemplate.compile("%b% %a% %c%", new String[] {"a", "b"});
+
+        assertEquals(2, template.getSlotCount());
+        assertEquals("2 1 %c%", template.render("1", "2"));
+        assertEquals(-1, template.slot("c"));
+    }
+
+    @Test
+    void unfilledSlotsKeepTheirPlaceholder() {
+        MessageTemplate template = MessageTemplate.compile("%a%-%b%");
+
+        assertEquals("x-%b%", template.render("x"));
+        assertEquals("%a%-y", template.render(null, "y"));
+        assertEquals("%a%-%b%", template.render((String[]) null));
+    }
+
+    @Test
+    void literalsAreColorizedButValuesAreNot() {
+        MessageTemplate template = MessageTemplate.compile("&aOlá %name%");
+
+        assertEquals("§aOlá &cAna", template.render("&cAna"));
+        assertEquals("§aOlá ".length(), template.getLiteralLength());
+    }
+
+    @Test
+    void messageWithoutPlaceholdersIsConstant() {
+        MessageTemplate template = MessageTemplate.compile("&7Sem parâmetros");
+
+        assertTrue(template.isConstant());
+        assertEquals(0, template.getSlotCount());
+        assertEquals("§7Sem parâmetros", template.render("ignored"));
+        assertEquals("§7Sem parâmetros", template.render(Map.of("x", "y")));
+    }
+
+    @Test
+    void loneOrInvalidPercentSignsAreLiteral() {
+        MessageTemplate template = MessageTemplate.compile("100% de %a b% e %%");
+
+        assertTrue(template.isConstant());
+        assertEquals("100% de %a b% e %%", template.render());
+    }
+
+    @Test
+    void nullOrEmptyRawCompilesToEmptyConstant() {
+        assertEquals("", MessageTemplate.compile(null).render());
+        assertEquals("", MessageTemplate.compile("").render());
+    }
+
+    @Test
+    void mapRenderingMatchesPositionalRendering() {
+        MessageTemplate template = MessageTemplate.compile("%a% %b%");
+
+        assertEquals("1 2", template.render(Map.of("a", "1", "b", "2")));
+        assertEquals("1 %b%", template.render(Map.of("a", "1")));
+        assertFalse(template.isConstant());
+    }
+
+    @Test
+    void renderToAppendsToExistingBuilder() {
+        MessageTemplate template = MessageTemplate.compile(" %x%!");
+        StringBuilder builder = new StringBuilder("[Nexus]");
+
+        template.renderTo(builder, "ok");
+
+        assertEquals("[Nexus] ok!", builder.toString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.nexus.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * UuidCodecTest - Binary and text round trips, ordering and JDBC binding
+ *
+ * @author Nexus Development Team
+ */
+class UuidCodecTest {
+
+    @Test
+    void bytesAreBigEndianMostThenLeast() {
+        UUID uuid = UUID.fromString("01234567-89ab-cdef-fedc-ba9876543210");
+        byte[] expected = {
+            0x01, 0x23, 0x45, 0x67, (byte) 0x89, (byte) 0xab, (byte) 0xcd, (byte) 0xef,
+            (byte) 0xfe, (byte) 0xdc, (byte) 0xba, (byte) 0x98, 0x76, 0x54, 0x32, 0x10
+        };
+
+        assertArrayEquals(expected, UuidCodec.toBytes(uuid));
+        assertEquals(uuid, UuidCodec.fromBytes(expected));
+    }
+
+    @Test
+    void writeAndReadAtAnOffset() {
+        UUID uuid = UUID.randomUUID();
+        byte[] buffer = new byte[40];
+        UuidCodec.write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), buffer, 20);
+
+        assertEquals(uuid.getMostSignificantBits(), UuidCodec.mostBits(buffer, 20));
+        assertEquals(uuid.getLeastSignificantBits(), UuidCodec.leastBits(buffer, 20));
+        assertEquals(0, buffer[19]);
+        assertEquals(0, buffer[36]);
+    }
+
+    @Test
+    void roundTripsRandomUuids() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            assertEquals(uuid, UuidCodec.fromBytes(UuidCodec.toBytes(uuid)));
+            assertEquals(uuid, UuidCodec.parse(uuid.toString()));
+            assertEquals(uuid, UuidCodec.parse(uuid.toString().toUpperCase()));
+        }
+    }
+
+    @Test
+    void byteOrderMatchesTextOrder() {
+        Random random = new Random(11);
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            uuids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        List<UUID> byText = new ArrayList<>(uuids);
+        byText.sort((a, b) -> a.toString().compareTo(b.toString()));
+        List<UUID> byBytes = new ArrayList<>(uuids);
+        byBytes.sort((a, b) -> Arrays.compareUnsigned(UuidCodec.toBytes(a), UuidCodec.toBytes(b)));
+
+        assertEquals(byText, byBytes);
+    }
+
+    @Test
+    void parseFallsBackForNonCanonicalText() {
+        assertEquals(UUID.fromString("1-2-3-4-5"), UuidCodec.parse("1-2-3-4-5"));
+        assertThrows(IllegalArgumentException.class, () -> UuidCodec.parse("0123456z-89ab-cdef-fedc-ba9876543210"));
+        assertThrows(IllegalArgumentException.class, () -> UuidCodec.parse("not a uuid"));
+    }
+
+    @Test
+    void fromBytesRejectsWrongLength() {
+        assertThrows(IllegalArgumentException.class, () -> UuidCodec.fromBytes(new byte[15]));
+    }
+
+    @Test
+    void bindAndReadEitherEncoding() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE t (id INTEGER, text_uuid VARCHAR(36), bin_uuid BLOB)");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO t VALUES (?, ?, ?)")) {
+                stmt.setInt(1, 1);
+                UuidCodec.bind(stmt, 2, uuid, false);
+                UuidCodec.bind(stmt, 3, uuid, true);
+                stmt.executeUpdate();
+                stmt.setInt(1, 2);
+                UuidCodec.bind(stmt, 2, null, false);
+                UuidCodec.bind(stmt, 3, null, true);
+                stmt.executeUpdate();
+            }
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT text_uuid, bin_uuid FROM t ORDER BY id")) {
+                rs.next();
+                assertEquals(uuid, UuidCodec.read(rs, "text_uuid"));
+                assertEquals(uuid, UuidCodec.read(rs, "bin_uuid"));
+                rs.next();
+                assertNull(UuidCodec.read(rs, "text_uuid"));
+                assertNull(UuidCodec.read(rs, "bin_uuid"));
+            }
+
+            // Lookups bind the same encoding the column was written with
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM t WHERE bin_uuid = ?")) {
+                UuidCodec.bind(stmt, 1, uuid, true);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    assertEquals(1, rs.getInt(1));
+                }
+            }
+        }
+    }
+}